@@ -3,8 +3,8 @@ package iudx.resource.server.apiserver;
 import static iudx.resource.server.apiserver.response.ResponseUtil.generateResponse;
 import static iudx.resource.server.apiserver.util.Constants.*;
 import static iudx.resource.server.apiserver.util.Util.errorResponse;
-import static iudx.resource.server.authenticator.Constants.ROLE;
 import static iudx.resource.server.cache.cachelmpl.CacheType.CATALOGUE_CACHE;
+import static iudx.resource.server.cache.cachelmpl.CacheType.CATALOGUE_ITEM;
 import static iudx.resource.server.common.Constants.CACHE_SERVICE_ADDRESS;
 import static iudx.resource.server.common.Constants.PG_SERVICE_ADDRESS;
 import static iudx.resource.server.common.HttpStatusCode.BAD_REQUEST;
@@ -12,18 +12,17 @@ import static iudx.resource.server.common.HttpStatusCode.NOT_FOUND;
 import static iudx.resource.server.common.HttpStatusCode.UNAUTHORIZED;
 import static iudx.resource.server.common.ResponseUrn.*;
 import static iudx.resource.server.database.archives.Constants.ITEM_TYPES;
-import static iudx.resource.server.metering.util.Constants.DELEGATOR_ID;
-import static iudx.resource.server.metering.util.Constants.EPOCH_TIME;
-import static iudx.resource.server.metering.util.Constants.ISO_TIME;
 import static iudx.resource.server.metering.util.Constants.PROVIDER_ID;
-import static iudx.resource.server.metering.util.Constants.TYPE_KEY;
 
 import io.netty.handler.codec.http.HttpConstants;
 import io.netty.handler.codec.http.QueryStringDecoder;
 import io.vertx.core.AbstractVerticle;
+import io.vertx.core.AsyncResult;
 import io.vertx.core.Future;
+import io.vertx.core.Handler;
 import io.vertx.core.MultiMap;
 import io.vertx.core.Promise;
+import io.vertx.core.WorkerExecutor;
 import io.vertx.core.http.HttpMethod;
 import io.vertx.core.http.HttpServer;
 import io.vertx.core.http.HttpServerOptions;
@@ -41,6 +40,7 @@ import io.vertx.ext.web.handler.CorsHandler;
 import io.vertx.ext.web.handler.TimeoutHandler;
 import iudx.resource.server.apiserver.exceptions.DxRuntimeException;
 import iudx.resource.server.apiserver.handlers.AuthHandler;
+import iudx.resource.server.apiserver.handlers.CatalogueItemHandler;
 import iudx.resource.server.apiserver.handlers.FailureHandler;
 import iudx.resource.server.apiserver.handlers.ValidationHandler;
 import iudx.resource.server.apiserver.management.ManagementApi;
@@ -49,23 +49,28 @@ import iudx.resource.server.apiserver.query.NgsildQueryParams;
 import iudx.resource.server.apiserver.query.QueryMapper;
 import iudx.resource.server.apiserver.response.ResponseType;
 import iudx.resource.server.apiserver.service.CatalogueService;
+import iudx.resource.server.apiserver.service.MeteringAuditor;
 import iudx.resource.server.apiserver.subscription.SubsType;
 import iudx.resource.server.apiserver.subscription.SubscriptionService;
 import iudx.resource.server.apiserver.util.RequestType;
 import iudx.resource.server.cache.CacheService;
+import iudx.resource.server.cache.NearCacheService;
 import iudx.resource.server.common.Api;
+import iudx.resource.server.common.CatalogueItem;
 import iudx.resource.server.common.HttpStatusCode;
 import iudx.resource.server.common.ResponseUrn;
 import iudx.resource.server.database.archives.DatabaseService;
+import iudx.resource.server.database.archives.StreamingSearchService;
+import iudx.resource.server.database.elastic.ElasticClient;
+import iudx.resource.server.database.elastic.IndexResolver;
 import iudx.resource.server.database.latest.LatestDataService;
 import iudx.resource.server.database.postgres.PostgresService;
 import iudx.resource.server.databroker.DataBrokerService;
 import iudx.resource.server.encryption.EncryptionService;
 import iudx.resource.server.metering.MeteringService;
-import java.time.ZoneId;
-import java.time.ZonedDateTime;
-import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -115,6 +120,7 @@ public class ApiServerVerticle extends AbstractVerticle {
   private SubscriptionService subsService;
   private CatalogueService catalogueService;
   private MeteringService meteringService;
+  private MeteringAuditor meteringAuditor;
   private DatabaseService database;
   private PostgresService postgresService;
   private DataBrokerService databroker;
@@ -124,6 +130,9 @@ public class ApiServerVerticle extends AbstractVerticle {
   private Api api;
   private LatestDataService latestDataService;
   private CacheService cacheService;
+  private StreamingSearchService streamingSearch;
+  private WorkerExecutor streamingSearchExecutor;
+  private int maxBulkIngestionRecords;
 
   /**
    * This method is used to start the Verticle. It deploys a verticle in a cluster, reads the
@@ -135,6 +144,8 @@ public class ApiServerVerticle extends AbstractVerticle {
   @Override
   public void start() throws Exception {
 
+    cacheService = NearCacheService.create(vertx, CACHE_SERVICE_ADDRESS, config());
+
     Set<String> allowedHeaders = new HashSet<>();
     allowedHeaders.add(HEADER_ACCEPT);
     allowedHeaders.add(HEADER_TOKEN);
@@ -163,6 +174,7 @@ public class ApiServerVerticle extends AbstractVerticle {
     /* Get base paths from config */
     dxApiBasePath = config().getString("dxApiBasePath");
     api = Api.getInstance(dxApiBasePath);
+    maxBulkIngestionRecords = config().getInteger("maxBulkIngestionRecords", 1000);
 
     /* Define the APIs, methods, endpoints and associated methods. */
 
@@ -217,6 +229,7 @@ public class ApiServerVerticle extends AbstractVerticle {
     router
         .get(api.getEntitiesUrl())
         .handler(entityValidationHandler)
+        .handler(CatalogueItemHandler.create(cacheService))
         .handler(AuthHandler.create(vertx, api))
         .handler(this::handleEntitiesQuery)
         .failureHandler(validationsFailureHandler);
@@ -225,16 +238,28 @@ public class ApiServerVerticle extends AbstractVerticle {
     router
         .get(api.getEntitiesUrl() + "/*")
         .handler(latestValidationHandler)
+        .handler(CatalogueItemHandler.create(cacheService))
         .handler(AuthHandler.create(vertx, api))
         .handler(this::handleLatestEntitiesQuery)
         .failureHandler(validationsFailureHandler);
 
+    ValidationHandler postLatestValidationHandler =
+        new ValidationHandler(vertx, RequestType.POST_LATEST);
+    router
+        .post(api.getPostLatestQueryPath())
+        .consumes(APPLICATION_JSON)
+        .handler(postLatestValidationHandler)
+        .handler(AuthHandler.create(vertx, api))
+        .handler(this::handlePostLatestQuery)
+        .failureHandler(validationsFailureHandler);
+
     ValidationHandler postTemporalValidationHandler =
         new ValidationHandler(vertx, RequestType.POST_TEMPORAL);
     router
         .post(api.getPostTemporalQueryPath())
         .consumes(APPLICATION_JSON)
         .handler(postTemporalValidationHandler)
+        .handler(CatalogueItemHandler.create(cacheService))
         .handler(AuthHandler.create(vertx, api))
         .handler(this::handlePostEntitiesQuery)
         .failureHandler(validationsFailureHandler);
@@ -245,6 +270,7 @@ public class ApiServerVerticle extends AbstractVerticle {
         .post(api.getPostEntitiesQueryPath())
         .consumes(APPLICATION_JSON)
         .handler(postEntitiesValidationHandler)
+        .handler(CatalogueItemHandler.create(cacheService))
         .handler(AuthHandler.create(vertx, api))
         .handler(this::handlePostEntitiesQuery)
         .failureHandler(validationsFailureHandler);
@@ -254,6 +280,7 @@ public class ApiServerVerticle extends AbstractVerticle {
     router
         .get(api.getTemporalUrl())
         .handler(temporalValidationHandler)
+        .handler(CatalogueItemHandler.create(cacheService))
         .handler(AuthHandler.create(vertx, api))
         .handler(this::handleTemporalQuery)
         .failureHandler(validationsFailureHandler);
@@ -334,6 +361,10 @@ public class ApiServerVerticle extends AbstractVerticle {
         .post(api.getIngestionPath() + "/entities")
         .handler(AuthHandler.create(vertx, api))
         .handler(this::publishDataFromAdapter);
+    router
+        .post(api.getIngestionPath() + "/entities/bulk")
+        .handler(AuthHandler.create(vertx, api))
+        .handler(this::publishBulkDataFromAdapter);
     router
         .get(api.getIngestionPath())
         .handler(AuthHandler.create(vertx, api))
@@ -410,6 +441,7 @@ public class ApiServerVerticle extends AbstractVerticle {
     }
 
     serverOptions.setCompressionSupported(true).setCompressionLevel(5);
+    serverOptions.setMaxInitialLineLength(HTTP_MAX_INITIAL_LINE_LENGTH);
     server = vertx.createHttpServer(serverOptions);
     server.requestHandler(router).listen(port);
 
@@ -418,8 +450,33 @@ public class ApiServerVerticle extends AbstractVerticle {
     database = DatabaseService.createProxy(vertx, DATABASE_SERVICE_ADDRESS);
     databroker = DataBrokerService.createProxy(vertx, BROKER_SERVICE_ADDRESS);
     meteringService = MeteringService.createProxy(vertx, METERING_SERVICE_ADDRESS);
+    meteringAuditor = new MeteringAuditor(meteringService);
     latestDataService = LatestDataService.createProxy(vertx, LATEST_SEARCH_ADDRESS);
-    cacheService = CacheService.createProxy(vertx, CACHE_SERVICE_ADDRESS);
+    if (config().getBoolean("enableStreamingSearch", false)) {
+      /* search responses are streamed from Elasticsearch directly, bypassing the event bus */
+      JsonObject esConfig = config().getJsonObject("elasticsearch");
+      ElasticClient elasticClient =
+          new ElasticClient(
+              esConfig.getString("databaseIP"),
+              esConfig.getInteger("databasePort"),
+              esConfig.getString("dbUser"),
+              esConfig.getString("dbPassword"));
+      // responses are copied on a bounded pool shared by all instances, off the event loop
+      streamingSearchExecutor =
+          vertx.createSharedWorkerExecutor(
+              "streaming-search-pool", config().getInteger("streamingSearchPoolSize", 8));
+      streamingSearch =
+          new StreamingSearchService(
+              elasticClient,
+              config().getString("timeLimit"),
+              config().getString("tenantPrefix"),
+              cacheService,
+              config().getBoolean("countBeforeSearch", false),
+              new IndexResolver(
+                  config().getString("indexPartitioning", IndexResolver.NONE),
+                  config().getInteger("maxIndexPartitions", 24)),
+              streamingSearchExecutor);
+    }
     managementApi = new ManagementApiImpl();
     subsService = new SubscriptionService();
     catalogueService = new CatalogueService(cacheService);
@@ -663,7 +720,7 @@ public class ApiServerVerticle extends AbstractVerticle {
     json.put(JSON_ID, new JsonArray().add(id));
     json.put(JSON_SEARCH_TYPE, "latestSearch");
     LOGGER.debug("Info: IUDX query json;" + json);
-    Future<List<String>> filtersFuture = catalogueService.getApplicableFilters(id);
+    Future<List<String>> filtersFuture = getApplicableFilters(routingContext, id);
     filtersFuture.onComplete(
         filtersHandler -> {
           if (filtersHandler.succeeded()) {
@@ -677,6 +734,34 @@ public class ApiServerVerticle extends AbstractVerticle {
         });
   }
 
+  /**
+   * Handles latest data of many entities in a single request, for endpoint
+   * /ngsi-ld/v1/entityOperations/latest.
+   *
+   * @param routingContext RoutingContext Object
+   */
+  private void handlePostLatestQuery(RoutingContext routingContext) {
+    LOGGER.trace("Info: handlePostLatestQuery method started.");
+    HttpServerRequest request = routingContext.request();
+    HttpServerResponse response = routingContext.response();
+    JsonObject requestJson = routingContext.body().asJsonObject();
+
+    JsonArray ids = new JsonArray();
+    requestJson.getJsonArray(JSON_ENTITIES).stream()
+        .map(entity -> ((JsonObject) entity).getString(JSON_ID))
+        .distinct()
+        .forEach(ids::add);
+
+    JsonObject json = new JsonObject();
+    json.put(JSON_INSTANCEID, request.getHeader(HEADER_HOST));
+    json.put(JSON_ID, ids);
+    json.put(JSON_SEARCH_TYPE, "latestSearch");
+    LOGGER.debug("Info: IUDX query json;" + json);
+
+    // every id was already looked up in the catalogue when authorizing the token for it
+    executeLatestSearchQuery(routingContext, json, response);
+  }
+
   /**
    * This method is used to handle all NGSI-LD queries for endpoint /ngsi-ld/v1/entities/**.
    *
@@ -717,7 +802,7 @@ public class ApiServerVerticle extends AbstractVerticle {
             JsonObject requestBody = new JsonObject();
             requestBody.put("ids", json.getJsonArray("id"));
             Future<List<String>> filtersFuture =
-                catalogueService.getApplicableFilters(json.getJsonArray("id").getString(0));
+                getApplicableFilters(routingContext, json.getJsonArray("id").getString(0));
             filtersFuture.onComplete(
                 filtersHandler -> {
                   if (filtersHandler.succeeded()) {
@@ -770,7 +855,7 @@ public class ApiServerVerticle extends AbstractVerticle {
             requestJson.put("ids", json.getJsonArray("id"));
             LOGGER.debug("Info: IUDX query json : ;" + json);
             Future<List<String>> filtersFuture =
-                catalogueService.getApplicableFilters(json.getJsonArray("id").getString(0));
+                getApplicableFilters(routingContext, json.getJsonArray("id").getString(0));
             filtersFuture.onComplete(
                 filtersHandler -> {
                   if (filtersHandler.succeeded()) {
@@ -805,6 +890,7 @@ public class ApiServerVerticle extends AbstractVerticle {
    */
   private void executeCountQuery(
       RoutingContext context, JsonObject json, HttpServerResponse response) {
+    putCatalogueItem(context, json);
     Future<JsonObject> countQueryDbFuture = database.count(json);
     countQueryDbFuture.onComplete(
         handler -> {
@@ -850,6 +936,14 @@ public class ApiServerVerticle extends AbstractVerticle {
    */
   private void executeSearchQuery(
       RoutingContext context, JsonObject json, HttpServerResponse response) {
+    putCatalogueItem(context, json);
+    if (streamingSearch != null
+        && context.request().getHeader(HEADER_PUBLIC_KEY) == null
+        && !json.containsKey(NGSILDQUERY_CURSOR)
+        && !json.containsKey(NGSILDQUERY_AGGR_METHODS)) {
+      executeStreamingSearchQuery(context, json, response);
+      return;
+    }
     Future<JsonObject> searchDbFuture = database.search(json);
     searchDbFuture.onComplete(
         handler -> {
@@ -886,10 +980,44 @@ public class ApiServerVerticle extends AbstractVerticle {
         });
   }
 
+  /**
+   * Execute a search query in DB writing the hits directly into the HTTP response as chunks, used
+   * when <code>enableStreamingSearch</code> is set. Encrypted responses need the whole payload, so
+   * they always go through {@link #executeSearchQuery(RoutingContext, JsonObject,
+   * HttpServerResponse)} over the event bus.
+   *
+   * @param json valid json query
+   * @param response HttpServerResponse
+   */
+  private void executeStreamingSearchQuery(
+      RoutingContext context, JsonObject json, HttpServerResponse response) {
+    // headers are only sent with the first chunk, failures before that can still set status
+    response
+        .setChunked(true)
+        .putHeader(CONTENT_TYPE, APPLICATION_JSON)
+        .setStatusCode(ResponseType.Ok.getCode());
+    streamingSearch
+        .searchStream(json, response)
+        .onComplete(
+            handler -> {
+              if (handler.succeeded()) {
+                LOGGER.info("Success: Search Success");
+                response.end();
+                context.data().put(RESPONSE_SIZE, response.bytesWritten());
+                Future.future(fu -> updateAuditTable(context));
+              } else if (response.headWritten()) {
+                LOGGER.error("Fail: streaming search failed mid response");
+                response.reset();
+              } else {
+                LOGGER.error("Fail: Search Fail");
+                processBackendResponse(response, handler.cause().getMessage());
+              }
+            });
+  }
+
   private void executeLatestSearchQuery(
       RoutingContext context, JsonObject json, HttpServerResponse response) {
-    latestDataService.getLatestData(
-        json,
+    Handler<AsyncResult<JsonObject>> latestHandler =
         handler -> {
           if (handler.succeeded()) {
             LOGGER.info("Latest data search succeeded");
@@ -920,7 +1048,12 @@ public class ApiServerVerticle extends AbstractVerticle {
           } else {
             processBackendResponse(response, handler.cause().getMessage());
           }
-        });
+        };
+    if (json.getJsonArray(JSON_ID).size() > 1) {
+      latestDataService.getBatchLatestData(json, latestHandler);
+    } else {
+      latestDataService.getLatestData(json, latestHandler);
+    }
   }
 
   /**
@@ -986,7 +1119,7 @@ public class ApiServerVerticle extends AbstractVerticle {
             JsonObject requestBody = new JsonObject();
             requestBody.put("ids", json.getJsonArray("id"));
             Future<List<String>> filtersFuture =
-                catalogueService.getApplicableFilters(json.getJsonArray("id").getString(0));
+                getApplicableFilters(routingContext, json.getJsonArray("id").getString(0));
             filtersFuture.onComplete(
                 filtersHandler -> {
                   if (filtersHandler.succeeded()) {
@@ -1500,6 +1633,88 @@ public class ApiServerVerticle extends AbstractVerticle {
     }
   }
 
+  /**
+   * publish records of resources from adapter to rabbit MQ, sent as a json array or as newline
+   * delimited json, the token being validated once for all the records.
+   *
+   * @param routingContext routingContext
+   */
+  public void publishBulkDataFromAdapter(RoutingContext routingContext) {
+    LOGGER.trace("Info: publishBulkDataFromAdapter method started;");
+    HttpServerRequest request = routingContext.request();
+    HttpServerResponse response = routingContext.response();
+    JsonArray records;
+    try {
+      records = getRecords(routingContext);
+    } catch (DecodeException ex) {
+      LOGGER.debug("Fail: Invalid json;" + ex.getMessage());
+      handleResponse(response, BAD_REQUEST, INVALID_PAYLOAD_FORMAT_URN);
+      return;
+    }
+    if (records == null
+        || records.isEmpty()
+        || records.size() > maxBulkIngestionRecords
+        || !records.stream().allMatch(JsonObject.class::isInstance)) {
+      LOGGER.debug("Fail: Invalid records");
+      handleResponse(
+          response,
+          BAD_REQUEST,
+          INVALID_PAYLOAD_FORMAT_URN,
+          "expected 1 to " + maxBulkIngestionRecords + " json objects");
+      return;
+    }
+    String instanceId = request.getHeader(HEADER_HOST);
+    records.forEach(record -> ((JsonObject) record).put(JSON_INSTANCEID, instanceId));
+
+    managementApi
+        .publishBulkDataFromAdapter(records, databroker)
+        .onComplete(
+            brokerResultHandler -> {
+              if (brokerResultHandler.succeeded()) {
+                LOGGER.debug("Success: publishing records from adapter");
+                routingContext.data().put(RESPONSE_SIZE, 0);
+                // audited for the resources of the records, the body has no single id
+                JsonObject authInfo = (JsonObject) routingContext.data().get("authInfo");
+                authInfo.put(IDS, getRecordIds(records));
+                Future.future(fu -> updateAuditTable(routingContext));
+                handleSuccessResponse(
+                    response, ResponseType.Ok.getCode(), brokerResultHandler.result().toString());
+              } else {
+                LOGGER.debug("Fail: Bad request;" + brokerResultHandler.cause().getMessage());
+                processBackendResponse(response, brokerResultHandler.cause().getMessage());
+              }
+            });
+  }
+
+  private JsonArray getRecordIds(JsonArray records) {
+    Set<String> ids = new LinkedHashSet<>();
+    for (int i = 0; i < records.size(); i++) {
+      String id = records.getJsonObject(i).getString(ID);
+      if (id != null) {
+        ids.add(id);
+      }
+    }
+    return new JsonArray(new ArrayList<>(ids));
+  }
+
+  private JsonArray getRecords(RoutingContext routingContext) {
+    String body = routingContext.body().asString();
+    if (body == null) {
+      return null;
+    }
+    String contentType = routingContext.request().getHeader(HEADER_CONTENT_TYPE);
+    if (contentType != null && contentType.startsWith(APPLICATION_NDJSON)) {
+      JsonArray records = new JsonArray();
+      for (String line : body.split("\n")) {
+        if (!line.isBlank()) {
+          records.add(new JsonObject(line));
+        }
+      }
+      return records;
+    }
+    return new JsonArray(body);
+  }
+
   private void getAllAdaptersForUsers(RoutingContext routingContext) {
     HttpServerResponse response = routingContext.response();
     JsonObject authInfo = (JsonObject) routingContext.data().get("authInfo");
@@ -1626,6 +1841,10 @@ public class ApiServerVerticle extends AbstractVerticle {
   @Override
   public void stop() {
     LOGGER.info("Stopping the API server");
+    NearCacheService.close(cacheService);
+    if (streamingSearchExecutor != null) {
+      streamingSearchExecutor.close();
+    }
   }
 
   private boolean isTemporalParamsPresent(NgsildQueryParams ngsildquery) {
@@ -1636,64 +1855,44 @@ public class ApiServerVerticle extends AbstractVerticle {
 
   private Future<Void> updateAuditTable(RoutingContext context) {
     JsonObject authInfo = (JsonObject) context.data().get("authInfo");
-    Promise<Void> promise = Promise.promise();
-    JsonObject request = new JsonObject();
-    JsonObject cacheRequest = new JsonObject();
-    cacheRequest.put("type", CATALOGUE_CACHE);
-    cacheRequest.put("key", authInfo.getValue(ID));
-    cacheService
-        .get(cacheRequest)
-        .onComplete(
-            relHandler -> {
-              if (relHandler.succeeded()) {
-                JsonObject cacheResult = relHandler.result();
-
-                String resourceGroup =
-                    cacheResult.containsKey(RESOURCE_GROUP)
-                        ? cacheResult.getString(RESOURCE_GROUP)
-                        : cacheResult.getString(ID);
-                ZonedDateTime zst = ZonedDateTime.now(ZoneId.of("Asia/Kolkata"));
-                String role = authInfo.getString(ROLE);
-                String drl = authInfo.getString(DRL);
-                if (role.equalsIgnoreCase("delegate") && drl != null) {
-                  request.put(DELEGATOR_ID, authInfo.getString(DID));
-                } else {
-                  request.put(DELEGATOR_ID, authInfo.getString(USER_ID));
-                }
-                if (authInfo.getString(API_ENDPOINT).contains("/ngsi-ld/v1/subscription")) {
-                  request.put(EVENT, "subscriptions");
-                }
-                String type =
-                    cacheResult.containsKey(RESOURCE_GROUP) ? "RESOURCE" : "RESOURCE_GROUP";
-                long time = zst.toInstant().toEpochMilli();
-                String providerId = cacheResult.getString("provider");
-                String isoTime = zst.truncatedTo(ChronoUnit.SECONDS).toString();
-                request.put(RESOURCE_GROUP, resourceGroup);
-                request.put(TYPE_KEY, type);
-                request.put(EPOCH_TIME, time);
-                request.put(ISO_TIME, isoTime);
-                request.put(USER_ID, authInfo.getValue(USER_ID));
-                request.put(ID, authInfo.getValue(ID));
-                request.put(API, authInfo.getValue(API_ENDPOINT));
-                request.put(RESPONSE_SIZE, context.data().get(RESPONSE_SIZE));
-                request.put(PROVIDER_ID, providerId);
-                meteringService.insertMeteringValuesInRmq(
-                    request,
-                    handler -> {
-                      if (handler.succeeded()) {
-                        LOGGER.info("message published in RMQ.");
-                        promise.complete();
-                      } else {
-                        LOGGER.error("failed to publish message in RMQ.");
-                        promise.complete();
-                      }
-                    });
-              } else {
-                LOGGER.debug("Item not found and failed to call metering service");
-              }
-            });
+    List<String> ids = new ArrayList<>();
+    JsonArray auditIds = authInfo.getJsonArray(IDS);
+    if (auditIds != null) {
+      auditIds.forEach(id -> ids.add(id.toString()));
+    } else {
+      ids.add(authInfo.getString(ID));
+    }
+    return meteringAuditor.audit(
+        authInfo, ids, context.data().get(RESPONSE_SIZE), id -> getCatalogueItem(context, id));
+  }
 
-    return promise.future();
+  /**
+   * Catalogue item of the id, the one resolved for the request by {@link CatalogueItemHandler}
+   * when present.
+   */
+  private Future<CatalogueItem> getCatalogueItem(RoutingContext context, String id) {
+    CatalogueItem item = context.get(CatalogueItem.CATALOGUE_ITEM);
+    if (item != null && item.getId().equals(id)) {
+      return Future.succeededFuture(item);
+    }
+    JsonObject cacheRequest = new JsonObject().put("type", CATALOGUE_ITEM).put("key", id);
+    return cacheService.get(cacheRequest).map(CatalogueItem::fromJson);
+  }
+
+  private Future<List<String>> getApplicableFilters(RoutingContext context, String id) {
+    CatalogueItem item = context.get(CatalogueItem.CATALOGUE_ITEM);
+    if (item != null && item.getId().equals(id)) {
+      return Future.succeededFuture(item.getApplicableFilters());
+    }
+    return catalogueService.getApplicableFilters(id);
+  }
+
+  /** Passes the catalogue item resolved for the request on to the database service. */
+  private void putCatalogueItem(RoutingContext context, JsonObject json) {
+    CatalogueItem item = context.get(CatalogueItem.CATALOGUE_ITEM);
+    if (item != null) {
+      json.put(CatalogueItem.CATALOGUE_ITEM, item.toJson());
+    }
   }
 
   private Future<JsonObject> getEntityName(JsonObject request) {
@@ -17,7 +17,10 @@ import iudx.resource.server.apiserver.validation.types.GeoRelTypeValidator;
 import iudx.resource.server.apiserver.validation.types.QtypeValidator;
 import iudx.resource.server.apiserver.validation.types.Validator;
 import iudx.resource.server.common.HttpStatusCode;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map.Entry;
 import java.util.Set;
@@ -55,6 +58,9 @@ public class ParamsValidator {
     validParams.add(NGSILDQUERY_TIME_PROPERTY);
     validParams.add(NGSILDQUERY_FROM);
     validParams.add(NGSILDQUERY_SIZE);
+    validParams.add(NGSILDQUERY_CURSOR);
+    validParams.add(NGSILDQUERY_AGGR_METHODS);
+    validParams.add(NGSILDQUERY_AGGR_PERIOD);
 
     // for IUDX count query
     validParams.add(IUDXQUERY_OPTIONS);
@@ -67,6 +73,7 @@ public class ParamsValidator {
     validHeaders.add("Content-Type");
     validHeaders.add(HEADER_CSV);
     validHeaders.add(HEADER_JSON);
+    validHeaders.add(HEADER_NDJSON);
     validHeaders.add(HEADER_PARQUET);
   }
 
@@ -153,8 +160,21 @@ public class ParamsValidator {
             JsonObject innerObject = array.getJsonObject(0);
             innerObject.forEach(
                 innerentry -> {
-                  paramsMap.add(innerentry.getKey().toString(), innerentry.getValue().toString());
+                  if (!innerentry.getKey().equals(NGSILDQUERY_ID)) {
+                    paramsMap.add(innerentry.getKey().toString(), innerentry.getValue().toString());
+                  }
                 });
+            // ids of all entities, for a single search across them
+            List<String> ids = new ArrayList<>();
+            for (int i = 0; i < array.size(); i++) {
+              String id = array.getJsonObject(i).getString(NGSILDQUERY_ID);
+              if (id != null) {
+                ids.add(id);
+              }
+            }
+            if (!ids.isEmpty()) {
+              paramsMap.add(NGSILDQUERY_ID, String.join(",", ids));
+            }
           } else {
             paramsMap.add(entry.getKey().toString(), entry.getValue().toString());
           }
@@ -190,7 +210,7 @@ public class ParamsValidator {
 
   private Future<Boolean> isValidQueryWithFilters(MultiMap paramsMap) {
     Promise<Boolean> promise = Promise.promise();
-    Future<List<String>> filtersFuture = catalogueService.getApplicableFilters(paramsMap.get("id"));
+    Future<List<String>> filtersFuture = getApplicableFilters(paramsMap.get("id"));
     filtersFuture.onComplete(
         handler -> {
           if (handler.succeeded()) {
@@ -215,6 +235,26 @@ public class ParamsValidator {
     return promise.future();
   }
 
+  /* filters applicable to every one of the comma separated ids */
+  private Future<List<String>> getApplicableFilters(String id) {
+    if (id == null || !id.contains(",")) {
+      return catalogueService.getApplicableFilters(id);
+    }
+    List<Future<List<String>>> filtersFutures = new ArrayList<>();
+    for (String each : new LinkedHashSet<>(Arrays.asList(id.split(",")))) {
+      filtersFutures.add(catalogueService.getApplicableFilters(each));
+    }
+    return Future.all(filtersFutures)
+        .map(
+            all -> {
+              List<String> filters = new ArrayList<>(all.<List<String>>resultAt(0));
+              for (int i = 1; i < all.size(); i++) {
+                filters.retainAll(all.<List<String>>resultAt(i));
+              }
+              return filters;
+            });
+  }
+
   private Boolean isTemporalQuery(MultiMap params) {
     return params.contains(NGSILDQUERY_TIMEREL)
         || params.contains(NGSILDQUERY_TIME)
@@ -5,20 +5,27 @@ import static iudx.resource.server.authenticator.Constants.ROLE;
 import static iudx.resource.server.common.Constants.*;
 import static iudx.resource.server.common.ResponseUrn.*;
 
+import io.vertx.core.Future;
 import io.vertx.core.Handler;
+import io.vertx.core.Promise;
 import io.vertx.core.Vertx;
 import io.vertx.core.http.HttpMethod;
 import io.vertx.core.http.HttpServerRequest;
+import io.vertx.core.json.DecodeException;
 import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
 import io.vertx.ext.web.RequestBody;
 import io.vertx.ext.web.RoutingContext;
 import iudx.resource.server.authenticator.AuthenticationService;
 import iudx.resource.server.common.Api;
+import iudx.resource.server.common.CatalogueItem;
 import iudx.resource.server.common.HttpStatusCode;
 import iudx.resource.server.common.ResponseUrn;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -41,10 +48,9 @@ public class AuthHandler implements Handler<RoutingContext> {
   @Override
   public void handle(RoutingContext context) {
     request = context.request();
-    RequestBody requestBody = context.body();
-    JsonObject requestJson = null;
-    if (requestBody != null && requestBody.asJsonObject() != null) {
-      requestJson = requestBody.asJsonObject().copy();
+    JsonObject requestJson = getBody(context);
+    if (requestJson != null) {
+      requestJson = requestJson.copy();
     }
     if (requestJson == null) {
       requestJson = new JsonObject();
@@ -71,6 +77,10 @@ public class AuthHandler implements Handler<RoutingContext> {
     LOGGER.debug("Info :" + context.request().path());
     String id = getId(context, path, method);
     authInfo.put(ID, id);
+    CatalogueItem item = context.get(CatalogueItem.CATALOGUE_ITEM);
+    if (item != null && item.getId().equals(id)) {
+      authInfo.put(CatalogueItem.CATALOGUE_ITEM, item.toJson());
+    }
 
     JsonArray ids = new JsonArray();
     String[] idArray = id == null ? new String[0] : id.split(",");
@@ -84,9 +94,17 @@ public class AuthHandler implements Handler<RoutingContext> {
     }
     requestJson.put(IDS, ids);
 
-    authenticator.tokenInterospect(
-        requestJson,
-        authInfo,
+    Set<String> searchIds = isSearchPath(path) ? getSearchIds(requestJson, path, ids) : Set.of();
+    Future<JsonObject> authFuture;
+    if (path.equals(api.getPostLatestQueryPath())) {
+      authFuture = tokenInterospectEach(requestJson, authInfo, getEntityIds(requestJson));
+    } else if (searchIds.size() > 1) {
+      authInfo.put(ID, searchIds.iterator().next());
+      authFuture = tokenInterospectEach(requestJson, authInfo, searchIds);
+    } else {
+      authFuture = tokenInterospect(requestJson, authInfo);
+    }
+    authFuture.onComplete(
         authHandler -> {
           if (authHandler.succeeded()) {
             authInfo.put(IID, authHandler.result().getValue(IID));
@@ -95,6 +113,11 @@ public class AuthHandler implements Handler<RoutingContext> {
             authInfo.put(ROLE, authHandler.result().getValue(ROLE));
             authInfo.put(DID, authHandler.result().getValue(DID));
             authInfo.put(DRL, authHandler.result().getValue(DRL));
+            authInfo.remove(CatalogueItem.CATALOGUE_ITEM);
+            if (searchIds.size() > 1) {
+              // audited against every resource group searched
+              authInfo.put(IDS, new JsonArray(new ArrayList<>(searchIds)));
+            }
             context.data().put(this.authInfo, authInfo);
           } else {
             processAuthFailure(context, authHandler.cause().getMessage());
@@ -105,6 +128,60 @@ public class AuthHandler implements Handler<RoutingContext> {
         });
   }
 
+  private Future<JsonObject> tokenInterospect(JsonObject requestJson, JsonObject authInfo) {
+    Promise<JsonObject> promise = Promise.promise();
+    authenticator.tokenInterospect(requestJson, authInfo, promise);
+    return promise.future();
+  }
+
+  /**
+   * Authorizes the token for every one of the ids, a token valid for only some of the ids fails
+   * the request.
+   */
+  private Future<JsonObject> tokenInterospectEach(
+      JsonObject requestJson, JsonObject authInfo, Set<String> entityIds) {
+    List<Future<JsonObject>> futures = new ArrayList<>(entityIds.size());
+    for (String entityId : entityIds) {
+      JsonObject entityAuthInfo = authInfo.copy().put(ID, entityId);
+      JsonObject entityRequestJson = requestJson.copy().put(IDS, new JsonArray().add(entityId));
+      futures.add(tokenInterospect(entityRequestJson, entityAuthInfo));
+    }
+    if (futures.isEmpty()) {
+      return tokenInterospect(requestJson, authInfo);
+    }
+    return Future.all(futures).map(all -> all.resultAt(0));
+  }
+
+  /* ids of the entities in the request body */
+  private Set<String> getEntityIds(JsonObject requestJson) {
+    JsonArray entities = requestJson.getJsonArray(JSON_ENTITIES);
+    Set<String> entityIds = new LinkedHashSet<>();
+    for (int i = 0; entities != null && i < entities.size(); i++) {
+      entityIds.add(entities.getJsonObject(i).getString(ID));
+    }
+    return entityIds;
+  }
+
+  /* ids of an entities or temporal search, in the body of post queries else in the id param */
+  private Set<String> getSearchIds(JsonObject requestJson, String path, JsonArray ids) {
+    if (path.equals(api.getPostEntitiesQueryPath())
+        || path.equals(api.getPostTemporalQueryPath())) {
+      return getEntityIds(requestJson);
+    }
+    Set<String> searchIds = new LinkedHashSet<>();
+    for (int i = 0; i < ids.size(); i++) {
+      searchIds.add(ids.getString(i));
+    }
+    return searchIds;
+  }
+
+  private boolean isSearchPath(String path) {
+    return api.getEntitiesUrl().equals(path)
+        || api.getTemporalUrl().equals(path)
+        || api.getPostEntitiesQueryPath().equals(path)
+        || api.getPostTemporalQueryPath().equals(path);
+  }
+
   private void processAuthFailure(RoutingContext ctx, String result) {
     if (result.contains("Not Found")) {
       LOGGER.error("Error : Item Not Found");
@@ -175,12 +252,25 @@ public class AuthHandler implements Handler<RoutingContext> {
     return id != null ? id.toString() : null;
   }
 
+  /** Body of the request, null when not a json object as the records of bulk ingestion. */
+  private JsonObject getBody(RoutingContext context) {
+    RequestBody requestBody = context.body();
+    if (requestBody == null) {
+      return null;
+    }
+    try {
+      return requestBody.asJsonObject();
+    } catch (DecodeException ex) {
+      return null;
+    }
+  }
+
   private String getId4rmRequest() {
     return request.getParam(ID);
   }
 
   private String getId4rmBody(RoutingContext context, String endpoint) {
-    JsonObject body = context.body().asJsonObject();
+    JsonObject body = getBody(context);
     String id = null;
     if (body != null) {
       JsonArray array = body.getJsonArray(JSON_ENTITIES);
@@ -216,6 +306,8 @@ public class AuthHandler implements Handler<RoutingContext> {
       path = api.getPostTemporalQueryPath();
     } else if (url.matches(getpathRegex(api.getPostEntitiesQueryPath()))) {
       path = api.getPostEntitiesQueryPath();
+    } else if (url.matches(getpathRegex(api.getPostLatestQueryPath()))) {
+      path = api.getPostLatestQueryPath();
     } else if (url.matches(getpathRegex(api.getSubscriptionUrl()))) {
       path = api.getSubscriptionUrl();
     } else if (url.matches(getpathRegex(api.getIngestionPath()))) {
@@ -0,0 +1,73 @@
+package iudx.resource.server.apiserver.handlers;
+
+import static iudx.resource.server.apiserver.util.Constants.ID;
+import static iudx.resource.server.apiserver.util.Constants.JSON_ENTITIES;
+
+import io.vertx.core.Handler;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.web.RequestBody;
+import io.vertx.ext.web.RoutingContext;
+import iudx.resource.server.cache.CacheService;
+import iudx.resource.server.cache.cachelmpl.CacheType;
+import iudx.resource.server.common.CatalogueItem;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Resolves the catalogue item of the id in the request once and attaches it to the routing
+ * context as a {@link CatalogueItem}, for the handlers and services down the chain to use instead
+ * of looking up the catalogue cache again. Requests with an unknown item are passed on as is, the
+ * {@link AuthHandler} rejects them.
+ */
+public class CatalogueItemHandler implements Handler<RoutingContext> {
+
+  private static final Logger LOGGER = LogManager.getLogger(CatalogueItemHandler.class);
+  private final CacheService cacheService;
+
+  private CatalogueItemHandler(CacheService cacheService) {
+    this.cacheService = cacheService;
+  }
+
+  public static CatalogueItemHandler create(CacheService cacheService) {
+    return new CatalogueItemHandler(cacheService);
+  }
+
+  @Override
+  public void handle(RoutingContext context) {
+    String id = getId(context);
+    if (id == null || id.isBlank() || id.contains(",")) {
+      context.next();
+      return;
+    }
+    JsonObject cacheRequest =
+        new JsonObject().put("type", CacheType.CATALOGUE_ITEM).put("key", id);
+    cacheService
+        .get(cacheRequest)
+        .onComplete(
+            cacheHandler -> {
+              if (cacheHandler.succeeded()) {
+                CatalogueItem item = CatalogueItem.fromJson(cacheHandler.result());
+                context.put(CatalogueItem.CATALOGUE_ITEM, item);
+              } else {
+                LOGGER.debug("catalogue item not resolved for id : {}", id);
+              }
+              context.next();
+            });
+  }
+
+  private String getId(RoutingContext context) {
+    String id = context.pathParam("*");
+    if (id == null) {
+      id = context.request().getParam(ID);
+    }
+    RequestBody requestBody = context.body();
+    if (id == null && requestBody != null && requestBody.asJsonObject() != null) {
+      JsonArray entities = requestBody.asJsonObject().getJsonArray(JSON_ENTITIES);
+      if (entities != null && !entities.isEmpty() && entities.getValue(0) instanceof JsonObject) {
+        id = entities.getJsonObject(0).getString(ID);
+      }
+    }
+    return id;
+  }
+}
@@ -1,6 +1,7 @@
 package iudx.resource.server.apiserver.management;
 
 import io.vertx.core.Future;
+import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
 import iudx.resource.server.cache.CacheService;
 import iudx.resource.server.database.postgres.PostgresService;
@@ -61,6 +62,15 @@ public interface ManagementApi {
    */
   Future<JsonObject> publishDataFromAdapter(JsonObject json, DataBrokerService databroker);
 
+  /**
+   * publish records of resources from adapter.
+   *
+   * @param records records, each with the id of its resource
+   * @param databroker DataBrokerService object
+   * @return Future with the status of each record
+   */
+  Future<JsonObject> publishBulkDataFromAdapter(JsonArray records, DataBrokerService databroker);
+
   /**
    * publish all adapter from exchange.
    *
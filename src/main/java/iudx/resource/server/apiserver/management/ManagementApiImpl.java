@@ -255,6 +255,24 @@ public class ManagementApiImpl implements ManagementApi {
     return promise.future();
   }
 
+  /** {@inheritDoc} */
+  @Override
+  public Future<JsonObject> publishBulkDataFromAdapter(
+      JsonArray records, DataBrokerService databroker) {
+    Promise<JsonObject> promise = Promise.promise();
+    databroker.publishFromAdaptorBulk(
+        records,
+        Vhosts.IUDX_PROD.name(),
+        handler -> {
+          if (handler.succeeded()) {
+            promise.complete(handler.result());
+          } else {
+            promise.fail(handler.cause().getMessage());
+          }
+        });
+    return promise.future();
+  }
+
   @Override
   public Future<JsonObject> getAllAdapterDetailsForUser(
       JsonObject request, PostgresService postgresService) {
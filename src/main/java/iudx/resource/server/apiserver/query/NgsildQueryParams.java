@@ -2,8 +2,11 @@ package iudx.resource.server.apiserver.query;
 
 import static iudx.resource.server.apiserver.util.Constants.IUDXQUERY_OPTIONS;
 import static iudx.resource.server.apiserver.util.Constants.MSG_INVALID_PARAM;
+import static iudx.resource.server.apiserver.util.Constants.NGSILDQUERY_AGGR_METHODS;
+import static iudx.resource.server.apiserver.util.Constants.NGSILDQUERY_AGGR_PERIOD;
 import static iudx.resource.server.apiserver.util.Constants.NGSILDQUERY_ATTRIBUTE;
 import static iudx.resource.server.apiserver.util.Constants.NGSILDQUERY_COORDINATES;
+import static iudx.resource.server.apiserver.util.Constants.NGSILDQUERY_CURSOR;
 import static iudx.resource.server.apiserver.util.Constants.NGSILDQUERY_ENDTIME;
 import static iudx.resource.server.apiserver.util.Constants.NGSILDQUERY_FROM;
 import static iudx.resource.server.apiserver.util.Constants.NGSILDQUERY_GEOMETRY;
@@ -50,6 +53,9 @@ public class NgsildQueryParams {
   private String options;
   private String pageFrom;
   private String pageSize;
+  private String pageCursor;
+  private List<String> aggrMethods;
+  private String aggrPeriodDuration;
 
   public NgsildQueryParams() {}
 
@@ -138,6 +144,16 @@ public class NgsildQueryParams {
         case NGSILDQUERY_FROM:
           this.pageFrom = entry.getValue();
           break;
+        case NGSILDQUERY_CURSOR:
+          this.pageCursor = entry.getValue();
+          break;
+        case NGSILDQUERY_AGGR_METHODS:
+          this.aggrMethods =
+              Arrays.stream(entry.getValue().split(",")).collect(Collectors.toList());
+          break;
+        case NGSILDQUERY_AGGR_PERIOD:
+          this.aggrPeriodDuration = entry.getValue();
+          break;
         default:
           LOGGER.warn(MSG_INVALID_PARAM + ":" + entry.getKey());
           break;
@@ -186,9 +202,9 @@ public class NgsildQueryParams {
           } else if (entry.getKey().equalsIgnoreCase("entities")) {
             JsonArray array = new JsonArray(entry.getValue().toString());
             Iterator<?> iter = array.iterator();
+            this.id = new ArrayList<URI>();
+            this.idPattern = new ArrayList<String>();
             while (iter.hasNext()) {
-              this.id = new ArrayList<URI>();
-              this.idPattern = new ArrayList<String>();
               JsonObject entity = (JsonObject) iter.next();
               String id = entity.getString("id");
               String idPattern = entity.getString("idPattern");
@@ -315,6 +331,18 @@ public class NgsildQueryParams {
     return pageSize;
   }
 
+  public String getPageCursor() {
+    return pageCursor;
+  }
+
+  public List<String> getAggrMethods() {
+    return aggrMethods;
+  }
+
+  public String getAggrPeriodDuration() {
+    return aggrPeriodDuration;
+  }
+
   @Override
   public String toString() {
     return "NGSILDQueryParams [id="
@@ -28,6 +28,7 @@ public class QueryMapper {
   private boolean isGeoSearch = false;
   private boolean isResponseFilter = false;
   private boolean isAttributeSearch = false;
+  private boolean isAggregation = false;
   private RoutingContext context;
 
   public QueryMapper(RoutingContext context) {
@@ -102,6 +103,29 @@ public class QueryMapper {
         this.context.fail(400, ex);
       }
     }
+    if (params.getAggrMethods() != null || params.getAggrPeriodDuration() != null) {
+      isAggregation = true;
+      if (!isTemporal || isAsyncQuery) {
+        DxRuntimeException ex =
+            new DxRuntimeException(
+                BAD_REQUEST.getValue(),
+                ResponseUrn.INVALID_PARAM_URN,
+                "aggregation is only supported for temporal queries.");
+        this.context.fail(400, ex);
+      } else if (params.getAggrMethods() == null
+          || params.getAggrPeriodDuration() == null
+          || params.getAttrs() == null) {
+        DxRuntimeException ex =
+            new DxRuntimeException(
+                BAD_REQUEST.getValue(),
+                ResponseUrn.INVALID_PARAM_URN,
+                "aggrMethods, aggrPeriodDuration and attrs all are mandatory for aggregation.");
+        this.context.fail(400, ex);
+      } else {
+        json.put(Constants.NGSILDQUERY_AGGR_METHODS, new JsonArray(params.getAggrMethods()));
+        json.put(Constants.NGSILDQUERY_AGGR_PERIOD, params.getAggrPeriodDuration());
+      }
+    }
     if (isTemporal
         && params.getTemporalRelation().getTemprel() != null
         && params.getTemporalRelation().getTime() != null) {
@@ -114,11 +138,12 @@ public class QueryMapper {
         json.put(Constants.JSON_ENDTIME, params.getTemporalRelation().getEndTime());
         json.put(Constants.JSON_TIMEREL, params.getTemporalRelation().getTemprel());
 
+        // aggregated responses are bounded by the number of buckets, not by the time interval
         isValidTimeInterval(
             Constants.JSON_DURING,
             json.getString(Constants.JSON_TIME),
             json.getString(Constants.JSON_ENDTIME),
-            isAsyncQuery);
+            isAsyncQuery || isAggregation);
       } else {
         json.put(Constants.JSON_TIME, params.getTemporalRelation().getTime().toString());
         json.put(Constants.JSON_TIMEREL, params.getTemporalRelation().getTemprel());
@@ -149,6 +174,9 @@ public class QueryMapper {
     if (params.getPageSize() != null) {
       json.put(Constants.NGSILDQUERY_SIZE, params.getPageSize());
     }
+    if (params.getPageCursor() != null) {
+      json.put(Constants.NGSILDQUERY_CURSOR, params.getPageCursor());
+    }
 
     json.put(Constants.JSON_SEARCH_TYPE, getSearchType(isAsyncQuery));
     LOGGER.debug("Info : json " + json);
@@ -241,6 +269,9 @@ public class QueryMapper {
     if (isAttributeSearch) {
       searchType.append(Constants.JSON_ATTRIBUTE_SEARCH);
     }
+    if (isAggregation) {
+      searchType.append(Constants.JSON_AGGREGATION_SEARCH);
+    }
     return searchType.toString().isEmpty()
         ? ""
         : searchType.substring(0, searchType.length() - 1).toString();
@@ -0,0 +1,124 @@
+package iudx.resource.server.apiserver.service;
+
+import static iudx.resource.server.apiserver.util.Constants.*;
+import static iudx.resource.server.authenticator.Constants.ROLE;
+import static iudx.resource.server.metering.util.Constants.DELEGATOR_ID;
+import static iudx.resource.server.metering.util.Constants.EPOCH_TIME;
+import static iudx.resource.server.metering.util.Constants.ISO_TIME;
+import static iudx.resource.server.metering.util.Constants.PROVIDER_ID;
+import static iudx.resource.server.metering.util.Constants.TYPE_KEY;
+
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.json.JsonObject;
+import iudx.resource.server.common.CatalogueItem;
+import iudx.resource.server.metering.MeteringService;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Publishes the audit records of an API call to the metering service, one record per distinct
+ * resource group of the ids the call was made for, so the provider of every group served is
+ * audited. A record carries the first id of its group.
+ *
+ * <p>The response size is put on the first record only, the others have a size of 0, so the data
+ * served to a user adds up to the response size. Every record is counted as an API call of the user
+ * against the usage limits.
+ */
+public class MeteringAuditor {
+
+  private static final Logger LOGGER = LogManager.getLogger(MeteringAuditor.class);
+  private final MeteringService meteringService;
+
+  public MeteringAuditor(MeteringService meteringService) {
+    this.meteringService = meteringService;
+  }
+
+  /**
+   * @param authInfo auth info of the request
+   * @param ids ids the call was made for, ids not found in the catalogue are not audited
+   * @param responseSize size of the response
+   * @param catalogueItems catalogue item of an id
+   * @return Future completed once every record is published, failed when none could be
+   */
+  public Future<Void> audit(
+      JsonObject authInfo,
+      Collection<String> ids,
+      Object responseSize,
+      Function<String, Future<CatalogueItem>> catalogueItems) {
+    List<Future<CatalogueItem>> items = new ArrayList<>();
+    for (String id : new LinkedHashSet<>(ids)) {
+      items.add(catalogueItems.apply(id));
+    }
+    return Future.join(items)
+        .transform(
+            all -> {
+              Map<String, CatalogueItem> groups = new LinkedHashMap<>();
+              for (Future<CatalogueItem> item : items) {
+                if (item.succeeded()) {
+                  groups.putIfAbsent(item.result().getResourceGroup(), item.result());
+                }
+              }
+              if (groups.isEmpty()) {
+                LOGGER.debug("Item not found and failed to call metering service");
+                return Future.failedFuture("no catalogue item for " + ids);
+              }
+              List<Future<Void>> published = new ArrayList<>(groups.size());
+              Object size = responseSize;
+              for (CatalogueItem item : groups.values()) {
+                published.add(publish(authInfo, item, size));
+                size = 0;
+              }
+              return Future.join(published).mapEmpty();
+            });
+  }
+
+  private Future<Void> publish(JsonObject authInfo, CatalogueItem item, Object responseSize) {
+    Promise<Void> promise = Promise.promise();
+    JsonObject request = new JsonObject();
+    ZonedDateTime zst = ZonedDateTime.now(ZoneId.of("Asia/Kolkata"));
+    String role = authInfo.getString(ROLE);
+    String drl = authInfo.getString(DRL);
+    if (role.equalsIgnoreCase("delegate") && drl != null) {
+      request.put(DELEGATOR_ID, authInfo.getString(DID));
+    } else {
+      request.put(DELEGATOR_ID, authInfo.getString(USER_ID));
+    }
+    if (authInfo.getString(API_ENDPOINT).contains("/ngsi-ld/v1/subscription")) {
+      request.put(EVENT, "subscriptions");
+    }
+    String type = item.isResource() ? "RESOURCE" : "RESOURCE_GROUP";
+    long time = zst.toInstant().toEpochMilli();
+    String isoTime = zst.truncatedTo(ChronoUnit.SECONDS).toString();
+    request.put(RESOURCE_GROUP, item.getResourceGroup());
+    request.put(TYPE_KEY, type);
+    request.put(EPOCH_TIME, time);
+    request.put(ISO_TIME, isoTime);
+    request.put(USER_ID, authInfo.getValue(USER_ID));
+    request.put(ID, item.getId());
+    request.put(API, authInfo.getValue(API_ENDPOINT));
+    request.put(RESPONSE_SIZE, responseSize);
+    request.put(PROVIDER_ID, item.getProvider());
+    meteringService.insertMeteringValuesInRmq(
+        request,
+        handler -> {
+          if (handler.succeeded()) {
+            LOGGER.info("message published in RMQ.");
+          } else {
+            LOGGER.error("failed to publish message in RMQ.");
+          }
+          promise.complete();
+        });
+    return promise.future();
+  }
+}
@@ -38,6 +38,7 @@ public class Constants {
   public static final String NGSILD_POST_ENTITIES_QUERY_PATH = "/entityOperations/query";
   public static final String ENTITIES_POST_QUERY_URL_REGEX =
       NGSILD_POST_ENTITIES_QUERY_PATH + "(.*)";
+  public static final String NGSILD_POST_LATEST_QUERY_PATH = "/entityOperations/latest";
 
   // Async endpoints
   public static final String STATUS = "/status";
@@ -119,11 +120,15 @@ public class Constants {
   public static final String NGSILDQUERY_TIME_PROPERTY = "timeProperty";
   public static final String NGSILDQUERY_FROM = "offset";
   public static final String NGSILDQUERY_SIZE = "limit";
+  public static final String NGSILDQUERY_CURSOR = "cursor";
+  public static final String NGSILDQUERY_AGGR_METHODS = "aggrMethods";
+  public static final String NGSILDQUERY_AGGR_PERIOD = "aggrPeriodDuration";
 
   // Header params
   public static final String HEADER_TOKEN = "token";
   public static final String HEADER_CSV = "csv";
   public static final String HEADER_JSON = "json";
+  public static final String HEADER_NDJSON = "ndjson";
   public static final String HEADER_PARQUET = "parquet";
   public static final String HEADER_HOST = "Host";
   public static final String HEADER_ACCEPT = "Accept";
@@ -142,6 +147,7 @@ public class Constants {
   // request/response params
   public static final String CONTENT_TYPE = "content-type";
   public static final String APPLICATION_JSON = "application/json";
+  public static final String APPLICATION_NDJSON = "application/x-ndjson";
   public static final String SUBSCRIPTION_ID = "subscriptionID";
   public static final String EXCHANGE_ID = "exId";
 
@@ -210,6 +216,7 @@ public class Constants {
   public static final String JSON_RESPONSE_FILTER_SEARCH = "responseFilter_";
   public static final String JSON_ATTRIBUTE_SEARCH = "attributeSearch_";
   public static final String JSON_LATEST_SEARCH = "latestSearch_";
+  public static final String JSON_AGGREGATION_SEARCH = "aggregationSearch_";
 
   // Geometry
   public static final String GEOM_POINT = "point";
@@ -249,6 +256,8 @@ public class Constants {
   public static final int VALIDATION_ID_MAX_LEN = 512;
   public static final Pattern VALIDATION_ID_PATTERN =
       Pattern.compile("^[0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{12}$");
+  /* max comma separated ids of a single entities or temporal search */
+  public static final int VALIDATION_MAX_IDS = 100;
   public static final int VALIDATION_MAX_ATTRS = 5;
   public static final int VALIDATION_MAX_DAYS_INTERVAL_ALLOWED = 10;
   public static final int VALIDATION_MAX_DAYS_INTERVAL_ALLOWED_FOR_ASYNC = 365;
@@ -269,6 +278,11 @@ public class Constants {
   public static final double VALIDATION_ALLOWED_DIST_FOR_ASYNC = 10000.0;
   public static final int VALIDATION_PAGINATION_LIMIT_MAX = 5000;
   public static final int VALIDATION_PAGINATION_OFFSET_MAX = 49999;
+  public static final int VALIDATION_PAGINATION_CURSOR_MAXLEN = 4096;
+  /* request line limit, leaves room for the max length ids and cursor params */
+  public static final int HTTP_MAX_INITIAL_LINE_LENGTH = 16384;
+  public static final List<String> VALIDATION_ALLOWED_AGGR_METHODS =
+      List.of("avg", "min", "max", "sum", "count", "percentiles");
   public static final List<Object> VALIDATION_ALLOWED_GEOM =
       List.of("Point", "point", "Polygon", "polygon", "LineString", "linestring", "bbox");
   public static final List<Object> VALIDATION_ALLOWED_GEOPROPERTY = List.of("location", "Location");
@@ -8,6 +8,7 @@ public enum RequestType {
   ASYNC_STATUS("async_status"),
   POST_TEMPORAL("post_temporal_schema.json"),
   POST_ENTITIES("post_entities_schema.json"),
+  POST_LATEST("post_latest_schema.json"),
   SUBSCRIPTION("subscription_schema.json"),
   OVERVIEW("overview");
 
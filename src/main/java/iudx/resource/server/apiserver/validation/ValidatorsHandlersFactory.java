@@ -62,6 +62,9 @@ public class ValidatorsHandlersFactory {
       case POST_ENTITIES:
         validator = getPostTemporalValidations(vertx, parameters, body, requestType);
         break;
+      case POST_LATEST:
+        validator = getPostLatestValidations(vertx, parameters, body);
+        break;
       case SUBSCRIPTION:
         validator = getSubscriptionsValidations(vertx, body, headers);
         break;
@@ -91,7 +94,7 @@ public class ValidatorsHandlersFactory {
   private List<Validator> getEntityRequestValidations(final MultiMap parameters) {
     List<Validator> validators = new ArrayList<>();
 
-    validators.add(new IdTypeValidator(parameters.get(NGSILDQUERY_ID), true));
+    validators.add(new IdTypeValidator(parameters.get(NGSILDQUERY_ID), true, VALIDATION_MAX_IDS));
     validators.add(new AttrsTypeValidator(parameters.get(NGSILDQUERY_ATTRIBUTE), false));
     validators.add(new GeoRelTypeValidator(parameters.get(NGSILDQUERY_GEOREL), false));
     validators.add(new GeometryTypeValidator(parameters.get(NGSILDQUERY_GEOMETRY), false));
@@ -105,6 +108,7 @@ public class ValidatorsHandlersFactory {
     // pagination optional fields
     validators.add(new PaginationLimitTypeValidator(parameters.get(NGSILDQUERY_SIZE), false));
     validators.add(new PaginationOffsetTypeValidator(parameters.get(NGSILDQUERY_FROM), false));
+    validators.add(new PaginationCursorTypeValidator(parameters.get(NGSILDQUERY_CURSOR), false));
 
     // optional header public key
     validators.add(new HeaderKeyTypeValidation(parameters.get(HEADER_PUBLIC_KEY), false));
@@ -116,7 +120,7 @@ public class ValidatorsHandlersFactory {
 
     List<Validator> validators = new ArrayList<>();
 
-    validators.add(new IdTypeValidator(parameters.get(NGSILDQUERY_ID), true));
+    validators.add(new IdTypeValidator(parameters.get(NGSILDQUERY_ID), true, VALIDATION_MAX_IDS));
     validators.add(new AttrsTypeValidator(parameters.get(NGSILDQUERY_ATTRIBUTE), false));
     validators.add(new GeoRelTypeValidator(parameters.get(NGSILDQUERY_GEOREL), false));
     validators.add(new GeometryTypeValidator(parameters.get(NGSILDQUERY_GEOMETRY), false));
@@ -130,9 +134,14 @@ public class ValidatorsHandlersFactory {
     validators.add(new DateTypeValidator(parameters.get(NGSILDQUERY_TIME), true));
     validators.add(new DateTypeValidator(parameters.get(NGSILDQUERY_ENDTIME), false));
 
+    // aggregation optional fields
+    validators.add(new AggrMethodsTypeValidator(parameters.get(NGSILDQUERY_AGGR_METHODS), false));
+    validators.add(new AggrPeriodTypeValidator(parameters.get(NGSILDQUERY_AGGR_PERIOD), false));
+
     // pagination optional fields
     validators.add(new PaginationLimitTypeValidator(parameters.get(NGSILDQUERY_SIZE), false));
     validators.add(new PaginationOffsetTypeValidator(parameters.get(NGSILDQUERY_FROM), false));
+    validators.add(new PaginationCursorTypeValidator(parameters.get(NGSILDQUERY_CURSOR), false));
 
     // optional header public key
     validators.add(new HeaderKeyTypeValidation(parameters.get(HEADER_PUBLIC_KEY), false));
@@ -188,6 +197,18 @@ public class ValidatorsHandlersFactory {
     return validators;
   }
 
+  private List<Validator> getPostLatestValidations(
+      Vertx vertx, final MultiMap parameters, final JsonObject body) {
+    List<Validator> validators = new ArrayList<>();
+    // request body validators.
+    validators.addAll(getRequestSchemaValidator(vertx, body, RequestType.POST_LATEST));
+
+    // optional header public key
+    validators.add(new HeaderKeyTypeValidation(parameters.get(HEADER_PUBLIC_KEY), false));
+
+    return validators;
+  }
+
   private List<Validator> getSubscriptionsValidations(
       final Vertx vertx, final JsonObject body, final MultiMap headers) {
     List<Validator> validators = new ArrayList<>();
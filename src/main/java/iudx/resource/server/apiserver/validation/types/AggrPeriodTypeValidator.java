@@ -0,0 +1,61 @@
+package iudx.resource.server.apiserver.validation.types;
+
+import static iudx.resource.server.common.ResponseUrn.*;
+
+import iudx.resource.server.apiserver.exceptions.DxRuntimeException;
+import iudx.resource.server.common.HttpStatusCode;
+import java.time.Duration;
+import java.time.format.DateTimeParseException;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+public final class AggrPeriodTypeValidator implements Validator {
+
+  private static final Logger LOGGER = LogManager.getLogger(AggrPeriodTypeValidator.class);
+  // ISO 8601 duration of a bucket e.g PT15M, PT1H, P1D, not finer than a minute
+  private static final Duration MIN_PERIOD = Duration.ofMinutes(1);
+
+  private final String value;
+  private final boolean required;
+
+  public AggrPeriodTypeValidator(final String value, final boolean required) {
+    this.value = value;
+    this.required = required;
+  }
+
+  @Override
+  public boolean isValid() {
+    if (required && (value == null || value.isBlank())) {
+      LOGGER.error("Validation error : null or blank value for required mandatory field");
+      throw new DxRuntimeException(failureCode(), INVALID_PARAM_VALUE_URN, failureMessage());
+    } else {
+      if (value == null) {
+        return true;
+      }
+      if (value.isBlank()) {
+        LOGGER.error("Validation error :  blank value passed");
+        throw new DxRuntimeException(failureCode(), INVALID_PARAM_VALUE_URN, failureMessage());
+      }
+    }
+    try {
+      if (Duration.parse(value).compareTo(MIN_PERIOD) < 0) {
+        LOGGER.error("Validation error : aggregation period less than a minute");
+        throw new DxRuntimeException(failureCode(), INVALID_PARAM_VALUE_URN, failureMessage());
+      }
+    } catch (DateTimeParseException ex) {
+      LOGGER.error("Validation error : invalid aggregation period {}", value);
+      throw new DxRuntimeException(failureCode(), INVALID_PARAM_VALUE_URN, failureMessage());
+    }
+    return true;
+  }
+
+  @Override
+  public int failureCode() {
+    return HttpStatusCode.BAD_REQUEST.getValue();
+  }
+
+  @Override
+  public String failureMessage() {
+    return INVALID_PARAM_VALUE_URN.getMessage();
+  }
+}
@@ -35,7 +35,10 @@ public class ElasticSearchFileResponseTypeValidator implements Validator {
     } else if (!required && value.isEmpty()) {
       LOGGER.error("Validation error : The value of the header format is empty ");
       throw new DxRuntimeException(failureCode(), INVALID_HEADER_VALUE_URN, failureMessage());
-    } else if (value.equals(HEADER_CSV) || value.equals(HEADER_PARQUET) || value.equals(HEADER_JSON)) {
+    } else if (value.equals(HEADER_CSV)
+        || value.equals(HEADER_PARQUET)
+        || value.equals(HEADER_JSON)
+        || value.equals(HEADER_NDJSON)) {
       return true;
     }
     LOGGER.error("Validation error : Invalid header format type");
@@ -14,10 +14,19 @@ public final class IdTypeValidator implements Validator {
 
   private final String value;
   private final boolean required;
+  private final int maxIds;
 
   public IdTypeValidator(final String value, final boolean required) {
+    this(value, required, 1);
+  }
+
+  /**
+   * @param maxIds max comma separated ids in value, each validated as an id
+   */
+  public IdTypeValidator(final String value, final boolean required, final int maxIds) {
     this.value = value;
     this.required = required;
+    this.maxIds = maxIds;
   }
 
   public boolean isvalidIudxId(final String value) {
@@ -39,13 +48,20 @@ public final class IdTypeValidator implements Validator {
         throw new DxRuntimeException(failureCode(), INVALID_ID_VALUE_URN, failureMessage(value));
       }
     }
-    if (value.length() > VALIDATION_ID_MAX_LEN) {
-      LOGGER.error("Validation error : Value exceed max character limit.");
+    String[] ids = value.split(",", -1);
+    if (ids.length > maxIds) {
+      LOGGER.error("Validation error : more than {} ids.", maxIds);
       throw new DxRuntimeException(failureCode(), INVALID_ID_VALUE_URN, failureMessage(value));
     }
-    if (!isvalidIudxId(value)) {
-      LOGGER.error("Validation error : Invalid id.");
-      throw new DxRuntimeException(failureCode(), INVALID_ID_VALUE_URN, failureMessage(value));
+    for (String id : ids) {
+      if (id.length() > VALIDATION_ID_MAX_LEN) {
+        LOGGER.error("Validation error : Value exceed max character limit.");
+        throw new DxRuntimeException(failureCode(), INVALID_ID_VALUE_URN, failureMessage(value));
+      }
+      if (!isvalidIudxId(id)) {
+        LOGGER.error("Validation error : Invalid id.");
+        throw new DxRuntimeException(failureCode(), INVALID_ID_VALUE_URN, failureMessage(value));
+      }
     }
     return true;
   }
@@ -0,0 +1,57 @@
+package iudx.resource.server.apiserver.validation.types;
+
+import static iudx.resource.server.apiserver.util.Constants.*;
+import static iudx.resource.server.common.ResponseUrn.*;
+
+import iudx.resource.server.apiserver.exceptions.DxRuntimeException;
+import iudx.resource.server.common.HttpStatusCode;
+import java.util.regex.Pattern;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+public final class PaginationCursorTypeValidator implements Validator {
+
+  private static final Logger LOGGER = LogManager.getLogger(PaginationCursorTypeValidator.class);
+  // '*' to start a new cursor, else url safe base64 token returned in previous page
+  private static final Pattern CURSOR_PATTERN = Pattern.compile("^(\\*|[A-Za-z0-9_-]+)$");
+
+  private final String value;
+  private final boolean required;
+
+  public PaginationCursorTypeValidator(final String value, final boolean required) {
+    this.value = value;
+    this.required = required;
+  }
+
+  @Override
+  public boolean isValid() {
+    if (required && (value == null || value.isBlank())) {
+      LOGGER.error("Validation error : null or blank value for required mandatory field");
+      throw new DxRuntimeException(failureCode(), INVALID_PARAM_VALUE_URN, failureMessage());
+    } else {
+      if (value == null) {
+        return true;
+      }
+      if (value.isBlank()) {
+        LOGGER.error("Validation error :  blank value passed");
+        throw new DxRuntimeException(failureCode(), INVALID_PARAM_VALUE_URN, failureMessage());
+      }
+    }
+    if (value.length() > VALIDATION_PAGINATION_CURSOR_MAXLEN
+        || !CURSOR_PATTERN.matcher(value).matches()) {
+      LOGGER.error("Validation error : invalid pagination cursor Value");
+      throw new DxRuntimeException(failureCode(), INVALID_PARAM_VALUE_URN, failureMessage());
+    }
+    return true;
+  }
+
+  @Override
+  public int failureCode() {
+    return HttpStatusCode.BAD_REQUEST.getValue();
+  }
+
+  @Override
+  public String failureMessage() {
+    return INVALID_PARAM_VALUE_URN.getMessage();
+  }
+}
@@ -16,6 +16,7 @@ import io.vertx.ext.web.client.WebClient;
 import io.vertx.ext.web.client.WebClientOptions;
 import io.vertx.serviceproxy.ServiceBinder;
 import iudx.resource.server.cache.CacheService;
+import iudx.resource.server.cache.NearCacheService;
 import iudx.resource.server.common.Api;
 import iudx.resource.server.metering.MeteringService;
 import org.apache.logging.log4j.LogManager;
@@ -41,6 +42,7 @@ public class AuthenticationVerticle extends AbstractVerticle {
   private WebClient webClient;
 
   private CacheService cacheService;
+  private JwtCache jwtCache;
   private MeteringService meteringService;
   private Api api;
   private String dxApiBasePath;
@@ -90,14 +92,23 @@ public class AuthenticationVerticle extends AbstractVerticle {
                         + "do not set IgnoreExpiration in production!!");
               }
 
-              cacheService = CacheService.createProxy(vertx, CACHE_SERVICE_ADDRESS);
+              cacheService = NearCacheService.create(vertx, CACHE_SERVICE_ADDRESS, config());
               meteringService = MeteringService.createProxy(vertx, METERING_SERVICE_ADDRESS);
               dxApiBasePath = config().getString("dxApiBasePath");
               api = Api.getInstance(dxApiBasePath);
               JWTAuth jwtAuth = JWTAuth.create(vertx, jwtAuthOptions);
+              long jwtCacheMaxSize = config().getLong("jwtCacheMaxSize", 10000L);
+              if (jwtCacheMaxSize > 0) {
+                jwtCache =
+                    new JwtCache(
+                        jwtCacheMaxSize,
+                        config().getLong("jwtCacheTtlSeconds", 600L),
+                        jwtIgnoreExpiry);
+                jwtCache.start(vertx);
+              }
               jwtAuthenticationService =
                   new JwtAuthenticationServiceImpl(
-                      vertx, jwtAuth, config(), cacheService, meteringService, api);
+                      vertx, jwtAuth, config(), cacheService, meteringService, api, jwtCache);
 
               /* Publish the Authentication service with the Event Bus against an address. */
               consumer =
@@ -117,6 +128,10 @@ public class AuthenticationVerticle extends AbstractVerticle {
   @Override
   public void stop() {
     binder.unregister(consumer);
+    NearCacheService.close(cacheService);
+    if (jwtCache != null) {
+      jwtCache.close();
+    }
   }
 
   private Future<String> getJwtPublicKey(Vertx vertx, JsonObject config) {
@@ -19,6 +19,7 @@ public class Constants {
           "/temporal/entities",
           "/entities",
           "/entityOperations/query",
+          "/entityOperations/latest",
           "/temporal/entityOperations/query",
           "/async/status",
           "/consumer/audit",
@@ -22,11 +22,12 @@ import iudx.resource.server.authenticator.authorization.Method;
 import iudx.resource.server.authenticator.model.JwtData;
 import iudx.resource.server.cache.CacheService;
 import iudx.resource.server.cache.cachelmpl.CacheType;
+import iudx.resource.server.cache.cachelmpl.RevokedClientValue;
 import iudx.resource.server.common.Api;
+import iudx.resource.server.common.CatalogueItem;
 import iudx.resource.server.metering.MeteringService;
 import java.time.Instant;
 import java.time.LocalDateTime;
-import java.time.OffsetDateTime;
 import java.time.ZoneId;
 import java.util.HashSet;
 import java.util.Set;
@@ -47,6 +48,7 @@ public class JwtAuthenticationServiceImpl implements AuthenticationService {
   final MeteringService meteringService;
   final Api apis;
   final String catBasePath;
+  final JwtCache jwtCache;
   boolean isLimitsEnabled;
 
   JwtAuthenticationServiceImpl(
@@ -56,6 +58,17 @@ public class JwtAuthenticationServiceImpl implements AuthenticationService {
       final CacheService cacheService,
       final MeteringService meteringService,
       final Api apis) {
+    this(vertx, jwtAuth, config, cacheService, meteringService, apis, null);
+  }
+
+  JwtAuthenticationServiceImpl(
+      Vertx vertx,
+      final JWTAuth jwtAuth,
+      final JsonObject config,
+      final CacheService cacheService,
+      final MeteringService meteringService,
+      final Api apis,
+      final JwtCache jwtCache) {
     this.jwtAuth = jwtAuth;
     this.audience = config.getString("audience");
     this.host = config.getString("catServerHost");
@@ -71,6 +84,7 @@ public class JwtAuthenticationServiceImpl implements AuthenticationService {
     catWebClient = WebClient.create(vertx, options);
     this.cache = cacheService;
     this.meteringService = meteringService;
+    this.jwtCache = jwtCache;
   }
 
   @Override
@@ -119,7 +133,8 @@ public class JwtAuthenticationServiceImpl implements AuthenticationService {
             revokeTokenHandler -> {
               if (!skipResourceIdCheck
                   && !result.jwtData.getIss().equals(result.jwtData.getSub())) {
-                return isOpenResource(id);
+                return isOpenResource(
+                    id, authenticationInfo.getJsonObject(CatalogueItem.CATALOGUE_ITEM));
               } else {
                 return Future.succeededFuture("OPEN");
               }
@@ -174,6 +189,12 @@ public class JwtAuthenticationServiceImpl implements AuthenticationService {
   }
 
   Future<JwtData> decodeJwt(String jwtToken) {
+    if (jwtCache != null) {
+      JwtData cached = jwtCache.get(jwtToken);
+      if (cached != null) {
+        return Future.succeededFuture(cached);
+      }
+    }
     Promise<JwtData> promise = Promise.promise();
     TokenCredentials creds = new TokenCredentials(jwtToken);
 
@@ -184,6 +205,9 @@ public class JwtAuthenticationServiceImpl implements AuthenticationService {
               JwtData jwtData = new JwtData(user.principal());
               jwtData.setExp(user.get("exp"));
               jwtData.setIat(user.get("iat"));
+              if (jwtCache != null) {
+                jwtCache.put(jwtToken, jwtData);
+              }
               promise.complete(jwtData);
             })
         .onFailure(
@@ -195,6 +219,22 @@ public class JwtAuthenticationServiceImpl implements AuthenticationService {
     return promise.future();
   }
 
+  /**
+   * Access policy of the id, taken from the catalogue item already resolved for the request when
+   * present instead of looking up the cache again.
+   */
+  Future<String> isOpenResource(String id, JsonObject catalogueItem) {
+    if (catalogueItem == null || !id.equals(catalogueItem.getString("id"))) {
+      return isOpenResource(id);
+    }
+    String acl = CatalogueItem.fromJson(catalogueItem).getAccessPolicy();
+    if (acl == null) {
+      LOGGER.error("ACL not defined in group or resource item");
+      return Future.failedFuture("ACL not defined in group or resource item");
+    }
+    return Future.succeededFuture(acl);
+  }
+
   public Future<String> isOpenResource(String id) {
     LOGGER.trace("isOpenResource() started");
 
@@ -301,57 +341,25 @@ public class JwtAuthenticationServiceImpl implements AuthenticationService {
     JwtAuthorization jwtAuthStrategy = new JwtAuthorization(authStrategy);
     LOGGER.info("endPoint : " + authInfo.getString("apiEndpoint"));
 
-    OffsetDateTime startDateTime = OffsetDateTime.now(ZoneId.of("Z", ZoneId.SHORT_IDS));
-    OffsetDateTime endDateTime = startDateTime.withHour(00).withMinute(00).withSecond(00);
-
-    JsonObject meteringCountRequest = new JsonObject();
-    meteringCountRequest.put("timeRelation", "during");
-    meteringCountRequest.put("startTime", endDateTime.toString());
-    meteringCountRequest.put("endTime", startDateTime.toString());
-    meteringCountRequest.put("userid", jwtData.getSub());
-    meteringCountRequest.put("endPoint", "/consumer/audit");
-    meteringCountRequest.put("options", "count");
-
-    LOGGER.debug("metering request : " + meteringCountRequest);
     if (isLimitsEnabled) {
-      meteringService.executeReadQuery(
-          meteringCountRequest,
-          meteringCountHandler -> {
-            if (meteringCountHandler.succeeded()) {
-              JsonObject consumedApiCount = new JsonObject();
-              LOGGER.info("metering response : " + meteringCountHandler.result());
-              JsonObject meteringResponse = meteringCountHandler.result();
-              consumedApiCount.put(
-                  "api",
-                  meteringResponse.getJsonArray("results").getJsonObject(0).getInteger("total"));
-              if (jwtAuthStrategy.isAuthorized(authRequest, jwtData, consumedApiCount)) {
-                LOGGER.info("User access is allowed.");
-                promise.complete(createValidateAccessSuccessResponse(jwtData));
-              } else {
-                LOGGER.error("failed - no access provided to endpoint");
-                JsonObject result = new JsonObject().put("401", "no access provided to endpoint");
-                promise.fail(result.toString());
-              }
+      JsonObject usageRequest = new JsonObject().put("userid", jwtData.getSub());
+      meteringService.getUsageCount(
+          usageRequest,
+          usageHandler -> {
+            if (usageHandler.failed()) {
+              LOGGER.error("failed to get usage count : " + usageHandler.cause().getMessage());
+              JsonObject result = new JsonObject().put("401", "no access provided to endpoint");
+              promise.fail(result.toString());
+              return;
+            }
+            LOGGER.debug("usage count : " + usageHandler.result());
+            if (jwtAuthStrategy.isAuthorized(authRequest, jwtData, usageHandler.result())) {
+              LOGGER.info("User access is allowed.");
+              promise.complete(createValidateAccessSuccessResponse(jwtData));
             } else {
-              LOGGER.error("failed to get metering response");
-              String failureMessage = meteringCountHandler.cause().getMessage();
-              JsonObject failureJson = new JsonObject(failureMessage);
-              int failureCode = failureJson.getInteger("type");
-              if (failureCode == 204) {
-                JsonObject consumedApiCount = new JsonObject();
-                consumedApiCount.put("api", 0);
-                if (jwtAuthStrategy.isAuthorized(authRequest, jwtData, consumedApiCount)) {
-                  LOGGER.info("User access is allowed.");
-                  promise.complete(createValidateAccessSuccessResponse(jwtData));
-                } else {
-                  LOGGER.error("failed - no access provided to endpoint");
-                  JsonObject result = new JsonObject().put("401", "no access provided to endpoint");
-                  promise.fail(result.toString());
-                }
-              }
-
-              //          JsonObject result = new JsonObject().put("401", "Access limit exceeds");
-              //          promise.fail(result.toString());
+              LOGGER.error("failed - no access provided to endpoint");
+              JsonObject result = new JsonObject().put("401", "no access provided to endpoint");
+              promise.fail(result.toString());
             }
           });
     } else {
@@ -430,12 +438,15 @@ public class JwtAuthenticationServiceImpl implements AuthenticationService {
             successhandler -> {
               JsonObject responseJson = successhandler;
               LOGGER.debug("responseJson : " + responseJson);
-              String timestamp = responseJson.getString("value");
-
-              LocalDateTime revokedAt = LocalDateTime.parse(timestamp);
-              LocalDateTime jwtIssuedAt =
-                  LocalDateTime.ofInstant(
-                      Instant.ofEpochSecond(jwtData.getIat()), ZoneId.systemDefault());
+              // revocation time is parsed once by the cache, timestamp kept for older entries
+              Long revokedAtMillis = responseJson.getLong(RevokedClientValue.REVOKED_AT);
+              Instant revokedAt =
+                  revokedAtMillis != null
+                      ? Instant.ofEpochMilli(revokedAtMillis)
+                      : LocalDateTime.parse(responseJson.getString("value"))
+                          .atZone(ZoneId.systemDefault())
+                          .toInstant();
+              Instant jwtIssuedAt = Instant.ofEpochSecond(jwtData.getIat());
 
               if (jwtIssuedAt.isBefore(revokedAt)) {
                 LOGGER.info("jwt issued at : " + jwtIssuedAt + " revokedAt : " + revokedAt);
@@ -0,0 +1,119 @@
+package iudx.resource.server.authenticator;
+
+import static iudx.resource.server.common.Constants.CACHE_UPDATE_ADDRESS;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.eventbus.MessageConsumer;
+import io.vertx.core.json.JsonObject;
+import io.vertx.micrometer.backends.BackendRegistries;
+import iudx.resource.server.authenticator.model.JwtData;
+import iudx.resource.server.cache.NearCacheService;
+import iudx.resource.server.cache.cachelmpl.CacheType;
+import java.time.Clock;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Tokens already verified, so the signature of a token is verified once instead of on every
+ * request. Entries are keyed by the SHA-256 of the token and dropped when the token expires, after
+ * <code>ttlSeconds</code> at the latest, or when the client of the token is revoked.
+ *
+ * <p>Hits and misses are exported as <code>rs.jwt.cache</code> cache metrics.
+ */
+public class JwtCache {
+
+  static final String METRICS_NAME = "rs.jwt.cache";
+  private static final Logger LOGGER = LogManager.getLogger(JwtCache.class);
+
+  private final Cache<String, JwtData> cache;
+  private final boolean ignoreExpiry;
+  private final Clock clock;
+  private MessageConsumer<JsonObject> updateConsumer;
+
+  public JwtCache(long maxSize, long ttlSeconds, boolean ignoreExpiry) {
+    this(maxSize, ttlSeconds, ignoreExpiry, Clock.systemUTC());
+  }
+
+  JwtCache(long maxSize, long ttlSeconds, boolean ignoreExpiry, Clock clock) {
+    this.cache =
+        CacheBuilder.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfterWrite(ttlSeconds, TimeUnit.SECONDS)
+            .recordStats()
+            .build();
+    this.ignoreExpiry = ignoreExpiry;
+    this.clock = clock;
+    MeterRegistry registry = BackendRegistries.getDefaultNow();
+    if (registry != null) {
+      GuavaCacheMetrics.monitor(registry, cache, METRICS_NAME);
+    }
+  }
+
+  /**
+   * Drops tokens of revoked clients, on the revoked client updates the cache verticle publishes.
+   *
+   * @param vertx Vertx
+   */
+  public void start(Vertx vertx) {
+    updateConsumer =
+        vertx
+            .eventBus()
+            .<JsonObject>consumer(
+                CACHE_UPDATE_ADDRESS,
+                message -> {
+                  JsonObject update = message.body();
+                  if (!CacheType.REVOKED_CLIENT.name().equals(update.getString("type"))) {
+                    return;
+                  }
+                  if (update.containsKey("key")) {
+                    invalidateSubjects(Set.of(update.getString("key")));
+                  } else if (update.containsKey(NearCacheService.ENTRIES)) {
+                    invalidateSubjects(
+                        update.getJsonObject(NearCacheService.ENTRIES).fieldNames());
+                  }
+                });
+  }
+
+  /** Stops dropping tokens on revoked client updates, called when the verticle is stopped. */
+  public Future<Void> close() {
+    return updateConsumer == null ? Future.succeededFuture() : updateConsumer.unregister();
+  }
+
+  /**
+   * @param token jwt token
+   * @return verified token, null when not cached or expired
+   */
+  public JwtData get(String token) {
+    String key = hash(token);
+    JwtData jwtData = cache.getIfPresent(key);
+    if (jwtData != null
+        && !ignoreExpiry
+        && jwtData.getExp() != null
+        && jwtData.getExp() <= clock.instant().getEpochSecond()) {
+      cache.invalidate(key);
+      return null;
+    }
+    return jwtData;
+  }
+
+  public void put(String token, JwtData jwtData) {
+    cache.put(hash(token), jwtData);
+  }
+
+  public void invalidateSubjects(Set<String> subs) {
+    LOGGER.debug("dropping cached tokens of : {}", subs);
+    cache.asMap().values().removeIf(jwtData -> subs.contains(jwtData.getSub()));
+  }
+
+  static String hash(String token) {
+    return DigestUtils.sha256Hex(token);
+  }
+}
@@ -48,6 +48,7 @@ public class ConsumerAuthStrategy implements AuthorizationStrategy {
     apiAccessList.add(new AuthorizationRequest(GET, api.getEntitiesUrl()));
     apiAccessList.add(new AuthorizationRequest(GET, api.getTemporalUrl()));
     apiAccessList.add(new AuthorizationRequest(POST, api.getPostEntitiesQueryPath()));
+    apiAccessList.add(new AuthorizationRequest(POST, api.getPostLatestQueryPath()));
     apiAccessList.add(new AuthorizationRequest(POST, api.getPostTemporalQueryPath()));
     apiAccessList.add(new AuthorizationRequest(GET, api.getIudxConsumerAuditUrl()));
     apiAccessList.add(new AuthorizationRequest(GET, api.getIudxAsyncSearchApi()));
@@ -1,5 +1,7 @@
 package iudx.resource.server.cache;
 
+import static iudx.resource.server.common.Constants.CACHE_UPDATE_ADDRESS;
+
 import io.vertx.core.Future;
 import io.vertx.core.Promise;
 import io.vertx.core.Vertx;
@@ -7,6 +9,7 @@ import io.vertx.core.json.JsonObject;
 import iudx.resource.server.cache.cachelmpl.CacheType;
 import iudx.resource.server.cache.cachelmpl.CacheValue;
 import iudx.resource.server.cache.cachelmpl.CatalogueCacheImpl;
+import iudx.resource.server.cache.cachelmpl.CatalogueItemCache;
 import iudx.resource.server.cache.cachelmpl.IudxCache;
 import iudx.resource.server.cache.cachelmpl.RevokedClientCache;
 import iudx.resource.server.cache.cachelmpl.UniqueAttributeCache;
@@ -21,14 +24,18 @@ public class CacheServiceImpl implements CacheService {
   private IudxCache revokedClientCache;
   private IudxCache uniqueAttributeCache;
   private IudxCache catalogueCache;
+  private IudxCache catalogueItemCache;
   private PostgresService postgresService;
+  private Vertx vertx;
 
   public CacheServiceImpl(
       Vertx vertx, PostgresService pgService, CatalogueCacheImpl catalogueCache) {
+    this.vertx = vertx;
     this.postgresService = pgService;
     this.revokedClientCache = new RevokedClientCache(vertx, postgresService);
     this.uniqueAttributeCache = new UniqueAttributeCache(vertx, postgresService);
     this.catalogueCache = catalogueCache;
+    this.catalogueItemCache = new CatalogueItemCache(catalogueCache);
   }
 
   /** {@inheritDoc} */
@@ -80,7 +87,7 @@ public class CacheServiceImpl implements CacheService {
     String key = request.getString("key");
     String value = request.getString("value");
     if (cache != null && key != null && value != null) {
-      cache.put(key, cache.createCacheValue(key, value));
+      putAndPublish(request.getString("type"), cache, key, value);
       promise.complete(new JsonObject().put(key, value));
     } else {
       promise.fail("'null' key or value not allowed in cache.");
@@ -105,14 +112,52 @@ public class CacheServiceImpl implements CacheService {
     String value = request.getString("value");
 
     if (cache != null && key != null && value != null) {
-      cache.put(key, cache.createCacheValue(key, value));
+      putAndPublish(request.getString("type"), cache, key, value);
     } else {
-      cache.refreshCache();
+      String type = request.getString("type");
+      IudxCache refreshed = cache;
+      cache
+          .refreshCache()
+          .onSuccess(
+              refreshHandler ->
+                  vertx
+                      .eventBus()
+                      .publish(
+                          CACHE_UPDATE_ADDRESS,
+                          new JsonObject()
+                              .put("type", type)
+                              .put(NearCacheService.ENTRIES, entries(refreshed))));
     }
     promise.complete(new JsonObject());
     return promise.future();
   }
 
+  private void putAndPublish(String type, IudxCache cache, String key, String value) {
+    CacheValue<JsonObject> cacheValue = cache.createCacheValue(key, value);
+    cache.put(key, cacheValue);
+    JsonObject update =
+        new JsonObject().put("type", type).put("key", key).put("value", cacheValue.getValue());
+    vertx.eventBus().publish(CACHE_UPDATE_ADDRESS, update);
+  }
+
+  private JsonObject entries(IudxCache cache) {
+    JsonObject entries = new JsonObject();
+    cache.entries().forEach((key, value) -> entries.put(key, value.getValue()));
+    return entries;
+  }
+
+  /**
+   * All entries of the replicated caches, for near caches of the consuming verticles to load.
+   *
+   * @return json of cache type to json of key and value
+   */
+  public JsonObject snapshot() {
+    return new JsonObject()
+        .put(CacheType.REVOKED_CLIENT.name(), entries(revokedClientCache))
+        .put(CacheType.UNIQUE_ATTRIBUTE.name(), entries(uniqueAttributeCache))
+        .put(CacheType.CATALOGUE_CACHE.name(), entries(catalogueCache));
+  }
+
   private IudxCache getCache(JsonObject json) {
     if (!json.containsKey("type")) {
       throw new IllegalArgumentException("No cache type specified");
@@ -130,6 +175,9 @@ public class CacheServiceImpl implements CacheService {
       case CATALOGUE_CACHE:
         cache = catalogueCache;
         break;
+      case CATALOGUE_ITEM:
+        cache = catalogueItemCache;
+        break;
       default:
         throw new IllegalArgumentException("No cache type specified");
     }
@@ -1,6 +1,7 @@
 package iudx.resource.server.cache;
 
 import static iudx.resource.server.common.Constants.CACHE_SERVICE_ADDRESS;
+import static iudx.resource.server.common.Constants.CACHE_SNAPSHOT_ADDRESS;
 import static iudx.resource.server.common.Constants.PG_SERVICE_ADDRESS;
 
 import io.vertx.core.AbstractVerticle;
@@ -17,9 +18,10 @@ public class CacheVerticle extends AbstractVerticle {
   private static final Logger LOGGER = LogManager.getLogger(CacheVerticle.class);
 
   private MessageConsumer<JsonObject> consumer;
+  private MessageConsumer<JsonObject> snapshotConsumer;
   private ServiceBinder binder;
 
-  private CacheService cacheService;
+  private CacheServiceImpl cacheService;
   private PostgresService pgService;
   private CatalogueCacheImpl catalogueCache;
 
@@ -32,6 +34,10 @@ public class CacheVerticle extends AbstractVerticle {
 
     binder = new ServiceBinder(vertx);
     consumer = binder.setAddress(CACHE_SERVICE_ADDRESS).register(CacheService.class, cacheService);
+    snapshotConsumer =
+        vertx
+            .eventBus()
+            .consumer(CACHE_SNAPSHOT_ADDRESS, message -> message.reply(cacheService.snapshot()));
 
     LOGGER.info("Cache Verticle deployed.");
   }
@@ -39,5 +45,6 @@ public class CacheVerticle extends AbstractVerticle {
   @Override
   public void stop() {
     binder.unregister(consumer);
+    snapshotConsumer.unregister();
   }
 }
@@ -0,0 +1,179 @@
+package iudx.resource.server.cache;
+
+import static iudx.resource.server.common.Constants.CACHE_SNAPSHOT_ADDRESS;
+import static iudx.resource.server.common.Constants.CACHE_UPDATE_ADDRESS;
+
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.eventbus.MessageConsumer;
+import io.vertx.core.json.JsonObject;
+import iudx.resource.server.cache.cachelmpl.CacheType;
+import iudx.resource.server.common.CatalogueItem;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Read only replica of the caches of {@link CacheVerticle} held by a consuming verticle, so
+ * lookups are in memory reads instead of event bus calls to the single cache verticle.
+ *
+ * <p>The replica is loaded from a snapshot at startup and every <code>nearCacheSyncMillis</code>,
+ * and kept current with the updates the cache verticle publishes on {@link
+ * iudx.resource.server.common.Constants#CACHE_UPDATE_ADDRESS} when caches are put or refreshed.
+ * Writes, and reads of caches not loaded yet or catalogue ids not replicated, go to the cache
+ * verticle.
+ */
+public class NearCacheService implements CacheService {
+
+  static final long DEFAULT_SYNC_MILLIS = 600000;
+  public static final String ENTRIES = "entries";
+  private static final Logger LOGGER = LogManager.getLogger(NearCacheService.class);
+
+  private final Vertx vertx;
+  private final CacheService cacheService;
+  private final Map<CacheType, Map<String, JsonObject>> replicas = new ConcurrentHashMap<>();
+  private MessageConsumer<JsonObject> updateConsumer;
+  private long syncTimerId = -1;
+
+  NearCacheService(Vertx vertx, CacheService cacheService) {
+    this.vertx = vertx;
+    this.cacheService = cacheService;
+  }
+
+  /**
+   * Creates the cache service of a consuming verticle, a near cache when <code>enableNearCache
+   * </code> is set in config, else the event bus proxy of the cache verticle.
+   *
+   * @param vertx Vertx
+   * @param address address of the cache service
+   * @param config config of the verticle
+   * @return CacheService
+   */
+  public static CacheService create(Vertx vertx, String address, JsonObject config) {
+    CacheService proxy = CacheService.createProxy(vertx, address);
+    if (!config.getBoolean("enableNearCache", false)) {
+      return proxy;
+    }
+    NearCacheService nearCache = new NearCacheService(vertx, proxy);
+    nearCache.start(config.getLong("nearCacheSyncMillis", DEFAULT_SYNC_MILLIS));
+    return nearCache;
+  }
+
+  /**
+   * Stops a near cache created by {@link #create(Vertx, String, JsonObject)} from following the
+   * cache verticle, to be called when the owning verticle stops.
+   *
+   * @param cacheService cache service of the verticle, nothing is done unless it is a near cache
+   * @return Future completed once the update consumer is unregistered
+   */
+  public static Future<Void> close(CacheService cacheService) {
+    if (cacheService instanceof NearCacheService) {
+      return ((NearCacheService) cacheService).close();
+    }
+    return Future.succeededFuture();
+  }
+
+  void start(long syncMillis) {
+    updateConsumer =
+        vertx
+            .eventBus()
+            .<JsonObject>consumer(CACHE_UPDATE_ADDRESS, message -> apply(message.body()));
+    sync();
+    syncTimerId = vertx.setPeriodic(syncMillis, handler -> sync());
+  }
+
+  /** Cancels the periodic sync and unregisters the consumer of cache updates. */
+  Future<Void> close() {
+    vertx.cancelTimer(syncTimerId);
+    return updateConsumer == null ? Future.succeededFuture() : updateConsumer.unregister();
+  }
+
+  private void sync() {
+    vertx
+        .eventBus()
+        .<JsonObject>request(CACHE_SNAPSHOT_ADDRESS, new JsonObject())
+        .onSuccess(
+            snapshot -> {
+              JsonObject caches = snapshot.body();
+              caches.fieldNames().forEach(type -> apply(caches.getJsonObject(type), type));
+              LOGGER.debug("near cache synced");
+            })
+        .onFailure(failure -> LOGGER.warn("near cache sync failed : {}", failure.getMessage()));
+  }
+
+  void apply(JsonObject update) {
+    String type = update.getString("type");
+    if (update.containsKey(ENTRIES)) {
+      apply(update.getJsonObject(ENTRIES), type);
+    } else {
+      Map<String, JsonObject> replica = replicas.get(CacheType.valueOf(type));
+      if (replica != null) {
+        replica.put(update.getString("key"), update.getJsonObject("value"));
+      }
+    }
+  }
+
+  private void apply(JsonObject entries, String type) {
+    Map<String, JsonObject> replica = new ConcurrentHashMap<>();
+    entries.forEach(entry -> replica.put(entry.getKey(), (JsonObject) entry.getValue()));
+    replicas.put(CacheType.valueOf(type), replica);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public Future<JsonObject> get(JsonObject request) {
+    CacheType cacheType;
+    try {
+      cacheType = CacheType.valueOf(request.getString("type"));
+    } catch (IllegalArgumentException | NullPointerException ex) {
+      LOGGER.error("No cache defined for given argument.");
+      return Future.failedFuture("No cache defined for given type");
+    }
+    String key = request.getString("key");
+    if (key == null) {
+      return Future.failedFuture("null key passed.");
+    }
+    if (cacheType == CacheType.CATALOGUE_ITEM) {
+      CatalogueItem item = getCatalogueItem(key);
+      return item != null ? Future.succeededFuture(item.toJson()) : cacheService.get(request);
+    }
+    Map<String, JsonObject> replica = replicas.get(cacheType);
+    if (replica == null) {
+      return cacheService.get(request);
+    }
+    JsonObject value = replica.get(key);
+    if (value != null) {
+      return Future.succeededFuture(value.copy());
+    }
+    // catalogue cache loads missing ids from the catalogue server, others hold all entries
+    return cacheType == CacheType.CATALOGUE_CACHE
+        ? cacheService.get(request)
+        : Future.failedFuture("No entry for given key");
+  }
+
+  private CatalogueItem getCatalogueItem(String id) {
+    Map<String, JsonObject> catalogue = replicas.get(CacheType.CATALOGUE_CACHE);
+    JsonObject item = catalogue == null ? null : catalogue.get(id);
+    if (item == null) {
+      return null;
+    }
+    CatalogueItem unresolved = CatalogueItem.resolve(item, null);
+    if (!unresolved.isResource() || unresolved.getResourceGroup() == null) {
+      return CatalogueItem.resolve(item, item);
+    }
+    return CatalogueItem.resolve(item, catalogue.get(unresolved.getResourceGroup()));
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public Future<JsonObject> put(JsonObject request) {
+    return cacheService.put(request);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public Future<JsonObject> refresh(JsonObject request) {
+    return cacheService.refresh(request);
+  }
+}
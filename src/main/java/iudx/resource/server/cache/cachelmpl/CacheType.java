@@ -3,7 +3,8 @@ package iudx.resource.server.cache.cachelmpl;
 public enum CacheType {
   REVOKED_CLIENT("revoked_client"),
   UNIQUE_ATTRIBUTE("unique_attribute"),
-  CATALOGUE_CACHE("catalogue_cache");
+  CATALOGUE_CACHE("catalogue_cache"),
+  CATALOGUE_ITEM("catalogue_item");
 
   String cacheName;
 
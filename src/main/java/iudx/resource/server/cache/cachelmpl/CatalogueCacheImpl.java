@@ -1,5 +1,7 @@
 package iudx.resource.server.cache.cachelmpl;
 
+import static iudx.resource.server.common.Constants.CACHE_UPDATE_ADDRESS;
+
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
 import io.vertx.core.Future;
@@ -10,24 +12,43 @@ import io.vertx.core.json.JsonObject;
 import io.vertx.ext.web.client.WebClient;
 import io.vertx.ext.web.client.WebClientOptions;
 import io.vertx.ext.web.client.predicate.ResponsePredicate;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+/**
+ * Cache of active catalogue items.
+ *
+ * <p>The whole catalogue is loaded at startup and every hour, concurrent refreshes share a single
+ * catalogue search and the loaded items replace the cache at once. Ids missing from the cache are
+ * looked up individually, ids not found are remembered for {@link #NOT_FOUND_TTL_SECONDS}. Items
+ * looked up are published as cache updates, for the near caches to serve them too.
+ */
 public class CatalogueCacheImpl implements IudxCache {
 
+  static final long NOT_FOUND_TTL_SECONDS = 60;
   private static final Logger LOGGER = LogManager.getLogger(CatalogueCacheImpl.class);
   private static final CacheType cacheType = CacheType.CATALOGUE_CACHE;
 
   static WebClient catWebClient;
-  private final Cache<String, CacheValue<JsonObject>> cache =
-      CacheBuilder.newBuilder().maximumSize(5000).expireAfterWrite(1L, TimeUnit.DAYS).build();
+  private final Cache<String, Boolean> notFound =
+      CacheBuilder.newBuilder()
+          .maximumSize(5000)
+          .expireAfterWrite(NOT_FOUND_TTL_SECONDS, TimeUnit.SECONDS)
+          .build();
+  private final Map<String, Future<CacheValue<JsonObject>>> itemLookups = new HashMap<>();
+  private volatile Cache<String, CacheValue<JsonObject>> cache = newCache();
+  private final Vertx vertx;
+  private Future<Void> refresh;
   private String catHost;
   private int catPort;
   private String catBasePath;
 
   public CatalogueCacheImpl(Vertx vertx, JsonObject config) {
     LOGGER.debug("config : {}", config);
+    this.vertx = vertx;
     this.catHost = config.getString("catServerHost");
     this.catPort = config.getInteger("catServerPort");
     this.catBasePath = config.getString("dxCatalogueBasePath");
@@ -51,41 +72,88 @@ public class CatalogueCacheImpl implements IudxCache {
         "Adding elements in cache are not allowed, only refresh can be used");
   }
 
+  private static Cache<String, CacheValue<JsonObject>> newCache() {
+    return CacheBuilder.newBuilder().maximumSize(5000).expireAfterWrite(1L, TimeUnit.DAYS).build();
+  }
+
   @Override
   public Future<CacheValue<JsonObject>> get(String key) {
     LOGGER.trace("request for id : {}", key);
+    CacheValue<JsonObject> value = cache.getIfPresent(key);
+    if (value != null) {
+      return Future.succeededFuture(value);
+    }
+    if (notFound.getIfPresent(key) != null) {
+      return Future.failedFuture("key not found");
+    }
+    Future<CacheValue<JsonObject>> lookup = itemLookups.get(key);
+    if (lookup == null) {
+      lookup = lookupItem(key);
+      itemLookups.put(key, lookup);
+      lookup.onComplete(lookupHandler -> itemLookups.remove(key));
+    }
+    return lookup;
+  }
+
+  private Future<CacheValue<JsonObject>> lookupItem(String id) {
     Promise<CacheValue<JsonObject>> promise = Promise.promise();
-    if (cache.getIfPresent(key) != null) {
-      return Future.succeededFuture(cache.getIfPresent(key));
-    } else {
-      populateCache()
-          .onSuccess(
-              successHandler -> {
-                if (cache.getIfPresent(key) != null) {
-                  promise.complete(cache.getIfPresent(key));
-                } else {
-                  LOGGER.info("key :{} not found in cache/catatlgue server", key);
-                  promise.fail("key not found");
-                }
-              })
-          .onFailure(
-              failureHandler -> {
+    catWebClient
+        .get(catPort, catHost, catBasePath + "/item")
+        .addQueryParam("id", id)
+        .expect(ResponsePredicate.JSON)
+        .send(
+            catHandler -> {
+              if (catHandler.failed()) {
+                LOGGER.error("catalogue item lookup failed for id : {}", id);
                 promise.fail("Value not found");
-              });
-    }
+                return;
+              }
+              JsonArray results =
+                  catHandler.result().statusCode() == 200
+                      ? catHandler.result().bodyAsJsonObject().getJsonArray("results")
+                      : null;
+              JsonObject item =
+                  results == null || results.isEmpty() ? null : results.getJsonObject(0);
+              if (item == null
+                  || !id.equals(item.getString("id"))
+                  || !"ACTIVE".equals(item.getString("itemStatus", "ACTIVE"))) {
+                LOGGER.info("key :{} not found in cache/catatlgue server", id);
+                notFound.put(id, Boolean.TRUE);
+                promise.fail("key not found");
+                return;
+              }
+              CacheValue<JsonObject> cacheValue = new CatalogueValue(item);
+              cache.put(id, cacheValue);
+              JsonObject update =
+                  new JsonObject()
+                      .put("type", cacheType.name())
+                      .put("key", id)
+                      .put("value", cacheValue.getValue());
+              vertx.eventBus().publish(CACHE_UPDATE_ADDRESS, update);
+              promise.complete(cacheValue);
+            });
     return promise.future();
   }
 
+  @Override
+  public Map<String, CacheValue<JsonObject>> entries() {
+    return cache.asMap();
+  }
+
   @Override
   public Future<Void> refreshCache() {
-    populateCache();
     LOGGER.trace(cacheType + " refreshCache() called");
-    return Future.succeededFuture();
+    return populateCache();
   }
 
   private Future<Void> populateCache() {
+    if (refresh != null) {
+      return refresh;
+    }
     LOGGER.debug("refresh() cache started");
     Promise<Void> promise = Promise.promise();
+    refresh = promise.future();
+    refresh.onComplete(refreshHandler -> refresh = null);
     String url = catBasePath + "/search";
     catWebClient
         .get(catPort, catHost, url)
@@ -100,14 +168,15 @@ public class CatalogueCacheImpl implements IudxCache {
             catHandler -> {
               if (catHandler.succeeded()) {
                 JsonArray response = catHandler.result().bodyAsJsonObject().getJsonArray("results");
-                cache.invalidateAll();
+                Cache<String, CacheValue<JsonObject>> loaded = newCache();
                 response.forEach(
                     json -> {
                       JsonObject res = (JsonObject) json;
                       String id = res.getString("id");
-                      CacheValue<JsonObject> cacheValue = createCacheValue(id, res.toString());
-                      cache.put(id, cacheValue);
+                      loaded.put(id, new CatalogueValue(res));
                     });
+                cache = loaded;
+                notFound.invalidateAll();
                 LOGGER.debug("refresh() cache completed");
                 promise.complete();
               } else if (catHandler.failed()) {
@@ -121,11 +190,6 @@ public class CatalogueCacheImpl implements IudxCache {
 
   @Override
   public CacheValue<JsonObject> createCacheValue(String key, String value) {
-    return new CacheValue<JsonObject>() {
-      @Override
-      public JsonObject getValue() {
-        return new JsonObject(value);
-      }
-    };
+    return new CatalogueValue(value);
   }
 }
@@ -0,0 +1,66 @@
+package iudx.resource.server.cache.cachelmpl;
+
+import io.vertx.core.Future;
+import io.vertx.core.json.JsonObject;
+import iudx.resource.server.common.CatalogueItem;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Resolved view of the catalogue cache, values are {@link CatalogueItem} json of an item resolved
+ * against its resource group. Lets a caller get everything it needs of an id in a single cache
+ * call instead of fetching the item and its group separately.
+ */
+public class CatalogueItemCache implements IudxCache {
+
+  private static final Logger LOGGER = LogManager.getLogger(CatalogueItemCache.class);
+
+  private final IudxCache catalogueCache;
+
+  public CatalogueItemCache(IudxCache catalogueCache) {
+    this.catalogueCache = catalogueCache;
+  }
+
+  @Override
+  public Future<Void> put(String key, CacheValue<JsonObject> value) {
+    throw new RuntimeException(
+        "Adding elements in cache are not allowed, only refresh can be used");
+  }
+
+  @Override
+  public Future<CacheValue<JsonObject>> get(String key) {
+    LOGGER.trace("request for id : {}", key);
+    return catalogueCache
+        .get(key)
+        .compose(
+            itemValue -> {
+              JsonObject item = itemValue.getValue();
+              CatalogueItem unresolved =
+                  itemValue instanceof CatalogueValue
+                      ? ((CatalogueValue) itemValue).getItem()
+                      : CatalogueItem.resolve(item, null);
+              if (!unresolved.isResource() || unresolved.getResourceGroup() == null) {
+                return Future.succeededFuture(resolved(item, item));
+              }
+              return catalogueCache
+                  .get(unresolved.getResourceGroup())
+                  .map(groupValue -> resolved(item, groupValue.getValue()))
+                  .otherwise(resolved(item, null));
+            });
+  }
+
+  private CacheValue<JsonObject> resolved(JsonObject item, JsonObject group) {
+    JsonObject value = CatalogueItem.resolve(item, group).toJson();
+    return () -> value;
+  }
+
+  @Override
+  public Future<Void> refreshCache() {
+    return catalogueCache.refreshCache();
+  }
+
+  @Override
+  public CacheValue<JsonObject> createCacheValue(String key, String value) {
+    return new CatalogueValue(value);
+  }
+}
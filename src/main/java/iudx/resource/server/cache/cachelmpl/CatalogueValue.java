@@ -0,0 +1,33 @@
+package iudx.resource.server.cache.cachelmpl;
+
+import io.vertx.core.json.JsonObject;
+import iudx.resource.server.common.CatalogueItem;
+
+/**
+ * Catalogue item parsed once when cached. Besides the item json, holds the item as a {@link
+ * CatalogueItem} not resolved against its group, so the types, resource group and access policy
+ * of the item are read without parsing. The json is shared and must not be modified.
+ */
+public final class CatalogueValue implements CacheValue<JsonObject> {
+
+  private final JsonObject json;
+  private final CatalogueItem item;
+
+  public CatalogueValue(String value) {
+    this(new JsonObject(value));
+  }
+
+  public CatalogueValue(JsonObject json) {
+    this.json = json;
+    this.item = CatalogueItem.resolve(json, null);
+  }
+
+  public CatalogueItem getItem() {
+    return item;
+  }
+
+  @Override
+  public JsonObject getValue() {
+    return json;
+  }
+}
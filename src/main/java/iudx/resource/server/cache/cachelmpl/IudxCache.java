@@ -2,6 +2,8 @@ package iudx.resource.server.cache.cachelmpl;
 
 import io.vertx.core.Future;
 import io.vertx.core.json.JsonObject;
+import java.util.Collections;
+import java.util.Map;
 
 public interface IudxCache {
 
@@ -12,4 +14,11 @@ public interface IudxCache {
   Future<Void> refreshCache();
 
   CacheValue<JsonObject> createCacheValue(String key, String value);
+
+  /**
+   * @return view of all entries of the cache, empty for caches derived from other caches
+   */
+  default Map<String, CacheValue<JsonObject>> entries() {
+    return Collections.emptyMap();
+  }
 }
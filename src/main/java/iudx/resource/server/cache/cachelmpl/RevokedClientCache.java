@@ -9,6 +9,7 @@ import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
 import iudx.resource.server.common.Constants;
 import iudx.resource.server.database.postgres.PostgresService;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -49,6 +50,11 @@ public class RevokedClientCache implements IudxCache {
     }
   }
 
+  @Override
+  public Map<String, CacheValue<JsonObject>> entries() {
+    return cache.asMap();
+  }
+
   @Override
   public Future<Void> refreshCache() {
     LOGGER.trace(cacheType + " refreshCache() called");
@@ -78,15 +84,6 @@ public class RevokedClientCache implements IudxCache {
 
   @Override
   public CacheValue<JsonObject> createCacheValue(String key, String expiry) {
-    return new CacheValue<JsonObject>() {
-      @Override
-      public JsonObject getValue() {
-        JsonObject value = new JsonObject();
-        value.put("id", key);
-        value.put("expiry", expiry);
-        value.put("value", expiry);
-        return value;
-      }
-    };
+    return new RevokedClientValue(key, expiry);
   }
 }
@@ -0,0 +1,59 @@
+package iudx.resource.server.cache.cachelmpl;
+
+import io.vertx.core.json.JsonObject;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Revocation of a client, the expiry timestamp is parsed once when cached and kept as epoch millis
+ * alongside the json handed out by {@link #getValue()}. The json is shared and must not be
+ * modified.
+ */
+public final class RevokedClientValue implements CacheValue<JsonObject> {
+
+  public static final String REVOKED_AT = "revokedAt";
+
+  private final String id;
+  private final String expiry;
+  private final Long revokedAt;
+  private final JsonObject json;
+
+  public RevokedClientValue(String id, String expiry) {
+    this.id = id;
+    this.expiry = expiry;
+    this.revokedAt = toEpochMillis(expiry);
+    this.json = new JsonObject().put("id", id).put("expiry", expiry).put("value", expiry);
+    if (revokedAt != null) {
+      json.put(REVOKED_AT, revokedAt);
+    }
+  }
+
+  private static Long toEpochMillis(String expiry) {
+    try {
+      return LocalDateTime.parse(expiry).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    } catch (DateTimeParseException | NullPointerException ex) {
+      return null;
+    }
+  }
+
+  public String getId() {
+    return id;
+  }
+
+  public String getExpiry() {
+    return expiry;
+  }
+
+  /**
+   * @return revocation time as epoch millis, null when the expiry isn't a valid timestamp
+   */
+  public Long getRevokedAt() {
+    return revokedAt;
+  }
+
+  @Override
+  public JsonObject getValue() {
+    return json;
+  }
+}
@@ -9,6 +9,7 @@ import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
 import iudx.resource.server.common.Constants;
 import iudx.resource.server.database.postgres.PostgresService;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -49,6 +50,11 @@ public class UniqueAttributeCache implements IudxCache {
     }
   }
 
+  @Override
+  public Map<String, CacheValue<JsonObject>> entries() {
+    return cache.asMap();
+  }
+
   @Override
   public Future<Void> refreshCache() {
     Promise<Void> promise = Promise.promise();
@@ -78,16 +84,6 @@ public class UniqueAttributeCache implements IudxCache {
 
   @Override
   public CacheValue<JsonObject> createCacheValue(String id, String uniqueAttrib) {
-    return new CacheValue<JsonObject>() {
-      @Override
-      public JsonObject getValue() {
-        JsonObject value = new JsonObject();
-        value.put("resource_id", id);
-        value.put("key", id);
-        value.put("unique_attribute", uniqueAttrib);
-        value.put("value", uniqueAttrib);
-        return value;
-      }
-    };
+    return new UniqueAttributeValue(id, uniqueAttrib);
   }
 }
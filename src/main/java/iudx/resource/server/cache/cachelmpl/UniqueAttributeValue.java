@@ -0,0 +1,35 @@
+package iudx.resource.server.cache.cachelmpl;
+
+import io.vertx.core.json.JsonObject;
+
+/** Unique attribute of a resource, the json handed out is built once and must not be modified. */
+public final class UniqueAttributeValue implements CacheValue<JsonObject> {
+
+  private final String id;
+  private final String uniqueAttribute;
+  private final JsonObject json;
+
+  public UniqueAttributeValue(String id, String uniqueAttribute) {
+    this.id = id;
+    this.uniqueAttribute = uniqueAttribute;
+    this.json =
+        new JsonObject()
+            .put("resource_id", id)
+            .put("key", id)
+            .put("unique_attribute", uniqueAttribute)
+            .put("value", uniqueAttribute);
+  }
+
+  public String getId() {
+    return id;
+  }
+
+  public String getUniqueAttribute() {
+    return uniqueAttribute;
+  }
+
+  @Override
+  public JsonObject getValue() {
+    return json;
+  }
+}
@@ -11,6 +11,7 @@ public class Api {
   private StringBuilder subscriptionUrl;
   private StringBuilder postTemporalQueryPath;
   private StringBuilder postEntitiesQueryPath;
+  private StringBuilder postLatestQueryPath;
   private StringBuilder iudxAsyncSearchApi;
   private StringBuilder iudxAsyncStatusApi;
   private StringBuilder iudxConsumerAuditUrl;
@@ -46,6 +47,7 @@ public class Api {
         new StringBuilder(dxApiBasePath).append(NGSILD_POST_TEMPORAL_QUERY_PATH);
     postEntitiesQueryPath =
         new StringBuilder(dxApiBasePath).append(NGSILD_POST_ENTITIES_QUERY_PATH);
+    postLatestQueryPath = new StringBuilder(dxApiBasePath).append(NGSILD_POST_LATEST_QUERY_PATH);
     iudxAsyncSearchApi = new StringBuilder(dxApiBasePath).append(IUDX_ASYNC_SEARCH_API);
     iudxConsumerAuditUrl = new StringBuilder(dxApiBasePath).append(IUDX_CONSUMER_AUDIT_URL);
     iudxProviderAuditUrl = new StringBuilder(dxApiBasePath).append(IUDX_PROVIDER_AUDIT_URL);
@@ -78,6 +80,10 @@ public class Api {
     return postEntitiesQueryPath.toString();
   }
 
+  public String getPostLatestQueryPath() {
+    return postLatestQueryPath.toString();
+  }
+
   public String getIudxAsyncSearchApi() {
     return iudxAsyncSearchApi.toString();
   }
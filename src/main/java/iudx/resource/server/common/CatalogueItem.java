@@ -0,0 +1,169 @@
+package iudx.resource.server.common;
+
+import static iudx.resource.server.database.archives.Constants.ITEM_TYPES;
+import static iudx.resource.server.database.archives.Constants.ITEM_TYPE_RESOURCE;
+
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Catalogue item of a request resolved against its resource group, so the access policy, applicable
+ * filters and index of an id are looked up once per request.
+ *
+ * <p>It is attached to the <code>RoutingContext</code> under {@link #CATALOGUE_ITEM} and passed to
+ * other verticles as json under the same key.
+ */
+public final class CatalogueItem {
+
+  public static final String CATALOGUE_ITEM = "catalogueItem";
+  private static final String ID = "id";
+  private static final String TYPE = "type";
+  private static final String RESOURCE_GROUP = "resourceGroup";
+  private static final String PROVIDER = "provider";
+  private static final String ACCESS_POLICY = "accessPolicy";
+  private static final String RESOURCE_APIS = "iudxResourceAPIs";
+  private static final String APPLICABLE_FILTERS = "applicableFilters";
+
+  private final String id;
+  private final Set<String> types;
+  private final String resourceGroup;
+  private final String provider;
+  private final String accessPolicy;
+  private final List<String> applicableFilters;
+
+  private CatalogueItem(
+      String id,
+      Set<String> types,
+      String resourceGroup,
+      String provider,
+      String accessPolicy,
+      List<String> applicableFilters) {
+    this.id = id;
+    this.types = Collections.unmodifiableSet(types);
+    this.resourceGroup = resourceGroup;
+    this.provider = provider;
+    this.accessPolicy = accessPolicy;
+    this.applicableFilters = Collections.unmodifiableList(applicableFilters);
+  }
+
+  /**
+   * Resolves a catalogue item against its resource group. Access policy of the item takes
+   * precedence over the one of its group, applicable filters are the union of both.
+   *
+   * @param item catalogue json of the item
+   * @param group catalogue json of the resource group of the item, null when not found
+   * @return resolved CatalogueItem
+   */
+  public static CatalogueItem resolve(JsonObject item, JsonObject group) {
+    Set<String> types = new LinkedHashSet<>();
+    for (Object type : item.getJsonArray(TYPE, new JsonArray())) {
+      String[] typeParts = type.toString().split(":");
+      String itemType = typeParts[typeParts.length - 1];
+      if (ITEM_TYPES.contains(itemType)) {
+        types.add(itemType);
+      }
+    }
+    String id = item.getString(ID);
+    String resourceGroup =
+        types.contains(ITEM_TYPE_RESOURCE) ? item.getString(RESOURCE_GROUP) : id;
+
+    String accessPolicy = item.getString(ACCESS_POLICY);
+    Set<String> filters = new LinkedHashSet<>();
+    if (group != null) {
+      if (accessPolicy == null) {
+        accessPolicy = group.getString(ACCESS_POLICY);
+      }
+      addFilters(filters, group);
+    }
+    addFilters(filters, item);
+    return new CatalogueItem(
+        id, types, resourceGroup, item.getString(PROVIDER), accessPolicy, new ArrayList<>(filters));
+  }
+
+  private static void addFilters(Set<String> filters, JsonObject json) {
+    JsonArray resourceApis = json.getJsonArray(RESOURCE_APIS);
+    if (resourceApis != null) {
+      resourceApis.forEach(api -> filters.add(api.toString()));
+    }
+  }
+
+  public static CatalogueItem fromJson(JsonObject json) {
+    Set<String> types = new LinkedHashSet<>();
+    json.getJsonArray(TYPE, new JsonArray()).forEach(type -> types.add(type.toString()));
+    List<String> filters = new ArrayList<>();
+    json.getJsonArray(APPLICABLE_FILTERS, new JsonArray())
+        .forEach(filter -> filters.add(filter.toString()));
+    return new CatalogueItem(
+        json.getString(ID),
+        types,
+        json.getString(RESOURCE_GROUP),
+        json.getString(PROVIDER),
+        json.getString(ACCESS_POLICY),
+        filters);
+  }
+
+  public JsonObject toJson() {
+    return new JsonObject()
+        .put(ID, id)
+        .put(TYPE, new JsonArray(new ArrayList<>(types)))
+        .put(RESOURCE_GROUP, resourceGroup)
+        .put(PROVIDER, provider)
+        .put(ACCESS_POLICY, accessPolicy)
+        .put(APPLICABLE_FILTERS, new JsonArray(new ArrayList<>(applicableFilters)));
+  }
+
+  public String getId() {
+    return id;
+  }
+
+  /**
+   * @return item types (Resource, ResourceGroup, ResourceServer or Provider) without prefix
+   */
+  public Set<String> getTypes() {
+    return types;
+  }
+
+  public boolean isResource() {
+    return types.contains(ITEM_TYPE_RESOURCE);
+  }
+
+  /**
+   * @return id of the resource group, or the id itself when the item isn't a resource
+   */
+  public String getResourceGroup() {
+    return resourceGroup;
+  }
+
+  public String getProvider() {
+    return provider;
+  }
+
+  /**
+   * @return access policy of the item or of its group, null when neither defines one
+   */
+  public String getAccessPolicy() {
+    return accessPolicy;
+  }
+
+  public List<String> getApplicableFilters() {
+    return applicableFilters;
+  }
+
+  /**
+   * Elasticsearch index holding the data of the item.
+   *
+   * @param tenantPrefix tenant prefix of the indexes, <code>none</code> when not prefixed
+   * @return index name
+   */
+  public String getIndexName(String tenantPrefix) {
+    if (!"none".equals(tenantPrefix)) {
+      return tenantPrefix + "__" + resourceGroup;
+    }
+    return resourceGroup;
+  }
+}
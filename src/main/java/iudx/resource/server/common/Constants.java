@@ -13,6 +13,13 @@ public class Constants {
   public static final String BROKER_SERVICE_ADDRESS = "iudx.rs.broker.service";
   public static final String METERING_SERVICE_ADDRESS = "iudx.rs.metering.service";
   public static final String ENCRYPTION_SERVICE_ADDRESS = "iudx.rs.encryption.service";
+  /* event bus address to drop cached latest data, body {"id": id} or {} for all ids */
+  public static final String LATEST_CACHE_INVALIDATE_ADDRESS = "iudx.rs.latest.cache.invalidate";
+  /* event bus addresses of cache verticle replicas, see NearCacheService */
+  public static final String CACHE_SNAPSHOT_ADDRESS = "iudx.rs.cache.snapshot";
+  public static final String CACHE_UPDATE_ADDRESS = "iudx.rs.cache.update";
+  /* event bus address of audited API calls, body {"userid": id}, see UsageCounters */
+  public static final String USAGE_INCREMENT_ADDRESS = "iudx.rs.usage.increment";
   public static final String CREATE_INGESTION_SQL =
       "INSERT INTO "
           + "adaptors_details(exchange_name,resource_id,dataset_name,dataset_details_json,user_id,providerid) "
@@ -2,6 +2,7 @@ package iudx.resource.server.database.archives;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 
 public class Constants {
   /* General Purpose */
@@ -38,6 +39,8 @@ public class Constants {
   public static final String COUNT = "count";
   public static final String TOTAL_HITS = "totalHits";
   public static final String FROM_KEY = "from";
+  /* indices of the resources of a multi id search, comma joined into a single search */
+  public static final String SEARCH_INDICES = "searchIndices";
   /* Request Params */
   /* Temporal */
   public static final String REQ_TIMEREL = "timerel";
@@ -59,6 +62,10 @@ public class Constants {
   public static final String LINESTRING = "linestring";
   public static final String GEO_PROPERTY = "geoproperty";
   public static final String BBOX = "bbox";
+  /* lines and polygon rings with more points are simplified */
+  public static final int MAX_SHAPE_POINTS = 1000;
+  /* max distance in degrees of points dropped by simplification, about a metre */
+  public static final double SHAPE_SIMPLIFY_TOLERANCE = 0.00001;
   /* Response Filter */
   public static final String RESPONSE_ATTRS = "attrs";
   /* Attribute */
@@ -79,6 +86,18 @@ public class Constants {
   /*pagination*/
   public static final String PARAM_SIZE = "limit";
   public static final String PARAM_FROM = "offset";
+  public static final String PARAM_CURSOR = "cursor";
+  public static final String NEXT_CURSOR = "nextCursor";
+  /* max indices (ids x partitions) searched with a cursor, its PIT id grows with every shard */
+  public static final int MAX_CURSOR_INDICES = 24;
+
+  /* aggregation */
+  public static final String AGGR_METHODS = "aggrMethods";
+  public static final String AGGR_PERIOD = "aggrPeriodDuration";
+  public static final List<String> ALLOWED_AGGR_METHODS =
+      List.of("avg", "min", "max", "sum", "count", "percentiles");
+  /* max buckets of an aggregation response, well under the search.max_buckets of ES */
+  public static final int MAX_AGGREGATION_BUCKETS = 10000;
 
   /* Errors */
   public static final String INVALID_OPERATOR = "Invalid operator";
@@ -115,6 +134,7 @@ public class Constants {
   public static final String RESPONSE_FILTER_REGEX = "(.*)responseFilter(.*)";
   public static final String ATTRIBUTE_SEARCH_REGEX = "(.*)attributeSearch(.*)";
   public static final String TEMPORAL_SEARCH_REGEX = "(.*)temporalSearch(.*)";
+  public static final String AGGREGATION_SEARCH_REGEX = "(.*)aggregationSearch(.*)";
   public static final String LATEST_SEARCH = "latestSearch";
   /* Query templates */
   public static final String GEO_SHAPE_QUERY =
@@ -146,5 +166,7 @@ public class Constants {
 
   public static final int DEFAULT_SIZE_VALUE = 5000;
   public static final int DEFAULT_FROM_VALUE = 0;
+  /* max hits allowed in a search response, beyond this 413 is returned */
+  public static final int MAX_TOTAL_HITS = 50000;
   public static final String COUNT_MATCH_ALL_QUERY = "{\"query\": { \"match_all\": {} }}";
 }
@@ -8,13 +8,19 @@ import io.vertx.core.Future;
 import io.vertx.core.Promise;
 import io.vertx.core.json.JsonObject;
 import iudx.resource.server.cache.CacheService;
-import iudx.resource.server.cache.cachelmpl.CacheType;
+import iudx.resource.server.common.CatalogueItem;
 import iudx.resource.server.common.ResponseUrn;
 import iudx.resource.server.database.elastic.ElasticClient;
+import iudx.resource.server.database.elastic.IndexResolver;
 import iudx.resource.server.database.elastic.QueryDecoder;
+import iudx.resource.server.database.elastic.QueryResultCache;
+import iudx.resource.server.database.elastic.SearchCursor;
+import iudx.resource.server.database.elastic.TemporalAggregation;
 import iudx.resource.server.database.elastic.exception.EsQueryException;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.function.Supplier;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -33,17 +39,49 @@ public class DatabaseServiceImpl implements DatabaseService {
 
   private static final Logger LOGGER = LogManager.getLogger(DatabaseServiceImpl.class);
   static ElasticClient client;
-  static CacheService cacheService;
   private QueryDecoder queryDecoder = new QueryDecoder();
   private String timeLimit;
   private String tenantPrefix;
+  private boolean countBeforeSearch;
+  private QueryResultCache resultCache;
+  private SearchIndices searchIndices;
 
   public DatabaseServiceImpl(
       ElasticClient client, String timeLimit, String tenantPrefix, CacheService cacheService) {
+    this(client, timeLimit, tenantPrefix, cacheService, true);
+  }
+
+  public DatabaseServiceImpl(
+      ElasticClient client,
+      String timeLimit,
+      String tenantPrefix,
+      CacheService cacheService,
+      boolean countBeforeSearch) {
+    this(client, timeLimit, tenantPrefix, cacheService, countBeforeSearch, null, null);
+  }
+
+  /**
+   * @param countBeforeSearch when true, every search first runs a separate count request to apply
+   *     the response size limit. Otherwise hits are counted (up to the limit) in the search request
+   *     itself.
+   * @param resultCache results of search, count and aggregation requests, null to always query ES
+   * @param indexResolver partitions searched for the time window of a query, null to always search
+   *     the index of the resource group
+   */
+  public DatabaseServiceImpl(
+      ElasticClient client,
+      String timeLimit,
+      String tenantPrefix,
+      CacheService cacheService,
+      boolean countBeforeSearch,
+      QueryResultCache resultCache,
+      IndexResolver indexResolver) {
     this.client = client;
     this.timeLimit = timeLimit;
     this.tenantPrefix = tenantPrefix;
-    this.cacheService = cacheService;
+    this.countBeforeSearch = countBeforeSearch;
+    this.resultCache = resultCache;
+    this.searchIndices = new SearchIndices(cacheService, tenantPrefix, indexResolver);
   }
 
   public int getOrDefault(JsonObject json, String key, int def) {
@@ -67,51 +105,91 @@ public class DatabaseServiceImpl implements DatabaseService {
               })
           .onSuccess(
               handler -> {
-                String resourceGroup = handler.getString("resourceGroup");
-                StringBuilder tenantBuilder = new StringBuilder(tenantPrefix);
-                final String searchIndex;
-                if (!this.tenantPrefix.equals("none")) {
-                  searchIndex = String.valueOf(tenantBuilder.append("__").append(resourceGroup));
-                } else {
-                  searchIndex = resourceGroup;
-                }
-                // String searchIndex = tenantBuilder;
+                final String searchIndex = searchIndices.getSearchIndex(handler, request);
                 final int sizeKeyValue = getOrDefault(request, PARAM_SIZE, DEFAULT_SIZE_VALUE);
                 final int fromKeyValue = getOrDefault(request, PARAM_FROM, DEFAULT_FROM_VALUE);
 
-                Query query = queryDecoder.getQuery(request);
+                final Query query;
+                final SourceConfig sourceFilter;
+                try {
+                  query = queryDecoder.getQuery(request);
+                  sourceFilter = queryDecoder.getSourceConfigFilters(request);
+                } catch (EsQueryException ex) {
+                  promise.fail(
+                      new EsQueryException(ResponseUrn.BAD_REQUEST_URN, ex.getMessage()).toString());
+                  return;
+                }
                 LOGGER.info("query : " + query.toString());
-                CountResultPlaceholder countPlaceHolder = new CountResultPlaceholder();
-                Future<JsonObject> countFuture = client.asyncCount(searchIndex, query);
-                countFuture
-                    .compose(
-                        countQueryHandler -> {
-                          long count =
-                              countQueryHandler
-                                  .getJsonArray("results")
-                                  .getJsonObject(0)
-                                  .getInteger("totalHits");
-                          LOGGER.info("count : " + count);
-                          if (count > 50000) {
-                            JsonObject json = new JsonObject();
-                            json.put("type", 413);
-                            json.put("title", ResponseUrn.PAYLOAD_TOO_LARGE_URN.getUrn());
-                            json.put("details", ResponseUrn.PAYLOAD_TOO_LARGE_URN.getMessage());
-                            return Future.failedFuture(json.toString());
-                          }
-                          countPlaceHolder.setCount(count);
-                          SourceConfig sourceFilter = queryDecoder.getSourceConfigFilters(request);
-                          return client.asyncSearch(
-                              searchIndex, query, sizeKeyValue, fromKeyValue, sourceFilter);
-                        })
+                if (request.getString(SEARCH_TYPE).matches(AGGREGATION_SEARCH_REGEX)) {
+                  searchAggregation(request, searchIndex, query)
+                      .onSuccess(promise::complete)
+                      .onFailure(failure -> promise.fail(failure.getMessage()));
+                  return;
+                }
+                if (request.containsKey(PARAM_CURSOR)) {
+                  searchWithCursor(request, searchIndex, query, sourceFilter, sizeKeyValue)
+                      .onSuccess(promise::complete)
+                      .onFailure(failure -> promise.fail(failure.getMessage()));
+                  return;
+                }
+                Future<JsonObject> searchFuture;
+                if (countBeforeSearch) {
+                  searchFuture =
+                      getCountWithinLimit(request, searchIndex, query)
+                          .compose(
+                              count ->
+                                  cached(
+                                          request,
+                                          () ->
+                                              client.asyncSearch(
+                                                  searchIndex,
+                                                  query,
+                                                  sizeKeyValue,
+                                                  fromKeyValue,
+                                                  sourceFilter),
+                                          SEARCH_KEY,
+                                          searchIndex,
+                                          query,
+                                          sizeKeyValue,
+                                          fromKeyValue,
+                                          sourceFilter)
+                                      .map(result -> result.put(TOTAL_HITS, count)));
+                } else {
+                  searchFuture =
+                      cached(
+                              request,
+                              () ->
+                                  client.asyncSearch(
+                                      searchIndex,
+                                      query,
+                                      sizeKeyValue,
+                                      fromKeyValue,
+                                      sourceFilter,
+                                      MAX_TOTAL_HITS + 1),
+                              SEARCH_KEY,
+                              searchIndex,
+                              query,
+                              sizeKeyValue,
+                              fromKeyValue,
+                              sourceFilter,
+                              MAX_TOTAL_HITS + 1)
+                          .compose(
+                              result ->
+                                  result.getLong(TOTAL_HITS) > MAX_TOTAL_HITS
+                                      ? Future.failedFuture(payloadTooLarge())
+                                      : Future.succeededFuture(result));
+                }
+                searchFuture
                     .onSuccess(
                         successHandler -> {
                           LOGGER.debug("Success: Successful DB request");
                           JsonObject responseJson = successHandler;
+                          long totalHits = responseJson.getLong(TOTAL_HITS);
+                          responseJson.remove(TOTAL_HITS);
                           responseJson
                               .put(PARAM_SIZE, sizeKeyValue)
                               .put(PARAM_FROM, fromKeyValue)
-                              .put("totalHits", countPlaceHolder.getCount());
+                              .put(TOTAL_HITS, totalHits);
                           promise.complete(responseJson);
                         })
                     .onFailure(
@@ -151,17 +229,16 @@ public class DatabaseServiceImpl implements DatabaseService {
                           ResponseUrn.BAD_REQUEST_URN, "Count is not supported with filtering"));
                   return;
                 }
-                final String searchIndex;
-                String resourceGroup = handler.getString("resourceGroup");
-                StringBuilder tenantBuilder = new StringBuilder(tenantPrefix);
-                if (!this.tenantPrefix.equals("none")) {
-                  searchIndex = String.valueOf(tenantBuilder.append("__").append(resourceGroup));
-                } else {
-                  searchIndex = resourceGroup;
-                }
+                final String searchIndex = searchIndices.getSearchIndex(handler, request);
                 Query query = queryDecoder.getQuery(request);
                 LOGGER.info("query : " + query.toString());
-                Future<JsonObject> countFuture = client.asyncCount(searchIndex, query);
+                Future<JsonObject> countFuture =
+                    cached(
+                        request,
+                        () -> client.asyncCount(searchIndex, query),
+                        COUNT,
+                        searchIndex,
+                        query);
                 countFuture
                     .onSuccess(
                         success -> {
@@ -181,43 +258,151 @@ public class DatabaseServiceImpl implements DatabaseService {
     return promise.future();
   }
 
-  public Future<JsonObject> checkQuery(JsonObject request) {
-    Promise<JsonObject> promise = Promise.promise();
-    JsonObject cacheRequest = new JsonObject();
-    cacheRequest.put("type", CacheType.CATALOGUE_CACHE);
-    cacheRequest.put("key", request.getJsonArray(ID).getString(0));
-    Future<JsonObject> getItemType = cacheService.get(cacheRequest);
-    getItemType.onSuccess(
-        itemType -> {
-          Set<String> type = new HashSet<String>(itemType.getJsonArray("type").getList());
-          Set<String> itemTypeSet =
-              type.stream().map(e -> e.split(":")[1]).collect(Collectors.toSet());
-          itemTypeSet.retainAll(ITEM_TYPES);
-
-          if (!itemTypeSet.contains("Resource")) {
-            LOGGER.error("Malformed ID: " + request.getJsonArray(ID).getString(0));
-            promise.fail(new EsQueryException(ResponseUrn.BAD_REQUEST_URN, MALFORMED_ID));
-          } else {
-            promise.complete(itemType);
-          }
-        });
-
-    return promise.future();
+  /**
+   * Cursor (point in time + search_after) based pagination, every page costs the same irrespective
+   * of its depth. <code>offset</code> can't be combined with cursor and the response size limit
+   * doesn't apply as results are walked page by page. The cursor carries the PIT id, so it is only
+   * opened over at most {@link Constants#MAX_CURSOR_INDICES} indices.
+   */
+  private Future<JsonObject> searchWithCursor(
+      JsonObject request, String searchIndex, Query query, SourceConfig sourceFilter, int size) {
+    if (request.containsKey(PARAM_FROM)) {
+      return Future.failedFuture(
+          badRequest(ResponseUrn.BAD_REQUEST_URN, "offset is not supported with cursor"));
+    }
+    if (searchIndex.split(",").length > MAX_CURSOR_INDICES) {
+      return Future.failedFuture(
+          badRequest(
+              ResponseUrn.BAD_REQUEST_URN,
+              "cursor is not supported across more than "
+                  + MAX_CURSOR_INDICES
+                  + " indices, narrow down the ids or the time window"));
+    }
+    String token = request.getString(PARAM_CURSOR);
+    SearchCursor cursor;
+    try {
+      cursor = SearchCursor.isStart(token) ? null : SearchCursor.decode(token);
+    } catch (EsQueryException ex) {
+      return Future.failedFuture(badRequest(ResponseUrn.INVALID_PARAM_VALUE_URN, ex.getMessage()));
+    }
+    return client
+        .asyncCursorSearch(searchIndex, query, size, sourceFilter, cursor)
+        .map(
+            result -> {
+              Object totalHits = result.remove(TOTAL_HITS);
+              Object nextCursor = result.remove(NEXT_CURSOR);
+              result.put(PARAM_SIZE, size);
+              if (totalHits != null) {
+                result.put(TOTAL_HITS, totalHits);
+              }
+              if (nextCursor != null) {
+                result.put(NEXT_CURSOR, nextCursor);
+              }
+              return result;
+            });
   }
 
-  private class CountResultPlaceholder {
-    private long count;
-
-    public CountResultPlaceholder() {
-      this.count = 0L;
+  /**
+   * Downsampled search, returns only the bucketed series of the aggregation params of the request,
+   * so the response size limit and pagination don't apply.
+   */
+  private Future<JsonObject> searchAggregation(
+      JsonObject request, String searchIndex, Query query) {
+    if (request.containsKey(PARAM_CURSOR)) {
+      return Future.failedFuture(
+          badRequest(ResponseUrn.BAD_REQUEST_URN, "cursor is not supported with aggregation"));
+    }
+    TemporalAggregation aggregation;
+    try {
+      aggregation = TemporalAggregation.fromRequest(request);
+    } catch (EsQueryException ex) {
+      return Future.failedFuture(badRequest(ResponseUrn.INVALID_PARAM_VALUE_URN, ex.getMessage()));
     }
+    return cached(
+        request,
+        () -> client.asyncAggregationSearch(searchIndex, query, aggregation),
+        AGGR_METHODS,
+        searchIndex,
+        query,
+        request.getValue(RESPONSE_ATTRS),
+        request.getValue(AGGR_METHODS),
+        request.getValue(AGGR_PERIOD));
+  }
 
-    public long getCount() {
-      return this.count;
+  /* result of an ES request, from the result cache when enabled */
+  private Future<JsonObject> cached(
+      JsonObject request, Supplier<Future<JsonObject>> loader, Object... requestParts) {
+    if (resultCache == null) {
+      return loader.get();
     }
+    return resultCache.get(QueryResultCache.key(requestParts), isClosedWindow(request), loader);
+  }
 
-    public void setCount(long count) {
-      this.count = count;
+  /**
+   * Whether the time window of a temporal request ended in the past, results of such windows only
+   * change with late data so they are cached longer.
+   */
+  private boolean isClosedWindow(JsonObject request) {
+    String timeRel = request.getString(REQ_TIMEREL);
+    String endTime;
+    if (DURING.equalsIgnoreCase(timeRel) || BETWEEN.equalsIgnoreCase(timeRel)) {
+      endTime = request.getString(END_TIME);
+    } else if (BEFORE.equalsIgnoreCase(timeRel)) {
+      endTime = request.getString(TIME_KEY);
+    } else {
+      return false;
+    }
+    try {
+      return endTime != null && ZonedDateTime.parse(endTime).isBefore(ZonedDateTime.now());
+    } catch (DateTimeParseException ex) {
+      return false;
     }
   }
+
+  /**
+   * Counts documents matching query, fails with 413 when count is more than the allowed response
+   * size.
+   */
+  private Future<Long> getCountWithinLimit(JsonObject request, String searchIndex, Query query) {
+    return cached(request, () -> client.asyncCount(searchIndex, query), COUNT, searchIndex, query)
+        .compose(
+            countQueryHandler -> {
+              long count =
+                  countQueryHandler
+                      .getJsonArray("results")
+                      .getJsonObject(0)
+                      .getInteger("totalHits");
+              LOGGER.info("count : " + count);
+              if (count > MAX_TOTAL_HITS) {
+                return Future.failedFuture(payloadTooLarge());
+              }
+              return Future.succeededFuture(count);
+            });
+  }
+
+  private String badRequest(ResponseUrn urn, String message) {
+    return new ResponseBuilder(FAILED)
+        .setTypeAndTitle(400, urn.getUrn())
+        .setMessage(message)
+        .getResponse()
+        .toString();
+  }
+
+  static String payloadTooLarge() {
+    JsonObject json = new JsonObject();
+    json.put("type", 413);
+    json.put("title", ResponseUrn.PAYLOAD_TOO_LARGE_URN.getUrn());
+    json.put("details", ResponseUrn.PAYLOAD_TOO_LARGE_URN.getMessage());
+    return json.toString();
+  }
+
+  /**
+   * Checks the ids of the request are resources, see {@link SearchIndices#checkQuery(JsonObject)}.
+   *
+   * @param request search request query
+   * @return Future of {@link CatalogueItem} json of the first id
+   */
+  public Future<JsonObject> checkQuery(JsonObject request) {
+    return searchIndices.checkQuery(request);
+  }
 }
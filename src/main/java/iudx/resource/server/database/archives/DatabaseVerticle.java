@@ -8,7 +8,10 @@ import io.vertx.core.eventbus.MessageConsumer;
 import io.vertx.core.json.JsonObject;
 import io.vertx.serviceproxy.ServiceBinder;
 import iudx.resource.server.cache.CacheService;
+import iudx.resource.server.cache.NearCacheService;
 import iudx.resource.server.database.elastic.ElasticClient;
+import iudx.resource.server.database.elastic.IndexResolver;
+import iudx.resource.server.database.elastic.QueryResultCache;
 
 /**
  * The Database Verticle.
@@ -34,6 +37,9 @@ public class DatabaseVerticle extends AbstractVerticle {
   private MessageConsumer<JsonObject> consumer;
   private String tenantPrefix;
   private CacheService cacheService;
+  private boolean countBeforeSearch;
+  private QueryResultCache resultCache;
+  private IndexResolver indexResolver;
 
   /**
    * This method is used to start the Verticle. It deploys a verticle in a cluster, registers the
@@ -45,16 +51,43 @@ public class DatabaseVerticle extends AbstractVerticle {
   @Override
   public void start() throws Exception {
 
-    databaseIp = config().getString("databaseIP");
-    databasePort = config().getInteger("databasePort");
-    user = config().getString("dbUser");
-    password = config().getString("dbPassword");
+    // elasticsearch connection is shared through commonConfig, module keys are the fallback
+    JsonObject esConfig = config().getJsonObject("elasticsearch", config());
+    databaseIp = esConfig.getString("databaseIP");
+    databasePort = esConfig.getInteger("databasePort");
+    user = esConfig.getString("dbUser");
+    password = esConfig.getString("dbPassword");
     timeLimit = config().getString("timeLimit");
     tenantPrefix = config().getString("tenantPrefix");
-    cacheService = CacheService.createProxy(vertx, CACHE_SERVICE_ADDRESS);
+    countBeforeSearch = config().getBoolean("countBeforeSearch", false);
+    cacheService = NearCacheService.create(vertx, CACHE_SERVICE_ADDRESS, config());
     client = new ElasticClient(databaseIp, databasePort, user, password);
+    // 0 disables caching of search results, the budget is shared by all instances
+    long searchCacheMaxBytes =
+        config().getLong("searchCacheMaxBytes", 0L)
+            / Math.max(config().getInteger("verticleInstances", 1), 1);
+    if (searchCacheMaxBytes > 0) {
+      resultCache =
+          new QueryResultCache(
+              searchCacheMaxBytes,
+              config().getInteger("searchCacheMaxEntryBytes", 1048576),
+              config().getLong("searchCacheTtlSeconds", 5L),
+              config().getLong("searchCacheClosedTtlSeconds", 300L));
+    }
+    indexResolver =
+        new IndexResolver(
+            config().getString("indexPartitioning", IndexResolver.NONE),
+            config().getInteger("maxIndexPartitions", 24));
     binder = new ServiceBinder(vertx);
-    database = new DatabaseServiceImpl(client, timeLimit, tenantPrefix, cacheService);
+    database =
+        new DatabaseServiceImpl(
+            client,
+            timeLimit,
+            tenantPrefix,
+            cacheService,
+            countBeforeSearch,
+            resultCache,
+            indexResolver);
 
     consumer =
         binder.setAddress(DATABASE_SERVICE_ADDRESS).register(DatabaseService.class, database);
@@ -63,5 +96,6 @@ public class DatabaseVerticle extends AbstractVerticle {
   @Override
   public void stop() {
     binder.unregister(consumer);
+    NearCacheService.close(cacheService);
   }
 }
@@ -0,0 +1,126 @@
+package iudx.resource.server.database.archives;
+
+import static iudx.resource.server.database.archives.Constants.*;
+
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import iudx.resource.server.cache.CacheService;
+import iudx.resource.server.cache.cachelmpl.CacheType;
+import iudx.resource.server.common.CatalogueItem;
+import iudx.resource.server.common.ResponseUrn;
+import iudx.resource.server.database.elastic.IndexResolver;
+import iudx.resource.server.database.elastic.QueryDecoder;
+import iudx.resource.server.database.elastic.exception.EsQueryException;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Resolves the ids of a search request to their catalogue items and to the Elasticsearch indices
+ * searched for them.
+ */
+final class SearchIndices {
+
+  private static final Logger LOGGER = LogManager.getLogger(SearchIndices.class);
+
+  private final CacheService cacheService;
+  private final String tenantPrefix;
+  private final IndexResolver indexResolver;
+  private final QueryDecoder queryDecoder = new QueryDecoder();
+
+  /**
+   * @param indexResolver partitions searched for the time window of a query, null to always search
+   *     the index of the resource group
+   */
+  SearchIndices(CacheService cacheService, String tenantPrefix, IndexResolver indexResolver) {
+    this.cacheService = cacheService;
+    this.tenantPrefix = tenantPrefix;
+    this.indexResolver = indexResolver;
+  }
+
+  /**
+   * Checks the ids of the request are resources, using the catalogue item resolved by the API
+   * server when the request carries one. The distinct indices of a request with more than one id
+   * are put in the request as <code>searchIndices</code>, for a single search across them.
+   *
+   * @param request search request query
+   * @return Future of {@link CatalogueItem} json of the first id
+   */
+  Future<JsonObject> checkQuery(JsonObject request) {
+    Promise<JsonObject> promise = Promise.promise();
+    JsonArray ids = request.getJsonArray(ID);
+    JsonObject resolvedItem = (JsonObject) request.remove(CatalogueItem.CATALOGUE_ITEM);
+    List<Future<CatalogueItem>> getItemTypes = new ArrayList<>(ids.size());
+    for (int i = 0; i < ids.size(); i++) {
+      getItemTypes.add(getCatalogueItem(ids.getString(i), resolvedItem));
+    }
+    Future.all(getItemTypes)
+        .onSuccess(
+            all -> {
+              List<CatalogueItem> items = all.list();
+              Set<String> searchIndices = new LinkedHashSet<>();
+              for (int i = 0; i < items.size(); i++) {
+                if (!items.get(i).isResource()) {
+                  LOGGER.error("Malformed ID: " + ids.getString(i));
+                  promise.fail(new EsQueryException(ResponseUrn.BAD_REQUEST_URN, MALFORMED_ID));
+                  return;
+                }
+                searchIndices.add(items.get(i).getIndexName(tenantPrefix));
+              }
+              if (items.size() > 1) {
+                request.put(SEARCH_INDICES, new JsonArray(new ArrayList<>(searchIndices)));
+              }
+              promise.complete(items.get(0).toJson());
+            })
+        .onFailure(
+            failure -> {
+              LOGGER.error("catalogue item not resolved : " + failure.getMessage());
+              promise.fail(
+                  new EsQueryException(ResponseUrn.BAD_REQUEST_URN, INVALID_RESOURCE_ID));
+            });
+
+    return promise.future();
+  }
+
+  /* comma separated indices of the ids of the request, see checkQuery */
+  String getSearchIndex(JsonObject itemJson, JsonObject request) {
+    List<String> indices = new ArrayList<>();
+    JsonArray searchIndices = (JsonArray) request.remove(SEARCH_INDICES);
+    if (searchIndices != null) {
+      searchIndices.forEach(index -> indices.add(index.toString()));
+    } else {
+      indices.add(CatalogueItem.fromJson(itemJson).getIndexName(tenantPrefix));
+    }
+    if (indexResolver == null) {
+      return String.join(",", indices);
+    }
+    ZonedDateTime[] timeWindow;
+    try {
+      timeWindow = queryDecoder.getTimeWindow(request, false);
+    } catch (RuntimeException ex) {
+      // invalid temporal params are reported when decoding the query
+      timeWindow = null;
+    }
+    List<String> searchIndex = new ArrayList<>();
+    for (String index : indices) {
+      searchIndex.add(indexResolver.resolve(index, timeWindow));
+    }
+    return String.join(",", searchIndex);
+  }
+
+  private Future<CatalogueItem> getCatalogueItem(String id, JsonObject resolvedItem) {
+    if (resolvedItem != null && id.equals(resolvedItem.getString(ID))) {
+      return Future.succeededFuture(CatalogueItem.fromJson(resolvedItem));
+    }
+    JsonObject cacheRequest = new JsonObject();
+    cacheRequest.put("type", CacheType.CATALOGUE_CACHE);
+    cacheRequest.put("key", id);
+    return cacheService.get(cacheRequest).map(item -> CatalogueItem.resolve(item, null));
+  }
+}
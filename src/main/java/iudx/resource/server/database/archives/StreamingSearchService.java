@@ -0,0 +1,188 @@
+package iudx.resource.server.database.archives;
+
+import static iudx.resource.server.database.archives.Constants.*;
+
+import co.elastic.clients.elasticsearch._types.query_dsl.Query;
+import co.elastic.clients.elasticsearch.core.search.SourceConfig;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.core.WorkerExecutor;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.streams.WriteStream;
+import iudx.resource.server.cache.CacheService;
+import iudx.resource.server.common.ResponseUrn;
+import iudx.resource.server.database.elastic.ElasticClient;
+import iudx.resource.server.database.elastic.IndexResolver;
+import iudx.resource.server.database.elastic.QueryDecoder;
+import iudx.resource.server.database.elastic.exception.EsQueryException;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Search which writes the hits from Elasticsearch directly into a stream, used by the API server to
+ * answer searches without the event bus. Every instance has its own client and catalogue cache, so
+ * nothing is shared with the {@link DatabaseServiceImpl} of the database verticle.
+ */
+public class StreamingSearchService {
+
+  private static final Logger LOGGER = LogManager.getLogger(StreamingSearchService.class);
+  private final ElasticClient client;
+  private final String timeLimit;
+  private final boolean countBeforeSearch;
+  private final SearchIndices searchIndices;
+  private final WorkerExecutor executor;
+  private final QueryDecoder queryDecoder = new QueryDecoder();
+
+  /**
+   * @param countBeforeSearch when true, every search first runs a separate count request to apply
+   *     the response size limit. Otherwise hits are counted (up to the limit) in the search request
+   *     itself.
+   * @param indexResolver partitions searched for the time window of a query, null to always search
+   *     the index of the resource group
+   * @param executor pool the Elasticsearch responses are copied to the streams on
+   */
+  public StreamingSearchService(
+      ElasticClient client,
+      String timeLimit,
+      String tenantPrefix,
+      CacheService cacheService,
+      boolean countBeforeSearch,
+      IndexResolver indexResolver,
+      WorkerExecutor executor) {
+    this.client = client;
+    this.timeLimit = timeLimit;
+    this.countBeforeSearch = countBeforeSearch;
+    this.searchIndices = new SearchIndices(cacheService, tenantPrefix, indexResolver);
+    this.executor = executor;
+  }
+
+  /**
+   * Search variant which writes the response directly into <code>writeStream</code> instead of
+   * returning it as a JsonObject. Validation, 413 limit and failure messages are same as {@link
+   * DatabaseServiceImpl#search(JsonObject)}, on failure nothing is written to the stream.
+   *
+   * @param request search request query
+   * @param writeStream stream to write the search response to, owned by the calling context
+   * @return Future completed once the response is fully written
+   */
+  public Future<Void> searchStream(JsonObject request, WriteStream<Buffer> writeStream) {
+    Promise<Void> promise = Promise.promise();
+    // the stream belongs to the calling context, the count may complete off it
+    Context context = Vertx.currentContext();
+    request.put(TIME_LIMIT, timeLimit);
+    try {
+      searchIndices
+          .checkQuery(request)
+          .onFailure(
+              handler -> {
+                promise.fail(handler.toString());
+              })
+          .onSuccess(
+              handler -> {
+                final String searchIndex = searchIndices.getSearchIndex(handler, request);
+                final int sizeKeyValue = getOrDefault(request, PARAM_SIZE, DEFAULT_SIZE_VALUE);
+                final int fromKeyValue = getOrDefault(request, PARAM_FROM, DEFAULT_FROM_VALUE);
+
+                final Query query;
+                final SourceConfig sourceFilter;
+                try {
+                  query = queryDecoder.getQuery(request);
+                  sourceFilter = queryDecoder.getSourceConfigFilters(request);
+                } catch (EsQueryException ex) {
+                  ResponseUrn exceptionUrn = ResponseUrn.BAD_REQUEST_URN;
+                  promise.fail(new EsQueryException(exceptionUrn, ex.getMessage()).toString());
+                  return;
+                }
+                LOGGER.info("query : " + query.toString());
+                JsonObject envelope =
+                    new ResponseBuilder(SUCCESS)
+                        .setTypeAndTitle(200)
+                        .getResponse()
+                        .put(PARAM_SIZE, sizeKeyValue)
+                        .put(PARAM_FROM, fromKeyValue);
+                Future<Void> streamFuture;
+                if (countBeforeSearch) {
+                  streamFuture =
+                      getCountWithinLimit(searchIndex, query)
+                          .compose(
+                              count ->
+                                  client.asyncSearchStream(
+                                      searchIndex,
+                                      query,
+                                      sizeKeyValue,
+                                      fromKeyValue,
+                                      sourceFilter,
+                                      envelope.put(TOTAL_HITS, count),
+                                      writeStream,
+                                      0,
+                                      executor,
+                                      context));
+                } else {
+                  streamFuture =
+                      client.asyncSearchStream(
+                          searchIndex,
+                          query,
+                          sizeKeyValue,
+                          fromKeyValue,
+                          sourceFilter,
+                          envelope,
+                          writeStream,
+                          MAX_TOTAL_HITS,
+                          executor,
+                          context);
+                }
+                streamFuture
+                    .onSuccess(promise::complete)
+                    .onFailure(
+                        failureHandler -> {
+                          LOGGER.info("failed to query : " + failureHandler);
+                          promise.fail(failureHandler.getMessage());
+                        });
+              });
+    } catch (EsQueryException ex) {
+      ResponseUrn exceptionUrn = ResponseUrn.BAD_REQUEST_URN;
+      promise.fail(new EsQueryException(exceptionUrn, ex.getMessage()).toString());
+    } catch (Exception ex) {
+      promise.fail(new EsQueryException("Exception occured executing query").toString());
+    }
+    return promise.future();
+  }
+
+  private int getOrDefault(JsonObject json, String key, int def) {
+    return json.containsKey(key) ? Integer.parseInt(json.getString(key)) : def;
+  }
+
+  /**
+   * Counts documents matching query, fails with 204 when nothing matches and with 413 when count is
+   * more than the allowed response size.
+   */
+  private Future<Long> getCountWithinLimit(String searchIndex, Query query) {
+    return client
+        .asyncCount(searchIndex, query)
+        .compose(
+            countQueryHandler -> {
+              long count =
+                  countQueryHandler
+                      .getJsonArray("results")
+                      .getJsonObject(0)
+                      .getInteger("totalHits");
+              LOGGER.info("count : " + count);
+              if (count == 0) {
+                // the search is streamed without total hits, so it can't answer 204 itself
+                return Future.failedFuture(
+                    new ResponseBuilder(FAILED)
+                        .setTypeAndTitle(204)
+                        .setMessage(EMPTY_RESPONSE)
+                        .getResponse()
+                        .toString());
+              }
+              if (count > MAX_TOTAL_HITS) {
+                return Future.failedFuture(DatabaseServiceImpl.payloadTooLarge());
+              }
+              return Future.succeededFuture(count);
+            });
+  }
+}
@@ -99,7 +99,8 @@ public class AsyncFileScrollProgressListener implements ProgressListener {
   }
 
   class ExecutionCounter {
-    boolean isExecuting;
+    // reset from the pg callback thread, read from the thread reporting progress
+    volatile boolean isExecuting;
 
     ExecutionCounter() {
       this.isExecuting = false;
@@ -29,6 +29,7 @@ import iudx.resource.server.database.async.util.QueryProgress;
 import iudx.resource.server.database.async.util.S3FileOpsHelper;
 import iudx.resource.server.database.async.util.Util;
 import iudx.resource.server.database.elastic.ElasticClient;
+import iudx.resource.server.database.elastic.IndexResolver;
 import iudx.resource.server.database.elastic.QueryDecoder;
 import iudx.resource.server.database.postgres.PostgresService;
 import iudx.resource.server.metering.MeteringService;
@@ -57,6 +58,8 @@ public class AsyncServiceImpl implements AsyncService {
   private ResponseBuilder responseBuilder;
   private String filePath;
   private String tenantPrefix;
+  private boolean gzipDownloads;
+  private IndexResolver indexResolver;
 
   public AsyncServiceImpl(
       Vertx vertx,
@@ -66,6 +69,45 @@ public class AsyncServiceImpl implements AsyncService {
       String filePath,
       String tenantPrefix,
       CacheService cacheService) {
+    this(vertx, client, pgService, s3FileOpsHelper, filePath, tenantPrefix, cacheService, false);
+  }
+
+  public AsyncServiceImpl(
+      Vertx vertx,
+      ElasticClient client,
+      PostgresService pgService,
+      S3FileOpsHelper s3FileOpsHelper,
+      String filePath,
+      String tenantPrefix,
+      CacheService cacheService,
+      boolean gzipDownloads) {
+    this(
+        vertx,
+        client,
+        pgService,
+        s3FileOpsHelper,
+        filePath,
+        tenantPrefix,
+        cacheService,
+        gzipDownloads,
+        new IndexResolver(IndexResolver.NONE, 0));
+  }
+
+  /**
+   * @param gzipDownloads gzip json and ndjson download files, the file is uploaded with a
+   *     <code>.gz</code> extension
+   * @param indexResolver partitions scrolled for the time window of a query
+   */
+  public AsyncServiceImpl(
+      Vertx vertx,
+      ElasticClient client,
+      PostgresService pgService,
+      S3FileOpsHelper s3FileOpsHelper,
+      String filePath,
+      String tenantPrefix,
+      CacheService cacheService,
+      boolean gzipDownloads,
+      IndexResolver indexResolver) {
     this.vertx = vertx;
     this.client = client;
     this.pgService = pgService;
@@ -75,6 +117,8 @@ public class AsyncServiceImpl implements AsyncService {
     this.meteringService = MeteringService.createProxy(vertx, METERING_SERVICE_ADDRESS);
     this.tenantPrefix = tenantPrefix;
     this.cacheService = cacheService;
+    this.gzipDownloads = gzipDownloads;
+    this.indexResolver = indexResolver;
   }
 
   @Override
@@ -279,7 +323,11 @@ public class AsyncServiceImpl implements AsyncService {
     if (format == null) {
       format = "json";
     }
-    File file = new File(filePath + "/" + searchId + "." + format);
+    String fileName = searchId + "." + format;
+    if (gzipDownloads && (HEADER_JSON.equals(format) || HEADER_NDJSON.equals(format))) {
+      fileName += ".gz";
+    }
+    File file = new File(filePath + "/" + fileName);
     String objectId = UUID.randomUUID().toString();
     String id = query.getJsonArray(ID).getString(0);
 
@@ -377,21 +425,24 @@ public class AsyncServiceImpl implements AsyncService {
     }
     LOGGER.info("tenant {}", tenantPrefix);
     StringBuilder tenantBuilder = new StringBuilder(tenantPrefix);
-    final String searchIndex;
+    final String index;
     String resourceGroup = request.getString("resourceGroup");
     if (!this.tenantPrefix.equals("none")) {
-      searchIndex = String.valueOf(tenantBuilder.append("__").append(resourceGroup));
+      index = String.valueOf(tenantBuilder.append("__").append(resourceGroup));
     } else {
-      searchIndex = resourceGroup;
+      index = resourceGroup;
     }
     /*
-     * Example: searchIndex =
+     * Example: index =
      * iudx__datakaveri.org__b8bd3e3f39615c8ec96722131ae95056b5938f2f__rs.iudx.io__pune-env-aqm
      */
-    LOGGER.info("Index name: " + searchIndex);
+    LOGGER.info("Index name: " + index);
 
+    final String searchIndex;
     try {
-      query = new QueryDecoder().getQuery(request, true);
+      QueryDecoder queryDecoder = new QueryDecoder();
+      query = queryDecoder.getQuery(request, true);
+      searchIndex = indexResolver.resolve(index, queryDecoder.getTimeWindow(request, true));
     } catch (Exception e) {
       LOGGER.error(e);
       e.printStackTrace();
@@ -8,8 +8,10 @@ import io.vertx.core.eventbus.MessageConsumer;
 import io.vertx.core.json.JsonObject;
 import io.vertx.serviceproxy.ServiceBinder;
 import iudx.resource.server.cache.CacheService;
+import iudx.resource.server.cache.NearCacheService;
 import iudx.resource.server.database.async.util.S3FileOpsHelper;
 import iudx.resource.server.database.elastic.ElasticClient;
+import iudx.resource.server.database.elastic.IndexResolver;
 import iudx.resource.server.database.postgres.PostgresService;
 
 /**
@@ -40,6 +42,7 @@ public class AsyncVerticle extends AbstractVerticle {
   private CacheService cacheService;
   private MessageConsumer<JsonObject> consumer;
   private String tenantPrefix;
+  private boolean gzipDownloads;
 
   /**
    * This method is used to start the Verticle. It deploys a verticle in a cluster, registers the
@@ -51,24 +54,37 @@ public class AsyncVerticle extends AbstractVerticle {
   @Override
   public void start() throws Exception {
 
-    databaseIp = config().getString("databaseIP");
-    databasePort = config().getInteger("databasePort");
-    user = config().getString("dbUser");
-    password = config().getString("dbPassword");
+    // elasticsearch connection is shared through commonConfig, module keys are the fallback
+    JsonObject esConfig = config().getJsonObject("elasticsearch", config());
+    databaseIp = esConfig.getString("databaseIP");
+    databasePort = esConfig.getInteger("databasePort");
+    user = esConfig.getString("dbUser");
+    password = esConfig.getString("dbPassword");
     filePath = config().getString("filePath");
     clientRegion = Regions.AP_SOUTH_1;
     bucketName = config().getString("bucketName");
     tenantPrefix = config().getString("tenantPrefix");
+    gzipDownloads = config().getBoolean("gzipDownloads", false);
 
     pgService = PostgresService.createProxy(vertx, PG_SERVICE_ADDRESS);
-    cacheService = CacheService.createProxy(vertx, CACHE_SERVICE_ADDRESS);
+    cacheService = NearCacheService.create(vertx, CACHE_SERVICE_ADDRESS, config());
     client = new ElasticClient(databaseIp, databasePort, user, password);
     fileOpsHelper = new S3FileOpsHelper(clientRegion, bucketName);
 
     binder = new ServiceBinder(vertx);
     asyncService =
         new AsyncServiceImpl(
-            vertx, client, pgService, fileOpsHelper, filePath, tenantPrefix, cacheService);
+            vertx,
+            client,
+            pgService,
+            fileOpsHelper,
+            filePath,
+            tenantPrefix,
+            cacheService,
+            gzipDownloads,
+            new IndexResolver(
+                config().getString("indexPartitioning", IndexResolver.NONE),
+                config().getInteger("maxIndexPartitions", 24)));
 
     consumer = binder.setAddress(ASYNC_SERVICE_ADDRESS).register(AsyncService.class, asyncService);
   }
@@ -76,5 +92,6 @@ public class AsyncVerticle extends AbstractVerticle {
   @Override
   public void stop() {
     binder.unregister(consumer);
+    NearCacheService.close(cacheService);
   }
 }
@@ -4,12 +4,12 @@ import static iudx.resource.server.database.archives.Constants.*;
 
 import co.elastic.clients.elasticsearch.ElasticsearchAsyncClient;
 import co.elastic.clients.elasticsearch.ElasticsearchClient;
-import co.elastic.clients.elasticsearch._types.Time;
+import co.elastic.clients.elasticsearch._types.FieldValue;
+import co.elastic.clients.elasticsearch._types.SortOrder;
 import co.elastic.clients.elasticsearch._types.query_dsl.Query;
-import co.elastic.clients.elasticsearch.core.ClearScrollRequest;
+import co.elastic.clients.elasticsearch.core.ClosePointInTimeRequest;
 import co.elastic.clients.elasticsearch.core.CountRequest;
-import co.elastic.clients.elasticsearch.core.ScrollRequest;
-import co.elastic.clients.elasticsearch.core.ScrollResponse;
+import co.elastic.clients.elasticsearch.core.OpenPointInTimeRequest;
 import co.elastic.clients.elasticsearch.core.SearchRequest;
 import co.elastic.clients.elasticsearch.core.search.Hit;
 import co.elastic.clients.elasticsearch.core.search.SourceConfig;
@@ -17,29 +17,45 @@ import co.elastic.clients.json.jackson.JacksonJsonpMapper;
 import co.elastic.clients.transport.ElasticsearchTransport;
 import co.elastic.clients.transport.rest_client.RestClientTransport;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.vertx.core.Context;
 import io.vertx.core.Future;
 import io.vertx.core.Promise;
+import io.vertx.core.WorkerExecutor;
+import io.vertx.core.buffer.Buffer;
 import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
+import io.vertx.core.streams.WriteStream;
+import iudx.resource.server.common.ResponseUrn;
 import iudx.resource.server.database.archives.ResponseBuilder;
 import iudx.resource.server.database.async.ProgressListener;
+import iudx.resource.server.database.elastic.exception.EsQueryException;
+import jakarta.json.stream.JsonGenerator;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.util.List;
-import java.util.concurrent.CompletableFuture;
 import org.apache.http.HttpHost;
 import org.apache.http.auth.AuthScope;
 import org.apache.http.auth.UsernamePasswordCredentials;
 import org.apache.http.client.CredentialsProvider;
+import org.apache.http.entity.ContentType;
 import org.apache.http.impl.client.BasicCredentialsProvider;
+import org.apache.http.nio.entity.NByteArrayEntity;
+import org.apache.http.util.EntityUtils;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.elasticsearch.client.Request;
+import org.elasticsearch.client.Response;
+import org.elasticsearch.client.ResponseException;
+import org.elasticsearch.client.ResponseListener;
 import org.elasticsearch.client.RestClient;
 import org.elasticsearch.client.RestClientBuilder;
 
 public class ElasticClient {
 
   private static final Logger LOGGER = LogManager.getLogger(ElasticClient.class);
+  private static final String PIT_KEEP_ALIVE = "2m";
   private final RestClient client;
+  private final JacksonJsonpMapper jsonpMapper;
   ElasticsearchClient esClient;
   ElasticsearchAsyncClient asyncClient;
   private ResponseBuilder responseBuilder;
@@ -59,7 +75,8 @@ public class ElasticClient {
                 httpClientBuilder -> httpClientBuilder.setDefaultCredentialsProvider(credentials));
     client = restClientBuilder.build();
 
-    ElasticsearchTransport transport = new RestClientTransport(client, new JacksonJsonpMapper());
+    jsonpMapper = new JacksonJsonpMapper();
+    ElasticsearchTransport transport = new RestClientTransport(client, jsonpMapper);
     // And create the API client
     esClient = new ElasticsearchClient(transport);
     asyncClient = new ElasticsearchAsyncClient(transport);
@@ -75,24 +92,26 @@ public class ElasticClient {
       String format,
       String filePath) {
     Promise<JsonObject> promise = Promise.promise();
-    SearchRequest searchRequest =
+    // size 0 search to get the exact number of documents and shards, to size the slices
+    SearchRequest countRequest =
         SearchRequest.of(
-            e -> e.index(index).query(query).size(10000).scroll(scr -> scr.time("5m")));
+            e -> e.index(index).query(query).size(0).trackTotalHits(t -> t.enabled(true)));
 
     asyncClient
-        .search(searchRequest, ObjectNode.class)
+        .search(countRequest, ObjectNode.class)
         .whenCompleteAsync(
             (response, ex) -> {
-              String scrollId = null;
+              if (ex != null) {
+                LOGGER.error("Failed to count documents for scroll : {}", ex.getMessage());
+                promise.fail("failed for some exception");
+                return;
+              }
               try {
-                // LOGGER.info("response : {}",response.toString());
-                scrollId = response.scrollId();
-
                 long totalHits = response.hits().total().value();
-                LOGGER.debug("Total documents to be downloaded : " + totalHits);
-
-                List<Hit<ObjectNode>> searchHits = response.hits().hits();
-                LOGGER.debug("Total records : {}", searchHits.size());
+                int shards = response.shards().total().intValue();
+                int slices = SlicedScrollReader.sliceCount(shards, totalHits);
+                LOGGER.debug(
+                    "Total documents to be downloaded : {} using {} slices", totalHits, slices);
 
                 EsResponseFormatterFactory convertFactory =
                     new EsResponseFormatterFactory(format, file);
@@ -100,68 +119,62 @@ public class ElasticClient {
 
                 LOGGER.debug(file.getAbsolutePath());
 
-                int totaldocsDownloaded = 0;
-                instance.write(searchHits);
-                int totalIterations = totalHits < 10000 ? 1 : (int) Math.ceil(totalHits / 10000.0);
-                double iterationCount = 0.0;
-                double progress;
-                while (searchHits != null && searchHits.size() > 0) {
-                  long downloadedDocs = searchHits.size();
-                  totaldocsDownloaded += downloadedDocs;
-
-                  String downloadLogMessage = "downloaded {} docs of {} total [{} new]";
-                  LOGGER.debug(downloadLogMessage, totaldocsDownloaded, totalHits, downloadedDocs);
-                  iterationCount += 1;
-                  progress = iterationCount / totalIterations;
-                  // keeping progress at 90% of actual to update the last 10% after upload to
-                  // external (s3)
-                  double finalProgress = progress * 0.9;
-                  Future.future(handler -> progressListener.updateProgress(finalProgress));
-                  instance.append(searchHits);
-
-                  ScrollRequest scrollRequest = nextScrollRequest(scrollId);
-                  CompletableFuture<ScrollResponse<ObjectNode>> future =
-                      asyncClient.scroll(scrollRequest, ObjectNode.class);
-                  ScrollResponse<ObjectNode> scrollResponse = future.get();
-                  scrollId = scrollResponse.scrollId();
-                  searchHits = scrollResponse.hits().hits();
-                }
+                long totaldocsDownloaded =
+                    new SlicedScrollReader(asyncClient, index, query, slices)
+                        .read(
+                            instance,
+                            downloadedDocs -> {
+                              LOGGER.debug(
+                                  "downloaded {} docs of {} total", downloadedDocs, totalHits);
+                              // keeping progress at 90% of actual to update the last 10% after
+                              // upload to external (s3)
+                              double finalProgress =
+                                  Math.min(1.0, (double) downloadedDocs / totalHits) * 0.9;
+                              progressListener.updateProgress(finalProgress);
+                            });
+                LOGGER.debug("Total docs downloaded : {}", totaldocsDownloaded);
 
                 instance.finish();
                 promise.complete();
 
               } catch (Exception exception) {
+                LOGGER.error(
+                    "Scroll failed for searchId {} : {}", searchId, exception.getMessage());
                 promise.fail("failed for some exception");
-                exception.printStackTrace();
-              } finally {
-                clearScrollRequest(scrollId);
               }
             });
     return promise.future();
   }
 
-  private ScrollRequest nextScrollRequest(final String scrollId) {
-    return ScrollRequest.of(
-        scrollRequest -> scrollRequest.scrollId(scrollId).scroll(Time.of(t -> t.time("5m"))));
-  }
-
-  private void clearScrollRequest(String scrollId) {
-    if (scrollId != null) {
-      LOGGER.debug("Closing scroll request with id : {}", scrollId);
-      final String finalScroll = scrollId;
-      ClearScrollRequest clearScrollRequest = ClearScrollRequest.of(f -> f.scrollId(finalScroll));
-      try {
-        asyncClient.clearScroll(clearScrollRequest);
-      } catch (Exception e) {
-        LOGGER.error(e);
-        LOGGER.error(e.getMessage());
-      }
-    }
+  public Future<JsonObject> asyncSearch(
+      String index, Query query, int size, int from, SourceConfig sourceFilterConfig) {
+    SearchRequest searchRequest =
+        SearchRequest.of(
+            e ->
+                e.index(index)
+                    .query(query)
+                    .size(size)
+                    .from(from)
+                    .source(sourceFilterConfig)
+                    .timeout("180s"));
+    return executeSearch(searchRequest, false);
   }
 
+  /**
+   * Executes search along with counting the matching documents in the same request. Total hits are
+   * tracked accurately up to <code>trackTotalHitsUpTo</code>, beyond that ES only reports a lower
+   * bound equal to it.
+   *
+   * @param trackTotalHitsUpTo maximum number of hits counted accurately
+   * @return Future of search response with <code>totalHits</code>
+   */
   public Future<JsonObject> asyncSearch(
-      String index, Query query, int size, int from, SourceConfig sourceFilterConfig) {
-    Promise<JsonObject> promise = Promise.promise();
+      String index,
+      Query query,
+      int size,
+      int from,
+      SourceConfig sourceFilterConfig,
+      int trackTotalHitsUpTo) {
     SearchRequest searchRequest =
         SearchRequest.of(
             e ->
@@ -170,7 +183,13 @@ public class ElasticClient {
                     .size(size)
                     .from(from)
                     .source(sourceFilterConfig)
+                    .trackTotalHits(t -> t.count(trackTotalHitsUpTo))
                     .timeout("180s"));
+    return executeSearch(searchRequest, true);
+  }
+
+  private Future<JsonObject> executeSearch(SearchRequest searchRequest, boolean withTotalHits) {
+    Promise<JsonObject> promise = Promise.promise();
     asyncClient
         .search(searchRequest, ObjectNode.class)
         .whenCompleteAsync(
@@ -200,6 +219,9 @@ public class ElasticClient {
 
                 responseBuilder = new ResponseBuilder(SUCCESS).setTypeAndTitle(200);
                 responseBuilder.setMessage(dbResponse);
+                if (withTotalHits) {
+                  responseBuilder.getResponse().put(TOTAL_HITS, response.hits().total().value());
+                }
                 promise.complete(responseBuilder.getResponse());
               } catch (Exception ex) {
                 LOGGER.error("Exception occurred while executing query: {}", ex);
@@ -212,6 +234,346 @@ public class ElasticClient {
     return promise.future();
   }
 
+  /**
+   * Executes a search and streams the <code>_source</code> of every hit into <code>writeStream
+   * </code> wrapped in <code>envelope</code>. Response bytes from Elasticsearch are copied token by
+   * token, hits are never converted to Jackson or Vert.x JSON objects.
+   *
+   * @param envelope fields to be written along with the results array
+   * @param writeStream stream to write the response to, e.g HttpServerResponse
+   * @param maxTotalHits when more than 0, total hits are counted in the same request and the search
+   *     fails with 413 beyond this limit (204 when nothing matches). When 0, hits are not counted.
+   * @param executor bounded pool the response is copied on, copying blocks while the stream is
+   *     full
+   * @param context context owning the stream, writes to the stream and the completion of the
+   *     future happen on it
+   * @return Future completed once the whole response is written to the stream
+   */
+  public Future<Void> asyncSearchStream(
+      String index,
+      Query query,
+      int size,
+      int from,
+      SourceConfig sourceFilterConfig,
+      JsonObject envelope,
+      WriteStream<Buffer> writeStream,
+      long maxTotalHits,
+      WorkerExecutor executor,
+      Context context) {
+    Promise<Void> promise = Promise.promise();
+    boolean trackTotalHits = maxTotalHits > 0;
+    SearchRequest searchRequest =
+        SearchRequest.of(
+            e ->
+                e.index(index)
+                    .query(query)
+                    .size(size)
+                    .from(from)
+                    .source(sourceFilterConfig)
+                    .trackTotalHits(
+                        t ->
+                            trackTotalHits
+                                ? t.count((int) maxTotalHits + 1)
+                                : t.enabled(false))
+                    .timeout("180s"));
+
+    Request request = new Request("POST", "/" + index + "/_search");
+    request.addParameter(
+        "filter_path", trackTotalHits ? "hits.total,hits.hits._source" : "hits.hits._source");
+    request.setEntity(
+        new NByteArrayEntity(toJsonBytes(searchRequest), ContentType.APPLICATION_JSON));
+
+    client.performRequestAsync(
+        request,
+        new ResponseListener() {
+          @Override
+          public void onSuccess(Response response) {
+            // don't hold the rest client's io thread while writing to the (slower) consumer
+            runOnContext(
+                context,
+                () ->
+                    executor
+                        .<Void>executeBlocking(
+                            () -> {
+                              new EsSearchResponseStreamer(writeStream, maxTotalHits, context)
+                                  .stream(response.getEntity().getContent(), envelope);
+                              return null;
+                            },
+                            false)
+                        .onSuccess(promise::complete)
+                        .onFailure(
+                            failure -> {
+                              if (failure instanceof EsQueryException) {
+                                promise.fail(limitFailure((EsQueryException) failure));
+                              } else {
+                                LOGGER.error(
+                                    "Exception occurred while streaming response: {}", failure);
+                                promise.fail(failure);
+                              }
+                            }));
+          }
+
+          @Override
+          public void onFailure(Exception exception) {
+            LOGGER.error("async search stream query failed : {}", exception);
+            runOnContext(context, () -> failWithDbError(promise, exception));
+          }
+        });
+    return promise.future();
+  }
+
+  /* runs action on context, or right away on the calling thread without one */
+  private void runOnContext(Context context, Runnable action) {
+    if (context == null) {
+      action.run();
+    } else {
+      context.runOnContext(v -> action.run());
+    }
+  }
+
+  /**
+   * Executes a search returning only the bucketed series of <code>aggregation</code> over the
+   * documents matching <code>query</code>, no documents are fetched.
+   *
+   * @param aggregation temporal aggregation of the request
+   * @return Future of search response with the series as results, fails with 204 when nothing
+   *     matches
+   */
+  public Future<JsonObject> asyncAggregationSearch(
+      String index, Query query, TemporalAggregation aggregation) {
+    Promise<JsonObject> promise = Promise.promise();
+    SearchRequest searchRequest =
+        SearchRequest.of(
+            e ->
+                e.index(index)
+                    .query(query)
+                    .size(0)
+                    .aggregations(aggregation.toAggregations())
+                    .trackTotalHits(t -> t.enabled(false))
+                    .timeout("180s"));
+
+    Request request = new Request("POST", "/" + index + "/_search");
+    request.addParameter("filter_path", "aggregations");
+    request.setEntity(
+        new NByteArrayEntity(toJsonBytes(searchRequest), ContentType.APPLICATION_JSON));
+
+    client.performRequestAsync(
+        request,
+        new ResponseListener() {
+          @Override
+          public void onSuccess(Response response) {
+            try {
+              JsonObject body = new JsonObject(EntityUtils.toString(response.getEntity()));
+              JsonArray series = aggregation.toSeries(body.getJsonObject("aggregations"));
+              if (series.isEmpty()) {
+                promise.fail(
+                    new ResponseBuilder(FAILED)
+                        .setTypeAndTitle(204)
+                        .setMessage(EMPTY_RESPONSE)
+                        .getResponse()
+                        .toString());
+                return;
+              }
+              promise.complete(
+                  new ResponseBuilder(SUCCESS)
+                      .setTypeAndTitle(200)
+                      .setMessage(series)
+                      .getResponse());
+            } catch (Exception ex) {
+              LOGGER.error("Exception occurred while reading aggregations: {}", ex);
+              promise.fail(
+                  new ResponseBuilder(FAILED)
+                      .setTypeAndTitle(400)
+                      .setMessage(DB_ERROR)
+                      .getResponse()
+                      .toString());
+            }
+          }
+
+          @Override
+          public void onFailure(Exception exception) {
+            LOGGER.error("async aggregation query failed : {}", exception);
+            failWithDbError(promise, exception);
+          }
+        });
+    return promise.future();
+  }
+
+  /* fails with the error response of ES as a 400 when available */
+  private void failWithDbError(Promise<?> promise, Exception exception) {
+    if (exception instanceof ResponseException) {
+      try {
+        JsonObject dbException =
+            new JsonObject(
+                EntityUtils.toString(((ResponseException) exception).getResponse().getEntity()));
+        promise.fail(
+            new ResponseBuilder(FAILED)
+                .setTypeAndTitle(400)
+                .setMessage(dbException)
+                .getResponse()
+                .toString());
+        return;
+      } catch (Exception ex) {
+        LOGGER.error("unable to read error response : {}", ex);
+      }
+    }
+    promise.fail(exception);
+  }
+
+  private String limitFailure(EsQueryException ex) {
+    if (ex.getStatusCode() == 204) {
+      return new ResponseBuilder(FAILED)
+          .setTypeAndTitle(204)
+          .setMessage(EMPTY_RESPONSE)
+          .getResponse()
+          .toString();
+    }
+    JsonObject json = new JsonObject();
+    json.put("type", ex.getStatusCode());
+    json.put("title", ResponseUrn.PAYLOAD_TOO_LARGE_URN.getUrn());
+    json.put("details", ResponseUrn.PAYLOAD_TOO_LARGE_URN.getMessage());
+    return json.toString();
+  }
+
+  private byte[] toJsonBytes(SearchRequest searchRequest) {
+    ByteArrayOutputStream body = new ByteArrayOutputStream();
+    JsonGenerator generator = jsonpMapper.jsonProvider().createGenerator(body);
+    searchRequest.serialize(generator, jsonpMapper);
+    generator.close();
+    return body.toByteArray();
+  }
+
+  /**
+   * Executes a search over the point in time of <code>cursor</code>, or over a new point in time of
+   * <code>index</code> when cursor is null. Hits are sorted by <code>_shard_doc</code>, the
+   * cheapest stable order, so every page costs the same irrespective of depth.
+   *
+   * <p>Response has <code>nextCursor</code> when the page is full, on the last page the point in
+   * time is closed. <code>totalHits</code> is only counted on the first page.
+   *
+   * @param cursor cursor from the previous page, null for first page
+   * @return Future of search response
+   */
+  public Future<JsonObject> asyncCursorSearch(
+      String index, Query query, int size, SourceConfig sourceFilterConfig, SearchCursor cursor) {
+    Future<String> pitFuture =
+        cursor == null ? openPointInTime(index) : Future.succeededFuture(cursor.getPitId());
+    return pitFuture.compose(
+        pitId -> {
+          Promise<JsonObject> promise = Promise.promise();
+          boolean firstPage = cursor == null;
+          SearchRequest searchRequest =
+              SearchRequest.of(
+                  e -> {
+                    e.pit(p -> p.id(pitId).keepAlive(t -> t.time(PIT_KEEP_ALIVE)))
+                        .query(query)
+                        .size(size)
+                        .source(sourceFilterConfig)
+                        .sort(st -> st.field(f -> f.field("_shard_doc").order(SortOrder.Asc)))
+                        .trackTotalHits(t -> t.enabled(firstPage))
+                        .timeout("180s");
+                    if (!firstPage) {
+                      e.searchAfter(cursor.getSearchAfter());
+                    }
+                    return e;
+                  });
+          asyncClient
+              .search(searchRequest, ObjectNode.class)
+              .whenCompleteAsync(
+                  (response, exception) -> {
+                    if (exception != null) {
+                      LOGGER.error("async cursor search query failed : {}", exception);
+                      promise.fail(exception);
+                      return;
+                    }
+                    try {
+                      List<Hit<ObjectNode>> hits = response.hits().hits();
+                      String nextPitId = response.pitId() != null ? response.pitId() : pitId;
+                      if (firstPage && response.hits().total().value() == 0) {
+                        closePointInTime(nextPitId);
+                        ResponseBuilder emptyResponse =
+                            new ResponseBuilder(FAILED).setTypeAndTitle(204);
+                        emptyResponse.setMessage(EMPTY_RESPONSE);
+                        promise.fail(emptyResponse.getResponse().toString());
+                        return;
+                      }
+                      JsonArray dbResponse = new JsonArray();
+                      for (Hit<ObjectNode> esHitResponse : hits) {
+                        dbResponse.add(new JsonObject(esHitResponse.source().toString()));
+                      }
+                      ResponseBuilder cursorResponse =
+                          new ResponseBuilder(SUCCESS).setTypeAndTitle(200).setMessage(dbResponse);
+                      JsonObject result = cursorResponse.getResponse();
+                      if (firstPage) {
+                        result.put(TOTAL_HITS, response.hits().total().value());
+                      }
+                      if (hits.size() == size && size > 0) {
+                        List<FieldValue> lastSort = hits.get(hits.size() - 1).sort();
+                        String nextCursor =
+                            new SearchCursor(nextPitId, SearchCursor.toJsonArray(lastSort))
+                                .encode();
+                        if (nextCursor.length() > SearchCursor.MAX_LENGTH) {
+                          // spans too many shards, the next page couldn't be requested
+                          closePointInTime(nextPitId);
+                          promise.fail(
+                              new ResponseBuilder(FAILED)
+                                  .setTypeAndTitle(400)
+                                  .setMessage(
+                                      "cursor spans too many shards, narrow down the ids or the"
+                                          + " time window")
+                                  .getResponse()
+                                  .toString());
+                          return;
+                        }
+                        result.put(NEXT_CURSOR, nextCursor);
+                      } else {
+                        closePointInTime(nextPitId);
+                      }
+                      promise.complete(result);
+                    } catch (Exception ex) {
+                      LOGGER.error("Exception occurred while executing query: {}", ex);
+                      promise.fail(
+                          new ResponseBuilder(FAILED)
+                              .setTypeAndTitle(400)
+                              .setMessage(DB_ERROR)
+                              .getResponse()
+                              .toString());
+                    }
+                  });
+          return promise.future();
+        });
+  }
+
+  private Future<String> openPointInTime(String index) {
+    Promise<String> promise = Promise.promise();
+    OpenPointInTimeRequest request =
+        OpenPointInTimeRequest.of(o -> o.index(index).keepAlive(t -> t.time(PIT_KEEP_ALIVE)));
+    asyncClient
+        .openPointInTime(request)
+        .whenComplete(
+            (response, exception) -> {
+              if (exception != null) {
+                LOGGER.error("failed to open point in time : {}", exception);
+                promise.fail(exception);
+                return;
+              }
+              promise.complete(response.id());
+            });
+    return promise.future();
+  }
+
+  private void closePointInTime(String pitId) {
+    LOGGER.debug("Closing point in time with id : {}", pitId);
+    asyncClient
+        .closePointInTime(ClosePointInTimeRequest.of(c -> c.id(pitId)))
+        .whenComplete(
+            (response, exception) -> {
+              if (exception != null) {
+                LOGGER.error("failed to close point in time : {}", exception.getMessage());
+              }
+            });
+  }
+
   public Future<JsonObject> asyncCount(String index, Query query) {
     Promise<JsonObject> promise = Promise.promise();
     CountRequest countRequest = CountRequest.of(e -> e.index(index).query(query));
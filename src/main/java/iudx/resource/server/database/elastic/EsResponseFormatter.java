@@ -5,6 +5,12 @@ import com.fasterxml.jackson.databind.node.ObjectNode;
 import java.util.List;
 
 public interface EsResponseFormatter {
+  /**
+   * Column holding, as a JSON object keyed by dotted path, the values of fields outside the
+   * columns derived from the first batch.
+   */
+  String UNMAPPED_FIELD = "_unmapped";
+
   void write(List<Hit<ObjectNode>> searchHits);
 
   void finish();
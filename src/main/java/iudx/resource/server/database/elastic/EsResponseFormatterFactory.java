@@ -1,30 +1,38 @@
 package iudx.resource.server.database.elastic;
 
 import static iudx.resource.server.apiserver.util.Constants.HEADER_CSV;
+import static iudx.resource.server.apiserver.util.Constants.HEADER_NDJSON;
+import static iudx.resource.server.apiserver.util.Constants.HEADER_PARQUET;
 
 import java.io.File;
 
 public class EsResponseFormatterFactory {
-  private AbstractEsSearchResponseFormatter responseToCsv;
-  // private AbstractConvertElasticSearchResponse responseToParquet;
-  private AbstractEsSearchResponseFormatter responseToJson;
+  private static final String GZIP_EXTENSION = ".gz";
+  private final File file;
   private String format;
 
   public EsResponseFormatterFactory(String format, File file) {
     this.format = format;
-    responseToCsv = new EsResponseFormatterToCsv(file);
-    // responseToParquet = new ConvertElasticResponseToParquet(file);
-    responseToJson = new EsResponseFormatterToJson(file);
+    this.file = file;
   }
 
+  /**
+   * Creates the formatter for the format, files named with a <code>.gz</code> extension are
+   * gzipped while written.
+   *
+   * @return EsResponseFormatter writing to file
+   */
   public EsResponseFormatter createInstance() {
+    boolean gzip = file.getName().endsWith(GZIP_EXTENSION);
     switch (format) {
       case HEADER_CSV:
-        return responseToCsv;
-        //            case HEADER_PARQUET:
-        //                return responseToParquet;
+        return new EsResponseFormatterToCsv(file);
+      case HEADER_PARQUET:
+        return new EsResponseFormatterToParquet(file);
+      case HEADER_NDJSON:
+        return new EsResponseFormatterToJson(file, true, gzip);
       default:
-        return responseToJson;
+        return new EsResponseFormatterToJson(file, false, gzip);
     }
   }
 }
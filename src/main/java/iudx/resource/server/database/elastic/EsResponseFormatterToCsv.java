@@ -2,19 +2,40 @@ package iudx.resource.server.database.elastic;
 
 import co.elastic.clients.elasticsearch.core.search.Hit;
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.io.BufferedWriter;
 import java.io.File;
-import java.io.FileWriter;
+import java.io.FileOutputStream;
 import java.io.IOException;
-import java.util.LinkedHashMap;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 
+/**
+ * Converts JSON records from Elasticsearch batch response to CSV format and writes it into a CSV
+ * file.
+ *
+ * <p>Columns are the flattened paths of the records (<code>a.b</code>, <code>a.0</code>) in order
+ * of their first appearance in the first batch. Each record is flattened straight into a reusable
+ * row of cells indexed by column. The header is written with the first batch, so values of columns
+ * not present in it (later slices of a sliced scroll may have other fields) are written as a JSON
+ * object keyed by their dotted path in the trailing {@link #UNMAPPED_FIELD} column, like the
+ * Parquet download. All state is per instance, so downloads can run in parallel.
+ */
 public class EsResponseFormatterToCsv extends AbstractEsSearchResponseFormatter {
-  static JsonFlatten jsonFlatten;
-  static LinkedHashMap<String, Object> map;
-  FileWriter fileWriter;
+  private static final int BUFFER_SIZE = 64 * 1024;
+
+  private final Column root = new Column(null);
+  private final List<String> header = new ArrayList<>();
+  private JsonNode[] row = new JsonNode[0];
+  private ObjectNode unmapped;
+  Writer fileWriter;
 
   /**
    * Converts JSON records from Elasticsearch batch response to CSV format and writes it into a CSV
@@ -25,102 +46,188 @@ public class EsResponseFormatterToCsv extends AbstractEsSearchResponseFormatter
   public EsResponseFormatterToCsv(File file) {
     super(file);
     try {
-      this.fileWriter = new FileWriter(file);
+      this.fileWriter =
+          new BufferedWriter(
+              new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8),
+              BUFFER_SIZE);
     } catch (IOException e) {
       throw new RuntimeException(e);
     }
   }
 
   /**
-   * Flattens each record from Elastic search response and appends it to the file
+   * Derives the columns from the first batch and writes the header.
    *
-   * @param searchHits ElasticSearch response searchHits
+   * @param searchHits ElasticSearch response searchHits of the first batch
    */
-  public void flattenRecord(List<Hit<ObjectNode>> searchHits) {
-    for (Hit hit : searchHits) {
-      jsonFlatten = new JsonFlatten((JsonNode) hit.source());
-      map = jsonFlatten.flatten();
-      Set<String> header = map.keySet();
-      appendToCsvFile(map, header);
+  @Override
+  public void write(List<Hit<ObjectNode>> searchHits) {
+    for (Hit<ObjectNode> hit : searchHits) {
+      addColumns(root, hit.source());
+    }
+    row = new JsonNode[header.size()];
+    try {
+      for (String column : header) {
+        writeCell(column);
+        fileWriter.write(',');
+      }
+      writeCell(UNMAPPED_FIELD);
+      fileWriter.write('\n');
+    } catch (IOException e) {
+      throw new RuntimeException(e);
     }
   }
 
-  /**
-   * Produces set of headers from the first record or row of the data
-   *
-   * @param searchHits Elastic search scroll response
-   */
-  public void getHeader(List<Hit<ObjectNode>> searchHits) {
-    Hit<ObjectNode> firstHit = searchHits.get(0);
-    if (jsonFlatten == null) {
-      jsonFlatten = new JsonFlatten((JsonNode) firstHit.source());
-    }
-    map = jsonFlatten.flatten();
-    Set<String> header = map.keySet();
-    simpleFileWriter(header);
+  @Override
+  public void finish() {
+    try {
+      fileWriter.close();
+    } catch (IOException e) {
+      throw new RuntimeException(e);
+    }
   }
 
-  /**
-   * Appends the values from the records to the csv file according to the header
-   *
-   * @param map Data to be appended
-   * @param header Set of headers
-   */
-  public void appendToCsvFile(Map<String, Object> map, Set<String> header) {
+  @Override
+  public void append(List<Hit<ObjectNode>> searchHits) {
+    try {
+      for (Hit<ObjectNode> hit : searchHits) {
+        fillRow(root, hit.source());
+        writeRow();
+      }
+    } catch (IOException e) {
+      throw new RuntimeException(e);
+    }
+  }
 
-    StringBuilder stringBuilder = new StringBuilder();
+  private void addColumns(Column column, JsonNode node) {
+    if (node == null) {
+      return;
+    }
+    if (node.isValueNode()) {
+      if (column.index < 0) {
+        column.index = header.size();
+        header.add(column.path);
+      }
+      return;
+    }
+    if (node.isArray()) {
+      for (int i = 0; i < node.size(); i++) {
+        addColumns(column.element(i), node.get(i));
+      }
+    } else if (node.isObject()) {
+      for (Iterator<Map.Entry<String, JsonNode>> it = node.fields(); it.hasNext(); ) {
+        Map.Entry<String, JsonNode> field = it.next();
+        addColumns(column.field(field.getKey()), field.getValue());
+      }
+    }
+  }
 
-    for (String field : header) {
-      Object cell = map.get(field);
-      if (cell == null) {
-        stringBuilder.append("" + ",");
+  private void fillRow(Column column, JsonNode node) {
+    if (node == null) {
+      return;
+    }
+    if (node.isValueNode()) {
+      if (column.index >= 0) {
+        row[column.index] = node;
       } else {
-        stringBuilder.append(cell + ",");
+        addUnmapped(column.path, node);
+      }
+    } else if (node.isArray()) {
+      for (int i = 0; i < node.size(); i++) {
+        Column element = i < column.elements.size() ? column.elements.get(i) : null;
+        if (element == null) {
+          addUnmapped(Column.path(column.path, String.valueOf(i)), node.get(i));
+        } else {
+          fillRow(element, node.get(i));
+        }
+      }
+    } else if (node.isObject()) {
+      for (Iterator<Map.Entry<String, JsonNode>> it = node.fields(); it.hasNext(); ) {
+        Map.Entry<String, JsonNode> field = it.next();
+        Column child = column.fields.get(field.getKey());
+        if (child == null) {
+          addUnmapped(Column.path(column.path, field.getKey()), field.getValue());
+        } else {
+          fillRow(child, field.getValue());
+        }
       }
     }
+  }
 
-    String row = stringBuilder.substring(0, stringBuilder.length() - 1);
-    try {
-      fileWriter.append(row).append("\n");
-    } catch (IOException ex) {
-      throw new RuntimeException(ex);
+  private void addUnmapped(String path, JsonNode value) {
+    if (value.isNull()) {
+      return;
     }
+    if (unmapped == null) {
+      unmapped = JsonNodeFactory.instance.objectNode();
+    }
+    unmapped.set(path, value);
   }
 
-  /**
-   * Writes the column names or the header for the csv file
-   *
-   * @param header Set of headers to be written
-   */
-  private void simpleFileWriter(Set<String> header) {
-    StringBuilder stringBuilder = new StringBuilder();
-    for (String obj : header) {
-      stringBuilder.append(obj + ",");
+  private void writeRow() throws IOException {
+    for (int i = 0; i < row.length; i++) {
+      JsonNode cell = row[i];
+      if (cell != null && !cell.isNull()) {
+        writeCell(cell.asText());
+      }
+      fileWriter.write(',');
+      row[i] = null;
     }
-    String data = stringBuilder.substring(0, stringBuilder.length() - 1);
-    try {
-      fileWriter.write(data + "\n");
-    } catch (IOException e) {
-      throw new RuntimeException(e);
+    if (unmapped != null) {
+      writeCell(unmapped.toString());
+      unmapped = null;
     }
+    fileWriter.write('\n');
   }
 
-  @Override
-  public void write(List<Hit<ObjectNode>> searchHits) {
-    this.getHeader(searchHits);
+  /** Writes a cell, quoting it as per RFC 4180 when it has a separator, quote or line break. */
+  private void writeCell(String value) throws IOException {
+    boolean quote = false;
+    for (int i = 0; i < value.length() && !quote; i++) {
+      char c = value.charAt(i);
+      quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+    }
+    if (!quote) {
+      fileWriter.write(value);
+      return;
+    }
+    fileWriter.write('"');
+    int start = 0;
+    for (int i = 0; i < value.length(); i++) {
+      if (value.charAt(i) == '"') {
+        fileWriter.write(value, start, i + 1 - start);
+        fileWriter.write('"');
+        start = i + 1;
+      }
+    }
+    fileWriter.write(value, start, value.length() - start);
+    fileWriter.write('"');
   }
 
-  @Override
-  public void finish() {
-    try {
-      fileWriter.close();
-    } catch (IOException e) {
-      throw new RuntimeException(e);
+  /** Node of the column schema, mirrors the structure of the records. */
+  private static final class Column {
+    private final String path;
+    private final Map<String, Column> fields = new HashMap<>();
+    private final List<Column> elements = new ArrayList<>();
+    private int index = -1;
+
+    Column(String path) {
+      this.path = path;
     }
-  }
 
-  @Override
-  public void append(List<Hit<ObjectNode>> searchHits) {
-    this.flattenRecord(searchHits);
+    static String path(String parent, String name) {
+      return parent == null ? name : parent + "." + name;
+    }
+
+    Column field(String name) {
+      return fields.computeIfAbsent(name, k -> new Column(path(path, k)));
+    }
+
+    Column element(int i) {
+      while (elements.size() <= i) {
+        elements.add(new Column(path(path, String.valueOf(elements.size()))));
+      }
+      return elements.get(i);
+    }
   }
 }
@@ -1,24 +1,54 @@
 package iudx.resource.server.database.elastic;
 
 import co.elastic.clients.elasticsearch.core.search.Hit;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.io.BufferedOutputStream;
 import java.io.File;
-import java.io.FileWriter;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
+import java.util.zip.GZIPOutputStream;
 
 public class EsResponseFormatterToJson extends AbstractEsSearchResponseFormatter {
-  FileWriter fileWriter;
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+  private static final int BUFFER_SIZE = 64 * 1024;
+  private final boolean ndjson;
+  JsonGenerator generator;
 
   /**
-   * Writes ElasticSearch response batch response into a JSON File
+   * Writes ElasticSearch response batch response into a JSON File as a single JSON array
    *
    * @param file File to write JSON response
    */
   public EsResponseFormatterToJson(File file) {
+    this(file, false, false);
+  }
+
+  /**
+   * Writes ElasticSearch response batch response into a JSON File. Hits are written as UTF-8
+   * straight from the source nodes, without building a String per record.
+   *
+   * @param file File to write JSON response
+   * @param ndjson write one record per line instead of a JSON array
+   * @param gzip gzip the file while it is written
+   */
+  public EsResponseFormatterToJson(File file, boolean ndjson, boolean gzip) {
     super(file);
+    this.ndjson = ndjson;
     try {
-      this.fileWriter = new FileWriter(file);
+      OutputStream out = new BufferedOutputStream(new FileOutputStream(file), BUFFER_SIZE);
+      if (gzip) {
+        out = new GZIPOutputStream(out, BUFFER_SIZE);
+      }
+      this.generator = MAPPER.getFactory().createGenerator(out, JsonEncoding.UTF8);
+      if (ndjson) {
+        generator.setRootValueSeparator(new SerializedString("\n"));
+      }
     } catch (IOException e) {
       throw new RuntimeException(e);
     }
@@ -27,7 +57,9 @@ public class EsResponseFormatterToJson extends AbstractEsSearchResponseFormatter
   @Override
   public void write(List<Hit<ObjectNode>> searchHits) {
     try {
-      fileWriter.write('[');
+      if (!ndjson) {
+        generator.writeStartArray();
+      }
     } catch (IOException e) {
       throw new RuntimeException(e);
     }
@@ -36,8 +68,12 @@ public class EsResponseFormatterToJson extends AbstractEsSearchResponseFormatter
   @Override
   public void finish() {
     try {
-      fileWriter.write(']');
-      fileWriter.close();
+      if (ndjson) {
+        generator.writeRaw('\n');
+      } else {
+        generator.writeEndArray();
+      }
+      generator.close();
     } catch (IOException e) {
       throw new RuntimeException(e);
     }
@@ -46,16 +82,9 @@ public class EsResponseFormatterToJson extends AbstractEsSearchResponseFormatter
   @Override
   public void append(List<Hit<ObjectNode>> searchHits) {
     try {
-      boolean appendComma = false;
       for (Hit<ObjectNode> sh : searchHits) {
-        if (appendComma) {
-          fileWriter.write("," + sh.source().toString());
-        } else {
-          fileWriter.write(sh.source().toString());
-        }
-        appendComma = true;
+        generator.writeTree(sh.source());
       }
-
     } catch (IOException e) {
       throw new RuntimeException(e);
     }
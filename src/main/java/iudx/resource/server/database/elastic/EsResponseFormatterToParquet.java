@@ -1,118 +1,162 @@
 package iudx.resource.server.database.elastic;
 
 import co.elastic.clients.elasticsearch.core.search.Hit;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.io.BufferedOutputStream;
 import java.io.File;
-import java.util.*;
-
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.parquet.hadoop.ParquetFileWriter;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.parquet.hadoop.api.WriteSupport;
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+import org.apache.parquet.io.OutputFile;
+import org.apache.parquet.io.PositionOutputStream;
+
+/**
+ * Writes Elasticsearch batch responses into a snappy compressed Parquet file.
+ *
+ * <p>The schema is inferred from the first batch (see {@link JsonNodeWriteSupport}). Rows are
+ * buffered by the Parquet writer only up to {@link #ROW_GROUP_SIZE} bytes, after which the row
+ * group is flushed to the file.
+ */
 public class EsResponseFormatterToParquet extends AbstractEsSearchResponseFormatter {
-  //    private File file;
-  //    private static final Logger LOGGER =
-  // LogManager.getLogger(ConvertElasticResponseToParquet.class);
+  static final long ROW_GROUP_SIZE = 32L * 1024 * 1024;
+  private static final Logger LOGGER = LogManager.getLogger(EsResponseFormatterToParquet.class);
+  ParquetWriter<JsonNode> writer;
 
   public EsResponseFormatterToParquet(File file) {
     super(file);
-    this.file = file;
   }
 
   @Override
   public void write(List<Hit<ObjectNode>> searchHits) {
-    //        Schema arrowSchema = this.getSchema(searchHits);
-    //        SchemaMapping parquetSchema = this.getParquetSchema(arrowSchema);
-    //        MessageType messageTypeParquetSchema = parquetSchema.getParquetSchema();
-
-    //        LOGGER.debug("message type parquet schema {}", messageTypeParquetSchema);
-    //        LOGGER.debug("Whats the parquet schema heree ? : {}",parquetSchema.toString());
-    //        LOGGER.debug("\n\n\n\n");
-    //        LOGGER.debug("What is the schema : {} ", parquetSchema.getChildren());
-    //        LOGGER.debug("\n\n\n\n");
-
-    //        ParquetWriter parquetWriter = this.getParquetWriter(file, messageTypeParquetSchema);
+    List<JsonNode> sample = new ArrayList<>(searchHits.size());
+    for (Hit<ObjectNode> hit : searchHits) {
+      sample.add(hit.source());
+    }
+    JsonNodeWriteSupport writeSupport = JsonNodeWriteSupport.infer(sample);
+    LOGGER.debug("parquet schema : {}", writeSupport.getSchema());
+    try {
+      writer =
+          new Builder(new LocalOutputFile(file), writeSupport)
+              .withConf(new Configuration(false))
+              .withWriteMode(ParquetFileWriter.Mode.OVERWRITE)
+              .withCompressionCodec(CompressionCodecName.SNAPPY)
+              .withRowGroupSize(ROW_GROUP_SIZE)
+              .build();
+    } catch (IOException e) {
+      throw new RuntimeException(e);
+    }
   }
 
   @Override
-  public void finish() {}
+  public void finish() {
+    try {
+      writer.close();
+    } catch (IOException e) {
+      throw new RuntimeException(e);
+    }
+  }
 
   @Override
-  public void append(List<Hit<ObjectNode>> searchHits) {}
-
-  /*    private SchemaMapping getParquetSchema(Schema arrowSchema) {
-      SchemaConverter schemaConverter = new SchemaConverter();
-      return schemaConverter.fromArrow(arrowSchema);
-
-  }*/
-
-  /*
-      private ParquetWriter getParquetWriter(File file, MessageType parquetSchema) {
-          Configuration configuration = new Configuration();
-  //        LOGGER.debug("whats the file path : ");
-          Path path = new Path(file.getPath());
-          try {
-              HadoopOutputFile hadoopOutputFile = HadoopOutputFile.fromPath(path,configuration);
-              ParquetFileWriter p = new ParquetFileWriter(
-                      hadoopOutputFile,
-                      parquetSchema,
-                      ParquetFileWriter.Mode.CREATE, 1024, 1024, 1024, 1024, true
-              );
-
-          } catch (IOException e) {
-              throw new RuntimeException(e);
-          }
-
-          return null;
+  public void append(List<Hit<ObjectNode>> searchHits) {
+    try {
+      for (Hit<ObjectNode> hit : searchHits) {
+        writer.write(hit.source());
       }
-  */
-
-  /*    public Schema getSchema(List<Hit<ObjectNode>> searchHits) {
-          for (Hit hit : searchHits) {
-              JsonObject jsonSource = new JsonObject(hit.source().toString());
-              List<Field> fields = new ArrayList<>();
-              Set<String> firstHit = jsonSource.fieldNames();
-              for(String s : firstHit)
-              {
-                  var value = jsonSource.getValue(s);
-                  LOGGER.debug("value : {} ", value);
-                  Field field;
-                  FieldType fieldType;
-                  fieldType = getFieldType(value);
-                  field = new Field(s,fieldType,null);
-                  fields.add(field);
-              }
-              Schema schema = new Schema(fields);
-  //            LOGGER.debug("whats the schema ? ::::::: ");
-  //            LOGGER.debug("{}", schema);
-              return schema;
-          }
-          return null;
-      }*/
-
-  /*    private FieldType getFieldType(Object value) {
-      FieldType fieldType;
-      if(value instanceof Integer)
-      {
-          fieldType = new FieldType(true,new ArrowType.Int(32, true),null);
-      }else if(value instanceof Long)
-      {
-          fieldType = new FieldType(true,new ArrowType.Int(64, true),null);
+    } catch (IOException e) {
+      throw new RuntimeException(e);
+    }
+  }
 
-      }
-      else if(value instanceof Double)
-      {
-          fieldType = new FieldType(true,new ArrowType.FloatingPoint(FloatingPointPrecision.DOUBLE),null);
+  private static final class Builder extends ParquetWriter.Builder<JsonNode, Builder> {
+    private final JsonNodeWriteSupport writeSupport;
 
-      }
-      else if (value instanceof Boolean)
-      {
-          fieldType = new FieldType(true,ArrowType.Bool.INSTANCE,null);
-      }
-      else if (value instanceof String)
-      {
-          fieldType = new FieldType(true,new ArrowType.Utf8(),null);
+    private Builder(OutputFile outputFile, JsonNodeWriteSupport writeSupport) {
+      super(outputFile);
+      this.writeSupport = writeSupport;
+    }
 
-      }else {
-          fieldType = new FieldType(true,new ArrowType.Binary(),null);
-      }
-      return fieldType;
-  }*/
+    @Override
+    protected Builder self() {
+      return this;
+    }
 
+    @Override
+    protected WriteSupport<JsonNode> getWriteSupport(Configuration conf) {
+      return writeSupport;
+    }
+  }
+
+  /** Parquet output to a local file without going through a hadoop file system. */
+  private static final class LocalOutputFile implements OutputFile {
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private final File file;
+
+    LocalOutputFile(File file) {
+      this.file = file;
+    }
+
+    @Override
+    public PositionOutputStream create(long blockSizeHint) throws IOException {
+      return createOrOverwrite(blockSizeHint);
+    }
+
+    @Override
+    public PositionOutputStream createOrOverwrite(long blockSizeHint) throws IOException {
+      BufferedOutputStream out = new BufferedOutputStream(new FileOutputStream(file), BUFFER_SIZE);
+      return new PositionOutputStream() {
+        private long position;
+
+        @Override
+        public long getPos() {
+          return position;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+          out.write(b);
+          position++;
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+          out.write(bytes, offset, length);
+          position += length;
+        }
+
+        @Override
+        public void flush() throws IOException {
+          out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+          out.close();
+        }
+      };
+    }
+
+    @Override
+    public boolean supportsBlockSize() {
+      return false;
+    }
+
+    @Override
+    public long defaultBlockSize() {
+      return 0;
+    }
+
+    @Override
+    public String getPath() {
+      return file.getPath();
+    }
+  }
 }
@@ -0,0 +1,252 @@
+package iudx.resource.server.database.elastic;
+
+import static iudx.resource.server.database.archives.Constants.EMPTY_RESPONSE;
+import static iudx.resource.server.database.archives.Constants.RESULTS;
+import static iudx.resource.server.database.archives.Constants.TOTAL_HITS;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import io.vertx.core.Context;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.Json;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.streams.WriteStream;
+import iudx.resource.server.common.HttpStatusCode;
+import iudx.resource.server.common.ResponseUrn;
+import iudx.resource.server.database.elastic.exception.EsQueryException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Copies the <code>_source</code> of every hit in a raw Elasticsearch search response into a
+ * {@link WriteStream} as the <code>results</code> array of the standard search envelope.
+ *
+ * <p>Tokens are copied from the Elasticsearch response straight to the output, no Jackson tree or
+ * Vert.x JSON is built for the hits. Output is flushed in chunks of {@link #CHUNK_SIZE} bytes and
+ * the writer waits for the stream to drain when its write queue is full, so it must run on a worker
+ * thread. With a context, every chunk is written to the stream on that context.
+ *
+ * <p>When the response carries <code>hits.total</code> (it precedes <code>hits.hits</code> in ES
+ * responses) it is checked against <code>maxTotalHits</code> before anything is written, so an
+ * empty or too large result can still be answered with a proper error.
+ */
+public class EsSearchResponseStreamer {
+
+  private static final Logger LOGGER = LogManager.getLogger(EsSearchResponseStreamer.class);
+  private static final JsonFactory JSON_FACTORY = new JsonFactory();
+  static final int CHUNK_SIZE = 64 * 1024;
+  private static final long DRAIN_TIMEOUT_SECONDS = 30;
+
+  private final WriteStream<Buffer> writeStream;
+  private final long maxTotalHits;
+  private final Context context;
+
+  public EsSearchResponseStreamer(WriteStream<Buffer> writeStream) {
+    this(writeStream, 0);
+  }
+
+  public EsSearchResponseStreamer(WriteStream<Buffer> writeStream, long maxTotalHits) {
+    this(writeStream, maxTotalHits, null);
+  }
+
+  /**
+   * @param writeStream stream to write response to
+   * @param maxTotalHits max allowed total hits, 0 to skip the check
+   * @param context context owning the stream, null to write from the calling thread
+   */
+  public EsSearchResponseStreamer(
+      WriteStream<Buffer> writeStream, long maxTotalHits, Context context) {
+    this.writeStream = writeStream;
+    this.maxTotalHits = maxTotalHits;
+    this.context = context;
+  }
+
+  /**
+   * Streams the hits in <code>esResponse</code> wrapped in <code>envelope</code>.
+   *
+   * @param esResponse raw search response, filtered to <code>hits.total</code> and <code>
+   *     hits.hits._source</code>
+   * @param envelope fields to be written around the results array (type, title, limit etc)
+   * @return number of hits written
+   * @throws IOException when response can't be parsed or written
+   * @throws EsQueryException when total hits are zero or more than <code>maxTotalHits</code>
+   */
+  public long stream(InputStream esResponse, JsonObject envelope) throws IOException {
+    long hitCount = 0;
+    try (ChunkedOutputStream out = new ChunkedOutputStream();
+        JsonParser parser = JSON_FACTORY.createParser(esResponse);
+        JsonGenerator generator = JSON_FACTORY.createGenerator(out, JsonEncoding.UTF8)) {
+      boolean envelopeWritten = false;
+      int depth = 0;
+      JsonToken token;
+      while ((token = parser.nextToken()) != null) {
+        if (token == JsonToken.START_OBJECT || token == JsonToken.START_ARRAY) {
+          depth++;
+        } else if (token == JsonToken.END_OBJECT || token == JsonToken.END_ARRAY) {
+          depth--;
+        } else if (token == JsonToken.FIELD_NAME) {
+          String field = parser.getCurrentName();
+          if (depth == 2 && "total".equals(field)) {
+            // {"hits":{"total":{"value":..,"relation":..}}}
+            checkTotalHits(parser, envelope);
+          } else if (depth == 4 && "_source".equals(field)) {
+            // {"hits":{"hits":[{"_source":{..}}]}}
+            if (parser.nextToken() == JsonToken.START_OBJECT) {
+              if (!envelopeWritten) {
+                writeEnvelopeStart(generator, envelope);
+                envelopeWritten = true;
+              }
+              generator.copyCurrentStructure(parser);
+              hitCount++;
+            }
+          }
+        }
+      }
+
+      if (!envelopeWritten) {
+        writeEnvelopeStart(generator, envelope);
+      }
+      generator.writeEndArray();
+      generator.writeEndObject();
+    }
+    LOGGER.debug("streamed {} hits", hitCount);
+    return hitCount;
+  }
+
+  private void writeEnvelopeStart(JsonGenerator generator, JsonObject envelope)
+      throws IOException {
+    generator.writeStartObject();
+    for (Map.Entry<String, Object> entry : envelope) {
+      generator.writeFieldName(entry.getKey());
+      generator.writeRawValue(Json.encode(entry.getValue()));
+    }
+    generator.writeFieldName(RESULTS);
+    generator.writeStartArray();
+  }
+
+  private void checkTotalHits(JsonParser parser, JsonObject envelope) throws IOException {
+    long totalHits = 0;
+    if (parser.nextToken() == JsonToken.START_OBJECT) {
+      while (parser.nextToken() == JsonToken.FIELD_NAME) {
+        String field = parser.getCurrentName();
+        parser.nextToken();
+        if ("value".equals(field)) {
+          totalHits = parser.getLongValue();
+        }
+      }
+    } else {
+      // rest_total_hits_as_int style response
+      totalHits = parser.getLongValue();
+    }
+    if (totalHits == 0) {
+      throw new EsQueryException(
+          ResponseUrn.SUCCESS_URN,
+          EMPTY_RESPONSE,
+          HttpStatusCode.NO_CONTENT.getValue());
+    }
+    if (maxTotalHits > 0 && totalHits > maxTotalHits) {
+      throw new EsQueryException(
+          ResponseUrn.PAYLOAD_TOO_LARGE_URN,
+          ResponseUrn.PAYLOAD_TOO_LARGE_URN.getMessage(),
+          HttpStatusCode.REQUEST_TOO_LONG.getValue());
+    }
+    envelope.put(TOTAL_HITS, totalHits);
+  }
+
+  /** Collects generator output and hands it to the write stream in fixed size chunks. */
+  private class ChunkedOutputStream extends OutputStream {
+    private Buffer chunk = Buffer.buffer(CHUNK_SIZE);
+
+    @Override
+    public void write(int b) throws IOException {
+      chunk.appendByte((byte) b);
+      flushIfFull();
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) throws IOException {
+      chunk.appendBytes(bytes, offset, length);
+      flushIfFull();
+    }
+
+    private void flushIfFull() throws IOException {
+      if (chunk.length() >= CHUNK_SIZE) {
+        writeChunk();
+      }
+    }
+
+    private void writeChunk() throws IOException {
+      if (chunk.length() == 0) {
+        return;
+      }
+      Buffer buffer = chunk;
+      chunk = Buffer.buffer(CHUNK_SIZE);
+      if (context == null) {
+        awaitDrain();
+        writeStream.write(buffer);
+        return;
+      }
+      // wait till the stream can take more before producing the next chunk
+      CountDownLatch writable = new CountDownLatch(1);
+      context.runOnContext(
+          v -> {
+            writeStream.write(buffer);
+            if (writeStream.writeQueueFull()) {
+              writeStream.drainHandler(
+                  drained -> {
+                    writeStream.drainHandler(null);
+                    writable.countDown();
+                  });
+            } else {
+              writable.countDown();
+            }
+          });
+      await(writable);
+    }
+
+    private void awaitDrain() throws IOException {
+      if (!writeStream.writeQueueFull()) {
+        return;
+      }
+      CountDownLatch drained = new CountDownLatch(1);
+      writeStream.drainHandler(v -> drained.countDown());
+      try {
+        if (writeStream.writeQueueFull()) {
+          await(drained);
+        }
+      } finally {
+        writeStream.drainHandler(null);
+      }
+    }
+
+    private void await(CountDownLatch latch) throws IOException {
+      try {
+        if (!latch.await(DRAIN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+          throw new IOException("timed out waiting for response stream to drain");
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IOException(e);
+      }
+    }
+
+    @Override
+    public void flush() {
+      // chunks are only handed over when full or on close
+    }
+
+    @Override
+    public void close() throws IOException {
+      writeChunk();
+    }
+  }
+}
@@ -2,12 +2,17 @@ package iudx.resource.server.database.elastic;
 
 import static iudx.resource.server.database.archives.Constants.*;
 
+import co.elastic.clients.elasticsearch._types.GeoShapeRelation;
+import co.elastic.clients.elasticsearch._types.query_dsl.GeoShapeQuery;
 import co.elastic.clients.elasticsearch._types.query_dsl.Query;
-import co.elastic.clients.elasticsearch._types.query_dsl.WrapperQuery;
+import co.elastic.clients.json.JsonData;
+import co.elastic.clients.json.JsonpMapper;
+import co.elastic.clients.json.jackson.JacksonJsonpMapper;
 import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
 import iudx.resource.server.database.elastic.exception.EsQueryException;
-import java.util.Base64;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import org.apache.logging.log4j.LogManager;
@@ -16,10 +21,10 @@ import org.apache.logging.log4j.Logger;
 public class GeoQueryFiltersDecorator implements ElasticsearchQueryDecorator {
 
   private static final Logger LOGGER = LogManager.getLogger(GeoQueryFiltersDecorator.class);
+  /* converts shapes of plain maps and lists to json, so the query serializes with any mapper */
+  private static final JsonpMapper SHAPE_MAPPER = new JacksonJsonpMapper();
   private Map<FilterType, List<Query>> queryFilters;
   private JsonObject requestQuery;
-  private String geoQuery =
-      "{ \"geo_shape\": { \"%s\": { \"shape\": %s, \"relation\": \"%s\" } } }";
 
   public GeoQueryFiltersDecorator(
       Map<FilterType, List<Query>> queryFilters, JsonObject requestQuery) {
@@ -29,16 +34,18 @@ public class GeoQueryFiltersDecorator implements ElasticsearchQueryDecorator {
 
   @Override
   public Map<FilterType, List<Query>> add() {
-    Query geoWrapperQuery;
+    Query geoShapeQuery;
     if (requestQuery.containsKey(LON)
         && requestQuery.containsKey(LAT)
         && requestQuery.containsKey(GEO_RADIUS)) {
       // circle
-      requestQuery.put(GEOMETRY, "Point");
       String relation = requestQuery.containsKey(GEOREL) ? requestQuery.getString(GEOREL) : WITHIN;
-      String query = String.format(geoQuery, "location", getGeoJson(requestQuery), relation);
-      String encodedString = Base64.getEncoder().encodeToString(query.getBytes());
-      geoWrapperQuery = WrapperQuery.of(w -> w.query(encodedString))._toQuery();
+      Map<String, Object> shape = new LinkedHashMap<>();
+      shape.put(TYPE_KEY, "Circle");
+      shape.put(GEO_RADIUS, requestQuery.getString(GEO_RADIUS) + "m");
+      shape.put(
+          COORDINATES_KEY, List.of(requestQuery.getDouble(LON), requestQuery.getDouble(LAT)));
+      geoShapeQuery = getGeoShapeQuery(shape, relation);
 
     } else if (requestQuery.containsKey(GEOMETRY)
         && (requestQuery.getString(GEOMETRY).equalsIgnoreCase(POLYGON)
@@ -48,14 +55,26 @@ public class GeoQueryFiltersDecorator implements ElasticsearchQueryDecorator {
         && requestQuery.containsKey(GEO_PROPERTY)) {
       // polygon & linestring
       String relation = requestQuery.getString(GEOREL);
+      String geometry = requestQuery.getString(GEOMETRY);
+      JsonArray coordinates = new JsonArray(requestQuery.getString(COORDINATES_KEY));
 
-      if (!isValidCoordinates(
-          requestQuery.getString(GEOMETRY), new JsonArray(requestQuery.getString("coordinates")))) {
+      if (!isValidCoordinates(geometry, coordinates)) {
         throw new EsQueryException("Coordinate mismatch (Polygon)");
       }
-      String query = String.format(geoQuery, "location", getGeoJson(requestQuery), relation);
-      String encodedString = Base64.getEncoder().encodeToString(query.getBytes());
-      geoWrapperQuery = WrapperQuery.of(w -> w.query(encodedString))._toQuery();
+      List<?> points;
+      if (geometry.equalsIgnoreCase(POLYGON)) {
+        List<List<List<Double>>> rings = new ArrayList<>();
+        for (int i = 0; i < coordinates.size(); i++) {
+          rings.add(simplify(toPoints(coordinates.getJsonArray(i))));
+        }
+        points = rings;
+      } else {
+        points = simplify(toPoints(coordinates));
+      }
+      Map<String, Object> shape = new LinkedHashMap<>();
+      shape.put(TYPE_KEY, geometry);
+      shape.put(COORDINATES_KEY, points);
+      geoShapeQuery = getGeoShapeQuery(shape, relation);
 
     } else if (requestQuery.containsKey(GEOMETRY)
         && requestQuery.getString(GEOMETRY).equalsIgnoreCase(BBOX)
@@ -64,39 +83,58 @@ public class GeoQueryFiltersDecorator implements ElasticsearchQueryDecorator {
         && requestQuery.containsKey(GEO_PROPERTY)) {
       // bbox
       String relation = requestQuery.getString(GEOREL);
-      String query = String.format(geoQuery, "location", getGeoJson(requestQuery), relation);
-      String encodedString = Base64.getEncoder().encodeToString(query.getBytes());
-      geoWrapperQuery = WrapperQuery.of(w -> w.query(encodedString))._toQuery();
+      Map<String, Object> shape = new LinkedHashMap<>();
+      shape.put(TYPE_KEY, GEO_BBOX);
+      shape.put(
+          COORDINATES_KEY, toPoints(new JsonArray(requestQuery.getString(COORDINATES_KEY))));
+      geoShapeQuery = getGeoShapeQuery(shape, relation);
     } else {
       throw new EsQueryException("Missing/Invalid geo parameters");
     }
     List<Query> queryList = queryFilters.get(FilterType.FILTER);
-    queryList.add(geoWrapperQuery);
+    queryList.add(geoShapeQuery);
     return queryFilters;
   }
 
-  private JsonObject getGeoJson(JsonObject json) {
-    LOGGER.debug(json);
-    JsonObject geoJson = new JsonObject();
-    String geom;
-    JsonArray coordinates;
-    if ("Point".equalsIgnoreCase(json.getString(GEOMETRY))) {
-      double lat = json.getDouble(LAT);
-      double lon = json.getDouble(LON);
-      geom = "Circle";
-      geoJson.put("radius", json.getString("radius") + "m");
-      coordinates = new JsonArray().add(lon).add(lat);
-    } else if ("bbox".equalsIgnoreCase(json.getString(GEOMETRY))) {
-      geom = "envelope";
-      coordinates = new JsonArray(json.getString("coordinates"));
-    } else {
-      geom = json.getString(GEOMETRY);
-      coordinates = new JsonArray(json.getString("coordinates"));
+  private Query getGeoShapeQuery(Map<String, Object> shape, String relation) {
+    LOGGER.debug(shape);
+    GeoShapeRelation shapeRelation = getGeoShapeRelation(relation);
+    JsonData shapeJson = JsonData.of(JsonData.of(shape, SHAPE_MAPPER).toJson());
+    return GeoShapeQuery.of(
+            g -> g.field(GEO_KEY).shape(s -> s.shape(shapeJson).relation(shapeRelation)))
+        ._toQuery();
+  }
+
+  private GeoShapeRelation getGeoShapeRelation(String relation) {
+    for (GeoShapeRelation shapeRelation : GeoShapeRelation.values()) {
+      if (shapeRelation.jsonValue().equalsIgnoreCase(relation)) {
+        return shapeRelation;
+      }
+    }
+    throw new EsQueryException("Missing/Invalid geo parameters");
+  }
+
+  /* [lon, lat] points of a json array of points */
+  private List<List<Double>> toPoints(JsonArray coordinates) {
+    List<List<Double>> points = new ArrayList<>();
+    try {
+      for (int i = 0; i < coordinates.size(); i++) {
+        JsonArray point = coordinates.getJsonArray(i);
+        points.add(List.of(point.getDouble(0), point.getDouble(1)));
+      }
+    } catch (RuntimeException ex) {
+      throw new EsQueryException("Missing/Invalid geo parameters");
+    }
+    return points;
+  }
+
+  private List<List<Double>> simplify(List<List<Double>> points) {
+    if (points.size() <= MAX_SHAPE_POINTS) {
+      return points;
     }
-    geoJson.put("type", geom);
-    geoJson.put("coordinates", coordinates);
-    LOGGER.debug(geoJson);
-    return geoJson;
+    List<List<Double>> simplified = ShapeSimplifier.simplify(points, SHAPE_SIMPLIFY_TOLERANCE);
+    LOGGER.debug("simplified shape of {} points to {}", points.size(), simplified.size());
+    return simplified;
   }
 
   private boolean isValidCoordinates(String geometry, JsonArray coordinates) {
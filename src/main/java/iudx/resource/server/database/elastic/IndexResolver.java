@@ -0,0 +1,79 @@
+package iudx.resource.server.database.elastic;
+
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Resolves the indices a query is searched on when the data of a resource group is partitioned in
+ * time, as <code>&lt;index&gt;-yyyy.MM</code> for <code>monthly</code> or <code>
+ * &lt;index&gt;-yyyy.MM.dd</code> for <code>daily</code> partitions (UTC) behind the <code>
+ * &lt;index&gt;</code> alias.
+ *
+ * <p>Only the partitions overlapping the time window of the query are searched. Each partition is
+ * searched as a wildcard, so missing partitions are skipped and rolled over partitions are
+ * included. The alias is searched when the query has no time window or the window spans more than
+ * <code>maxPartitions</code> partitions.
+ */
+public final class IndexResolver {
+
+  public static final String NONE = "none";
+  public static final String MONTHLY = "monthly";
+  public static final String DAILY = "daily";
+
+  private final ChronoUnit unit;
+  private final DateTimeFormatter suffix;
+  private final int maxPartitions;
+
+  /**
+   * @param partitioning one of <code>none</code>, <code>monthly</code> or <code>daily</code>
+   * @param maxPartitions max partitions searched, the alias is searched beyond this
+   * @throws IllegalArgumentException if partitioning is unknown
+   */
+  public IndexResolver(String partitioning, int maxPartitions) {
+    if (partitioning == null || NONE.equalsIgnoreCase(partitioning)) {
+      this.unit = null;
+      this.suffix = null;
+    } else if (MONTHLY.equalsIgnoreCase(partitioning)) {
+      this.unit = ChronoUnit.MONTHS;
+      this.suffix = DateTimeFormatter.ofPattern("yyyy.MM");
+    } else if (DAILY.equalsIgnoreCase(partitioning)) {
+      this.unit = ChronoUnit.DAYS;
+      this.suffix = DateTimeFormatter.ofPattern("yyyy.MM.dd");
+    } else {
+      throw new IllegalArgumentException("invalid index partitioning " + partitioning);
+    }
+    this.maxPartitions = maxPartitions;
+  }
+
+  /**
+   * @param alias index name of the resource group
+   * @param timeWindow start and end of the query, null when the query isn't limited in time
+   * @return comma separated partitions overlapping the time window, or the alias
+   */
+  public String resolve(String alias, ZonedDateTime[] timeWindow) {
+    if (unit == null || timeWindow == null || timeWindow[0] == null || timeWindow[1] == null) {
+      return alias;
+    }
+    ZonedDateTime end = timeWindow[1].withZoneSameInstant(ZoneOffset.UTC);
+    ZonedDateTime partition = timeWindow[0].withZoneSameInstant(ZoneOffset.UTC);
+    partition = partition.truncatedTo(ChronoUnit.DAYS);
+    if (unit == ChronoUnit.MONTHS) {
+      partition = partition.withDayOfMonth(1);
+    }
+    if (partition.isAfter(end)) {
+      return alias;
+    }
+    List<String> indices = new ArrayList<>();
+    for (; !partition.isAfter(end); partition = partition.plus(1, unit)) {
+      if (indices.size() == maxPartitions) {
+        return alias;
+      }
+      indices.add(alias + "-" + suffix.format(partition) + "*");
+    }
+    return String.join(",", indices);
+  }
+}
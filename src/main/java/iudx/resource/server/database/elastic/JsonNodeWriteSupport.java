@@ -0,0 +1,333 @@
+package iudx.resource.server.database.elastic;
+
+import static iudx.resource.server.database.elastic.EsResponseFormatter.UNMAPPED_FIELD;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.parquet.hadoop.api.WriteSupport;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.io.api.RecordConsumer;
+import org.apache.parquet.schema.LogicalTypeAnnotation;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName;
+import org.apache.parquet.schema.Type;
+import org.apache.parquet.schema.Types;
+
+/**
+ * Writes Jackson records to Parquet, with a schema inferred from a sample of the records.
+ *
+ * <p>Objects become optional groups, arrays of scalars become lists and scalars become boolean,
+ * int64, double or string columns. Integers widen to double when both are seen, any other conflict
+ * and arrays of objects are stored as JSON text. A Parquet file has a single schema, so values of
+ * fields not in the sample (or not matching its type) are written as a JSON object keyed by their
+ * dotted path in the {@link EsResponseFormatter#UNMAPPED_FIELD} column instead of being dropped.
+ */
+class JsonNodeWriteSupport extends WriteSupport<JsonNode> {
+
+  private static final String LIST_FIELD = "list";
+  private static final String ELEMENT_FIELD = "element";
+
+  private final Field root;
+  private final MessageType schema;
+  private final Deque<String> path = new ArrayDeque<>();
+  private RecordConsumer recordConsumer;
+  private ObjectNode unmapped;
+
+  private JsonNodeWriteSupport(Field root) {
+    this.root = root;
+    List<Type> fields = new ArrayList<>();
+    for (Field field : root.children.values()) {
+      fields.add(field.toType());
+    }
+    fields.add(stringType(UNMAPPED_FIELD));
+    this.schema = new MessageType("record", fields);
+  }
+
+  /**
+   * Infers the schema from sample records.
+   *
+   * @param sample records to infer schema from
+   * @return JsonNodeWriteSupport for the inferred schema
+   */
+  static JsonNodeWriteSupport infer(List<? extends JsonNode> sample) {
+    Field root = new Field("record");
+    root.kind = Kind.GROUP;
+    for (JsonNode record : sample) {
+      root.infer(record);
+    }
+    root.children.remove(UNMAPPED_FIELD);
+    root.freeze();
+    return new JsonNodeWriteSupport(root);
+  }
+
+  MessageType getSchema() {
+    return schema;
+  }
+
+  @Override
+  public WriteContext init(Configuration configuration) {
+    return new WriteContext(schema, new HashMap<>());
+  }
+
+  @Override
+  public void prepareForWrite(RecordConsumer recordConsumer) {
+    this.recordConsumer = recordConsumer;
+  }
+
+  @Override
+  public void write(JsonNode record) {
+    unmapped = null;
+    recordConsumer.startMessage();
+    int index = writeFields(root, record);
+    if (unmapped != null) {
+      recordConsumer.startField(UNMAPPED_FIELD, index);
+      recordConsumer.addBinary(Binary.fromString(unmapped.toString()));
+      recordConsumer.endField(UNMAPPED_FIELD, index);
+    }
+    recordConsumer.endMessage();
+  }
+
+  private int writeFields(Field group, JsonNode object) {
+    int index = 0;
+    for (Field field : group.children.values()) {
+      JsonNode value = object.get(field.name);
+      if (value != null && !value.isNull()) {
+        if (field.accepts(value)) {
+          recordConsumer.startField(field.name, index);
+          writeValue(field, value);
+          recordConsumer.endField(field.name, index);
+        } else {
+          addUnmapped(field.name, value);
+        }
+      }
+      index++;
+    }
+    for (Iterator<Map.Entry<String, JsonNode>> it = object.fields(); it.hasNext(); ) {
+      Map.Entry<String, JsonNode> entry = it.next();
+      if (!group.children.containsKey(entry.getKey()) && !entry.getValue().isNull()) {
+        addUnmapped(entry.getKey(), entry.getValue());
+      }
+    }
+    return index;
+  }
+
+  private void writeValue(Field field, JsonNode value) {
+    switch (field.kind) {
+      case GROUP:
+        recordConsumer.startGroup();
+        path.addLast(field.name);
+        writeFields(field, value);
+        path.removeLast();
+        recordConsumer.endGroup();
+        break;
+      case LIST:
+        recordConsumer.startGroup();
+        if (value.size() > 0) {
+          recordConsumer.startField(LIST_FIELD, 0);
+          for (JsonNode element : value) {
+            recordConsumer.startGroup();
+            if (!element.isNull()) {
+              recordConsumer.startField(ELEMENT_FIELD, 0);
+              writeScalar(field.elementKind, element);
+              recordConsumer.endField(ELEMENT_FIELD, 0);
+            }
+            recordConsumer.endGroup();
+          }
+          recordConsumer.endField(LIST_FIELD, 0);
+        }
+        recordConsumer.endGroup();
+        break;
+      default:
+        writeScalar(field.kind, value);
+    }
+  }
+
+  private void writeScalar(Kind kind, JsonNode value) {
+    switch (kind) {
+      case BOOLEAN:
+        recordConsumer.addBoolean(value.booleanValue());
+        break;
+      case LONG:
+        recordConsumer.addLong(value.longValue());
+        break;
+      case DOUBLE:
+        recordConsumer.addDouble(value.doubleValue());
+        break;
+      default:
+        recordConsumer.addBinary(
+            Binary.fromString(value.isTextual() ? value.textValue() : value.toString()));
+    }
+  }
+
+  private void addUnmapped(String name, JsonNode value) {
+    if (unmapped == null) {
+      unmapped = JsonNodeFactory.instance.objectNode();
+    }
+    String key = path.isEmpty() ? name : String.join(".", path) + "." + name;
+    unmapped.set(key, value);
+  }
+
+  private static Type stringType(String name) {
+    return Types.optional(PrimitiveTypeName.BINARY)
+        .as(LogicalTypeAnnotation.stringType())
+        .named(name);
+  }
+
+  private static Type scalarType(Kind kind, String name) {
+    switch (kind) {
+      case BOOLEAN:
+        return Types.optional(PrimitiveTypeName.BOOLEAN).named(name);
+      case LONG:
+        return Types.optional(PrimitiveTypeName.INT64).named(name);
+      case DOUBLE:
+        return Types.optional(PrimitiveTypeName.DOUBLE).named(name);
+      default:
+        return stringType(name);
+    }
+  }
+
+  enum Kind {
+    BOOLEAN,
+    LONG,
+    DOUBLE,
+    STRING,
+    GROUP,
+    LIST;
+
+    static Kind of(JsonNode node) {
+      if (node == null || node.isNull() || node.isMissingNode()) {
+        return null;
+      } else if (node.isBoolean()) {
+        return BOOLEAN;
+      } else if (node.isIntegralNumber() && node.canConvertToLong()) {
+        return LONG;
+      } else if (node.isNumber()) {
+        return DOUBLE;
+      } else if (node.isObject()) {
+        return GROUP;
+      } else if (node.isArray()) {
+        return LIST;
+      }
+      return STRING;
+    }
+
+    static Kind merge(Kind first, Kind second) {
+      if (first == null) {
+        return second;
+      } else if (second == null || first == second) {
+        return first;
+      } else if ((first == LONG || first == DOUBLE) && (second == LONG || second == DOUBLE)) {
+        return DOUBLE;
+      }
+      return STRING;
+    }
+
+    boolean isScalar() {
+      return this != GROUP && this != LIST;
+    }
+  }
+
+  private static final class Field {
+    private final String name;
+    private final Map<String, Field> children = new LinkedHashMap<>();
+    private Kind kind;
+    private Kind elementKind;
+
+    Field(String name) {
+      this.name = name;
+    }
+
+    void infer(JsonNode value) {
+      Kind valueKind = Kind.of(value);
+      if (valueKind == Kind.LIST) {
+        Kind valueElementKind = null;
+        for (JsonNode element : value) {
+          valueElementKind = Kind.merge(valueElementKind, Kind.of(element));
+        }
+        if (valueElementKind != null && !valueElementKind.isScalar()) {
+          valueKind = Kind.STRING;
+        } else if (kind == null || kind == Kind.LIST) {
+          elementKind = Kind.merge(elementKind, valueElementKind);
+        }
+      }
+      kind = Kind.merge(kind, valueKind);
+      if (kind == Kind.GROUP) {
+        for (Iterator<Map.Entry<String, JsonNode>> it = value.fields(); it.hasNext(); ) {
+          Map.Entry<String, JsonNode> entry = it.next();
+          children.computeIfAbsent(entry.getKey(), Field::new).infer(entry.getValue());
+        }
+      }
+    }
+
+    void freeze() {
+      if (kind == Kind.GROUP) {
+        children.values().forEach(Field::freeze);
+        if (children.isEmpty()) {
+          // parquet doesn't allow empty groups
+          kind = Kind.STRING;
+        }
+      } else if (kind == Kind.LIST) {
+        elementKind = elementKind == null ? Kind.STRING : elementKind;
+      } else if (kind == null) {
+        kind = Kind.STRING;
+      }
+    }
+
+    boolean accepts(JsonNode value) {
+      switch (kind) {
+        case GROUP:
+          return value.isObject();
+        case LIST:
+          if (!value.isArray()) {
+            return false;
+          }
+          for (JsonNode element : value) {
+            if (!element.isNull() && !acceptsScalar(elementKind, element)) {
+              return false;
+            }
+          }
+          return true;
+        default:
+          return acceptsScalar(kind, value);
+      }
+    }
+
+    private static boolean acceptsScalar(Kind kind, JsonNode value) {
+      switch (kind) {
+        case BOOLEAN:
+          return value.isBoolean();
+        case LONG:
+          return value.isIntegralNumber() && value.canConvertToLong();
+        case DOUBLE:
+          return value.isNumber();
+        default:
+          return true;
+      }
+    }
+
+    Type toType() {
+      switch (kind) {
+        case GROUP:
+          List<Type> fields = new ArrayList<>();
+          for (Field child : children.values()) {
+            fields.add(child.toType());
+          }
+          return Types.optionalGroup().addFields(fields.toArray(new Type[0])).named(name);
+        case LIST:
+          return Types.optionalList().element(scalarType(elementKind, ELEMENT_FIELD)).named(name);
+        default:
+          return scalarType(kind, name);
+      }
+    }
+  }
+}
@@ -13,6 +13,7 @@ import co.elastic.clients.elasticsearch.core.search.SourceFilter;
 import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
 import iudx.resource.server.database.elastic.exception.EsQueryException;
+import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
@@ -44,10 +45,13 @@ public class QueryDecoder {
       queryLists.put(filterType, new ArrayList<Query>());
     }
 
-    // add id to every elastic query
+    // add ids to every elastic query
     JsonArray id = jsonQuery.getJsonArray("id");
-    FieldValue field = FieldValue.of(id.getString(0));
-    TermsQueryField termQueryField = TermsQueryField.of(e -> e.value(List.of(field)));
+    List<FieldValue> fields = new ArrayList<>(id.size());
+    for (int i = 0; i < id.size(); i++) {
+      fields.add(FieldValue.of(id.getString(i)));
+    }
+    TermsQueryField termQueryField = TermsQueryField.of(e -> e.value(fields));
     Query idTermsQuery = TermsQuery.of(query -> query.field("id").terms(termQueryField))._toQuery();
 
     queryLists.get(FilterType.FILTER).add(idTermsQuery);
@@ -95,6 +99,29 @@ public class QueryDecoder {
     return q;
   }
 
+  /**
+   * Time window the query of the request is limited to, by its temporal params or else the default
+   * temporal filter, as added by {@link #getQuery(JsonObject, boolean)}.
+   *
+   * @return start and end of the window, null when the query isn't limited in time
+   */
+  public ZonedDateTime[] getTimeWindow(JsonObject jsonQuery, boolean isAsyncQuery) {
+    String searchType = jsonQuery.getString(SEARCH_TYPE);
+    String[] timeLimitConfig = getTimeLimitArray(jsonQuery, isAsyncQuery);
+    if (searchType.matches(TEMPORAL_SEARCH_REGEX)
+        && jsonQuery.containsKey(REQ_TIMEREL)
+        && jsonQuery.containsKey(TIME_KEY)) {
+      int defaultDateForDevDeployment = isAsyncQuery ? 0 : Integer.valueOf(timeLimitConfig[2]);
+      return new TemporalQueryFiltersDecorator(null, jsonQuery, defaultDateForDevDeployment)
+          .getTimeWindow();
+    }
+    if (isAsyncQuery || !jsonQuery.getJsonArray("applicableFilters").contains("TEMPORAL")) {
+      return null;
+    }
+    return new TemporalQueryFiltersDecorator(null, jsonQuery, Integer.valueOf(timeLimitConfig[2]))
+        .getDefaultTimeWindow(jsonQuery);
+  }
+
   private String[] getTimeLimitArray(JsonObject jsonQuery, boolean isAsyncQuery) {
     if (isAsyncQuery) {
       return new String[] {};
@@ -0,0 +1,183 @@
+package iudx.resource.server.database.elastic;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalCause;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.vertx.core.Future;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonObject;
+import io.vertx.micrometer.backends.BackendRegistries;
+import java.time.Clock;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Results of Elasticsearch requests, so dashboards repeating the same query every few seconds are
+ * answered without reaching Elasticsearch.
+ *
+ * <p>Results are keyed by the SHA-256 of the request, i.e the decoded query, index, size, offset
+ * and source filter, and kept encoded so the cache is bounded by <code>maxBytes</code> of results.
+ * Results larger than <code>maxEntryBytes</code> are not cached. Results of time windows which
+ * ended in the past are kept for <code>closedTtlSeconds</code>, other results for <code>ttlSeconds
+ * </code>. Concurrent misses for the same key share a single request.
+ *
+ * <p>Hits, misses, evictions and hit ratio are exported as <code>rs.search.cache.*</code> metrics.
+ *
+ * <p>Loads in flight are tracked in a plain map to merge concurrent misses, so every
+ * DatabaseVerticle instance creates its own cache and only uses it on its event loop.
+ */
+public class QueryResultCache {
+
+  private static final Logger LOGGER = LogManager.getLogger(QueryResultCache.class);
+  private static final AtomicInteger INSTANCES = new AtomicInteger();
+
+  private final Cache<String, Entry> cache;
+  private final Map<String, Future<JsonObject>> inFlight = new HashMap<>();
+  private final int maxEntryBytes;
+  private final long ttlMillis;
+  private final long closedTtlMillis;
+  private final Clock clock;
+  private long hits;
+  private long misses;
+  private long evictions;
+
+  public QueryResultCache(
+      long maxBytes, int maxEntryBytes, long ttlSeconds, long closedTtlSeconds) {
+    this(maxBytes, maxEntryBytes, ttlSeconds, closedTtlSeconds, Clock.systemUTC());
+  }
+
+  QueryResultCache(
+      long maxBytes, int maxEntryBytes, long ttlSeconds, long closedTtlSeconds, Clock clock) {
+    this.maxEntryBytes = maxEntryBytes;
+    this.ttlMillis = TimeUnit.SECONDS.toMillis(ttlSeconds);
+    this.closedTtlMillis = TimeUnit.SECONDS.toMillis(Math.max(ttlSeconds, closedTtlSeconds));
+    this.clock = clock;
+    this.cache =
+        CacheBuilder.newBuilder()
+            .maximumWeight(maxBytes)
+            .<String, Entry>weigher((key, entry) -> key.length() + entry.value.length())
+            .expireAfterWrite(closedTtlMillis, TimeUnit.MILLISECONDS)
+            .<String, Entry>removalListener(
+                removal -> {
+                  if (removal.getCause() == RemovalCause.SIZE) {
+                    evictions++;
+                  }
+                })
+            .build();
+    registerMetrics();
+  }
+
+  /**
+   * @param parts everything the result of a request depends on
+   * @return cache key of the request
+   */
+  public static String key(Object... parts) {
+    StringBuilder request = new StringBuilder();
+    for (Object part : parts) {
+      request.append(part).append('\n');
+    }
+    return DigestUtils.sha256Hex(request.toString());
+  }
+
+  /**
+   * Gets the result of a request, executing it when not cached. Callers get their own copy of the
+   * result, failed requests are not cached.
+   *
+   * @param key cache key of the request, see {@link #key(Object...)}
+   * @param closedWindow whether the time window of the request ended in the past
+   * @param loader executes the request
+   * @return Future of result
+   */
+  public Future<JsonObject> get(
+      String key, boolean closedWindow, Supplier<Future<JsonObject>> loader) {
+    Entry entry = cache.asMap().get(key);
+    if (entry != null && entry.expiresAt > clock.millis()) {
+      hits++;
+      return Future.succeededFuture(new JsonObject(entry.value));
+    }
+    misses++;
+    Future<JsonObject> pending = inFlight.get(key);
+    if (pending == null) {
+      pending = loader.get();
+      inFlight.put(key, pending);
+      pending.onComplete(
+          loaded -> {
+            inFlight.remove(key);
+            if (loaded.succeeded()) {
+              put(key, loaded.result(), closedWindow);
+            }
+          });
+    }
+    return pending.map(JsonObject::copy);
+  }
+
+  private void put(String key, JsonObject result, boolean closedWindow) {
+    Buffer value = result.toBuffer();
+    if (value.length() > maxEntryBytes) {
+      LOGGER.debug("result of {} bytes not cached", value.length());
+      cache.invalidate(key);
+      return;
+    }
+    long ttl = closedWindow ? closedTtlMillis : ttlMillis;
+    cache.put(key, new Entry(value, clock.millis() + ttl));
+  }
+
+  long getHits() {
+    return hits;
+  }
+
+  long getMisses() {
+    return misses;
+  }
+
+  long getEvictions() {
+    return evictions;
+  }
+
+  private double getHitRatio() {
+    long requests = hits + misses;
+    return requests == 0 ? 0 : (double) hits / requests;
+  }
+
+  private void registerMetrics() {
+    MeterRegistry registry = BackendRegistries.getDefaultNow();
+    if (registry == null) {
+      return;
+    }
+    // every verticle instance has its own cache
+    Tags tags = Tags.of("instance", String.valueOf(INSTANCES.incrementAndGet()));
+    FunctionCounter.builder("rs.search.cache.hits", this, QueryResultCache::getHits)
+        .tags(tags)
+        .register(registry);
+    FunctionCounter.builder("rs.search.cache.misses", this, QueryResultCache::getMisses)
+        .tags(tags)
+        .register(registry);
+    FunctionCounter.builder("rs.search.cache.evictions", this, QueryResultCache::getEvictions)
+        .tags(tags)
+        .register(registry);
+    Gauge.builder("rs.search.cache.hit.ratio", this, QueryResultCache::getHitRatio)
+        .tags(tags)
+        .register(registry);
+    Gauge.builder("rs.search.cache.size", cache, Cache::size).tags(tags).register(registry);
+  }
+
+  private static final class Entry {
+    private final Buffer value;
+    private final long expiresAt;
+
+    private Entry(Buffer value, long expiresAt) {
+      this.value = value;
+      this.expiresAt = expiresAt;
+    }
+  }
+}
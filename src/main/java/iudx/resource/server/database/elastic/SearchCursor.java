@@ -0,0 +1,104 @@
+package iudx.resource.server.database.elastic;
+
+import co.elastic.clients.elasticsearch._types.FieldValue;
+import io.vertx.core.json.DecodeException;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import iudx.resource.server.common.ResponseUrn;
+import iudx.resource.server.database.elastic.exception.EsQueryException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Opaque cursor for search_after pagination over an Elasticsearch point in time (PIT).
+ *
+ * <p>The token handed to consumers is the url safe base64 of <code>{"pit": pitId, "after": [sort
+ * values of last hit]}</code>. A token of {@link #START} begins a new walk, which opens a PIT.
+ */
+public final class SearchCursor {
+
+  public static final String START = "*";
+  /* max length of a token accepted by the API server */
+  public static final int MAX_LENGTH = 4096;
+
+  private static final String PIT_KEY = "pit";
+  private static final String SEARCH_AFTER_KEY = "after";
+
+  private final String pitId;
+  private final JsonArray searchAfter;
+
+  public SearchCursor(String pitId, JsonArray searchAfter) {
+    this.pitId = pitId;
+    this.searchAfter = searchAfter;
+  }
+
+  /**
+   * Decodes a cursor token received from a consumer.
+   *
+   * @param token cursor token
+   * @return SearchCursor
+   * @throws EsQueryException if token is not a valid cursor
+   */
+  public static SearchCursor decode(String token) {
+    try {
+      JsonObject json =
+          new JsonObject(new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8));
+      String pitId = json.getString(PIT_KEY);
+      JsonArray searchAfter = json.getJsonArray(SEARCH_AFTER_KEY);
+      if (pitId == null || searchAfter == null || searchAfter.isEmpty()) {
+        throw new EsQueryException(ResponseUrn.INVALID_PARAM_VALUE_URN, "Invalid cursor");
+      }
+      return new SearchCursor(pitId, searchAfter);
+    } catch (IllegalArgumentException | DecodeException | ClassCastException e) {
+      throw new EsQueryException(ResponseUrn.INVALID_PARAM_VALUE_URN, "Invalid cursor");
+    }
+  }
+
+  public static boolean isStart(String token) {
+    return START.equals(token);
+  }
+
+  public String encode() {
+    String json = new JsonObject().put(PIT_KEY, pitId).put(SEARCH_AFTER_KEY, searchAfter).encode();
+    return Base64.getUrlEncoder()
+        .withoutPadding()
+        .encodeToString(json.getBytes(StandardCharsets.UTF_8));
+  }
+
+  public String getPitId() {
+    return pitId;
+  }
+
+  /** Sort values of the last hit of previous page, as expected by search_after. */
+  public List<FieldValue> getSearchAfter() {
+    List<FieldValue> values = new ArrayList<>(searchAfter.size());
+    for (Object value : searchAfter) {
+      values.add(toFieldValue(value));
+    }
+    return values;
+  }
+
+  /** Builds cursor json values from the sort values of a hit. */
+  public static JsonArray toJsonArray(List<FieldValue> sortValues) {
+    JsonArray values = new JsonArray();
+    for (FieldValue value : sortValues) {
+      values.add(value._get());
+    }
+    return values;
+  }
+
+  private static FieldValue toFieldValue(Object value) {
+    if (value == null) {
+      return FieldValue.NULL;
+    } else if (value instanceof Integer || value instanceof Long) {
+      return FieldValue.of(((Number) value).longValue());
+    } else if (value instanceof Number) {
+      return FieldValue.of(((Number) value).doubleValue());
+    } else if (value instanceof Boolean) {
+      return FieldValue.of((Boolean) value);
+    }
+    return FieldValue.of(value.toString());
+  }
+}
@@ -0,0 +1,84 @@
+package iudx.resource.server.database.elastic;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Douglas-Peucker simplification of the lines and polygon rings of geo queries, so very large
+ * shapes are cheaper to send, parse and intersect in Elasticsearch.
+ *
+ * <p>Only points within <code>tolerance</code> degrees of the simplified line are dropped, with the
+ * default tolerance of 1e-5 degrees (about a metre) well under the precision of the locations of
+ * observations.
+ */
+public final class ShapeSimplifier {
+
+  private ShapeSimplifier() {}
+
+  /**
+   * @param points line or closed ring as <code>[lon, lat]</code> points
+   * @param tolerance max distance in degrees of a dropped point from the simplified line
+   * @return simplified line, first and last points are always kept. Rings which would collapse to
+   *     less than 4 points are returned unchanged.
+   */
+  public static List<List<Double>> simplify(List<List<Double>> points, double tolerance) {
+    if (points.size() < 3) {
+      return points;
+    }
+    boolean[] kept = new boolean[points.size()];
+    kept[0] = true;
+    kept[points.size() - 1] = true;
+    simplify(points, 0, points.size() - 1, tolerance, kept);
+
+    List<List<Double>> simplified = new ArrayList<>();
+    for (int i = 0; i < kept.length; i++) {
+      if (kept[i]) {
+        simplified.add(points.get(i));
+      }
+    }
+    boolean ring = points.get(0).equals(points.get(points.size() - 1));
+    return ring && simplified.size() < 4 ? points : simplified;
+  }
+
+  /* ranges still to simplify are kept on a stack, zig-zag lines splitting once per point */
+  private static void simplify(
+      List<List<Double>> points, int first, int last, double tolerance, boolean[] kept) {
+    Deque<int[]> ranges = new ArrayDeque<>();
+    ranges.push(new int[] {first, last});
+    while (!ranges.isEmpty()) {
+      int[] range = ranges.pop();
+      int start = range[0];
+      int end = range[1];
+      double maxDistance = 0;
+      int farthest = -1;
+      for (int i = start + 1; i < end; i++) {
+        double distance = distance(points.get(i), points.get(start), points.get(end));
+        if (distance > maxDistance) {
+          maxDistance = distance;
+          farthest = i;
+        }
+      }
+      if (farthest != -1 && maxDistance > tolerance) {
+        kept[farthest] = true;
+        ranges.push(new int[] {start, farthest});
+        ranges.push(new int[] {farthest, end});
+      }
+    }
+  }
+
+  /* distance of point from the segment start-end, or from start when the segment is a point */
+  private static double distance(List<Double> point, List<Double> start, List<Double> end) {
+    double x = point.get(0);
+    double y = point.get(1);
+    double x1 = start.get(0);
+    double y1 = start.get(1);
+    double dx = end.get(0) - x1;
+    double dy = end.get(1) - y1;
+    double lengthSquared = dx * dx + dy * dy;
+    double t = lengthSquared == 0 ? 0 : ((x - x1) * dx + (y - y1) * dy) / lengthSquared;
+    t = Math.max(0, Math.min(1, t));
+    return Math.hypot(x - (x1 + t * dx), y - (y1 + t * dy));
+  }
+}
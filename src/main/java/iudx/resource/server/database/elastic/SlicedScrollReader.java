@@ -0,0 +1,199 @@
+package iudx.resource.server.database.elastic;
+
+import co.elastic.clients.elasticsearch.ElasticsearchAsyncClient;
+import co.elastic.clients.elasticsearch._types.Time;
+import co.elastic.clients.elasticsearch._types.query_dsl.Query;
+import co.elastic.clients.elasticsearch.core.ClearScrollRequest;
+import co.elastic.clients.elasticsearch.core.ScrollRequest;
+import co.elastic.clients.elasticsearch.core.ScrollResponse;
+import co.elastic.clients.elasticsearch.core.SearchRequest;
+import co.elastic.clients.elasticsearch.core.search.Hit;
+import co.elastic.clients.elasticsearch.core.search.ResponseBody;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongConsumer;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Reads all documents matching a query using a sliced scroll.
+ *
+ * <p>Every slice is scrolled on its own thread and its batches are handed over to the calling
+ * thread through a bounded queue, which writes them to the {@link EsResponseFormatter}. A reader
+ * requests its next batch before queueing the current one, so fetching batch i+1 overlaps with
+ * writing batch i. Readers block when the queue is full, so at most the queue depth plus two
+ * batches per slice are held in memory irrespective of the number of documents downloaded.
+ */
+public class SlicedScrollReader {
+
+  static final int BATCH_SIZE = 10000;
+  static final int MAX_SLICES = 8;
+  static final int QUEUE_DEPTH = 4;
+  private static final Logger LOGGER = LogManager.getLogger(SlicedScrollReader.class);
+  private static final String SCROLL_KEEP_ALIVE = "5m";
+  private static final List<Hit<ObjectNode>> END_OF_SLICE = new ArrayList<>();
+
+  private final ElasticsearchAsyncClient asyncClient;
+  private final String index;
+  private final Query query;
+  private final int slices;
+  private final int queueDepth;
+
+  public SlicedScrollReader(
+      ElasticsearchAsyncClient asyncClient, String index, Query query, int slices) {
+    this(asyncClient, index, query, slices, QUEUE_DEPTH);
+  }
+
+  SlicedScrollReader(
+      ElasticsearchAsyncClient asyncClient, String index, Query query, int slices, int queueDepth) {
+    this.asyncClient = asyncClient;
+    this.index = index;
+    this.query = query;
+    this.slices = Math.max(1, slices);
+    this.queueDepth = Math.max(1, queueDepth);
+  }
+
+  /**
+   * Number of slices to scroll an index with. ES performs best with one slice per shard, small
+   * results are read with a single scroll as slicing doesn't pay off for a single batch.
+   *
+   * @param shards number of shards of the index
+   * @param totalHits number of documents to be read
+   * @return number of slices
+   */
+  public static int sliceCount(int shards, long totalHits) {
+    if (totalHits <= BATCH_SIZE) {
+      return 1;
+    }
+    long batches = (totalHits + BATCH_SIZE - 1) / BATCH_SIZE;
+    return (int) Math.max(1, Math.min(Math.min(shards, MAX_SLICES), batches));
+  }
+
+  /**
+   * Reads all slices and writes the hits to formatter, blocks until all slices are read.
+   *
+   * @param formatter formatter to write hits to, <code>write</code> is called with the first batch
+   * @param onBatchWritten called with the number of documents written so far after every batch
+   * @return number of documents written
+   * @throws Exception when reading any of the slices or writing fails
+   */
+  public long read(EsResponseFormatter formatter, LongConsumer onBatchWritten) throws Exception {
+    BlockingQueue<List<Hit<ObjectNode>>> queue = new ArrayBlockingQueue<>(queueDepth);
+    ExecutorService executor = Executors.newFixedThreadPool(slices);
+    List<Future<?>> readers = new ArrayList<>(slices);
+    LOGGER.debug("reading index {} with {} slices", index, slices);
+    try {
+      for (int i = 0; i < slices; i++) {
+        final int sliceId = i;
+        readers.add(
+            executor.submit(
+                () -> {
+                  readSlice(sliceId, queue);
+                  return null;
+                }));
+      }
+
+      long written = 0;
+      boolean started = false;
+      int finishedSlices = 0;
+      while (finishedSlices < slices) {
+        List<Hit<ObjectNode>> batch = queue.poll(1, TimeUnit.SECONDS);
+        if (batch == null) {
+          checkReaders(readers);
+        } else if (batch == END_OF_SLICE) {
+          finishedSlices++;
+        } else {
+          if (!started) {
+            formatter.write(batch);
+            started = true;
+          }
+          formatter.append(batch);
+          written += batch.size();
+          onBatchWritten.accept(written);
+        }
+      }
+      if (!started) {
+        formatter.write(Collections.emptyList());
+      }
+      return written;
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private void checkReaders(List<Future<?>> readers) throws Exception {
+    for (Future<?> reader : readers) {
+      if (reader.isDone()) {
+        try {
+          reader.get();
+        } catch (ExecutionException e) {
+          throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+        }
+      }
+    }
+  }
+
+  private void readSlice(int sliceId, BlockingQueue<List<Hit<ObjectNode>>> queue)
+      throws Exception {
+    SearchRequest searchRequest =
+        SearchRequest.of(
+            e -> {
+              e.index(index)
+                  .query(query)
+                  .size(BATCH_SIZE)
+                  .scroll(scr -> scr.time(SCROLL_KEEP_ALIVE));
+              if (slices > 1) {
+                // ES rejects slice max < 2
+                e.slice(s -> s.id(String.valueOf(sliceId)).max(slices));
+              }
+              return e;
+            });
+
+    String scrollId = null;
+    try {
+      ResponseBody<ObjectNode> response = asyncClient.search(searchRequest, ObjectNode.class).get();
+      scrollId = response.scrollId();
+      while (response.hits().hits() != null && !response.hits().hits().isEmpty()) {
+        // fetch the next batch while this one waits in the queue and is written
+        CompletableFuture<ScrollResponse<ObjectNode>> next =
+            asyncClient.scroll(nextScrollRequest(scrollId), ObjectNode.class);
+        queue.put(response.hits().hits());
+        response = next.get();
+        scrollId = response.scrollId();
+      }
+      // cleared before the end is signalled, read returns and stops the readers once all ended
+      clearScroll(scrollId);
+      scrollId = null;
+      queue.put(END_OF_SLICE);
+    } finally {
+      clearScroll(scrollId);
+    }
+  }
+
+  private ScrollRequest nextScrollRequest(final String scrollId) {
+    return ScrollRequest.of(
+        scrollRequest ->
+            scrollRequest.scrollId(scrollId).scroll(Time.of(t -> t.time(SCROLL_KEEP_ALIVE))));
+  }
+
+  private void clearScroll(String scrollId) {
+    if (scrollId != null) {
+      LOGGER.debug("Closing scroll request with id : {}", scrollId);
+      try {
+        asyncClient.clearScroll(ClearScrollRequest.of(f -> f.scrollId(scrollId)));
+      } catch (Exception e) {
+        LOGGER.error(e.getMessage());
+      }
+    }
+  }
+}
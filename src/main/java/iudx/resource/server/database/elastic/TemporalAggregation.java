@@ -0,0 +1,172 @@
+package iudx.resource.server.database.elastic;
+
+import static iudx.resource.server.database.archives.Constants.*;
+
+import co.elastic.clients.elasticsearch._types.aggregations.Aggregation;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import iudx.resource.server.database.elastic.exception.EsQueryException;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Downsampling of a temporal query, documents are bucketed by <code>observationDateTime</code> in
+ * a date histogram of <code>aggrPeriodDuration</code> and every method of <code>aggrMethods</code>
+ * is computed over every attribute of <code>attrs</code> per bucket.
+ *
+ * <p>Only non empty buckets are returned, each as <code>{"observationDateTime": start of bucket,
+ * "count": documents, attr: {method: value}}</code>. Percentiles are returned as a map of
+ * percentile to value.
+ */
+public final class TemporalAggregation {
+
+  static final String HISTOGRAM = "series";
+  private static final String TIME_FIELD = "observationDateTime";
+  private static final String SEPARATOR = ":";
+  private static final String PERCENTILES = "percentiles";
+
+  private final List<String> attrs;
+  private final List<String> methods;
+  private final Duration period;
+
+  TemporalAggregation(List<String> attrs, List<String> methods, Duration period) {
+    this.attrs = attrs;
+    this.methods = methods;
+    this.period = period;
+  }
+
+  /**
+   * Reads the aggregation of a search request.
+   *
+   * @param request search request query with <code>aggrMethods</code>, <code>aggrPeriodDuration
+   *     </code> and <code>attrs</code>
+   * @return TemporalAggregation
+   * @throws EsQueryException if aggregation params are missing or invalid, or the time interval of
+   *     the query has more than {@link
+   *     iudx.resource.server.database.archives.Constants#MAX_AGGREGATION_BUCKETS} periods
+   */
+  public static TemporalAggregation fromRequest(JsonObject request) {
+    JsonArray methods = request.getJsonArray(AGGR_METHODS);
+    JsonArray attrs = request.getJsonArray(RESPONSE_ATTRS);
+    String periodDuration = request.getString(AGGR_PERIOD);
+    if (methods == null || methods.isEmpty() || attrs == null || attrs.isEmpty()) {
+      throw new EsQueryException("aggrMethods, aggrPeriodDuration and attrs are mandatory");
+    }
+    if (!ALLOWED_AGGR_METHODS.containsAll(methods.getList())) {
+      throw new EsQueryException("invalid aggregation method, allowed " + ALLOWED_AGGR_METHODS);
+    }
+    Duration period;
+    try {
+      period = Duration.parse(periodDuration);
+    } catch (NullPointerException | DateTimeParseException ex) {
+      throw new EsQueryException("invalid aggrPeriodDuration");
+    }
+    if (period.getSeconds() < 60) {
+      throw new EsQueryException("aggrPeriodDuration less than a minute");
+    }
+    Duration interval = getTimeInterval(request);
+    if (interval != null && interval.getSeconds() / period.getSeconds() > MAX_AGGREGATION_BUCKETS) {
+      throw new EsQueryException(
+          "more than " + MAX_AGGREGATION_BUCKETS + " periods in time interval");
+    }
+    return new TemporalAggregation(
+        attrs.stream().map(Object::toString).collect(Collectors.toList()),
+        methods.stream().map(Object::toString).distinct().collect(Collectors.toList()),
+        period);
+  }
+
+  /* time interval of the query, the default limit of days for before/after queries */
+  private static Duration getTimeInterval(JsonObject request) {
+    try {
+      if (request.containsKey(END_TIME)) {
+        return Duration.between(
+            ZonedDateTime.parse(request.getString(TIME_KEY)),
+            ZonedDateTime.parse(request.getString(END_TIME)));
+      }
+      return Duration.ofDays(Integer.parseInt(request.getString(TIME_LIMIT).split(",")[2]));
+    } catch (RuntimeException ex) {
+      // invalid time params are reported by the temporal decorator
+      return null;
+    }
+  }
+
+  /**
+   * @return date histogram aggregation with a metric sub aggregation per attribute and method
+   */
+  public Map<String, Aggregation> toAggregations() {
+    Map<String, Aggregation> metrics = new HashMap<>();
+    for (String attr : attrs) {
+      for (String method : methods) {
+        metrics.put(attr + SEPARATOR + method, metric(attr, method));
+      }
+    }
+    Aggregation histogram =
+        Aggregation.of(
+            a ->
+                a.dateHistogram(
+                        h ->
+                            h.field(TIME_FIELD)
+                                .fixedInterval(t -> t.time(period.getSeconds() + "s"))
+                                .minDocCount(1))
+                    .aggregations(metrics));
+    return Map.of(HISTOGRAM, histogram);
+  }
+
+  private Aggregation metric(String attr, String method) {
+    switch (method) {
+      case "avg":
+        return Aggregation.of(a -> a.avg(m -> m.field(attr)));
+      case "min":
+        return Aggregation.of(a -> a.min(m -> m.field(attr)));
+      case "max":
+        return Aggregation.of(a -> a.max(m -> m.field(attr)));
+      case "sum":
+        return Aggregation.of(a -> a.sum(m -> m.field(attr)));
+      case "count":
+        return Aggregation.of(a -> a.valueCount(m -> m.field(attr)));
+      case PERCENTILES:
+        return Aggregation.of(a -> a.percentiles(m -> m.field(attr)));
+      default:
+        throw new EsQueryException("invalid aggregation method " + method);
+    }
+  }
+
+  /**
+   * Converts the <code>aggregations</code> of an ES search response to the bucketed series.
+   *
+   * @param aggregations aggregations of the search response
+   * @return series of buckets, empty when no document matched
+   */
+  public JsonArray toSeries(JsonObject aggregations) {
+    JsonArray series = new JsonArray();
+    if (aggregations == null || !aggregations.containsKey(HISTOGRAM)) {
+      return series;
+    }
+    for (Object item : aggregations.getJsonObject(HISTOGRAM).getJsonArray("buckets")) {
+      JsonObject bucket = (JsonObject) item;
+      JsonObject point =
+          new JsonObject()
+              .put(TIME_FIELD, bucket.getString("key_as_string"))
+              .put(COUNT, bucket.getLong("doc_count"));
+      for (String attr : attrs) {
+        JsonObject values = new JsonObject();
+        for (String method : methods) {
+          JsonObject metric = bucket.getJsonObject(attr + SEPARATOR + method, new JsonObject());
+          if (PERCENTILES.equals(method)) {
+            values.put(method, metric.getJsonObject("values"));
+          } else {
+            values.put(method, metric.getValue("value"));
+          }
+        }
+        point.put(attr, values);
+      }
+      series.add(point);
+    }
+    return series;
+  }
+}
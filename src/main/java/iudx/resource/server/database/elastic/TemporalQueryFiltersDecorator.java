@@ -10,6 +10,7 @@ import iudx.resource.server.database.elastic.exception.EsQueryException;
 import java.time.OffsetDateTime;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 import java.util.Map;
 
@@ -27,6 +28,58 @@ public class TemporalQueryFiltersDecorator implements ElasticsearchQueryDecorato
 
   @Override
   public Map<FilterType, List<Query>> add() {
+    String[] timeBounds = getTimeBounds();
+    final String startTime = timeBounds[0];
+    final String endTime = timeBounds[1];
+
+    Query temporalQuery =
+        RangeQuery.of(
+                r ->
+                    r.field("observationDateTime")
+                        .lte(JsonData.of(endTime))
+                        .gte(JsonData.of(startTime)))
+            ._toQuery();
+
+    List<Query> queryList = queryFilters.get(FilterType.FILTER);
+    queryList.add(temporalQuery);
+    return queryFilters;
+  }
+
+  /**
+   * Time window of the temporal params of the request, same as the range added by {@link #add()}.
+   *
+   * @return start and end of the window
+   */
+  public ZonedDateTime[] getTimeWindow() {
+    String[] timeBounds = getTimeBounds();
+    return new ZonedDateTime[] {
+      getZonedDateTime(timeBounds[0]), getZonedDateTime(timeBounds[1])
+    };
+  }
+
+  /**
+   * Time window of the default temporal filter, same as the range added by {@link
+   * #addDefaultTemporalFilters(Map, JsonObject)}.
+   *
+   * @return start and end of the window, end is now for production
+   */
+  public ZonedDateTime[] getDefaultTimeWindow(JsonObject query) {
+    String[] timeLimitConfig = query.getString(TIME_LIMIT).split(",");
+    String deploymentType = timeLimitConfig[0];
+    if (PROD_INSTANCE.equalsIgnoreCase(deploymentType)) {
+      ZonedDateTime now = ZonedDateTime.now();
+      return new ZonedDateTime[] {
+        now.truncatedTo(ChronoUnit.MINUTES).minusDays(defaultDateLimit), now
+      };
+    } else if (TEST_INSTANCE.equalsIgnoreCase(deploymentType)) {
+      ZonedDateTime endTime = getZonedDateTime(timeLimitConfig[1]);
+      return new ZonedDateTime[] {endTime.minusDays(defaultDateLimit), endTime};
+    } else {
+      throw new EsQueryException("invalid timeLimit config passed");
+    }
+  }
+
+  private String[] getTimeBounds() {
     String queryRequestTimeRelation = requestQuery.getString(REQ_TIMEREL);
     String queryRequestStartTime = requestQuery.getString(TIME_KEY);
     String queryRequestEndTime = requestQuery.getString(END_TIME);
@@ -47,21 +100,7 @@ public class TemporalQueryFiltersDecorator implements ElasticsearchQueryDecorato
     } else {
       throw new EsQueryException("exception while parsing date/time");
     }
-
-    final String startTime = queryRequestStartTime;
-    final String endTime = queryRequestEndTime;
-
-    Query temporalQuery =
-        RangeQuery.of(
-                r ->
-                    r.field("observationDateTime")
-                        .lte(JsonData.of(endTime))
-                        .gte(JsonData.of(startTime)))
-            ._toQuery();
-
-    List<Query> queryList = queryFilters.get(FilterType.FILTER);
-    queryList.add(temporalQuery);
-    return queryFilters;
+    return new String[] {queryRequestStartTime, queryRequestEndTime};
   }
 
   public void addDefaultTemporalFilters(Map<FilterType, List<Query>> queryLists, JsonObject query) {
@@ -95,7 +134,9 @@ public class TemporalQueryFiltersDecorator implements ElasticsearchQueryDecorato
   }
 
   private void addDefaultForProduction(Map<FilterType, List<Query>> queryLists) {
-    OffsetDateTime currentDateTime = OffsetDateTime.now().minusDays(defaultDateLimit);
+    // whole minutes, so repeated queries have the same query and their results can be cached
+    OffsetDateTime currentDateTime =
+        OffsetDateTime.now().truncatedTo(ChronoUnit.MINUTES).minusDays(defaultDateLimit);
     Query temporalQuery =
         RangeQuery.of(
                 r -> r.field("observationDateTime").gte(JsonData.of(currentDateTime.toString())))
@@ -29,6 +29,10 @@ public class EsQueryException extends RuntimeException {
     this.statusCode = statusCode;
   }
 
+  public int getStatusCode() {
+    return statusCode;
+  }
+
   public String toString() {
     JsonObject json = new JsonObject();
     json.put("status", statusCode);
@@ -0,0 +1,118 @@
+package iudx.resource.server.database.latest;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.vertx.core.Future;
+import io.vertx.core.json.JsonObject;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Short lived in process cache of latest data in front of Redis.
+ *
+ * <p>Values are cached by Redis key and path for <code>ttlMillis</code>. Concurrent misses for the
+ * same key and path share a single Redis call. Whether an id has a unique attribute is cached
+ * alongside for {@link #UNIQUE_ATTRIBUTE_TTL_SECONDS} so hits skip the cache service as well.
+ *
+ * <p>Redis calls in flight are tracked in a plain map, so {@link #get} is only called on the event
+ * loop of the LatestVerticle instance holding the cache, each instance having its own.
+ */
+public class LatestDataCache {
+
+  static final long UNIQUE_ATTRIBUTE_TTL_SECONDS = 60;
+  private static final Logger LOGGER = LogManager.getLogger(LatestDataCache.class);
+  private static final String KEY_SEPARATOR = " ";
+
+  private final Cache<String, JsonObject> values;
+  private final Cache<String, Boolean> uniqueAttributes;
+  private final Map<String, Future<JsonObject>> inFlight = new HashMap<>();
+
+  public LatestDataCache(long maxSize, long ttlMillis) {
+    this.values =
+        CacheBuilder.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfterWrite(ttlMillis, TimeUnit.MILLISECONDS)
+            .build();
+    this.uniqueAttributes =
+        CacheBuilder.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfterWrite(UNIQUE_ATTRIBUTE_TTL_SECONDS, TimeUnit.SECONDS)
+            .build();
+  }
+
+  /**
+   * Gets latest value of key and path, loading it when absent. Callers get their own copy of the
+   * value.
+   *
+   * @param key Redis key
+   * @param path Redis path
+   * @param loader loads the value from Redis
+   * @return Future of latest value
+   */
+  public Future<JsonObject> get(String key, String path, Supplier<Future<JsonObject>> loader) {
+    String cacheKey = key + KEY_SEPARATOR + path;
+    JsonObject cached = values.getIfPresent(cacheKey);
+    if (cached != null) {
+      LOGGER.trace("latest cache hit for {}", cacheKey);
+      return Future.succeededFuture(cached.copy());
+    }
+    Future<JsonObject> pending = inFlight.get(cacheKey);
+    if (pending == null) {
+      pending = loader.get();
+      inFlight.put(cacheKey, pending);
+      pending.onComplete(
+          loaded -> {
+            inFlight.remove(cacheKey);
+            if (loaded.succeeded()) {
+              values.put(cacheKey, loaded.result());
+            }
+          });
+    }
+    return pending.map(JsonObject::copy);
+  }
+
+  /**
+   * Gets cached latest value of key and path without loading it.
+   *
+   * @param key Redis key
+   * @param path Redis path
+   * @return copy of the cached value, null when absent
+   */
+  public JsonObject getIfPresent(String key, String path) {
+    JsonObject cached = values.getIfPresent(key + KEY_SEPARATOR + path);
+    return cached == null ? null : cached.copy();
+  }
+
+  public void put(String key, String path, JsonObject value) {
+    values.put(key + KEY_SEPARATOR + path, value.copy());
+  }
+
+  public Future<Boolean> hasUniqueAttribute(String id, Supplier<Future<Boolean>> loader) {
+    Boolean cached = uniqueAttributes.getIfPresent(id);
+    if (cached != null) {
+      return Future.succeededFuture(cached);
+    }
+    return loader.get().onSuccess(exists -> uniqueAttributes.put(id, exists));
+  }
+
+  /**
+   * Drops all cached values of an id.
+   *
+   * @param id resource id
+   * @param key Redis key of the id
+   */
+  public void invalidate(String id, String key) {
+    uniqueAttributes.invalidate(id);
+    String prefix = key + KEY_SEPARATOR;
+    values.asMap().keySet().removeIf(cacheKey -> cacheKey.startsWith(prefix));
+  }
+
+  public void invalidateAll() {
+    uniqueAttributes.invalidateAll();
+    values.invalidateAll();
+  }
+}
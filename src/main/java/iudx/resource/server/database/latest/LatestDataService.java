@@ -47,4 +47,15 @@ public interface LatestDataService {
    */
   @Fluent
   LatestDataService getLatestData(JsonObject request, Handler<AsyncResult<JsonObject>> handler);
+
+  /**
+   * The getBatchLatestData retrieves the latest data of all ids in the request in one call.
+   *
+   * @param request which is a JsonObject
+   * @param handler which is a Request Handler
+   * @return LatestDataService which is a Service
+   */
+  @Fluent
+  LatestDataService getBatchLatestData(
+      JsonObject request, Handler<AsyncResult<JsonObject>> handler);
 }
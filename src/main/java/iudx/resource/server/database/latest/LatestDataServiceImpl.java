@@ -11,6 +11,8 @@ import io.vertx.core.json.JsonObject;
 import iudx.resource.server.cache.CacheService;
 import iudx.resource.server.cache.cachelmpl.CacheType;
 import iudx.resource.server.database.archives.ResponseBuilder;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.stream.Collectors;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -30,6 +32,7 @@ public class LatestDataServiceImpl implements LatestDataService {
 
   private static final Logger LOGGER = LogManager.getLogger(LatestDataServiceImpl.class);
   private final CacheService cache;
+  private final LatestDataCache latestCache;
   RedisClient redisClient;
   JsonObject attributeList;
   private ResponseBuilder responseBuilder;
@@ -39,9 +42,21 @@ public class LatestDataServiceImpl implements LatestDataService {
 
   public LatestDataServiceImpl(
       RedisClient client, final CacheService cacheService, String tenantPrefix) {
+    this(client, cacheService, tenantPrefix, null);
+  }
+
+  /**
+   * @param latestCache in process cache of latest values, null to always read from Redis
+   */
+  public LatestDataServiceImpl(
+      RedisClient client,
+      final CacheService cacheService,
+      String tenantPrefix,
+      LatestDataCache latestCache) {
     this.redisClient = client;
     this.cache = cacheService;
     this.tenantPrefix = tenantPrefix;
+    this.latestCache = latestCache;
   }
 
   /**
@@ -74,19 +89,156 @@ public class LatestDataServiceImpl implements LatestDataService {
     }
     String id = request.getJsonArray(ID).getString(0);
 
-    isUniqueAttrRecordExist(id)
+    Future<Boolean> uniqueAttrFuture =
+        latestCache == null
+            ? hasUniqueAttribute(id)
+            : latestCache.hasUniqueAttribute(id, () -> hasUniqueAttribute(id));
+    uniqueAttrFuture.onSuccess(
+        isUniqueAttrRecordExist -> getLatestValue(id, isUniqueAttrRecordExist, handler));
+    return this;
+  }
+
+  /**
+   * Performs a Latest search of many ids, fetching all values from Redis with a single JSON.MGET
+   * per path (and cluster slot). Ids without latest data are left out of the response.
+   *
+   * @param request Json object received from the ApiServerVerticle
+   * @param handler Handler to return redis response in case of success and appropriate error
+   *     message in case of failure
+   */
+  @Override
+  public LatestDataService getBatchLatestData(
+      JsonObject request, Handler<AsyncResult<JsonObject>> handler) {
+    if (!request.containsKey(ID) || request.getJsonArray(ID).isEmpty()) {
+      LOGGER.debug("Info: " + EMPTY_RESOURCE_ID);
+      responseBuilder =
+          new ResponseBuilder(FAILED).setTypeAndTitle(400).setMessage(EMPTY_RESOURCE_ID);
+      handler.handle(Future.failedFuture(responseBuilder.getResponse().toString()));
+      return this;
+    }
+    List<String> ids =
+        request.getJsonArray(ID).stream()
+            .map(Object::toString)
+            .distinct()
+            .collect(Collectors.toList());
+
+    List<Future<Boolean>> uniqueAttrFutures = new ArrayList<>(ids.size());
+    for (String id : ids) {
+      uniqueAttrFutures.add(
+          latestCache == null
+              ? hasUniqueAttribute(id)
+              : latestCache.hasUniqueAttribute(id, () -> hasUniqueAttribute(id)));
+    }
+    Future.all(uniqueAttrFutures)
+        .compose(
+            uniqueAttrs -> {
+              List<RedisArgs> args = new ArrayList<>(ids.size());
+              for (int i = 0; i < ids.size(); i++) {
+                args.add(
+                    redisCmdBuilder.getRedisCommandArgs(
+                        ids.get(i), uniqueAttrs.resultAt(i), tenantPrefix));
+              }
+              return getLatestValues(args)
+                  .map(
+                      values -> {
+                        JsonArray response = new JsonArray();
+                        for (int i = 0; i < values.size(); i++) {
+                          if (values.get(i) != null) {
+                            response.addAll(
+                                extractValues(
+                                    args.get(i).getKey(), values.get(i), uniqueAttrs.resultAt(i)));
+                          }
+                        }
+                        return response;
+                      });
+            })
         .onComplete(
-            uaHandler -> {
-              if (uaHandler.succeeded()) {
-                LOGGER.debug("unique_attribute for id :" + id + " is :" + uaHandler.result());
-                getLatestValue(id, true, handler);
+            searchRes -> {
+              if (searchRes.succeeded()) {
+                LOGGER.debug("Success: Successful Redis request");
+                responseBuilder =
+                    new ResponseBuilder(SUCCESS)
+                        .setTypeAndTitle(200)
+                        .setMessage(searchRes.result());
+                handler.handle(Future.succeededFuture(responseBuilder.getResponse()));
               } else {
-                getLatestValue(id, false, handler);
+                LOGGER.error("Fail: Redis Cache Request;" + searchRes.cause().getMessage());
+                responseBuilder =
+                    new ResponseBuilder(FAILED)
+                        .setTypeAndTitle(204)
+                        .setMessage(searchRes.cause().getMessage());
+                handler.handle(Future.failedFuture(responseBuilder.getResponse().toString()));
               }
             });
     return this;
   }
 
+  private Future<List<JsonObject>> getLatestValues(List<RedisArgs> args) {
+    if (latestCache == null) {
+      return redisClient.mget(args);
+    }
+    List<JsonObject> values = new ArrayList<>(args.size());
+    List<RedisArgs> missed = new ArrayList<>();
+    List<Integer> missedIndexes = new ArrayList<>();
+    for (int i = 0; i < args.size(); i++) {
+      JsonObject cached = latestCache.getIfPresent(args.get(i).getKey(), args.get(i).getPath());
+      values.add(cached);
+      if (cached == null) {
+        missed.add(args.get(i));
+        missedIndexes.add(i);
+      }
+    }
+    if (missed.isEmpty()) {
+      return Future.succeededFuture(values);
+    }
+    return redisClient
+        .mget(missed)
+        .map(
+            loaded -> {
+              for (int i = 0; i < loaded.size(); i++) {
+                JsonObject value = loaded.get(i);
+                if (value != null) {
+                  latestCache.put(missed.get(i).getKey(), missed.get(i).getPath(), value);
+                  values.set(missedIndexes.get(i), value);
+                }
+              }
+              return values;
+            });
+  }
+
+  /**
+   * Drops cached latest values of an id.
+   *
+   * @param id resource id, null to drop all cached values
+   */
+  public void invalidate(String id) {
+    if (latestCache == null) {
+      return;
+    }
+    if (id == null) {
+      latestCache.invalidateAll();
+    } else {
+      String key = redisCmdBuilder.getRedisCommandArgs(id, true, tenantPrefix).getKey();
+      latestCache.invalidate(id, key);
+    }
+  }
+
+  private Future<Boolean> hasUniqueAttribute(String id) {
+    return isUniqueAttrRecordExist(id)
+        .map(
+            uniqueAttribute -> {
+              LOGGER.debug("unique_attribute for id :" + id + " is :" + uniqueAttribute);
+              return true;
+            })
+        .otherwise(false);
+  }
+
+  private Future<JsonObject> searchLatest(RedisArgs args) {
+    Promise<JsonObject> promise = Promise.promise();
+    redisClient.searchAsync(args.getKey(), args.getPath(), promise);
+    return promise.future();
+  }
+
   private JsonArray extractValues(String key, JsonObject result, boolean groupSnapshot) {
     if (groupSnapshot) {
       result.remove(key);
@@ -105,9 +257,11 @@ public class LatestDataServiceImpl implements LatestDataService {
 
     LOGGER.debug("key : " + args.getKey() + " path : " + args.getPath());
     JsonArray response = new JsonArray();
-    redisClient.searchAsync(
-        args.getKey(),
-        args.getPath(),
+    Future<JsonObject> searchFuture =
+        latestCache == null
+            ? searchLatest(args)
+            : latestCache.get(args.getKey(), args.getPath(), () -> searchLatest(args));
+    searchFuture.onComplete(
         searchRes -> {
           if (searchRes.succeeded()) {
             LOGGER.debug("Success: Successful Redis request");
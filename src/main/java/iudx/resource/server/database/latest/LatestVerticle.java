@@ -1,6 +1,7 @@
 package iudx.resource.server.database.latest;
 
 import static iudx.resource.server.common.Constants.CACHE_SERVICE_ADDRESS;
+import static iudx.resource.server.common.Constants.LATEST_CACHE_INVALIDATE_ADDRESS;
 import static iudx.resource.server.common.Constants.LATEST_SERVICE_ADDRESS;
 
 import io.vertx.core.AbstractVerticle;
@@ -8,6 +9,7 @@ import io.vertx.core.eventbus.MessageConsumer;
 import io.vertx.core.json.JsonObject;
 import io.vertx.serviceproxy.ServiceBinder;
 import iudx.resource.server.cache.CacheService;
+import iudx.resource.server.cache.NearCacheService;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -32,6 +34,8 @@ public class LatestVerticle extends AbstractVerticle {
   private MessageConsumer<JsonObject> consumer;
   private CacheService cacheService;
   private String tenantPrefix;
+  private LatestDataCache latestCache;
+  private MessageConsumer<JsonObject> invalidationConsumer;
 
   /**
    * This method is used to start the Verticle. It deploys a verticle in a cluster, registers the
@@ -45,14 +49,29 @@ public class LatestVerticle extends AbstractVerticle {
 
     config().getJsonObject("attributeList");
     tenantPrefix = config().getString("tenantPrefix");
+    long latestCacheTtl = config().getLong("latestCacheTtlMillis", 0L);
+    if (latestCacheTtl > 0) {
+      latestCache =
+          new LatestDataCache(config().getLong("latestCacheMaxSize", 10000L), latestCacheTtl);
+    }
     new RedisClient(vertx, config())
         .start()
         .onSuccess(
             handler -> {
               redisClient = handler;
-              cacheService = CacheService.createProxy(vertx, CACHE_SERVICE_ADDRESS);
+              cacheService = NearCacheService.create(vertx, CACHE_SERVICE_ADDRESS, config());
               binder = new ServiceBinder(vertx);
-              latestData = new LatestDataServiceImpl(redisClient, cacheService, tenantPrefix);
+              LatestDataServiceImpl latestDataImpl =
+                  new LatestDataServiceImpl(redisClient, cacheService, tenantPrefix, latestCache);
+              latestData = latestDataImpl;
+              if (latestCache != null) {
+                invalidationConsumer =
+                    vertx
+                        .eventBus()
+                        .consumer(
+                            LATEST_CACHE_INVALIDATE_ADDRESS,
+                            message -> latestDataImpl.invalidate(message.body().getString("id")));
+              }
               consumer =
                   binder
                       .setAddress(LATEST_SERVICE_ADDRESS)
@@ -70,6 +89,10 @@ public class LatestVerticle extends AbstractVerticle {
     if (redisClient != null) {
       redisClient.close();
     }
+    if (invalidationConsumer != null) {
+      invalidationConsumer.unregister();
+    }
     binder.unregister(consumer);
+    NearCacheService.close(cacheService);
   }
 }
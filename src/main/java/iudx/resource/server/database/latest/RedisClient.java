@@ -14,18 +14,27 @@ import io.vertx.redis.client.RedisAPI;
 import io.vertx.redis.client.RedisClientType;
 import io.vertx.redis.client.RedisOptions;
 import io.vertx.redis.client.RedisReplicas;
+import io.vertx.redis.client.Response;
 import iudx.resource.server.database.archives.ResponseBuilder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 public class RedisClient {
   private static final Logger LOGGER = LogManager.getLogger(RedisClient.class);
+  private static final int CLUSTER_SLOTS = 16384;
   // private Redis redisClient;
   private ResponseBuilder responseBuilder;
   private Redis clusteredClient;
   private RedisAPI redis;
   private Vertx vertx;
   private JsonObject config;
+  private boolean clustered;
 
   /**
    * RedisClient - Redis vertx Client Low Level Wrapper
@@ -54,6 +63,7 @@ public class RedisClient {
     String mode = config.getString("redisMode");
 
     if (mode.equals("CLUSTER")) {
+      clustered = true;
       options =
           new RedisOptions().setType(RedisClientType.CLUSTER).setUseReplicas(RedisReplicas.SHARE);
     } else if (mode.equals("STANDALONE")) {
@@ -140,6 +150,82 @@ public class RedisClient {
     return promise.future();
   }
 
+  /**
+   * mget - Redis vertx JSON.MGET wrapper, fetches many keys in as few round trips as possible.
+   *
+   * <p>JSON.MGET takes a single path, so keys are grouped by path and in CLUSTER mode also by hash
+   * slot, as multi key commands can't span slots. Groups are sent together and resolved in
+   * parallel.
+   *
+   * @param args Redis key and path of each value
+   * @return Future of values in the order of <code>args</code>, null where a key is not found
+   */
+  public Future<List<JsonObject>> mget(List<RedisArgs> args) {
+    Map<String, List<Integer>> groups = new LinkedHashMap<>();
+    for (int i = 0; i < args.size(); i++) {
+      RedisArgs arg = args.get(i);
+      String group = clustered ? slot(arg.getKey()) + arg.getPath() : arg.getPath();
+      groups.computeIfAbsent(group, k -> new ArrayList<>()).add(i);
+    }
+
+    JsonObject[] values = new JsonObject[args.size()];
+    List<Future<Void>> futures = new ArrayList<>(groups.size());
+    for (List<Integer> indexes : groups.values()) {
+      String[] mgetArgs = new String[indexes.size() + 1];
+      for (int i = 0; i < indexes.size(); i++) {
+        mgetArgs[i] = args.get(indexes.get(i)).getKey();
+      }
+      mgetArgs[indexes.size()] = args.get(indexes.get(0)).getPath();
+      futures.add(
+          redis
+              .send(Command.JSON_MGET, mgetArgs)
+              .map(
+                  redisResponse -> {
+                    for (int i = 0; i < indexes.size(); i++) {
+                      Response value = redisResponse == null ? null : redisResponse.get(i);
+                      if (value != null) {
+                        values[indexes.get(i)] = new JsonObject(value.toString());
+                      }
+                    }
+                    return null;
+                  }));
+    }
+    return Future.all(futures)
+        .transform(
+            mgetResult -> {
+              if (mgetResult.failed()) {
+                return Future.failedFuture(
+                    String.format("JSONMGET did not work: %s", mgetResult.cause().getMessage()));
+              }
+              return Future.succeededFuture(Arrays.asList(values));
+            });
+  }
+
+  /**
+   * Cluster hash slot of a key, CRC16 (XMODEM) of the key, or of its hash tag when present, modulo
+   * 16384.
+   *
+   * @param key Redis key
+   * @return hash slot of the key
+   */
+  static int slot(String key) {
+    int start = key.indexOf('{');
+    if (start >= 0) {
+      int end = key.indexOf('}', start + 1);
+      if (end > start + 1) {
+        key = key.substring(start + 1, end);
+      }
+    }
+    int crc = 0;
+    for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+      crc ^= (b & 0xff) << 8;
+      for (int i = 0; i < 8; i++) {
+        crc = (crc & 0x8000) != 0 ? (crc << 1) ^ 0x1021 : crc << 1;
+      }
+    }
+    return (crc & 0xffff) % CLUSTER_SLOTS;
+  }
+
   public void close() {
     redis.close();
   }
@@ -0,0 +1,53 @@
+package iudx.resource.server.databroker;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.vertx.core.json.JsonObject;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Queues bound to exchanges with the routing keys of their bindings, as listed by the management
+ * API, so heartbeats are published without listing the bindings of the adaptor every time.
+ *
+ * <p>Entries expire after <code>ttlSeconds</code> and are dropped when bindings are changed through
+ * {@link RabbitClient}, bindings changed directly on the broker are seen once the entry expired.
+ */
+public class BindingCache {
+
+  private static final long MAX_SIZE = 10000;
+  private final Cache<String, JsonObject> cache;
+
+  public BindingCache(long ttlSeconds) {
+    this.cache =
+        CacheBuilder.newBuilder()
+            .maximumSize(MAX_SIZE)
+            .expireAfterWrite(ttlSeconds, TimeUnit.SECONDS)
+            .build();
+  }
+
+  private static String key(String vhost, String exchange) {
+    return vhost + "/" + exchange;
+  }
+
+  /**
+   * @param vhost virtual host
+   * @param exchange name of the exchange
+   * @return queues bound to the exchange with the routing keys of their bindings, null when not
+   *     cached
+   */
+  public JsonObject get(String vhost, String exchange) {
+    return cache.getIfPresent(key(vhost, exchange));
+  }
+
+  public void put(String vhost, String exchange, JsonObject bindings) {
+    cache.put(key(vhost, exchange), bindings);
+  }
+
+  public void invalidate(String vhost, String exchange) {
+    cache.invalidate(key(vhost, exchange));
+  }
+
+  public void invalidateAll() {
+    cache.invalidateAll();
+  }
+}
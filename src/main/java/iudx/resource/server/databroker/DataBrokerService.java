@@ -7,6 +7,7 @@ import io.vertx.codegen.annotations.VertxGen;
 import io.vertx.core.AsyncResult;
 import io.vertx.core.Handler;
 import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
 
 /**
@@ -352,6 +353,19 @@ public interface DataBrokerService {
   DataBrokerService getExchange(
       JsonObject request, String vhost, Handler<AsyncResult<JsonObject>> handler);
 
+  /**
+   * The publishFromAdaptorBulk publishes records of resources to the exchanges of their resource
+   * groups, without waiting for a record to be published before publishing the next one.
+   *
+   * @param request which is a JsonArray of records, each with the id of its resource
+   * @param vhost virtual host
+   * @param handler which is a Request Handler with the status of each record, in order
+   * @return DataBrokerService which is a Service
+   */
+  @Fluent
+  DataBrokerService publishFromAdaptorBulk(
+      JsonArray request, String vhost, Handler<AsyncResult<JsonObject>> handler);
+
   @Fluent
   DataBrokerService publishHeartbeat(
       JsonObject request, String vhost, Handler<AsyncResult<JsonObject>> handler);
@@ -362,4 +376,21 @@ public interface DataBrokerService {
       String toExchange,
       String routingKey,
       Handler<AsyncResult<JsonObject>> handler);
+
+  /**
+   * The publishMessages publishes a batch of messages to the exchange with publisher confirms,
+   * succeeding once the broker confirmed all of them.
+   *
+   * @param messages which is a JsonArray of JsonObject messages
+   * @param toExchange exchange to publish to
+   * @param routingKey routing key of the messages
+   * @param handler which is a Request Handler
+   * @return DataBrokerService which is a Service
+   */
+  @Fluent
+  DataBrokerService publishMessages(
+      JsonArray messages,
+      String toExchange,
+      String routingKey,
+      Handler<AsyncResult<JsonObject>> handler);
 }
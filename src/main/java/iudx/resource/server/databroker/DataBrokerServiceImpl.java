@@ -2,14 +2,18 @@ package iudx.resource.server.databroker;
 
 import static iudx.resource.server.databroker.util.Constants.BAD_REQUEST_CODE;
 import static iudx.resource.server.databroker.util.Constants.BAD_REQUEST_DATA;
+import static iudx.resource.server.databroker.util.Constants.DETAIL;
 import static iudx.resource.server.databroker.util.Constants.ID;
+import static iudx.resource.server.databroker.util.Constants.RESULTS;
 import static iudx.resource.server.databroker.util.Constants.STATUS;
+import static iudx.resource.server.databroker.util.Constants.TITLE;
 import static iudx.resource.server.databroker.util.Constants.TYPE;
 import static iudx.resource.server.databroker.util.Constants.USER_ID;
 
 import io.vertx.core.AsyncResult;
 import io.vertx.core.Future;
 import io.vertx.core.Handler;
+import io.vertx.core.Promise;
 import io.vertx.core.buffer.Buffer;
 import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
@@ -19,7 +23,10 @@ import iudx.resource.server.common.Response;
 import iudx.resource.server.common.ResponseUrn;
 import iudx.resource.server.common.Vhosts;
 import iudx.resource.server.databroker.util.Util;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 import org.apache.http.HttpStatus;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -44,13 +51,35 @@ public class DataBrokerServiceImpl implements DataBrokerService {
   CacheService cacheService;
   private JsonObject config;
   private RabbitClient webClient;
+  private PublisherPool publisherPool;
+  private PublisherPool batchPublisher;
 
   public DataBrokerServiceImpl(
       RabbitClient webClient,
       PostgresClient pgClient,
       JsonObject config,
       CacheService cacheService) {
+    this(webClient, pgClient, config, cacheService, null, null);
+  }
+
+  /**
+   * Creates the data broker service.
+   *
+   * @param publisherPool connections publishing messages of adaptors, null to publish on the
+   *     channel of the {@link RabbitClient}
+   * @param batchPublisher connections publishing the batches of {@link #publishMessages}, never
+   *     the channel of the {@link RabbitClient} as confirm mode would apply to all its publishes
+   */
+  public DataBrokerServiceImpl(
+      RabbitClient webClient,
+      PostgresClient pgClient,
+      JsonObject config,
+      CacheService cacheService,
+      PublisherPool publisherPool,
+      PublisherPool batchPublisher) {
     this.webClient = webClient;
+    this.publisherPool = publisherPool;
+    this.batchPublisher = batchPublisher;
     this.config = config;
     this.subscriptionService =
         new SubscriptionService(this.webClient, pgClient, config, cacheService);
@@ -660,23 +689,12 @@ public class DataBrokerServiceImpl implements DataBrokerService {
   public DataBrokerService publishFromAdaptor(
       JsonObject request, String vhost, Handler<AsyncResult<JsonObject>> handler) {
     JsonObject finalResponse = new JsonObject();
-    JsonObject json = new JsonObject();
     if (request != null && !request.isEmpty()) {
-      json.put("body", request.toString());
       String resourceGroupId = request.getString("id");
       LOGGER.debug("Info : resourceGroupId  " + resourceGroupId);
-      String routingKey = resourceGroupId;
       if (resourceGroupId != null && !resourceGroupId.isBlank()) {
-        resourceGroupId = resourceGroupId.substring(0, resourceGroupId.lastIndexOf("/"));
-        LOGGER.debug("Info : resourceGroupId  " + resourceGroupId);
-        LOGGER.debug("Info : routingKey  " + routingKey);
-        Buffer buffer = Buffer.buffer(json.toString());
-        webClient
-            .getRabbitmqClient()
-            .basicPublish(
-                resourceGroupId,
-                routingKey,
-                buffer,
+        publishRecord(request)
+            .onComplete(
                 resultHandler -> {
                   if (resultHandler.succeeded()) {
                     finalResponse.put(STATUS, HttpStatus.SC_OK);
@@ -693,6 +711,75 @@ public class DataBrokerServiceImpl implements DataBrokerService {
     return this;
   }
 
+  /** {@inheritDoc} */
+  @Override
+  public DataBrokerService publishFromAdaptorBulk(
+      JsonArray request, String vhost, Handler<AsyncResult<JsonObject>> handler) {
+    List<Future<Void>> published = new ArrayList<>(request.size());
+    for (Object record : request) {
+      if (record instanceof JsonObject) {
+        published.add(publishRecord((JsonObject) record));
+      } else {
+        published.add(Future.failedFuture(BAD_REQUEST_DATA));
+      }
+    }
+    Future.join(published)
+        .onComplete(
+            joined -> {
+              JsonArray results = new JsonArray();
+              int failed = 0;
+              for (int i = 0; i < published.size(); i++) {
+                Future<Void> recordFuture = published.get(i);
+                JsonObject result = new JsonObject();
+                Object record = request.getValue(i);
+                if (record instanceof JsonObject) {
+                  result.put(ID, ((JsonObject) record).getString(ID));
+                }
+                if (recordFuture.succeeded()) {
+                  result.put(STATUS, HttpStatus.SC_OK);
+                } else {
+                  failed++;
+                  result
+                      .put(STATUS, HttpStatus.SC_BAD_REQUEST)
+                      .put(DETAIL, recordFuture.cause().getMessage());
+                }
+                results.add(result);
+              }
+              LOGGER.info(
+                  "Info : {} of {} records published", results.size() - failed, results.size());
+              handler.handle(
+                  Future.succeededFuture(
+                      new JsonObject()
+                          .put(TYPE, ResponseUrn.SUCCESS_URN.getUrn())
+                          .put(TITLE, ResponseUrn.SUCCESS_URN.getMessage())
+                          .put(RESULTS, results)));
+            });
+    return this;
+  }
+
+  /**
+   * Publishes the record to the exchange of the resource group of its resource, with the id of the
+   * resource as routing key.
+   */
+  private Future<Void> publishRecord(JsonObject request) {
+    String routingKey = request.getString(ID);
+    if (routingKey == null || routingKey.lastIndexOf("/") < 0) {
+      return Future.failedFuture(BAD_REQUEST_DATA);
+    }
+    String resourceGroupId = routingKey.substring(0, routingKey.lastIndexOf("/"));
+    LOGGER.debug("Info : resourceGroupId  " + resourceGroupId);
+    LOGGER.debug("Info : routingKey  " + routingKey);
+    JsonObject json = new JsonObject();
+    json.put("body", request.toString());
+    Buffer buffer = Buffer.buffer(json.toString());
+    if (publisherPool != null) {
+      return publisherPool.publish(resourceGroupId, routingKey, buffer);
+    }
+    Promise<Void> promise = Promise.promise();
+    webClient.getRabbitmqClient().basicPublish(resourceGroupId, routingKey, buffer, promise);
+    return promise.future();
+  }
+
   @Override
   public DataBrokerService publishHeartbeat(
       JsonObject request, String vhost, Handler<AsyncResult<JsonObject>> handler) {
@@ -702,107 +789,91 @@ public class DataBrokerServiceImpl implements DataBrokerService {
       String adaptor = request.getString(ID);
       String routingKey = request.getString("status");
       if (adaptor != null && !adaptor.isEmpty() && routingKey != null && !routingKey.isEmpty()) {
-        JsonObject json = new JsonObject();
-        Future<JsonObject> future1 = webClient.getExchange(json.put("id", adaptor), virtualHost);
-        future1.onComplete(
-            ar -> {
-              if (ar.result().getInteger("type") == HttpStatus.SC_OK) {
-                json.put("exchangeName", adaptor);
-                // exchange found, now get list of all queues which are bound with this exchange
-                Future<JsonObject> future2 = webClient.listExchangeSubscribers(json, virtualHost);
-                future2.onComplete(
-                    rh -> {
-                      JsonObject queueList = rh.result();
-                      if (queueList != null && queueList.size() > 0) {
-                        // now find queues which are bound with given routingKey and publish message
-                        queueList.forEach(
-                            queue -> {
-                              // JsonObject obj = new JsonObject();
-                              Map.Entry<String, Object> map = queue;
-                              String queueName = map.getKey();
-                              JsonArray array = (JsonArray) map.getValue();
-                              array.forEach(
-                                  rk -> {
-                                    if (rk.toString().contains(routingKey)) {
-                                      // routingKey matched. now publish message
-                                      JsonObject message = new JsonObject();
-                                      message.put("body", request.toString());
-                                      Buffer buffer = Buffer.buffer(message.toString());
-                                      webClient
-                                          .getRabbitmqClient()
-                                          .basicPublish(
-                                              adaptor,
-                                              routingKey,
-                                              buffer,
-                                              resultHandler -> {
-                                                if (resultHandler.succeeded()) {
-                                                  LOGGER.debug(
-                                                      "publishHeartbeat - message "
-                                                          + "published to queue [ "
-                                                          + queueName
-                                                          + " ] for routingKey [ "
-                                                          + routingKey
-                                                          + " ]");
-                                                  response.put("type", "success");
-                                                  response.put("queueName", queueName);
-                                                  response.put("routingKey", rk.toString());
-                                                  response.put("detail", "routingKey matched");
-                                                  handler.handle(Future.succeededFuture(response));
-                                                } else {
-                                                  LOGGER.error(
-                                                      "publishHeartbeat - some error in publishing "
-                                                          + "message to queue [ "
-                                                          + queueName
-                                                          + " ]. cause : "
-                                                          + resultHandler.cause());
-                                                  response.put("messagePublished", "failed");
-                                                  response.put("type", "error");
-                                                  response.put("detail", "routingKey not matched");
-                                                  handler.handle(
-                                                      Future.failedFuture(response.toString()));
-                                                }
-                                              });
-                                    } else {
-                                      LOGGER.error(
-                                          "publishHeartbeat - routingKey [ "
-                                              + routingKey
-                                              + " ] not matched with [ "
-                                              + rk.toString()
-                                              + " ] for queue [ "
-                                              + queueName
-                                              + " ]");
-                                      handler.handle(
-                                          Future.failedFuture(
-                                              "publishHeartbeat - routingKey [ "
-                                                  + routingKey
-                                                  + " ] not matched with [ "
-                                                  + rk.toString()
-                                                  + " ] for queue [ "
-                                                  + queueName
-                                                  + " ]"));
-                                    }
-                                  });
-                            });
-
-                      } else {
-                        LOGGER.error(
-                            "publishHeartbeat method - Oops !! None queue "
-                                + "bound with given exchange");
-                        handler.handle(
-                            Future.failedFuture(
-                                "publishHeartbeat method - Oops !! "
-                                    + "None queue bound with given exchange"));
+        getBindings(adaptor, virtualHost)
+            .onComplete(
+                bindingsHandler -> {
+                  if (bindingsHandler.failed()) {
+                    LOGGER.error(bindingsHandler.cause().getMessage());
+                    handler.handle(Future.failedFuture(bindingsHandler.cause().getMessage()));
+                    return;
+                  }
+                  JsonObject queueList = bindingsHandler.result();
+                  if (queueList.isEmpty()) {
+                    LOGGER.error(
+                        "publishHeartbeat method - Oops !! None queue "
+                            + "bound with given exchange");
+                    handler.handle(
+                        Future.failedFuture(
+                            "publishHeartbeat method - Oops !! "
+                                + "None queue bound with given exchange"));
+                    return;
+                  }
+                  // find a queue bound with the routingKey, publishing once reaches all of them
+                  String queueName = null;
+                  String boundKey = null;
+                  for (String queue : queueList.fieldNames()) {
+                    for (Object rk : queueList.getJsonArray(queue)) {
+                      if (rk.toString().contains(routingKey)) {
+                        queueName = queue;
+                        boundKey = rk.toString();
+                        break;
                       }
-                    });
-
-              } else {
-                LOGGER.error(
-                    "Either adaptor does not exist or some other error to publish message");
-                handler.handle(
-                    Future.failedFuture(
-                        "Either adaptor does not exist or some other error to publish message"));
-              }
-            });
+                    }
+                    if (queueName != null) {
+                      break;
+                    }
+                  }
+                  if (queueName == null) {
+                    String queue = queueList.fieldNames().iterator().next();
+                    String message =
+                        "publishHeartbeat - routingKey [ "
+                            + routingKey
+                            + " ] not matched with [ "
+                            + queueList.getJsonArray(queue).getValue(0)
+                            + " ] for queue [ "
+                            + queue
+                            + " ]";
+                    LOGGER.error(message);
+                    handler.handle(Future.failedFuture(message));
+                    return;
+                  }
+                  String matchedQueue = queueName;
+                  String matchedKey = boundKey;
+                  JsonObject message = new JsonObject();
+                  message.put("body", request.toString());
+                  Buffer buffer = Buffer.buffer(message.toString());
+                  webClient
+                      .getRabbitmqClient()
+                      .basicPublish(
+                          adaptor,
+                          routingKey,
+                          buffer,
+                          resultHandler -> {
+                            if (resultHandler.succeeded()) {
+                              LOGGER.debug(
+                                  "publishHeartbeat - message published to queue [ "
+                                      + matchedQueue
+                                      + " ] for routingKey [ "
+                                      + routingKey
+                                      + " ]");
+                              response.put("type", "success");
+                              response.put("queueName", matchedQueue);
+                              response.put("routingKey", matchedKey);
+                              response.put("detail", "routingKey matched");
+                              handler.handle(Future.succeededFuture(response));
+                            } else {
+                              LOGGER.error(
+                                  "publishHeartbeat - some error in publishing message to queue [ "
+                                      + matchedQueue
+                                      + " ]. cause : "
+                                      + resultHandler.cause());
+                              response.put("messagePublished", "failed");
+                              response.put("type", "error");
+                              response.put("detail", "routingKey not matched");
+                              handler.handle(Future.failedFuture(response.toString()));
+                            }
+                          });
+                });
       } else {
         LOGGER.error("publishHeartbeat - adaptor and routingKey not provided to publish message");
         handler.handle(
@@ -814,10 +885,54 @@ public class DataBrokerServiceImpl implements DataBrokerService {
       LOGGER.error("publishHeartbeat - request is null to publish message");
       handler.handle(Future.failedFuture("publishHeartbeat - request is null to publish message"));
     }
-
     return null;
   }
 
+  /**
+   * Queues bound to the exchange of the adaptor with the routing keys of their bindings, listed by
+   * the management API when not cached.
+   */
+  private Future<JsonObject> getBindings(String adaptor, String virtualHost) {
+    BindingCache bindingCache = webClient.getBindingCache();
+    JsonObject cached = bindingCache == null ? null : bindingCache.get(virtualHost, adaptor);
+    if (cached != null) {
+      return Future.succeededFuture(cached);
+    }
+    Promise<JsonObject> promise = Promise.promise();
+    JsonObject json = new JsonObject();
+    Future<JsonObject> future1 = webClient.getExchange(json.put("id", adaptor), virtualHost);
+    future1.onComplete(
+        ar -> {
+          JsonObject exchange = ar.result();
+          if (exchange == null
+              || !Integer.valueOf(HttpStatus.SC_OK).equals(exchange.getValue("type"))) {
+            promise.fail("Either adaptor does not exist or some other error to publish message");
+            return;
+          }
+          json.put("exchangeName", adaptor);
+          // exchange found, now get list of all queues which are bound with this exchange
+          Future<JsonObject> future2 = webClient.listExchangeSubscribers(json, virtualHost);
+          future2.onComplete(
+              rh -> {
+                JsonObject bindings = new JsonObject();
+                if (rh.result() != null) {
+                  rh.result().forEach(
+                      queue -> {
+                        if (queue.getValue() instanceof JsonArray) {
+                          bindings.put(queue.getKey(), queue.getValue());
+                        }
+                      });
+                }
+                if (bindingCache != null) {
+                  bindingCache.put(virtualHost, adaptor, bindings);
+                }
+                promise.complete(bindings);
+              });
+        });
+    return promise.future();
+  }
+
+
   @Override
   public DataBrokerService resetPassword(
       JsonObject request, Handler<AsyncResult<JsonObject>> handler) {
@@ -902,6 +1017,50 @@ public class DataBrokerServiceImpl implements DataBrokerService {
     return this;
   }
 
+  @Override
+  public DataBrokerService publishMessages(
+      JsonArray messages,
+      String toExchange,
+      String routingKey,
+      Handler<AsyncResult<JsonObject>> handler) {
+
+    Future<Void> publishFuture;
+    if (batchPublisher != null) {
+      // confirmed per message, so only the messages of this batch are waited for
+      List<Future<Void>> published =
+          messages.stream()
+              .map(
+                  message ->
+                      batchPublisher.publish(
+                          toExchange, routingKey, Buffer.buffer(message.toString())))
+              .collect(Collectors.toList());
+      publishFuture = Future.all(published).mapEmpty();
+    } else {
+      publishFuture = Future.failedFuture("no publisher for confirmed batches");
+    }
+
+    publishFuture
+        .onSuccess(
+            successHandler -> {
+              JsonObject json = new JsonObject();
+              json.put("type", ResponseUrn.SUCCESS_URN.getUrn());
+              json.put("published", messages.size());
+              handler.handle(Future.succeededFuture(json));
+            })
+        .onFailure(
+            failureHandler -> {
+              LOGGER.error(failureHandler);
+              Response response =
+                  new Response.Builder()
+                      .withUrn(ResponseUrn.QUEUE_ERROR_URN.getUrn())
+                      .withStatus(HttpStatus.SC_BAD_REQUEST)
+                      .withDetail(failureHandler.getLocalizedMessage())
+                      .build();
+              handler.handle(Future.failedFuture(response.toJson().toString()));
+            });
+    return this;
+  }
+
   private String getVhost(String vhost) {
     String vhostKey = Vhosts.valueOf(vhost).value;
     return this.config.getString(vhostKey);
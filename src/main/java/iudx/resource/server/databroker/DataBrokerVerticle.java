@@ -22,6 +22,8 @@ import iudx.resource.server.databroker.listeners.AsyncQueryListener;
 import iudx.resource.server.databroker.listeners.RevokeClientQlistener;
 import iudx.resource.server.databroker.listeners.RmqListeners;
 import iudx.resource.server.databroker.listeners.UniqueAttribQlistener;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 
 /**
  * The Data Broker Verticle.
@@ -36,6 +38,7 @@ import iudx.resource.server.databroker.listeners.UniqueAttribQlistener;
  */
 public class DataBrokerVerticle extends AbstractVerticle {
 
+  private static final Logger LOGGER = LogManager.getLogger(DataBrokerVerticle.class);
   private DataBrokerService databroker;
   private RabbitMQOptions config;
   private String dataBrokerIp;
@@ -66,6 +69,7 @@ public class DataBrokerVerticle extends AbstractVerticle {
   private PostgresClient pgClient;
   private CacheService cache;
   private AsyncService asyncService;
+  private PublisherPool publisherPool;
 
   /**
    * This method is used to start the Verticle. It deploys a verticle in a cluster, registers the
@@ -164,7 +168,27 @@ public class DataBrokerVerticle extends AbstractVerticle {
     rabbitClient = new RabbitClient(vertx, config, rabbitWebClient, pgClient, config());
     cache = CacheService.createProxy(vertx, CACHE_SERVICE_ADDRESS);
     binder = new ServiceBinder(vertx);
-    databroker = new DataBrokerServiceImpl(rabbitClient, pgClient, config(), cache);
+    int publisherPoolSize = config().getInteger("publisherPoolSize", 0);
+    // batches with confirms always go through the pool, messages of adaptors only when sized
+    publisherPool =
+        PublisherPool.create(
+            vertx,
+            config,
+            Math.max(publisherPoolSize, 1),
+            config().getInteger("publisherMaxInFlight", 1000));
+    publisherPool
+        .start()
+        .onFailure(
+            startHandler ->
+                LOGGER.fatal("Fail : publishers startup failed. " + startHandler.getMessage()));
+    databroker =
+        new DataBrokerServiceImpl(
+            rabbitClient,
+            pgClient,
+            config(),
+            cache,
+            publisherPoolSize > 0 ? publisherPool : null,
+            publisherPool);
     asyncService = AsyncService.createProxy(vertx, ASYNC_SERVICE_ADDRESS);
 
     String internalVhost = config().getString(Vhosts.IUDX_INTERNAL.value);
@@ -188,5 +212,6 @@ public class DataBrokerVerticle extends AbstractVerticle {
   @Override
   public void stop() {
     binder.unregister(consumer);
+    publisherPool.stop();
   }
 }
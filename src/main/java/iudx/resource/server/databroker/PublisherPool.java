@@ -0,0 +1,234 @@
+package iudx.resource.server.databroker;
+
+import com.rabbitmq.client.AMQP;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.vertx.core.AbstractVerticle;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.micrometer.backends.BackendRegistries;
+import io.vertx.rabbitmq.RabbitMQClient;
+import io.vertx.rabbitmq.RabbitMQOptions;
+import io.vertx.rabbitmq.RabbitMQPublisher;
+import io.vertx.rabbitmq.RabbitMQPublisherOptions;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Connections publishing messages of adaptors and batches of audit messages, each with its own
+ * channel in confirm mode, so publishes are not serialized on the single channel of {@link
+ * RabbitClient}.
+ *
+ * <p>Every connection is deployed as a verticle of its own, so the publishes and confirms of the
+ * connections are handled on different event loops and publishing scales with the cores, while
+ * the DataBrokerVerticle stays a single instance.
+ *
+ * <p>A publish completes once the broker confirmed it, confirms of several messages being
+ * acknowledged together by the broker. Publishes are spread round robin over the connections
+ * having less than <code>maxInFlight</code> unconfirmed messages, a publish is rejected when all of
+ * them are full. Confirmed, failed and rejected publishes and unconfirmed messages are exported as
+ * <code>rs.broker.publish.*</code> metrics, tagged with the instance of the pool.
+ *
+ * <p>Unconfirmed counts and the round robin position are plain fields, updated when publishing and
+ * when confirms are handed back to the publishing context, so a pool is only used from the
+ * DataBrokerVerticle instance creating it.
+ */
+public class PublisherPool {
+
+  static final String PUBLISHER_BUSY = "too many messages waiting to be published, retry later";
+  private static final Logger LOGGER = LogManager.getLogger(PublisherPool.class);
+  private static final AtomicInteger INSTANCES = new AtomicInteger();
+
+  private final Vertx vertx;
+  private final List<Connection> connections;
+  private final List<String> deploymentIds = new ArrayList<>();
+  private final int[] inFlight;
+  private final int maxInFlight;
+  private int next;
+  private long confirmed;
+  private long failed;
+  private long rejected;
+
+  /**
+   * @param vertx Vertx to deploy the connections with, null when they are already started and
+   *     publish on the calling context
+   */
+  PublisherPool(Vertx vertx, List<Connection> connections, int maxInFlight) {
+    this.vertx = vertx;
+    this.connections = connections;
+    this.inFlight = new int[connections.size()];
+    this.maxInFlight = maxInFlight;
+  }
+
+  /**
+   * Creates a pool of publishers, each on its own connection.
+   *
+   * @param vertx Vertx
+   * @param options options of the connections
+   * @param size number of connections
+   * @param maxInFlight unconfirmed messages allowed per connection
+   * @return PublisherPool
+   */
+  public static PublisherPool create(
+      Vertx vertx, RabbitMQOptions options, int size, int maxInFlight) {
+    List<Connection> connections = new ArrayList<>();
+    RabbitMQPublisherOptions publisherOptions =
+        new RabbitMQPublisherOptions().setMaxInternalQueueSize(maxInFlight);
+    for (int i = 0; i < size; i++) {
+      connections.add(new Connection(new RabbitMQOptions(options), publisherOptions));
+    }
+    return new PublisherPool(vertx, connections, maxInFlight);
+  }
+
+  public Future<Void> start() {
+    registerMetrics();
+    if (vertx == null) {
+      return Future.succeededFuture();
+    }
+    List<Future<String>> deployed = new ArrayList<>(connections.size());
+    for (Connection connection : connections) {
+      deployed.add(vertx.deployVerticle(connection).onSuccess(deploymentIds::add));
+    }
+    return Future.all(deployed)
+        .onSuccess(started -> LOGGER.info("{} publishers started", connections.size()))
+        .mapEmpty();
+  }
+
+  public Future<Void> stop() {
+    List<Future<Void>> stopped = new ArrayList<>(deploymentIds.size());
+    for (String deploymentId : deploymentIds) {
+      // connections are undeployed with the verticle deploying them as well
+      if (vertx.deploymentIDs().contains(deploymentId)) {
+        stopped.add(vertx.undeploy(deploymentId));
+      }
+    }
+    deploymentIds.clear();
+    return Future.join(stopped).mapEmpty();
+  }
+
+  /**
+   * Publishes the message on the next connection not full.
+   *
+   * @param exchange exchange to publish to
+   * @param routingKey routing key of the message
+   * @param body message
+   * @return Future completed on the calling context once the broker confirmed the message
+   */
+  public Future<Void> publish(String exchange, String routingKey, Buffer body) {
+    int index = select();
+    if (index < 0) {
+      rejected++;
+      return Future.failedFuture(PUBLISHER_BUSY);
+    }
+    inFlight[index]++;
+    return connections
+        .get(index)
+        .publishConfirm(exchange, routingKey, body)
+        .onComplete(
+            published -> {
+              inFlight[index]--;
+              if (published.succeeded()) {
+                confirmed++;
+              } else {
+                failed++;
+              }
+            })
+        .mapEmpty();
+  }
+
+  private int select() {
+    for (int i = 0; i < inFlight.length; i++) {
+      int index = (next + i) % inFlight.length;
+      if (inFlight[index] < maxInFlight) {
+        next = index + 1;
+        return index;
+      }
+    }
+    return -1;
+  }
+
+  int getInFlight() {
+    return Arrays.stream(inFlight).sum();
+  }
+
+  long getRejected() {
+    return rejected;
+  }
+
+  private void registerMetrics() {
+    MeterRegistry registry = BackendRegistries.getDefaultNow();
+    if (registry == null) {
+      return;
+    }
+    // every DataBrokerVerticle instance has its own pool
+    Tags tags = Tags.of("instance", String.valueOf(INSTANCES.incrementAndGet()));
+    Gauge.builder("rs.broker.publish.inflight", this, PublisherPool::getInFlight)
+        .tags(tags)
+        .register(registry);
+    FunctionCounter.builder("rs.broker.publish.confirmed", this, pool -> pool.confirmed)
+        .tags(tags)
+        .register(registry);
+    FunctionCounter.builder("rs.broker.publish.failed", this, pool -> pool.failed)
+        .tags(tags)
+        .register(registry);
+    FunctionCounter.builder("rs.broker.publish.rejected", this, pool -> pool.rejected)
+        .tags(tags)
+        .register(registry);
+  }
+
+  /** Connection and its publisher, running on the event loop of the verticle it is deployed as. */
+  static final class Connection extends AbstractVerticle {
+    private RabbitMQOptions options;
+    private RabbitMQPublisherOptions publisherOptions;
+    private RabbitMQClient client;
+    private RabbitMQPublisher publisher;
+
+    Connection(RabbitMQOptions options, RabbitMQPublisherOptions publisherOptions) {
+      this.options = options;
+      this.publisherOptions = publisherOptions;
+    }
+
+    Connection(RabbitMQClient client, RabbitMQPublisher publisher) {
+      this.client = client;
+      this.publisher = publisher;
+    }
+
+    @Override
+    public void start(Promise<Void> startPromise) {
+      if (client == null) {
+        client = RabbitMQClient.create(vertx, options);
+        publisher = RabbitMQPublisher.create(vertx, client, publisherOptions);
+      }
+      client.start().compose(started -> publisher.start()).onComplete(startPromise);
+    }
+
+    @Override
+    public void stop(Promise<Void> stopPromise) {
+      publisher.stop().transform(stopped -> client.stop()).onComplete(stopPromise);
+    }
+
+    /* publishes on the context of the connection, the confirm is handed back to the caller's */
+    Future<Long> publishConfirm(String exchange, String routingKey, Buffer body) {
+      if (context == null) {
+        return publisher.publishConfirm(exchange, routingKey, new AMQP.BasicProperties(), body);
+      }
+      Context caller = vertx.getOrCreateContext();
+      Promise<Long> promise = Promise.promise();
+      context.runOnContext(
+          v ->
+              publisher
+                  .publishConfirm(exchange, routingKey, new AMQP.BasicProperties(), body)
+                  .onComplete(confirm -> caller.runOnContext(c -> promise.handle(confirm))));
+      return promise.future();
+    }
+  }
+}
@@ -36,6 +36,7 @@ public class RabbitClient {
   private final String amqpUrl;
   private final int amqpPort;
   private final String vhost;
+  private final BindingCache bindingCache;
 
   public RabbitClient(
       Vertx vertx,
@@ -52,6 +53,9 @@ public class RabbitClient {
     this.client = getRabbitmqClient(vertx, rabbitConfigs);
     this.webClient = webClient;
     this.pgSqlClient = pgSqlClient;
+    Integer bindingCacheTtlSeconds = configs.getInteger("bindingCacheTtlSeconds");
+    this.bindingCache =
+        new BindingCache(bindingCacheTtlSeconds == null ? 300 : bindingCacheTtlSeconds);
     client.start(
         clientStartupHandler -> {
           if (clientStartupHandler.succeeded()) {
@@ -70,6 +74,23 @@ public class RabbitClient {
     return this.client;
   }
 
+  public BindingCache getBindingCache() {
+    return this.bindingCache;
+  }
+
+  /** Drops the cached bindings of the exchange, of all exchanges when null, once done. */
+  private Future<JsonObject> dropBindings(
+      Future<JsonObject> future, String vhost, String exchange) {
+    return future.onComplete(
+        done -> {
+          if (exchange == null) {
+            bindingCache.invalidateAll();
+          } else {
+            bindingCache.invalidate(vhost, exchange);
+          }
+        });
+  }
+
   /**
    * The createExchange implements the create exchange.
    *
@@ -227,7 +248,7 @@ public class RabbitClient {
                 }
               });
     }
-    return promise.future();
+    return dropBindings(promise.future(), vhost, request.getString("exchangeName"));
   }
 
   /**
@@ -387,7 +408,7 @@ public class RabbitClient {
                 }
               });
     }
-    return promise.future();
+    return dropBindings(promise.future(), vhost, null);
   }
 
   /**
@@ -446,7 +467,7 @@ public class RabbitClient {
                 });
       }
     }
-    return promise.future();
+    return dropBindings(promise.future(), vhost, request.getString("exchangeName"));
   }
 
   Future<Void> bindQueue(String queue, String adaptorId, String topics, String vhost) {
@@ -526,7 +547,7 @@ public class RabbitClient {
                 });
       }
     }
-    return promise.future();
+    return dropBindings(promise.future(), vhost, request.getString("exchangeName"));
   }
 
   /**
@@ -798,7 +819,7 @@ public class RabbitClient {
           getResponseJson(BAD_REQUEST_CODE, BAD_REQUEST_DATA, "Invalid/Missing Parameters")
               .toString());
     }
-    return promise.future();
+    return dropBindings(promise.future(), vhost, request.getString("resourceGroup"));
   }
 
   Future<JsonObject> deleteAdapter(JsonObject json, String vhost) {
@@ -865,7 +886,7 @@ public class RabbitClient {
             promise.fail(finalResponse.toString());
           }
         });
-    return promise.future();
+    return dropBindings(promise.future(), vhost, json.getString("id"));
   }
 
   /**
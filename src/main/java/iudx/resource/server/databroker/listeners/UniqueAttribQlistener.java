@@ -1,5 +1,6 @@
 package iudx.resource.server.databroker.listeners;
 
+import static iudx.resource.server.common.Constants.LATEST_CACHE_INVALIDATE_ADDRESS;
 import static iudx.resource.server.common.Constants.UNIQUE_ATTR_Q;
 
 import io.vertx.core.Future;
@@ -22,10 +23,12 @@ public class UniqueAttribQlistener implements RmqListeners {
   private final CacheService cache;
   private final QueueOptions options =
       new QueueOptions().setMaxInternalQueueSize(1000).setKeepMostRecent(true);
+  private final Vertx vertx;
   RabbitMQClient client;
 
   public UniqueAttribQlistener(
       Vertx vertx, CacheService cache, RabbitMQOptions config, String vhost) {
+    this.vertx = vertx;
     config.setVirtualHost(vhost);
     this.client = RabbitMQClient.create(vertx, config);
     this.cache = cache;
@@ -78,6 +81,15 @@ public class UniqueAttribQlistener implements RmqListeners {
                                     successHandler -> {
                                       LOGGER.debug(
                                           "unique attrib message published to Cache Verticle");
+                                      // latest data of the id is read from a different path now,
+                                      // once the refreshed attribute is visible to the reload
+                                      JsonObject invalidateJson = new JsonObject();
+                                      if (key != null) {
+                                        invalidateJson.put("id", key);
+                                      }
+                                      vertx
+                                          .eventBus()
+                                          .publish(LATEST_CACHE_INVALIDATE_ADDRESS, invalidateJson);
                                     })
                                 .onFailure(
                                     failureHandler -> {
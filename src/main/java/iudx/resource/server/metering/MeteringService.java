@@ -25,6 +25,21 @@ public interface MeteringService {
   MeteringService insertMeteringValuesInRmq(
       JsonObject request, Handler<AsyncResult<JsonObject>> handler);
 
+  /**
+   * Number of API calls of a user today (UTC), for usage limits.
+   *
+   * <pre>
+   * request : {"userid": "user id"}
+   * response : {"userid": "user id", "api": count}
+   * </pre>
+   *
+   * @param request json with id of the user
+   * @param handler handler of the response
+   * @return MeteringService
+   */
+  @Fluent
+  MeteringService getUsageCount(JsonObject request, Handler<AsyncResult<JsonObject>> handler);
+
   @Fluent
   MeteringService monthlyOverview(JsonObject request, Handler<AsyncResult<JsonObject>> handler);
 
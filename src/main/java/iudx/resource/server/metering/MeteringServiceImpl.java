@@ -4,7 +4,9 @@ import static iudx.resource.server.apiserver.util.Constants.*;
 import static iudx.resource.server.authenticator.Constants.ROLE;
 import static iudx.resource.server.common.Constants.*;
 import static iudx.resource.server.metering.util.Constants.*;
+import static iudx.resource.server.metering.util.Constants.API;
 import static iudx.resource.server.metering.util.Constants.IID;
+import static iudx.resource.server.metering.util.Constants.USER_ID;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -17,10 +19,15 @@ import iudx.resource.server.common.Response;
 import iudx.resource.server.database.postgres.PostgresService;
 import iudx.resource.server.databroker.DataBrokerService;
 import iudx.resource.server.metering.readpg.ReadQueryBuilder;
+import iudx.resource.server.metering.util.AuditBuffer;
 import iudx.resource.server.metering.util.DateValidation;
 import iudx.resource.server.metering.util.ParamsValidation;
 import iudx.resource.server.metering.util.QueryBuilder;
 import iudx.resource.server.metering.util.ResponseBuilder;
+import iudx.resource.server.metering.util.UsageCounters;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -40,6 +47,8 @@ public class MeteringServiceImpl implements MeteringService {
   private final ObjectMapper objectMapper = new ObjectMapper();
   private final PostgresService postgresService;
   private final CacheService cacheService;
+  private final UsageCounters usageCounters;
+  private final AuditBuffer auditBuffer;
   String queryPg;
   String queryCount;
   String queryOverview;
@@ -53,10 +62,27 @@ public class MeteringServiceImpl implements MeteringService {
 
   public MeteringServiceImpl(
       Vertx vertxInstance, PostgresService postgresService, CacheService cacheService) {
+    this(vertxInstance, postgresService, cacheService, null, null);
+  }
+
+  /**
+   * Creates the metering service.
+   *
+   * @param usageCounters in memory usage counts of users, null to count the auditing table
+   * @param auditBuffer audit messages published in batches, null to publish each one
+   */
+  public MeteringServiceImpl(
+      Vertx vertxInstance,
+      PostgresService postgresService,
+      CacheService cacheService,
+      UsageCounters usageCounters,
+      AuditBuffer auditBuffer) {
     this.vertx = vertxInstance;
     this.postgresService = postgresService;
     this.rmqService = DataBrokerService.createProxy(vertx, BROKER_SERVICE_ADDRESS);
     this.cacheService = cacheService;
+    this.usageCounters = usageCounters;
+    this.auditBuffer = auditBuffer;
   }
 
   @Override
@@ -397,6 +423,48 @@ public class MeteringServiceImpl implements MeteringService {
     return promise.future();
   }
 
+  @Override
+  public MeteringService getUsageCount(
+      JsonObject request, Handler<AsyncResult<JsonObject>> handler) {
+    String userId = request.getString(USER_ID);
+    if (userId == null) {
+      responseBuilder = new ResponseBuilder().setTypeAndTitle(400).setMessage(USERID_NOT_FOUND);
+      handler.handle(Future.failedFuture(responseBuilder.getResponse().toString()));
+      return this;
+    }
+    if (usageCounters != null) {
+      usageCounters
+          .get(userId)
+          .onComplete(
+              countHandler ->
+                  handler.handle(
+                      Future.succeededFuture(
+                          new JsonObject().put(USER_ID, userId).put(API, countHandler.result()))));
+      return this;
+    }
+
+    OffsetDateTime endTime = OffsetDateTime.now(ZoneOffset.UTC);
+    JsonObject countRequest =
+        new JsonObject()
+            .put(TABLE_NAME, RS_DATABASE_TABLE_NAME)
+            .put(USER_ID, userId)
+            .put(START_TIME, endTime.truncatedTo(ChronoUnit.DAYS).toString())
+            .put(END_TIME, endTime.toString());
+    executeQueryDatabaseOperation(queryBuilder.buildCountReadQueryFromPg(countRequest))
+        .onComplete(
+            countHandler -> {
+              if (countHandler.succeeded()) {
+                long count =
+                    countHandler.result().getJsonArray("result").getJsonObject(0).getLong("count");
+                handler.handle(
+                    Future.succeededFuture(new JsonObject().put(USER_ID, userId).put(API, count)));
+              } else {
+                handler.handle(Future.failedFuture(countHandler.cause()));
+              }
+            });
+    return this;
+  }
+
   @Override
   public MeteringService insertMeteringValuesInRmq(
       JsonObject request, Handler<AsyncResult<JsonObject>> handler) {
@@ -404,12 +472,23 @@ public class MeteringServiceImpl implements MeteringService {
     JsonObject writeMessage = queryBuilder.buildMessageForRmq(request);
     LOGGER.debug("write message =  {}", writeMessage);
 
+    if (auditBuffer != null) {
+      auditBuffer.add(writeMessage);
+      if (usageCounters != null) {
+        usageCounters.increment(writeMessage.getString(USER_ID));
+      }
+      handler.handle(Future.succeededFuture());
+      return this;
+    }
     rmqService.publishMessage(
         writeMessage,
         EXCHANGE_NAME,
         ROUTING_KEY,
         rmqHandler -> {
           if (rmqHandler.succeeded()) {
+            if (usageCounters != null) {
+              usageCounters.increment(writeMessage.getString(USER_ID));
+            }
             handler.handle(Future.succeededFuture());
             LOGGER.info("inserted into rmq");
           } else {
@@ -1,14 +1,19 @@
 package iudx.resource.server.metering;
 
+import static iudx.resource.server.common.Constants.BROKER_SERVICE_ADDRESS;
 import static iudx.resource.server.common.Constants.CACHE_SERVICE_ADDRESS;
 import static iudx.resource.server.common.Constants.PG_SERVICE_ADDRESS;
 
 import io.vertx.core.AbstractVerticle;
+import io.vertx.core.Promise;
 import io.vertx.core.eventbus.MessageConsumer;
 import io.vertx.core.json.JsonObject;
 import io.vertx.serviceproxy.ServiceBinder;
 import iudx.resource.server.cache.CacheService;
 import iudx.resource.server.database.postgres.PostgresService;
+import iudx.resource.server.databroker.DataBrokerService;
+import iudx.resource.server.metering.util.AuditBuffer;
+import iudx.resource.server.metering.util.UsageCounters;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -21,20 +26,53 @@ public class MeteringVerticle extends AbstractVerticle {
   private MeteringService metering;
   private PostgresService postgresService;
   private CacheService cacheService;
+  private AuditBuffer auditBuffer;
 
   @Override
   public void start() throws Exception {
     binder = new ServiceBinder(vertx);
     postgresService = PostgresService.createProxy(vertx, PG_SERVICE_ADDRESS);
     this.cacheService = CacheService.createProxy(vertx, CACHE_SERVICE_ADDRESS);
-    metering = new MeteringServiceImpl(vertx, postgresService, cacheService);
+    // every instance only sees the calls it audits, so counts are shared across instances too
+    boolean shareUsageCounters =
+        config().getBoolean("shareUsageCounters", false)
+            || config().getInteger("verticleInstances", 1) > 1;
+    UsageCounters usageCounters = new UsageCounters(vertx, postgresService, shareUsageCounters);
+    usageCounters.start();
+    int auditBatchSize = config().getInteger("auditBatchSize", 100);
+    if (auditBatchSize > 0) {
+      auditBuffer =
+          new AuditBuffer(
+              vertx,
+              DataBrokerService.createProxy(vertx, BROKER_SERVICE_ADDRESS),
+              config().getInteger("auditBufferCapacity", 10000),
+              auditBatchSize,
+              config().getLong("auditFlushMillis", 1000L));
+      auditBuffer.start();
+    }
+    metering =
+        new MeteringServiceImpl(
+            vertx, postgresService, cacheService, usageCounters, auditBuffer);
     consumer =
         binder.setAddress(METERING_SERVICE_ADDRESS).register(MeteringService.class, metering);
     LOGGER.info("Metering Verticle Started");
   }
 
   @Override
-  public void stop() {
+  public void stop(Promise<Void> stopPromise) {
     binder.unregister(consumer);
+    if (auditBuffer == null) {
+      stopPromise.complete();
+      return;
+    }
+    auditBuffer
+        .drain()
+        .onComplete(
+            drained -> {
+              if (drained.failed()) {
+                LOGGER.error("audit messages not published : {}", drained.cause().getMessage());
+              }
+              stopPromise.complete();
+            });
   }
 }
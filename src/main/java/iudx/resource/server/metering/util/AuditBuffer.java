@@ -0,0 +1,162 @@
+package iudx.resource.server.metering.util;
+
+import static iudx.resource.server.metering.util.Constants.EXCHANGE_NAME;
+import static iudx.resource.server.metering.util.Constants.ROUTING_KEY;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.micrometer.backends.BackendRegistries;
+import iudx.resource.server.databroker.DataBrokerService;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Audit messages waiting to be published to the auditing exchange, published in batches of
+ * <code>batchSize</code> messages with publisher confirms once a batch is full or every <code>
+ * flushMillis</code>, instead of one publish per API call.
+ *
+ * <p>At most <code>capacity</code> messages are kept, the oldest ones are dropped and counted when
+ * the broker can not keep up. A batch failed to publish is put back to be retried on the next
+ * flush. Buffered messages are lost if the node stops without {@link #drain()}.
+ *
+ * <p>The buffered messages are a plain deque, filled by {@link #add} and emptied by the flush
+ * timer, both on the event loop of the MeteringVerticle creating the buffer.
+ */
+public class AuditBuffer {
+
+  private static final Logger LOGGER = LogManager.getLogger(AuditBuffer.class);
+  private static final AtomicInteger INSTANCES = new AtomicInteger();
+
+  private final Vertx vertx;
+  private final DataBrokerService dataBrokerService;
+  private final int capacity;
+  private final int batchSize;
+  private final long flushMillis;
+  private final Deque<JsonObject> messages = new ArrayDeque<>();
+  private Future<Void> flushing = Future.succeededFuture();
+  private long timerId = -1;
+  private long published;
+  private long dropped;
+
+  public AuditBuffer(
+      Vertx vertx,
+      DataBrokerService dataBrokerService,
+      int capacity,
+      int batchSize,
+      long flushMillis) {
+    this.vertx = vertx;
+    this.dataBrokerService = dataBrokerService;
+    this.capacity = capacity;
+    this.batchSize = batchSize;
+    this.flushMillis = flushMillis;
+  }
+
+  public void start() {
+    timerId = vertx.setPeriodic(flushMillis, id -> flush());
+    MeterRegistry registry = BackendRegistries.getDefaultNow();
+    if (registry != null) {
+      // every MeteringVerticle instance has its own buffer
+      Tags tags = Tags.of("instance", String.valueOf(INSTANCES.incrementAndGet()));
+      Gauge.builder("rs.audit.buffer.size", messages, Deque::size).tags(tags).register(registry);
+      FunctionCounter.builder("rs.audit.buffer.published", this, buffer -> buffer.published)
+          .tags(tags)
+          .register(registry);
+      FunctionCounter.builder("rs.audit.buffer.dropped", this, buffer -> buffer.dropped)
+          .tags(tags)
+          .register(registry);
+    }
+  }
+
+  public void add(JsonObject message) {
+    if (messages.size() >= capacity) {
+      messages.pollFirst();
+      if (dropped++ % capacity == 0) {
+        LOGGER.warn("audit buffer full, {} audit messages dropped so far", dropped);
+      }
+    }
+    messages.addLast(message);
+    if (messages.size() >= batchSize) {
+      flush();
+    }
+  }
+
+  /**
+   * Publishes the next batch, unless a batch is already being published.
+   *
+   * @return Future completed once the batch in flight is published or put back
+   */
+  Future<Void> flush() {
+    if (!flushing.isComplete() || messages.isEmpty()) {
+      return flushing;
+    }
+    JsonArray batch = new JsonArray();
+    while (batch.size() < batchSize && !messages.isEmpty()) {
+      batch.add(messages.pollFirst());
+    }
+    Promise<Void> promise = Promise.promise();
+    flushing = promise.future();
+    dataBrokerService.publishMessages(
+        batch,
+        EXCHANGE_NAME,
+        ROUTING_KEY,
+        rmqHandler -> {
+          if (rmqHandler.succeeded()) {
+            published += batch.size();
+            LOGGER.debug("{} audit messages published", batch.size());
+            promise.complete();
+          } else {
+            LOGGER.error("failed to publish audit messages : {}", rmqHandler.cause().getMessage());
+            putBack(batch);
+            promise.fail(rmqHandler.cause());
+          }
+        });
+    return flushing;
+  }
+
+  /**
+   * Stops the periodic flush and publishes the buffered messages, stopping at the first batch
+   * failed to publish.
+   *
+   * @return Future completed once the buffer is empty
+   */
+  public Future<Void> drain() {
+    vertx.cancelTimer(timerId);
+    return flushing
+        .recover(failed -> Future.succeededFuture())
+        .compose(
+            flushed -> {
+              if (messages.isEmpty()) {
+                return Future.succeededFuture();
+              }
+              return flush().compose(next -> drain());
+            });
+  }
+
+  int size() {
+    return messages.size();
+  }
+
+  long getDropped() {
+    return dropped;
+  }
+
+  private void putBack(JsonArray batch) {
+    for (int i = batch.size() - 1; i >= 0; i--) {
+      if (messages.size() >= capacity) {
+        dropped += i + 1;
+        return;
+      }
+      messages.addFirst(batch.getJsonObject(i));
+    }
+  }
+}
@@ -55,6 +55,9 @@ public class Constants {
   public static final String CONSUMERID_TIME_INTERVAL_COUNT_QUERY =
       "SELECT count(*) FROM $0 where time between '$1' and '$2' and userid='$3'";
 
+  public static final String USERID_TIME_INTERVAL_GROUP_COUNT_QUERY =
+      "SELECT userid, count(*) FROM $0 where time between '$1' and '$2' GROUP BY userid";
+
   public static final String PROVIDERID_TIME_INTERVAL_COUNT_QUERY =
       "SELECT count(*) FROM $0 where time between '$1' and '$2' and providerid='$3'";
 
@@ -0,0 +1,137 @@
+package iudx.resource.server.metering.util;
+
+import static iudx.resource.server.common.Constants.USAGE_INCREMENT_ADDRESS;
+import static iudx.resource.server.metering.util.Constants.RS_DATABASE_TABLE_NAME;
+import static iudx.resource.server.metering.util.Constants.USERID_TIME_INTERVAL_GROUP_COUNT_QUERY;
+import static iudx.resource.server.metering.util.Constants.USER_ID;
+
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+import iudx.resource.server.database.postgres.PostgresService;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.Map;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Daily (UTC) count of audited API calls per user, kept in memory so usage limits are checked
+ * without counting the auditing table on every request.
+ *
+ * <p>Counts are seeded from the auditing table at startup and on the first use of a new day, and
+ * incremented for every audit message published. When <code>shared</code>, increments are
+ * published on {@link iudx.resource.server.common.Constants#USAGE_INCREMENT_ADDRESS} and applied
+ * by the counters of every node, so all nodes see the usage of the whole cluster. Counters of
+ * several instances on one node must be shared as well.
+ *
+ * <p>Counts are a plain map updated by {@link #increment} and by increments from the event bus, so
+ * an instance is only used on the event loop of the MeteringVerticle creating it.
+ */
+public class UsageCounters {
+
+  private static final Logger LOGGER = LogManager.getLogger(UsageCounters.class);
+
+  private final Vertx vertx;
+  private final PostgresService postgresService;
+  private final boolean shared;
+  private final Clock clock;
+  private Map<String, Long> counts = new HashMap<>();
+  private LocalDate day;
+  private Future<Void> seeded;
+
+  public UsageCounters(Vertx vertx, PostgresService postgresService, boolean shared) {
+    this(vertx, postgresService, shared, Clock.systemUTC());
+  }
+
+  UsageCounters(Vertx vertx, PostgresService postgresService, boolean shared, Clock clock) {
+    this.vertx = vertx;
+    this.postgresService = postgresService;
+    this.shared = shared;
+    this.clock = clock;
+  }
+
+  public void start() {
+    if (shared) {
+      vertx
+          .eventBus()
+          .<JsonObject>consumer(
+              USAGE_INCREMENT_ADDRESS, message -> add(message.body().getString(USER_ID)));
+    }
+    rollOver();
+  }
+
+  /**
+   * Number of API calls of the user today, once the counts are seeded.
+   *
+   * @param userId id of the user
+   * @return Future of count
+   */
+  public Future<Long> get(String userId) {
+    checkDay();
+    return seeded.transform(seed -> Future.succeededFuture(counts.getOrDefault(userId, 0L)));
+  }
+
+  public void increment(String userId) {
+    if (userId == null) {
+      return;
+    }
+    if (shared) {
+      vertx.eventBus().publish(USAGE_INCREMENT_ADDRESS, new JsonObject().put(USER_ID, userId));
+    } else {
+      add(userId);
+    }
+  }
+
+  private void add(String userId) {
+    checkDay();
+    counts.merge(userId, 1L, Long::sum);
+  }
+
+  private void checkDay() {
+    if (!LocalDate.now(clock).equals(day)) {
+      rollOver();
+    }
+  }
+
+  private void rollOver() {
+    day = LocalDate.now(clock);
+    counts = new HashMap<>();
+    seeded = seed(day, counts);
+  }
+
+  private Future<Void> seed(LocalDate seedDay, Map<String, Long> seedCounts) {
+    Promise<Void> promise = Promise.promise();
+    OffsetDateTime startTime = seedDay.atStartOfDay().atOffset(ZoneOffset.UTC);
+    String query =
+        USERID_TIME_INTERVAL_GROUP_COUNT_QUERY
+            .replace("$0", RS_DATABASE_TABLE_NAME)
+            .replace("$1", startTime.toString())
+            .replace("$2", startTime.plusDays(1).toString());
+    postgresService.executeQuery(
+        query,
+        pgHandler -> {
+          if (pgHandler.succeeded()) {
+            pgHandler
+                .result()
+                .getJsonArray("result")
+                .forEach(
+                    row -> {
+                      JsonObject userCount = (JsonObject) row;
+                      seedCounts.merge(
+                          userCount.getString(USER_ID), userCount.getLong("count"), Long::sum);
+                    });
+            LOGGER.debug("usage counters seeded for {}", seedDay);
+          } else {
+            // counting from audits published from now on, usage before is not known
+            LOGGER.error("failed to seed usage counters : {}", pgHandler.cause().getMessage());
+          }
+          promise.complete();
+        });
+    return promise.future();
+  }
+}
@@ -12,6 +12,9 @@ import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.stream.Stream;
 
@@ -35,6 +38,7 @@ import io.vertx.core.Vertx;
 import io.vertx.core.http.HttpMethod;
 import io.vertx.core.http.HttpServerRequest;
 import io.vertx.core.http.HttpServerResponse;
+import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
 import io.vertx.ext.web.RequestBody;
 import io.vertx.ext.web.RoutingContext;
@@ -254,6 +258,41 @@ public class AuthHandlerTest {
     vertxTestContext.completeNow();
   }
 
+  @Test
+  @DisplayName("Test token is authorized for every id of a multi id search")
+  public void testCanHandleMultipleIds(VertxTestContext vertxTestContext) {
+    RequestBody requestBody = mock(RequestBody.class);
+
+    when(routingContext.body()).thenReturn(requestBody);
+    when(requestBody.asJsonObject()).thenReturn(new JsonObject());
+    when(httpServerRequest.path()).thenReturn(apis.getEntitiesUrl());
+    when(httpServerRequest.getParam("id")).thenReturn("id-1,id-2");
+    AuthHandler.authenticator = mock(AuthenticationService.class);
+    when(httpServerRequest.headers()).thenReturn(map);
+    when(map.get(anyString())).thenReturn("Dummy Token");
+    when(asyncResult.succeeded()).thenReturn(true);
+    when(asyncResult.result()).thenReturn(jsonObject);
+    List<String> authorizedIds = new ArrayList<>();
+    doAnswer((Answer<AsyncResult<JsonObject>>) arg0 -> {
+      authorizedIds.add(((JsonObject) arg0.getArgument(1)).getString("id"));
+      ((Handler<AsyncResult<JsonObject>>) arg0.getArgument(2)).handle(asyncResult);
+      return null;
+    }).when(AuthHandler.authenticator).tokenInterospect(any(), any(), any());
+    Map<String, Object> data = new HashMap<>();
+    when(routingContext.data()).thenReturn(data);
+
+    authHandler.handle(routingContext);
+
+    verify(AuthHandler.authenticator, times(2)).tokenInterospect(any(), any(), any());
+    assertEquals(List.of("id-1", "id-2"), authorizedIds);
+    assertEquals(
+        new JsonArray().add("id-1").add("id-2"),
+        ((JsonObject) data.get("authInfo")).getJsonArray(IDS));
+    verify(routingContext, times(1)).next();
+
+    vertxTestContext.completeNow();
+  }
+
   @DisplayName("Test create method")
   @Test
   public void testCanCreate(VertxTestContext vertxTestContext) {
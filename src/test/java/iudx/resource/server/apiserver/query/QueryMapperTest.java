@@ -1,12 +1,15 @@
 package iudx.resource.server.apiserver.query;
 
 import static iudx.resource.server.apiserver.util.Constants.JSON_ATTRIBUTE;
+import static iudx.resource.server.apiserver.util.Constants.JSON_SEARCH_TYPE;
 import static iudx.resource.server.apiserver.util.Constants.JSON_ATTR_QUERY;
 import static iudx.resource.server.apiserver.util.Constants.JSON_LAT;
 import static iudx.resource.server.apiserver.util.Constants.JSON_LON;
 import static iudx.resource.server.apiserver.util.Constants.JSON_OPERATOR;
 import static iudx.resource.server.apiserver.util.Constants.JSON_RADIUS;
 import static iudx.resource.server.apiserver.util.Constants.JSON_VALUE;
+import static iudx.resource.server.apiserver.util.Constants.NGSILDQUERY_AGGR_METHODS;
+import static iudx.resource.server.apiserver.util.Constants.NGSILDQUERY_AGGR_PERIOD;
 import static iudx.resource.server.apiserver.util.Constants.NGSILDQUERY_ATTRIBUTE;
 import static iudx.resource.server.apiserver.util.Constants.NGSILDQUERY_COORDINATES;
 import static iudx.resource.server.apiserver.util.Constants.NGSILDQUERY_ENDTIME;
@@ -268,6 +271,42 @@ public class QueryMapperTest {
     testContext.completeNow();
   }
 
+  @Test
+  @Description("QueryMapper test for temporal aggregation query")
+  public void testToJson4AggregationQuery(Vertx vertx, VertxTestContext testContext) {
+    MultiMap map = MultiMap.caseInsensitiveMultiMap();
+    map.add(NGSILDQUERY_ID, "id1");
+    map.add(NGSILDQUERY_ATTRIBUTE, "attr1,attr2");
+    map.add(NGSILDQUERY_TIMEREL, "during");
+    map.add(NGSILDQUERY_TIME, "2020-01-01T00:00:00Z");
+    map.add(NGSILDQUERY_ENDTIME, "2020-01-31T00:00:00Z");
+    map.add(NGSILDQUERY_AGGR_METHODS, "avg,max");
+    map.add(NGSILDQUERY_AGGR_PERIOD, "PT1H");
+    NgsildQueryParams params = new NgsildQueryParams(map);
+
+    JsonObject json = qm.toJson(params, true);
+    verify(context, times(0)).fail(anyInt(), any());
+    assertEquals(new JsonArray().add("avg").add("max"), json.getJsonArray(NGSILDQUERY_AGGR_METHODS));
+    assertEquals("PT1H", json.getString(NGSILDQUERY_AGGR_PERIOD));
+    assertTrue(json.getString(JSON_SEARCH_TYPE).contains("aggregationSearch"));
+    testContext.completeNow();
+  }
+
+  @Test
+  @Description("QueryMapper test for aggregation of non temporal query")
+  public void testAggregationOfEntitiesQuery(Vertx vertx, VertxTestContext testContext) {
+    MultiMap map = MultiMap.caseInsensitiveMultiMap();
+    map.add(NGSILDQUERY_ID, "id1");
+    map.add(NGSILDQUERY_ATTRIBUTE, "attr1");
+    map.add(NGSILDQUERY_AGGR_METHODS, "avg");
+    map.add(NGSILDQUERY_AGGR_PERIOD, "PT1H");
+    NgsildQueryParams params = new NgsildQueryParams(map);
+
+    qm.toJson(params, false);
+    verify(context, times(1)).fail(anyInt(), any());
+    testContext.completeNow();
+  }
+
   @Test
   @Description("QueryMapper test for invalid geo-query")
   public void testIncompleteGeoQuery(Vertx vertx, VertxTestContext testContext) {
@@ -0,0 +1,140 @@
+package iudx.resource.server.apiserver.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import iudx.resource.server.common.CatalogueItem;
+import iudx.resource.server.metering.MeteringService;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith({MockitoExtension.class, VertxExtension.class})
+public class MeteringAuditorTest {
+
+  private static final String BULK_ENDPOINT = "/ngsi-ld/v1/ingestion/entities/bulk";
+  @Mock MeteringService meteringService;
+  private MeteringAuditor meteringAuditor;
+  private List<JsonObject> published;
+
+  private static CatalogueItem resource(String id, String group, String provider) {
+    return CatalogueItem.fromJson(
+        new JsonObject()
+            .put("id", id)
+            .put("type", new JsonArray().add("Resource"))
+            .put("resourceGroup", group)
+            .put("provider", provider));
+  }
+
+  private static final Map<String, CatalogueItem> ITEMS =
+      Map.of(
+          "rs-1", resource("rs-1", "rg-1", "provider-1"),
+          "rs-2", resource("rs-2", "rg-1", "provider-1"),
+          "rs-3", resource("rs-3", "rg-2", "provider-2"));
+
+  private final Function<String, Future<CatalogueItem>> catalogueItems =
+      id ->
+          ITEMS.containsKey(id)
+              ? Future.succeededFuture(ITEMS.get(id))
+              : Future.failedFuture("key not found");
+
+  private JsonObject authInfo() {
+    // body of a bulk request is an array, so it has no id
+    return new JsonObject()
+        .put("apiEndpoint", BULK_ENDPOINT)
+        .put("userid", "user-1")
+        .put("role", "provider");
+  }
+
+  @BeforeEach
+  public void setUp() {
+    meteringAuditor = new MeteringAuditor(meteringService);
+    published = new ArrayList<>();
+  }
+
+  private void stubMetering() {
+    doAnswer(
+            invocation -> {
+              published.add(invocation.getArgument(0));
+              Handler<AsyncResult<JsonObject>> handler = invocation.getArgument(1);
+              handler.handle(Future.succeededFuture());
+              return null;
+            })
+        .when(meteringService)
+        .insertMeteringValuesInRmq(any(), any());
+  }
+
+  @Test
+  @DisplayName("Test bulk request audited once per resource group of its records")
+  public void testAuditBulk(VertxTestContext vertxTestContext) {
+    stubMetering();
+
+    meteringAuditor
+        .audit(authInfo(), List.of("rs-1", "rs-2", "rs-3", "rs-1", "unknown"), 0, catalogueItems)
+        .onComplete(
+            vertxTestContext.succeeding(
+                result ->
+                    vertxTestContext.verify(
+                        () -> {
+                          verify(meteringService, times(2)).insertMeteringValuesInRmq(any(), any());
+                          assertEquals("rs-1", published.get(0).getString("id"));
+                          assertEquals("rg-1", published.get(0).getString("resourceGroup"));
+                          assertEquals("provider-1", published.get(0).getString("providerID"));
+                          assertEquals(BULK_ENDPOINT, published.get(0).getString("api"));
+                          assertEquals("rs-3", published.get(1).getString("id"));
+                          assertEquals("provider-2", published.get(1).getString("providerID"));
+                          vertxTestContext.completeNow();
+                        })));
+  }
+
+  @Test
+  @DisplayName("Test response size put on the first record only")
+  public void testAuditResponseSize(VertxTestContext vertxTestContext) {
+    stubMetering();
+
+    meteringAuditor
+        .audit(authInfo(), List.of("rs-3", "rs-1"), 1024L, catalogueItems)
+        .onComplete(
+            vertxTestContext.succeeding(
+                result ->
+                    vertxTestContext.verify(
+                        () -> {
+                          assertEquals(1024L, published.get(0).getLong("response_size"));
+                          assertEquals(0L, published.get(1).getLong("response_size"));
+                          vertxTestContext.completeNow();
+                        })));
+  }
+
+  @Test
+  @DisplayName("Test audit fails when no id is found in the catalogue")
+  public void testAuditNotFound(VertxTestContext vertxTestContext) {
+    meteringAuditor
+        .audit(authInfo(), List.of("unknown"), 0, catalogueItems)
+        .onComplete(
+            vertxTestContext.failing(
+                failure ->
+                    vertxTestContext.verify(
+                        () -> {
+                          verify(meteringService, never()).insertMeteringValuesInRmq(any(), any());
+                          vertxTestContext.completeNow();
+                        })));
+  }
+}
@@ -0,0 +1,62 @@
+package iudx.resource.server.apiserver.validation;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.cli.annotations.Description;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import iudx.resource.server.apiserver.exceptions.DxRuntimeException;
+import iudx.resource.server.apiserver.validation.types.AggrMethodsTypeValidator;
+import iudx.resource.server.apiserver.validation.types.AggrPeriodTypeValidator;
+
+@ExtendWith(VertxExtension.class)
+public class AggrPeriodTypeValidatorTest {
+
+  static Stream<Arguments> allowedValues() {
+    return Stream.of(
+            Arguments.of(null, "avg"),
+            Arguments.of("PT1M", "count"),
+            Arguments.of("PT15M", "avg,min,max"),
+            Arguments.of("PT1H", "sum,percentiles"),
+            Arguments.of("P1D", null));
+  }
+
+  @ParameterizedTest
+  @MethodSource("allowedValues")
+  @Description("aggregation period and methods allowed values.")
+  public void testValidAggregationValue(String period, String methods, Vertx vertx,
+                                        VertxTestContext testContext) {
+    assertTrue(new AggrPeriodTypeValidator(period, false).isValid());
+    assertTrue(new AggrMethodsTypeValidator(methods, false).isValid());
+    testContext.completeNow();
+  }
+
+  static Stream<Arguments> invalidValues() {
+    return Stream.of(
+            Arguments.of("  ", "  "),
+            Arguments.of("1h", "median"),
+            Arguments.of("PT30S", "avg,,min"),
+            Arguments.of("P1X", "avg,min,max,sum,count,percentiles,avg"));
+  }
+
+  @ParameterizedTest
+  @MethodSource("invalidValues")
+  @Description("aggregation period and methods invalid values.")
+  public void testInvalidAggregationValue(String period, String methods, Vertx vertx,
+                                          VertxTestContext testContext) {
+    assertThrows(DxRuntimeException.class,
+            () -> new AggrPeriodTypeValidator(period, false).isValid());
+    assertThrows(DxRuntimeException.class,
+            () -> new AggrMethodsTypeValidator(methods, false).isValid());
+    testContext.completeNow();
+  }
+}
@@ -94,4 +94,29 @@ public class IdTypeValidatorTest {
     assertThrows(DxRuntimeException.class, () -> idTypeValidator.isValid());
     testContext.completeNow();
   }
+
+  @ParameterizedTest
+  @MethodSource("multipleIdValues")
+  @Description("comma separated ids up to max ids allowed.")
+  public void testMultipleIdTypeValue(String value, int maxIds, boolean valid, Vertx vertx,
+      VertxTestContext testContext) {
+    idTypeValidator = new IdTypeValidator(value, true, maxIds);
+    if (valid) {
+      assertTrue(idTypeValidator.isValid());
+    } else {
+      assertThrows(DxRuntimeException.class, () -> idTypeValidator.isValid());
+    }
+    testContext.completeNow();
+  }
+
+  static Stream<Arguments> multipleIdValues() {
+    String id1 = "b58da193-23d9-43eb-b98a-a103d4b6103c";
+    String id2 = "83c2e5c2-3574-4e11-9530-2b1fbdfce832";
+    return Stream.of(
+        Arguments.of(id1 + "," + id2, 2, true),
+        Arguments.of(id1 + "," + id2, 1, false),
+        Arguments.of(id1 + "," + id2 + "," + id1, 2, false),
+        Arguments.of(id1 + ",", 2, false),
+        Arguments.of(id1 + ",bypass", 2, false));
+  }
 }
@@ -0,0 +1,63 @@
+package iudx.resource.server.apiserver.validation;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.cli.annotations.Description;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import iudx.resource.server.apiserver.exceptions.DxRuntimeException;
+import iudx.resource.server.apiserver.validation.types.PaginationCursorTypeValidator;
+
+@ExtendWith(VertxExtension.class)
+public class PaginationCursorTypeValidatorTest {
+
+  private PaginationCursorTypeValidator paginationCursorTypeValidator;
+
+  static Stream<Arguments> allowedValues() {
+    return Stream.of(
+            Arguments.of(null, false),
+            Arguments.of("*", false),
+            Arguments.of("eyJwaXQiOiJhYmMiLCJhZnRlciI6WzEwXX0", false),
+            Arguments.of("abc_DEF-123", true));
+  }
+
+  @ParameterizedTest
+  @MethodSource("allowedValues")
+  @Description("pagination cursor type parameter allowed values.")
+  public void testValidCursorTypeValue(String value, boolean required, Vertx vertx,
+                                       VertxTestContext testContext) {
+    paginationCursorTypeValidator = new PaginationCursorTypeValidator(value, required);
+    assertTrue(paginationCursorTypeValidator.isValid());
+    testContext.completeNow();
+  }
+
+  static Stream<Arguments> invalidValues() {
+    return Stream.of(
+            Arguments.of("   ", false),
+            Arguments.of("**", false),
+            Arguments.of("abc+/=", false),
+            Arguments.of("a".repeat(4097), false),
+            Arguments.of(null, true),
+            Arguments.of("", true)
+    );
+  }
+
+  @ParameterizedTest
+  @MethodSource("invalidValues")
+  @Description("pagination cursor type parameter invalid values.")
+  public void testInvalidCursorTypeValue(String value, boolean required, Vertx vertx,
+                                         VertxTestContext testContext) {
+    paginationCursorTypeValidator = new PaginationCursorTypeValidator(value, required);
+    assertThrows(DxRuntimeException.class, () -> paginationCursorTypeValidator.isValid());
+    testContext.completeNow();
+  }
+}
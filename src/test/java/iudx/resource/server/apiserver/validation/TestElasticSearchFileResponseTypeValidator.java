@@ -25,6 +25,7 @@ public class TestElasticSearchFileResponseTypeValidator {
         Arguments.of("csv", false),
         Arguments.of("parquet", false),
         Arguments.of("json", false),
+        Arguments.of("ndjson", false),
         Arguments.of("csv", true),
         Arguments.of("parquet", true),
         Arguments.of("json", true));
@@ -0,0 +1,126 @@
+package iudx.resource.server.authenticator;
+
+import static iudx.resource.server.common.Constants.CACHE_UPDATE_ADDRESS;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import iudx.resource.server.authenticator.model.JwtData;
+import iudx.resource.server.cache.NearCacheService;
+import iudx.resource.server.cache.cachelmpl.CacheType;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+@ExtendWith(VertxExtension.class)
+public class JwtCacheTest {
+
+  private static final int NOW = 1700000000;
+  private static final Clock CLOCK = Clock.fixed(Instant.ofEpochSecond(NOW), ZoneOffset.UTC);
+
+  private static JwtData jwtData(String sub, int exp) {
+    JwtData jwtData = new JwtData();
+    jwtData.setSub(sub);
+    jwtData.setExp(exp);
+    return jwtData;
+  }
+
+  @Test
+  @DisplayName("verified token cached until it expires")
+  public void testGet(VertxTestContext testContext) {
+    JwtCache jwtCache = new JwtCache(10, 600, false, CLOCK);
+    JwtData valid = jwtData("client", NOW + 60);
+    jwtCache.put("token", valid);
+    jwtCache.put("expired", jwtData("client", NOW));
+
+    assertSame(valid, jwtCache.get("token"));
+    assertNull(jwtCache.get("expired"));
+    assertNull(jwtCache.get("unknown"));
+    testContext.completeNow();
+  }
+
+  @Test
+  @DisplayName("expired token kept when expiry is ignored")
+  public void testGetIgnoreExpiry(VertxTestContext testContext) {
+    JwtCache jwtCache = new JwtCache(10, 600, true, CLOCK);
+    jwtCache.put("expired", jwtData("client", NOW - 60));
+
+    assertNotNull(jwtCache.get("expired"));
+    testContext.completeNow();
+  }
+
+  @Test
+  @DisplayName("tokens of revoked clients dropped on cache updates")
+  public void testRevoked(Vertx vertx, VertxTestContext testContext) {
+    JwtCache jwtCache = new JwtCache(10, 600, false, CLOCK);
+    jwtCache.start(vertx);
+    jwtCache.put("revoked", jwtData("client", NOW + 60));
+    jwtCache.put("refreshed", jwtData("other", NOW + 60));
+    jwtCache.put("kept", jwtData("active", NOW + 60));
+
+    vertx
+        .eventBus()
+        .publish(
+            CACHE_UPDATE_ADDRESS,
+            new JsonObject()
+                .put("type", CacheType.REVOKED_CLIENT.name())
+                .put("key", "client")
+                .put("value", new JsonObject()));
+    vertx
+        .eventBus()
+        .publish(
+            CACHE_UPDATE_ADDRESS,
+            new JsonObject()
+                .put("type", CacheType.REVOKED_CLIENT.name())
+                .put(NearCacheService.ENTRIES, new JsonObject().put("other", new JsonObject())));
+
+    vertx.setTimer(
+        100,
+        handler -> {
+          testContext.verify(
+              () -> {
+                assertNull(jwtCache.get("revoked"));
+                assertNull(jwtCache.get("refreshed"));
+                assertNotNull(jwtCache.get("kept"));
+              });
+          testContext.completeNow();
+        });
+  }
+
+  @Test
+  @DisplayName("tokens kept on cache updates once closed")
+  public void testClose(Vertx vertx, VertxTestContext testContext) {
+    JwtCache jwtCache = new JwtCache(10, 600, false, CLOCK);
+    jwtCache.start(vertx);
+    jwtCache.put("token", jwtData("client", NOW + 60));
+
+    jwtCache
+        .close()
+        .onComplete(
+            testContext.succeeding(
+                closed -> {
+                  vertx
+                      .eventBus()
+                      .publish(
+                          CACHE_UPDATE_ADDRESS,
+                          new JsonObject()
+                              .put("type", CacheType.REVOKED_CLIENT.name())
+                              .put("key", "client"));
+                  vertx.setTimer(
+                      100,
+                      handler ->
+                          testContext.verify(
+                              () -> {
+                                assertNotNull(jwtCache.get("token"));
+                                testContext.completeNow();
+                              }));
+                }));
+  }
+}
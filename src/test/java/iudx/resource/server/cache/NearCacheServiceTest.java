@@ -0,0 +1,161 @@
+package iudx.resource.server.cache;
+
+import static iudx.resource.server.common.Constants.CACHE_SNAPSHOT_ADDRESS;
+import static iudx.resource.server.common.Constants.CACHE_UPDATE_ADDRESS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.eventbus.MessageConsumer;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import iudx.resource.server.cache.cachelmpl.CacheType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+@ExtendWith(VertxExtension.class)
+public class NearCacheServiceTest {
+
+  private static final String ID = "b58da193-23d9-43eb-b98a-a103d4b6103c";
+  private static final String GROUP_ID = "5b7556b5-0779-4c47-9cf2-3f209779aa22";
+
+  private CacheService cacheService;
+  private NearCacheService nearCache;
+  private MessageConsumer<JsonObject> snapshotConsumer;
+
+  private static JsonObject request(CacheType type, String key) {
+    return new JsonObject().put("type", type).put("key", key);
+  }
+
+  @BeforeEach
+  public void setUp(Vertx vertx, VertxTestContext testContext) {
+    JsonObject item =
+        new JsonObject()
+            .put("id", ID)
+            .put("type", new JsonArray().add("iudx:Resource"))
+            .put("resourceGroup", GROUP_ID);
+    JsonObject group =
+        new JsonObject()
+            .put("id", GROUP_ID)
+            .put("type", new JsonArray().add("iudx:ResourceGroup"))
+            .put("accessPolicy", "OPEN");
+    JsonObject snapshot =
+        new JsonObject()
+            .put(
+                CacheType.REVOKED_CLIENT.name(),
+                new JsonObject().put("client", new JsonObject().put("value", "expiry")))
+            .put(
+                CacheType.CATALOGUE_CACHE.name(),
+                new JsonObject().put(ID, item).put(GROUP_ID, group));
+    snapshotConsumer =
+        vertx.eventBus().consumer(CACHE_SNAPSHOT_ADDRESS, message -> message.reply(snapshot));
+
+    cacheService = mock(CacheService.class);
+    nearCache = new NearCacheService(vertx, cacheService);
+    nearCache.start(60000);
+    vertx.setTimer(100, handler -> testContext.completeNow());
+  }
+
+  @AfterEach
+  public void tearDown() {
+    snapshotConsumer.unregister();
+    nearCache.close();
+  }
+
+  @Test
+  @DisplayName("lookups read from the replica")
+  public void testGetReplicated(VertxTestContext testContext) {
+    JsonObject revoked = nearCache.get(request(CacheType.REVOKED_CLIENT, "client")).result();
+    Future<JsonObject> missing = nearCache.get(request(CacheType.REVOKED_CLIENT, "other"));
+
+    assertEquals("expiry", revoked.getString("value"));
+    assertTrue(missing.failed());
+    verify(cacheService, never()).get(any());
+    testContext.completeNow();
+  }
+
+  @Test
+  @DisplayName("catalogue item resolved against the replicated group")
+  public void testGetCatalogueItem(VertxTestContext testContext) {
+    JsonObject item = nearCache.get(request(CacheType.CATALOGUE_ITEM, ID)).result();
+
+    assertEquals(GROUP_ID, item.getString("resourceGroup"));
+    assertEquals("OPEN", item.getString("accessPolicy"));
+    verify(cacheService, never()).get(any());
+    testContext.completeNow();
+  }
+
+  @Test
+  @DisplayName("caches not replicated and catalogue misses go to the cache verticle")
+  public void testGetDelegated(VertxTestContext testContext) {
+    JsonObject remote = new JsonObject().put("value", "remote");
+    when(cacheService.get(any())).thenReturn(Future.succeededFuture(remote));
+
+    assertEquals(remote, nearCache.get(request(CacheType.UNIQUE_ATTRIBUTE, ID)).result());
+    assertEquals(remote, nearCache.get(request(CacheType.CATALOGUE_CACHE, "unknown")).result());
+    testContext.completeNow();
+  }
+
+  @Test
+  @DisplayName("closed near cache no longer follows published updates")
+  public void testClose(Vertx vertx, VertxTestContext testContext) {
+    JsonObject update =
+        new JsonObject()
+            .put("type", CacheType.REVOKED_CLIENT.name())
+            .put("key", "other")
+            .put("value", new JsonObject().put("value", "later"));
+
+    NearCacheService.close(nearCache)
+        .onComplete(
+            testContext.succeeding(
+                closed -> {
+                  vertx.eventBus().publish(CACHE_UPDATE_ADDRESS, update);
+                  vertx.setTimer(
+                      100,
+                      handler ->
+                          testContext.verify(
+                              () -> {
+                                assertTrue(
+                                    nearCache
+                                        .get(request(CacheType.REVOKED_CLIENT, "other"))
+                                        .failed());
+                                testContext.completeNow();
+                              }));
+                }));
+  }
+
+  @Test
+  @DisplayName("published updates applied to the replica")
+  public void testApply(VertxTestContext testContext) {
+    nearCache.apply(
+        new JsonObject()
+            .put("type", CacheType.REVOKED_CLIENT.name())
+            .put("key", "other")
+            .put("value", new JsonObject().put("value", "later")));
+    nearCache.apply(
+        new JsonObject()
+            .put("type", CacheType.UNIQUE_ATTRIBUTE.name())
+            .put(
+                NearCacheService.ENTRIES,
+                new JsonObject().put(ID, new JsonObject().put("value", "license_plate"))));
+
+    assertEquals(
+        "later",
+        nearCache.get(request(CacheType.REVOKED_CLIENT, "other")).result().getString("value"));
+    assertEquals(
+        "license_plate",
+        nearCache.get(request(CacheType.UNIQUE_ATTRIBUTE, ID)).result().getString("value"));
+    testContext.completeNow();
+  }
+}
@@ -0,0 +1,94 @@
+package iudx.resource.server.cache.cachelmpl;
+
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of reading cached values per lookup, values parsed on every read as the caches used to
+ * against the typed values parsed once when cached.
+ *
+ * <pre>
+ * mvn test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test \
+ *   -Dexec.args="-cp %classpath org.openjdk.jmh.Main CacheValueBenchmark"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CacheValueBenchmark {
+
+  private static final long ISSUED_AT = 1631170000L;
+
+  private CacheValue<JsonObject> parsedPerReadItem;
+  private CacheValue<JsonObject> parsedPerReadRevoked;
+  private CatalogueValue item;
+  private RevokedClientValue revoked;
+
+  @Setup
+  public void setUp() {
+    String itemJson =
+        new JsonObject()
+            .put("id", "b58da193-23d9-43eb-b98a-a103d4b6103c")
+            .put("type", new JsonArray().add("iudx:Resource").add("iudx:TransitManagement"))
+            .put("name", "surat-itms-live-eta")
+            .put("description", "live eta of buses of surat itms")
+            .put("provider", "b2c27f3f-2524-4a84-816e-91f9ab23f837")
+            .put("resourceGroup", "5b7556b5-0779-4c47-9cf2-3f209779aa22")
+            .put("accessPolicy", "SECURE")
+            .put("iudxResourceAPIs", new JsonArray().add("ATTR").add("TEMPORAL").add("SPATIAL"))
+            .toString();
+    String expiry = "2021-09-09T12:52:37";
+    parsedPerReadItem = () -> new JsonObject(itemJson);
+    parsedPerReadRevoked =
+        () -> new JsonObject().put("id", "client").put("expiry", expiry).put("value", expiry);
+    item = new CatalogueValue(itemJson);
+    revoked = new RevokedClientValue("client", expiry);
+  }
+
+  @Benchmark
+  public boolean catalogueParsedPerRead() {
+    JsonObject json = parsedPerReadItem.getValue();
+    boolean isResource = json.getJsonArray("type").contains("iudx:Resource");
+    return isResource
+        && json.getString("resourceGroup") != null
+        && "SECURE".equals(json.getString("accessPolicy"));
+  }
+
+  @Benchmark
+  public boolean catalogueTyped() {
+    return item.getItem().isResource()
+        && item.getItem().getResourceGroup() != null
+        && "SECURE".equals(item.getItem().getAccessPolicy());
+  }
+
+  @Benchmark
+  public boolean revokedParsedPerRead() {
+    String timestamp = parsedPerReadRevoked.getValue().getString("value");
+    LocalDateTime revokedAt = LocalDateTime.parse(timestamp);
+    LocalDateTime issuedAt =
+        LocalDateTime.ofInstant(Instant.ofEpochSecond(ISSUED_AT), ZoneId.systemDefault());
+    return issuedAt.isBefore(revokedAt);
+  }
+
+  @Benchmark
+  public boolean revokedTyped() {
+    return ISSUED_AT * 1000 < revoked.getRevokedAt();
+  }
+}
@@ -1,9 +1,11 @@
 package iudx.resource.server.cache.cachelmpl;
 
 import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
 import io.vertx.core.Handler;
 import io.vertx.core.Vertx;
 import io.vertx.core.buffer.Buffer;
+import io.vertx.core.eventbus.EventBus;
 import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
 import io.vertx.ext.web.client.HttpRequest;
@@ -20,7 +22,11 @@ import org.mockito.invocation.InvocationOnMock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.stubbing.Answer;
 
+import static iudx.resource.server.common.Constants.CACHE_UPDATE_ADDRESS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 @ExtendWith(VertxExtension.class)
@@ -87,5 +93,49 @@ public class CatalogueCacheImplTest {
         vertxTestContext.completeNow();
     }
 
+    @Test
+    @DisplayName("Testing get for unknown id looked up once")
+    void testGetNotFound(VertxTestContext vertxTestContext) {
+        assertTrue(CatalogueCacheImpl.get("unknown").failed());
+        assertTrue(CatalogueCacheImpl.get("unknown").failed());
+        assertTrue(CatalogueCacheImpl.get("abcd/abcd/abcd/abcd").succeeded());
+        verify(httpRequest, times(2)).send(any());
+        vertxTestContext.completeNow();
+    }
 
+    @Test
+    @DisplayName("Testing refreshes in flight shared")
+    void testRefreshSingleFlight(VertxTestContext vertxTestContext) {
+        doAnswer(invocation -> null).when(httpRequest).send(any());
+
+        Future<Void> first = CatalogueCacheImpl.refreshCache();
+        Future<Void> second = CatalogueCacheImpl.refreshCache();
+
+        assertSame(first, second);
+        assertNotNull(CatalogueCacheImpl.entries().get("abcd/abcd/abcd/abcd"));
+        verify(httpRequest, times(2)).send(any());
+        vertxTestContext.completeNow();
+    }
+
+    @Test
+    @DisplayName("Testing item looked up published to near caches")
+    void testGetLookupPublished(VertxTestContext vertxTestContext) {
+        EventBus eventBus = mock(EventBus.class);
+        when(vertxObj.eventBus()).thenReturn(eventBus);
+        when(httpResponse.statusCode()).thenReturn(200);
+        JsonObject item = new JsonObject().put("id", "efgh/efgh/efgh/efgh");
+        when(httpResponse.bodyAsJsonObject())
+            .thenReturn(new JsonObject().put("results", new JsonArray().add(item)));
+
+        assertTrue(CatalogueCacheImpl.get("efgh/efgh/efgh/efgh").succeeded());
+        verify(eventBus)
+            .publish(
+                CACHE_UPDATE_ADDRESS,
+                new JsonObject()
+                    .put("type", "CATALOGUE_CACHE")
+                    .put("key", "efgh/efgh/efgh/efgh")
+                    .put("value", item));
+        assertEquals(item, CatalogueCacheImpl.entries().get("efgh/efgh/efgh/efgh").getValue());
+        vertxTestContext.completeNow();
+    }
 }
@@ -0,0 +1,46 @@
+package iudx.resource.server.cache.cachelmpl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import io.vertx.core.json.JsonObject;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+@ExtendWith(VertxExtension.class)
+public class RevokedClientValueTest {
+
+  @Test
+  @DisplayName("expiry parsed once to epoch millis")
+  public void testRevokedAt(VertxTestContext testContext) {
+    RevokedClientValue value = new RevokedClientValue("client", "2021-09-09T12:52:37");
+    long expected =
+        LocalDateTime.parse("2021-09-09T12:52:37")
+            .atZone(ZoneId.systemDefault())
+            .toInstant()
+            .toEpochMilli();
+
+    JsonObject json = value.getValue();
+    assertEquals(expected, value.getRevokedAt());
+    assertEquals(expected, json.getLong(RevokedClientValue.REVOKED_AT));
+    assertEquals("2021-09-09T12:52:37", json.getString("value"));
+    assertSame(json, value.getValue());
+    testContext.completeNow();
+  }
+
+  @Test
+  @DisplayName("invalid expiry kept as timestamp only")
+  public void testInvalidExpiry(VertxTestContext testContext) {
+    RevokedClientValue value = new RevokedClientValue("client", "2021-09-09T14:04:071");
+
+    assertNull(value.getRevokedAt());
+    assertNull(value.getValue().getValue(RevokedClientValue.REVOKED_AT));
+    testContext.completeNow();
+  }
+}
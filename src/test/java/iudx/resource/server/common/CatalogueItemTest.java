@@ -0,0 +1,99 @@
+package iudx.resource.server.common;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+@ExtendWith(VertxExtension.class)
+public class CatalogueItemTest {
+
+  private static final String ID = "b58da193-23d9-43eb-b98a-a103d4b6103c";
+  private static final String GROUP_ID = "5b7556b5-0779-4c47-9cf2-3f209779aa22";
+
+  private static JsonObject resource() {
+    return new JsonObject()
+        .put("id", ID)
+        .put("type", new JsonArray().add("iudx:Resource").add("iudx:TransitManagement"))
+        .put("resourceGroup", GROUP_ID)
+        .put("provider", "provider-id")
+        .put("iudxResourceAPIs", new JsonArray().add("ATTR").add("TEMPORAL"));
+  }
+
+  private static JsonObject group() {
+    return new JsonObject()
+        .put("id", GROUP_ID)
+        .put("type", new JsonArray().add("iudx:ResourceGroup"))
+        .put("accessPolicy", "OPEN")
+        .put("iudxResourceAPIs", new JsonArray().add("SPATIAL").add("ATTR"));
+  }
+
+  @Test
+  @DisplayName("resource resolved against its group")
+  public void testResolve(VertxTestContext testContext) {
+    CatalogueItem item = CatalogueItem.resolve(resource(), group());
+
+    assertTrue(item.isResource());
+    assertEquals(Set.of("Resource"), item.getTypes());
+    assertEquals(GROUP_ID, item.getResourceGroup());
+    assertEquals("provider-id", item.getProvider());
+    assertEquals("OPEN", item.getAccessPolicy());
+    assertEquals(List.of("SPATIAL", "ATTR", "TEMPORAL"), item.getApplicableFilters());
+    testContext.completeNow();
+  }
+
+  @Test
+  @DisplayName("access policy of the item takes precedence over its group")
+  public void testResolveItemPolicy(VertxTestContext testContext) {
+    CatalogueItem item = CatalogueItem.resolve(resource().put("accessPolicy", "SECURE"), group());
+
+    assertEquals("SECURE", item.getAccessPolicy());
+    testContext.completeNow();
+  }
+
+  @Test
+  @DisplayName("resource resolved without group")
+  public void testResolveWithoutGroup(VertxTestContext testContext) {
+    CatalogueItem item = CatalogueItem.resolve(resource(), null);
+
+    assertNull(item.getAccessPolicy());
+    assertEquals(List.of("ATTR", "TEMPORAL"), item.getApplicableFilters());
+    testContext.completeNow();
+  }
+
+  @Test
+  @DisplayName("group is its own resource group")
+  public void testResolveGroup(VertxTestContext testContext) {
+    CatalogueItem item = CatalogueItem.resolve(group(), null);
+
+    assertFalse(item.isResource());
+    assertEquals(GROUP_ID, item.getResourceGroup());
+    assertEquals("OPEN", item.getAccessPolicy());
+    testContext.completeNow();
+  }
+
+  @Test
+  @DisplayName("json round trip and index name")
+  public void testJsonAndIndex(VertxTestContext testContext) {
+    CatalogueItem item =
+        CatalogueItem.fromJson(CatalogueItem.resolve(resource(), group()).toJson());
+
+    assertTrue(item.isResource());
+    assertEquals(ID, item.getId());
+    assertEquals("OPEN", item.getAccessPolicy());
+    assertEquals(List.of("SPATIAL", "ATTR", "TEMPORAL"), item.getApplicableFilters());
+    assertEquals("iudx__" + GROUP_ID, item.getIndexName("iudx"));
+    assertEquals(GROUP_ID, item.getIndexName("none"));
+    testContext.completeNow();
+  }
+}
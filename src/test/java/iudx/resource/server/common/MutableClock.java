@@ -0,0 +1,39 @@
+package iudx.resource.server.common;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+/** UTC clock for tests, which only moves when it is set or advanced. */
+public final class MutableClock extends Clock {
+
+  private Instant instant;
+
+  public MutableClock(Instant instant) {
+    this.instant = instant;
+  }
+
+  public void set(Instant instant) {
+    this.instant = instant;
+  }
+
+  public void advance(long millis) {
+    instant = instant.plusMillis(millis);
+  }
+
+  @Override
+  public ZoneId getZone() {
+    return ZoneOffset.UTC;
+  }
+
+  @Override
+  public Clock withZone(ZoneId zone) {
+    return this;
+  }
+
+  @Override
+  public Instant instant() {
+    return instant;
+  }
+}
@@ -0,0 +1,211 @@
+package iudx.resource.server.database.archives;
+
+import static iudx.resource.server.database.archives.Constants.MAX_CURSOR_INDICES;
+import static iudx.resource.server.database.archives.Constants.MAX_TOTAL_HITS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.vertx.core.Future;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import iudx.resource.server.cache.CacheService;
+import iudx.resource.server.database.elastic.ElasticClient;
+import iudx.resource.server.database.elastic.IndexResolver;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith({MockitoExtension.class, VertxExtension.class})
+public class TestDatabaseServiceImpl {
+
+  private static final String TIME_LIMIT = "test,2020-10-22T00:00:00Z,10";
+
+  @Mock ElasticClient elasticClient;
+  @Mock CacheService cacheService;
+
+  @BeforeEach
+  public void setUp() {
+    // every id is a resource of its own resource group
+    lenient()
+        .when(cacheService.get(any()))
+        .thenAnswer(
+            invocation -> {
+              String id = invocation.<JsonObject>getArgument(0).getString("key");
+              return Future.succeededFuture(
+                  new JsonObject()
+                      .put("id", id)
+                      .put("type", new JsonArray().add("iudx:Resource"))
+                      .put("resourceGroup", "rg-" + id));
+            });
+  }
+
+  private JsonObject cursorRequest(int ids, String time, String endTime) {
+    JsonArray idArray = new JsonArray();
+    for (int i = 0; i < ids; i++) {
+      idArray.add("id-" + i);
+    }
+    return new JsonObject()
+        .put("id", idArray)
+        .put("searchType", "temporalSearch_")
+        .put("timerel", "during")
+        .put("time", time)
+        .put("endtime", endTime)
+        .put("cursor", "*")
+        .put("applicableFilters", new JsonArray().add("TEMPORAL"));
+  }
+
+  @Test
+  @DisplayName("Test cursor over more ids than the max cursor indices is rejected")
+  public void testCursorOverManyIds(VertxTestContext vertxTestContext) {
+    DatabaseServiceImpl databaseService =
+        new DatabaseServiceImpl(elasticClient, TIME_LIMIT, "iudx", cacheService);
+
+    databaseService
+        .search(
+            cursorRequest(
+                MAX_CURSOR_INDICES + 1, "2020-01-15T10:00:00Z", "2020-01-16T00:00:00Z"))
+        .onComplete(
+            vertxTestContext.failing(
+                failure ->
+                    vertxTestContext.verify(
+                        () -> {
+                          JsonObject response = new JsonObject(failure.getMessage());
+                          assertEquals(400, response.getInteger("type"));
+                          assertTrue(response.getString("detail").contains("cursor"));
+                          verify(elasticClient, never())
+                              .asyncCursorSearch(anyString(), any(), anyInt(), any(), any());
+                          vertxTestContext.completeNow();
+                        })));
+  }
+
+  @Test
+  @DisplayName("Test cursor over ids times partitions beyond the max cursor indices is rejected")
+  public void testCursorOverManyPartitions(VertxTestContext vertxTestContext) {
+    DatabaseServiceImpl databaseService =
+        new DatabaseServiceImpl(
+            elasticClient,
+            TIME_LIMIT,
+            "iudx",
+            cacheService,
+            false,
+            null,
+            new IndexResolver(IndexResolver.MONTHLY, 24));
+
+    // 2 ids over 13 monthly partitions each
+    databaseService
+        .search(cursorRequest(2, "2020-01-15T10:00:00Z", "2021-01-15T00:00:00Z"))
+        .onComplete(
+            vertxTestContext.failing(
+                failure ->
+                    vertxTestContext.verify(
+                        () -> {
+                          assertEquals(
+                              400, new JsonObject(failure.getMessage()).getInteger("type"));
+                          verify(elasticClient, never())
+                              .asyncCursorSearch(anyString(), any(), anyInt(), any(), any());
+                          vertxTestContext.completeNow();
+                        })));
+  }
+
+  @Test
+  @DisplayName("Test cursor over ids times partitions within the max cursor indices")
+  public void testCursorWithinMaxIndices(VertxTestContext vertxTestContext) {
+    DatabaseServiceImpl databaseService =
+        new DatabaseServiceImpl(
+            elasticClient,
+            TIME_LIMIT,
+            "iudx",
+            cacheService,
+            false,
+            null,
+            new IndexResolver(IndexResolver.MONTHLY, 24));
+    String searchIndex =
+        "iudx__rg-id-0-2020.01*,iudx__rg-id-0-2020.02*,"
+            + "iudx__rg-id-1-2020.01*,iudx__rg-id-1-2020.02*";
+    when(elasticClient.asyncCursorSearch(eq(searchIndex), any(), anyInt(), any(), isNull()))
+        .thenReturn(Future.succeededFuture(new JsonObject().put("results", new JsonArray())));
+
+    databaseService
+        .search(cursorRequest(2, "2020-01-15T10:00:00Z", "2020-02-15T00:00:00Z"))
+        .onComplete(vertxTestContext.succeedingThenComplete());
+  }
+
+  private JsonObject geoRequest() {
+    return new JsonObject()
+        .put("id", new JsonArray().add("b58da193-23d9-43eb-b98a-a103d4b6103c"))
+        .put("searchType", "geoSearch_")
+        .put("lon", 72.8296)
+        .put("lat", 21.2)
+        .put("radius", 1000)
+        .put("applicableFilters", new JsonArray().add("ATTR").add("TEMPORAL").add("SPATIAL"));
+  }
+
+  @Test
+  @DisplayName("Test search without separate count request")
+  public void testSearchWithoutCountRequest(VertxTestContext vertxTestContext) {
+    DatabaseServiceImpl databaseService =
+        new DatabaseServiceImpl(elasticClient, TIME_LIMIT, "iudx", cacheService, false);
+    JsonObject esJson =
+        new JsonObject()
+            .put("type", "urn:dx:rs:success")
+            .put("title", "Success")
+            .put("results", new JsonArray())
+            .put("totalHits", 12L);
+    when(elasticClient.asyncSearch(
+            anyString(), any(), anyInt(), anyInt(), any(), eq(MAX_TOTAL_HITS + 1)))
+        .thenReturn(Future.succeededFuture(esJson));
+
+    databaseService
+        .search(geoRequest())
+        .onComplete(
+            vertxTestContext.succeeding(
+                response ->
+                    vertxTestContext.verify(
+                        () -> {
+                          assertEquals(12L, response.getLong("totalHits"));
+                          verify(elasticClient, never()).asyncCount(anyString(), any());
+                          vertxTestContext.completeNow();
+                        })));
+  }
+
+  @Test
+  @DisplayName("Test search without separate count request beyond hits limit")
+  public void testSearchWithoutCountRequestPayloadTooLarge(VertxTestContext vertxTestContext) {
+    DatabaseServiceImpl databaseService =
+        new DatabaseServiceImpl(elasticClient, TIME_LIMIT, "iudx", cacheService, false);
+    JsonObject esJson =
+        new JsonObject()
+            .put("type", "urn:dx:rs:success")
+            .put("title", "Success")
+            .put("results", new JsonArray())
+            .put("totalHits", (long) MAX_TOTAL_HITS + 1);
+    when(elasticClient.asyncSearch(anyString(), any(), anyInt(), anyInt(), any(), anyInt()))
+        .thenReturn(Future.succeededFuture(esJson));
+
+    databaseService
+        .search(geoRequest())
+        .onComplete(
+            vertxTestContext.failing(
+                failure ->
+                    vertxTestContext.verify(
+                        () -> {
+                          assertEquals(
+                              413, new JsonObject(failure.getMessage()).getInteger("type"));
+                          vertxTestContext.completeNow();
+                        })));
+  }
+}
@@ -0,0 +1,93 @@
+package iudx.resource.server.database.archives;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.vertx.core.Future;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.streams.WriteStream;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import iudx.resource.server.cache.CacheService;
+import iudx.resource.server.database.elastic.ElasticClient;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith({MockitoExtension.class, VertxExtension.class})
+public class TestStreamingSearchService {
+
+  private static final String ID = "b58da193-23d9-43eb-b98a-a103d4b6103c";
+
+  @Mock ElasticClient elasticClient;
+  @Mock CacheService cacheService;
+  @Mock WriteStream<Buffer> writeStream;
+
+  @BeforeEach
+  public void setUp() {
+    when(cacheService.get(any()))
+        .thenReturn(
+            Future.succeededFuture(
+                new JsonObject()
+                    .put("id", ID)
+                    .put("type", new JsonArray().add("iudx:Resource"))
+                    .put("resourceGroup", "rg")));
+  }
+
+  @Test
+  @DisplayName("Test search stream answers 204 when the count is 0")
+  public void testSearchStreamNoHits(VertxTestContext vertxTestContext) {
+    StreamingSearchService streamingSearch =
+        new StreamingSearchService(
+            elasticClient, "test,2020-10-22T00:00:00Z,10", "iudx", cacheService, true, null, null);
+    JsonObject countJson =
+        new JsonObject()
+            .put("results", new JsonArray().add(new JsonObject().put("totalHits", 0)));
+    when(elasticClient.asyncCount(anyString(), any()))
+        .thenReturn(Future.succeededFuture(countJson));
+    JsonObject request =
+        new JsonObject()
+            .put("id", new JsonArray().add(ID))
+            .put("searchType", "geoSearch_")
+            .put("lon", 72.8296)
+            .put("lat", 21.2)
+            .put("radius", 1000)
+            .put("applicableFilters", new JsonArray().add("ATTR").add("TEMPORAL").add("SPATIAL"));
+
+    streamingSearch
+        .searchStream(request, writeStream)
+        .onComplete(
+            vertxTestContext.failing(
+                failure ->
+                    vertxTestContext.verify(
+                        () -> {
+                          assertEquals(
+                              204, new JsonObject(failure.getMessage()).getInteger("type"));
+                          verify(elasticClient, never())
+                              .asyncSearchStream(
+                                  anyString(),
+                                  any(),
+                                  anyInt(),
+                                  anyInt(),
+                                  any(),
+                                  any(),
+                                  any(),
+                                  anyLong(),
+                                  any(),
+                                  any());
+                          verify(writeStream, never()).write(any());
+                          vertxTestContext.completeNow();
+                        })));
+  }
+}
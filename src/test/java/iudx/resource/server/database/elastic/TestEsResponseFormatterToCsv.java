@@ -1,128 +1,174 @@
 package iudx.resource.server.database.elastic;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.*;
 
 import co.elastic.clients.elasticsearch.core.search.Hit;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
-import io.vertx.core.Vertx;
 import io.vertx.core.json.JsonObject;
 import io.vertx.junit5.VertxExtension;
 import io.vertx.junit5.VertxTestContext;
-import iudx.resource.server.configuration.Configuration;
 import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
-import java.util.*;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.Mock;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 @ExtendWith({MockitoExtension.class, VertxExtension.class})
 public class TestEsResponseFormatterToCsv {
-    @Mock
-    FileWriter fileWriter;
-    private EsResponseFormatterToCsv responseFormatterToCsv;
-    private File file;
-    private Configuration configuration;
-    private JsonObject config;
-    @Mock
-    private List<Hit<ObjectNode>> searchHits;
-    @Mock
-    private Hit<ObjectNode> objectNodeHit;
-    @Mock
-    private ObjectNode objectNode;
-    private Set<String> stringSet;
-    private JsonFlatten jsonFlatten;
-    @Mock
-    private Map<String, Object> map;
-    private LinkedHashMap<String, Object> stringObjectMap;
-
-
-    @BeforeEach
-    public void setUp(VertxTestContext vertxTestContext)
-    {
-        configuration = new Configuration();
-        config = configuration.configLoader(8, Vertx.vertx());
-        String filePath = config.getString("filePath") + "dummy_file" + "." + "csv";
-        file = new File(filePath);
-        EsResponseFormatterToCsv.jsonFlatten = mock(JsonFlatten.class);
-        jsonFlatten = EsResponseFormatterToCsv.jsonFlatten;
-        EsResponseFormatterToCsv.map = mock(LinkedHashMap.class);
-        stringObjectMap = EsResponseFormatterToCsv.map;
-        stringSet = new HashSet<>(Arrays.asList("header1" ,"header2", "header3", "header4"));
-        lenient().when(searchHits.get(anyInt())).thenReturn(objectNodeHit);
-        lenient().when(objectNodeHit.source()).thenReturn(objectNode);
-        lenient().when(jsonFlatten.flatten()).thenReturn(stringObjectMap);
-        lenient().when(stringObjectMap.keySet()).thenReturn(stringSet);
-        responseFormatterToCsv = new EsResponseFormatterToCsv(file);
-        vertxTestContext.completeNow();
-    }
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+  @TempDir Path tempDir;
+  private File file;
+  private EsResponseFormatterToCsv responseFormatterToCsv;
 
-    @Test
-    @DisplayName("Test method : Success")
-    public void testWriteMethod(VertxTestContext vertxTestContext)
-    {
-        responseFormatterToCsv.write(searchHits);
-        verify(searchHits, times(1)).get(anyInt());
-        verify(jsonFlatten,times(1)).flatten();
-        verify(stringObjectMap,times(1)).keySet();
-        vertxTestContext.completeNow();
-    }
-    @Test
-    @DisplayName("Test method : Failure")
-    public void testWriteMethodFailure(VertxTestContext vertxTestContext) throws IOException {
-        responseFormatterToCsv.write(searchHits);
-        responseFormatterToCsv.fileWriter = mock(fileWriter.getClass());
-        doThrow(new IOException()).when(responseFormatterToCsv.fileWriter).write(anyString());
-
-        verify(searchHits, times(1)).get(anyInt());
-        verify(jsonFlatten,times(1)).flatten();
-        verify(stringObjectMap,times(1)).keySet();
-
-        assertThrows(RuntimeException.class,()-> responseFormatterToCsv.write(searchHits));
-        vertxTestContext.completeNow();
+  private static List<Hit<ObjectNode>> hits(String... sources) throws IOException {
+    List<Hit<ObjectNode>> hits = new ArrayList<>();
+    for (String source : sources) {
+      ObjectNode node = (ObjectNode) MAPPER.readTree(source);
+      hits.add(Hit.of(h -> h.index("index").id("id").source(node)));
     }
+    return hits;
+  }
+
+  private List<String> lines() throws IOException {
+    return Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+  }
+
+  @BeforeEach
+  public void setUp(VertxTestContext vertxTestContext) {
+    file = tempDir.resolve("dummy_file.csv").toFile();
+    responseFormatterToCsv = new EsResponseFormatterToCsv(file);
+    vertxTestContext.completeNow();
+  }
+
+  @Test
+  @DisplayName("Test write, append and finish : flattened columns")
+  public void testWriteFlattened(VertxTestContext vertxTestContext) throws IOException {
+    List<Hit<ObjectNode>> first =
+        hits(
+            "{\"id\":\"a\",\"location\":{\"type\":\"Point\",\"coordinates\":[73.1,18.5]},\"v\":1}",
+            "{\"id\":\"b\",\"v\":2.5,\"ok\":true}");
+    responseFormatterToCsv.write(first);
+    responseFormatterToCsv.append(first);
+    responseFormatterToCsv.append(hits("{\"ok\":false,\"id\":\"c\",\"v\":null}"));
+    responseFormatterToCsv.finish();
+
+    assertEquals(
+        List.of(
+            "id,location.type,location.coordinates.0,location.coordinates.1,v,ok,_unmapped",
+            "a,Point,73.1,18.5,1,,",
+            "b,,,,2.5,true,",
+            "c,,,,,false,"),
+        lines());
+    vertxTestContext.completeNow();
+  }
+
+  @Test
+  @DisplayName("Test append method : quoting and unknown columns")
+  public void testAppendQuoting(VertxTestContext vertxTestContext) throws IOException {
+    List<Hit<ObjectNode>> first = hits("{\"id\":\"a\",\"name\":\"x\"}");
+    responseFormatterToCsv.write(first);
+    responseFormatterToCsv.append(
+        hits("{\"id\":\"a,b\",\"name\":\"say \\\"hi\\\"\",\"extra\":1}"));
+    responseFormatterToCsv.finish();
 
-    @Test
-    @DisplayName("Test finish method : Success")
-    public void testFinish(VertxTestContext vertxTestContext) throws IOException {
-        responseFormatterToCsv.fileWriter = mock(fileWriter.getClass());
-        responseFormatterToCsv.finish();
-        verify(responseFormatterToCsv.fileWriter, times(1)).close();
-        vertxTestContext.completeNow();
+    assertEquals(
+        List.of("id,name,_unmapped", "\"a,b\",\"say \"\"hi\"\"\",\"{\"\"extra\"\":1}\""),
+        lines());
+    vertxTestContext.completeNow();
+  }
+
+  @Test
+  @DisplayName("Test append method : columns missing in first batch kept in unmapped column")
+  public void testAppendUnmapped(VertxTestContext vertxTestContext) throws IOException {
+    responseFormatterToCsv.write(hits("{\"id\":\"a\",\"loc\":{\"c\":[1.5]}}"));
+    responseFormatterToCsv.append(
+        hits(
+            "{\"id\":\"b\",\"loc\":{\"c\":[2.5,3.5],\"t\":\"P\"},\"speed\":4,\"x\":null}",
+            "{\"id\":\"c\",\"loc\":{\"c\":[5]}}"));
+    responseFormatterToCsv.finish();
+
+    List<String> csvLines = lines();
+    assertEquals("id,loc.c.0,_unmapped", csvLines.get(0));
+    assertEquals("c,5,", csvLines.get(2));
+    String unmapped = csvLines.get(1).substring("b,2.5,".length());
+    assertEquals(
+        new JsonObject().put("loc.c.1", 3.5).put("loc.t", "P").put("speed", 4),
+        new JsonObject(unmapped.substring(1, unmapped.length() - 1).replace("\"\"", "\"")));
+    vertxTestContext.completeNow();
+  }
+
+  @Test
+  @DisplayName("Test formatters : parallel downloads don't share state")
+  public void testParallel(VertxTestContext vertxTestContext) throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    List<Future<List<String>>> results = new ArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      final String column = "col" + i;
+      final File csv = tempDir.resolve("parallel" + i + ".csv").toFile();
+      results.add(
+          executor.submit(
+              () -> {
+                EsResponseFormatterToCsv formatter = new EsResponseFormatterToCsv(csv);
+                List<Hit<ObjectNode>> batch = hits("{\"" + column + "\":\"v\"}");
+                formatter.write(batch);
+                for (int j = 0; j < 100; j++) {
+                  formatter.append(batch);
+                }
+                formatter.finish();
+                return Files.readAllLines(csv.toPath());
+              }));
     }
-    @Test
-    @DisplayName("Test finish method : Failure")
-    public void testFinishFailure(VertxTestContext vertxTestContext) throws IOException {
-        responseFormatterToCsv.fileWriter = mock(fileWriter.getClass());
-        doThrow(new IOException()).when(responseFormatterToCsv.fileWriter).close();
-        assertThrows(RuntimeException.class,()-> responseFormatterToCsv.finish());
-        verify(responseFormatterToCsv.fileWriter, times(1)).close();
-        vertxTestContext.completeNow();
+    for (int i = 0; i < 4; i++) {
+      List<String> csvLines = results.get(i).get();
+      assertEquals("col" + i + ",_unmapped", csvLines.get(0));
+      assertEquals(101, csvLines.size());
     }
+    executor.shutdown();
+    vertxTestContext.completeNow();
+  }
 
-    @Test
-    @DisplayName("Test appendToCsvFile method : Success")
-    public void testAppend(VertxTestContext vertxTestContext)
-    {
-        when(map.get(anyString())).thenReturn("dummy");
-        responseFormatterToCsv.appendToCsvFile(map,stringSet);
-        verify(map, times(stringSet.size())).get(anyString());
-        vertxTestContext.completeNow();
-    }
+  @Test
+  @DisplayName("Test write method : Failure")
+  public void testWriteMethodFailure(VertxTestContext vertxTestContext) throws IOException {
+    responseFormatterToCsv.fileWriter = mock(Writer.class);
+    doThrow(new IOException()).when(responseFormatterToCsv.fileWriter).write(anyInt());
 
-    @Test
-    @DisplayName("Test appendToCsvFile method : Failure")
-    public void testAppendFailure(VertxTestContext vertxTestContext) throws IOException {
-        responseFormatterToCsv.fileWriter = mock(fileWriter.getClass());
-        when(responseFormatterToCsv.fileWriter.append(anyString())).thenThrow(IOException.class);
-        when(map.get(anyString())).thenReturn("dummy");
-        assertThrows(RuntimeException.class,()-> responseFormatterToCsv.appendToCsvFile(map,stringSet));
-        vertxTestContext.completeNow();
-    }
+    assertThrows(RuntimeException.class, () -> responseFormatterToCsv.write(hits("{\"a\":1}")));
+    vertxTestContext.completeNow();
+  }
+
+  @Test
+  @DisplayName("Test finish method : Success")
+  public void testFinish(VertxTestContext vertxTestContext) throws IOException {
+    responseFormatterToCsv.fileWriter = mock(Writer.class);
+    responseFormatterToCsv.finish();
+    verify(responseFormatterToCsv.fileWriter, times(1)).close();
+    vertxTestContext.completeNow();
+  }
+
+  @Test
+  @DisplayName("Test finish method : Failure")
+  public void testFinishFailure(VertxTestContext vertxTestContext) throws IOException {
+    responseFormatterToCsv.fileWriter = mock(Writer.class);
+    doThrow(new IOException()).when(responseFormatterToCsv.fileWriter).close();
+    assertThrows(RuntimeException.class, () -> responseFormatterToCsv.finish());
+    verify(responseFormatterToCsv.fileWriter, times(1)).close();
+    vertxTestContext.completeNow();
+  }
 }
@@ -1,79 +1,136 @@
 package iudx.resource.server.database.elastic;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.*;
 
 import co.elastic.clients.elasticsearch.core.search.Hit;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
 import com.fasterxml.jackson.databind.node.ObjectNode;
-import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
 import io.vertx.junit5.VertxExtension;
 import io.vertx.junit5.VertxTestContext;
-import iudx.resource.server.configuration.Configuration;
 import java.io.File;
-import java.io.FileWriter;
+import java.io.FileInputStream;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.zip.GZIPInputStream;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.Mock;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 @ExtendWith({MockitoExtension.class, VertxExtension.class})
 public class TestEsResponseFormatterToJson {
-    @Mock
-    List<Hit<ObjectNode>> searchHits;
-    private EsResponseFormatterToJson responseFormatterToJson;
-
-    @BeforeEach
-    public void setUp(VertxTestContext vertxTestContext)
-    {
-        Configuration configuration = new Configuration();
-        JsonObject config = configuration.configLoader(8, Vertx.vertx());
-        String filePath = config.getString("filePath") + "dummy_file" + ".json";
-        File file = new File(filePath);
-        responseFormatterToJson = new EsResponseFormatterToJson(file);
-        responseFormatterToJson.fileWriter = mock(FileWriter.class);
-
-        vertxTestContext.completeNow();
-    }
+  @TempDir Path tempDir;
+  private File file;
 
-    @Test
-    @DisplayName("Test write method : Success")
-    public void testWrite(VertxTestContext vertxTestContext) throws IOException {
-        responseFormatterToJson.write(searchHits);
-        verify(responseFormatterToJson.fileWriter,times(1)).write('[');
-        vertxTestContext.completeNow();
+  private static List<Hit<ObjectNode>> hits(int from, int count) {
+    List<Hit<ObjectNode>> hits = new ArrayList<>();
+    for (int i = from; i < from + count; i++) {
+      ObjectNode source =
+          JsonNodeFactory.instance.objectNode().put("id", "id-" + i).put("name", "né" + i);
+      hits.add(Hit.of(h -> h.index("index").id(source.get("id").asText()).source(source)));
     }
+    return hits;
+  }
+
+  private static void writeAll(EsResponseFormatter formatter) {
+    List<Hit<ObjectNode>> first = hits(0, 2);
+    formatter.write(first);
+    formatter.append(first);
+    formatter.append(hits(2, 2));
+    formatter.finish();
+  }
+
+  @BeforeEach
+  public void setUp(VertxTestContext vertxTestContext) {
+    file = tempDir.resolve("dummy_file.json").toFile();
+    vertxTestContext.completeNow();
+  }
+
+  @Test
+  @DisplayName("Test write, append and finish : JSON array across batches")
+  public void testJsonArray(VertxTestContext vertxTestContext) throws IOException {
+    writeAll(new EsResponseFormatterToJson(file));
+
+    JsonArray result =
+        new JsonArray(new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8));
+    assertEquals(4, result.size());
+    assertEquals("id-3", result.getJsonObject(3).getString("id"));
+    assertEquals("né2", result.getJsonObject(2).getString("name"));
+    vertxTestContext.completeNow();
+  }
+
+  @Test
+  @DisplayName("Test write, append and finish : empty JSON array")
+  public void testJsonArrayEmpty(VertxTestContext vertxTestContext) throws IOException {
+    EsResponseFormatterToJson formatter = new EsResponseFormatterToJson(file);
+    formatter.write(new ArrayList<>());
+    formatter.finish();
 
-    @Test
-    @DisplayName("Test write method : Failure")
-    public void testWriteFailure(VertxTestContext vertxTestContext) throws IOException {
-        doThrow(IOException.class).when(responseFormatterToJson.fileWriter).write('[');
-        assertThrows(RuntimeException.class, ()-> responseFormatterToJson.write(searchHits));
-        vertxTestContext.completeNow();
+    assertEquals("[]", Files.readString(file.toPath()));
+    vertxTestContext.completeNow();
+  }
+
+  @Test
+  @DisplayName("Test write, append and finish : NDJSON")
+  public void testNdjson(VertxTestContext vertxTestContext) throws IOException {
+    writeAll(new EsResponseFormatterToJson(file, true, false));
+
+    List<String> lines = Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+    assertEquals(4, lines.size());
+    for (int i = 0; i < lines.size(); i++) {
+      assertEquals("id-" + i, new JsonObject(lines.get(i)).getString("id"));
     }
+    vertxTestContext.completeNow();
+  }
+
+  @Test
+  @DisplayName("Test write, append and finish : gzipped NDJSON")
+  public void testNdjsonGzip(VertxTestContext vertxTestContext) throws IOException {
+    file = tempDir.resolve("dummy_file.ndjson.gz").toFile();
+    writeAll(new EsResponseFormatterFactory("ndjson", file).createInstance());
 
-    @Test
-    @DisplayName("Test finish method : Success")
-    public void testFinish(VertxTestContext vertxTestContext) throws IOException {
-        responseFormatterToJson.finish();
-        verify(responseFormatterToJson.fileWriter,times(1)).write(']');
-        verify(responseFormatterToJson.fileWriter,times(1)).close();
-        vertxTestContext.completeNow();
+    String content;
+    try (GZIPInputStream in = new GZIPInputStream(new FileInputStream(file))) {
+      content = new String(in.readAllBytes(), StandardCharsets.UTF_8);
     }
+    String[] lines = content.split("\n");
+    assertEquals(4, lines.length);
+    assertEquals("id-1", new JsonObject(lines[1]).getString("id"));
+    vertxTestContext.completeNow();
+  }
 
-    @Test
-    @DisplayName("Test finish method : Failure")
-    public void testFinishFailure(VertxTestContext vertxTestContext) throws IOException {
-        doThrow(IOException.class).when(responseFormatterToJson.fileWriter).close();
+  @Test
+  @DisplayName("Test write method : Failure")
+  public void testWriteFailure(VertxTestContext vertxTestContext) throws IOException {
+    EsResponseFormatterToJson formatter = new EsResponseFormatterToJson(file);
+    formatter.generator = mock(JsonGenerator.class);
+    doThrow(IOException.class).when(formatter.generator).writeStartArray();
+    assertThrows(RuntimeException.class, () -> formatter.write(hits(0, 1)));
+    vertxTestContext.completeNow();
+  }
 
-        assertThrows(RuntimeException.class,()-> responseFormatterToJson.finish());
+  @Test
+  @DisplayName("Test finish method : Failure")
+  public void testFinishFailure(VertxTestContext vertxTestContext) throws IOException {
+    EsResponseFormatterToJson formatter = new EsResponseFormatterToJson(file);
+    formatter.generator = mock(JsonGenerator.class);
+    doThrow(IOException.class).when(formatter.generator).close();
 
-        verify(responseFormatterToJson.fileWriter,times(1)).write(']');
-        verify(responseFormatterToJson.fileWriter,times(1)).close();
-        vertxTestContext.completeNow();
-    }
+    assertThrows(RuntimeException.class, () -> formatter.finish());
+
+    verify(formatter.generator, times(1)).writeEndArray();
+    verify(formatter.generator, times(1)).close();
+    vertxTestContext.completeNow();
+  }
 }
@@ -0,0 +1,132 @@
+package iudx.resource.server.database.elastic;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import co.elastic.clients.elasticsearch.core.search.Hit;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.vertx.core.json.JsonObject;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.parquet.example.data.Group;
+import org.apache.parquet.hadoop.ParquetReader;
+import org.apache.parquet.hadoop.example.GroupReadSupport;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith({MockitoExtension.class, VertxExtension.class})
+public class TestEsResponseFormatterToParquet {
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+  @TempDir Path tempDir;
+  private File file;
+
+  private static List<Hit<ObjectNode>> hits(String... sources) throws IOException {
+    List<Hit<ObjectNode>> hits = new ArrayList<>();
+    for (String source : sources) {
+      ObjectNode node = (ObjectNode) MAPPER.readTree(source);
+      hits.add(Hit.of(h -> h.index("index").id("id").source(node)));
+    }
+    return hits;
+  }
+
+  private List<Group> read() throws IOException {
+    List<Group> rows = new ArrayList<>();
+    try (ParquetReader<Group> reader =
+        ParquetReader.builder(new GroupReadSupport(), new org.apache.hadoop.fs.Path(file.toURI()))
+            .withConf(new Configuration())
+            .build()) {
+      Group row;
+      while ((row = reader.read()) != null) {
+        rows.add(row);
+      }
+    }
+    return rows;
+  }
+
+  private static PrimitiveTypeName primitive(MessageType schema, String... path) {
+    return schema.getType(path).asPrimitiveType().getPrimitiveTypeName();
+  }
+
+  @BeforeEach
+  public void setUp(VertxTestContext vertxTestContext) {
+    file = tempDir.resolve("dummy_file.parquet").toFile();
+    vertxTestContext.completeNow();
+  }
+
+  @Test
+  @DisplayName("Test schema inference from first batch")
+  public void testSchema(VertxTestContext vertxTestContext) throws IOException {
+    MessageType schema =
+        JsonNodeWriteSupport.infer(
+                List.of(
+                    MAPPER.readTree(
+                        "{\"id\":\"a\",\"v\":1,\"ok\":true,\"loc\":{\"coordinates\":[73.1,18]},"
+                            + "\"tags\":[{\"k\":1}],\"empty\":{}}"),
+                    MAPPER.readTree("{\"v\":2.5,\"n\":null}")))
+            .getSchema();
+
+    assertEquals(PrimitiveTypeName.BINARY, primitive(schema, "id"));
+    assertEquals(PrimitiveTypeName.DOUBLE, primitive(schema, "v"));
+    assertEquals(PrimitiveTypeName.BOOLEAN, primitive(schema, "ok"));
+    assertEquals(
+        PrimitiveTypeName.DOUBLE, primitive(schema, "loc", "coordinates", "list", "element"));
+    assertEquals(PrimitiveTypeName.BINARY, primitive(schema, "tags"));
+    assertEquals(PrimitiveTypeName.BINARY, primitive(schema, "empty"));
+    assertEquals(PrimitiveTypeName.BINARY, primitive(schema, "n"));
+    assertEquals(
+        EsResponseFormatter.UNMAPPED_FIELD,
+        schema.getFields().get(schema.getFieldCount() - 1).getName());
+    vertxTestContext.completeNow();
+  }
+
+  @Test
+  @DisplayName("Test write, append and finish : rows written and read back")
+  public void testWriteAndRead(VertxTestContext vertxTestContext) throws IOException {
+    EsResponseFormatter formatter =
+        new EsResponseFormatterFactory("parquet", file).createInstance();
+    List<Hit<ObjectNode>> first =
+        hits(
+            "{\"id\":\"a\",\"v\":1,\"location\":{\"type\":\"Point\",\"coordinates\":[73.1,18.5]}}",
+            "{\"id\":\"b\",\"v\":2}");
+    formatter.write(first);
+    formatter.append(first);
+    formatter.append(
+        hits(
+            "{\"id\":\"c\",\"v\":\"high\",\"extra\":{\"x\":1},"
+                + "\"location\":{\"type\":\"Point\",\"z\":true}}"));
+    formatter.finish();
+
+    List<Group> rows = read();
+    assertEquals(3, rows.size());
+    assertEquals("a", rows.get(0).getString("id", 0));
+    assertEquals(1L, rows.get(0).getLong("v", 0));
+    Group location = rows.get(0).getGroup("location", 0);
+    assertEquals("Point", location.getString("type", 0));
+    assertEquals(
+        18.5, location.getGroup("coordinates", 0).getGroup("list", 1).getDouble("element", 0));
+    assertEquals(0, rows.get(1).getFieldRepetitionCount("location"));
+    assertEquals(0, rows.get(0).getFieldRepetitionCount(EsResponseFormatter.UNMAPPED_FIELD));
+
+    Group third = rows.get(2);
+    assertEquals(0, third.getFieldRepetitionCount("v"));
+    JsonObject unmapped = new JsonObject(third.getString(EsResponseFormatter.UNMAPPED_FIELD, 0));
+    assertEquals("high", unmapped.getString("v"));
+    assertEquals(1, unmapped.getJsonObject("extra").getInteger("x"));
+    assertEquals(true, unmapped.getBoolean("location.z"));
+    assertNull(unmapped.getValue("id"));
+    vertxTestContext.completeNow();
+  }
+}
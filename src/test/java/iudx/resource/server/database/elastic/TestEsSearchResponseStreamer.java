@@ -0,0 +1,192 @@
+package iudx.resource.server.database.elastic;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import io.vertx.core.Context;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.streams.WriteStream;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import iudx.resource.server.database.elastic.exception.EsQueryException;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith({MockitoExtension.class, VertxExtension.class})
+public class TestEsSearchResponseStreamer {
+  @Mock WriteStream<Buffer> writeStream;
+  private Buffer written;
+
+  @BeforeEach
+  public void setUp() {
+    written = Buffer.buffer();
+    lenient()
+        .when(writeStream.write(any()))
+        .thenAnswer(
+            invocation -> {
+              written.appendBuffer(invocation.getArgument(0));
+              return null;
+            });
+  }
+
+  private ByteArrayInputStream esResponse(String json) {
+    return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+  }
+
+  @Test
+  @DisplayName("Test stream method : copies hit sources inside envelope")
+  public void testStream(VertxTestContext vertxTestContext) throws IOException {
+    String response =
+        "{\"hits\":{\"hits\":[{\"_source\":{\"id\":\"a\",\"_source\":1,\"v\":[1,2]}},"
+            + "{\"_source\":{\"id\":\"b\",\"nested\":{\"x\":\"\\u00e9\"}}}]}}";
+    JsonObject envelope = new JsonObject().put("type", 200).put("title", "Success");
+
+    long count = new EsSearchResponseStreamer(writeStream).stream(esResponse(response), envelope);
+
+    assertEquals(2, count);
+    JsonObject result = written.toJsonObject();
+    assertEquals(200, result.getInteger("type"));
+    assertEquals("Success", result.getString("title"));
+    JsonArray results = result.getJsonArray("results");
+    assertEquals(2, results.size());
+    assertEquals(1, results.getJsonObject(0).getInteger("_source"));
+    assertEquals("\u00e9", results.getJsonObject(1).getJsonObject("nested").getString("x"));
+    vertxTestContext.completeNow();
+  }
+
+  @Test
+  @DisplayName("Test stream method : empty hits")
+  public void testStreamEmpty(VertxTestContext vertxTestContext) throws IOException {
+    long count =
+        new EsSearchResponseStreamer(writeStream).stream(esResponse("{}"), new JsonObject());
+
+    assertEquals(0, count);
+    assertTrue(written.toJsonObject().getJsonArray("results").isEmpty());
+    vertxTestContext.completeNow();
+  }
+
+  @Test
+  @DisplayName("Test stream method : large response is written in chunks")
+  public void testStreamChunks(VertxTestContext vertxTestContext) throws IOException {
+    StringBuilder response = new StringBuilder("{\"hits\":{\"hits\":[");
+    for (int i = 0; i < 5000; i++) {
+      if (i > 0) {
+        response.append(',');
+      }
+      response.append("{\"_source\":{\"id\":\"").append(i).append("\",\"value\":42.5}}");
+    }
+    response.append("]}}");
+
+    long count =
+        new EsSearchResponseStreamer(writeStream)
+            .stream(esResponse(response.toString()), new JsonObject());
+
+    assertEquals(5000, count);
+    verify(writeStream, atLeast(2)).write(any());
+    assertEquals(5000, written.toJsonObject().getJsonArray("results").size());
+    vertxTestContext.completeNow();
+  }
+
+  @Test
+  @DisplayName("Test stream method : total hits added to envelope")
+  public void testStreamTotalHits(VertxTestContext vertxTestContext) throws IOException {
+    String response =
+        "{\"hits\":{\"total\":{\"value\":1,\"relation\":\"eq\"},"
+            + "\"hits\":[{\"_source\":{\"id\":\"a\"}}]}}";
+
+    new EsSearchResponseStreamer(writeStream, 10).stream(esResponse(response), new JsonObject());
+
+    assertEquals(1L, written.toJsonObject().getLong("totalHits"));
+    vertxTestContext.completeNow();
+  }
+
+  @Test
+  @DisplayName("Test stream method : total hits beyond limit")
+  public void testStreamTotalHitsLimit(VertxTestContext vertxTestContext) {
+    String response =
+        "{\"hits\":{\"total\":{\"value\":11,\"relation\":\"gte\"},"
+            + "\"hits\":[{\"_source\":{\"id\":\"a\"}}]}}";
+
+    EsQueryException ex =
+        assertThrows(
+            EsQueryException.class,
+            () ->
+                new EsSearchResponseStreamer(writeStream, 10)
+                    .stream(esResponse(response), new JsonObject()));
+    assertEquals(413, ex.getStatusCode());
+    verify(writeStream, never()).write(any());
+    vertxTestContext.completeNow();
+  }
+
+  @Test
+  @DisplayName("Test stream method : no hits")
+  public void testStreamNoHits(VertxTestContext vertxTestContext) {
+    String response = "{\"hits\":{\"total\":{\"value\":0,\"relation\":\"eq\"}}}";
+
+    EsQueryException ex =
+        assertThrows(
+            EsQueryException.class,
+            () ->
+                new EsSearchResponseStreamer(writeStream, 10)
+                    .stream(esResponse(response), new JsonObject()));
+    assertEquals(204, ex.getStatusCode());
+    vertxTestContext.completeNow();
+  }
+
+  @Test
+  @DisplayName("Test stream method : chunks are written on the context of the stream")
+  public void testStreamOnContext(Vertx vertx, VertxTestContext vertxTestContext) {
+    StringBuilder response = new StringBuilder("{\"hits\":{\"hits\":[");
+    for (int i = 0; i < 5000; i++) {
+      if (i > 0) {
+        response.append(',');
+      }
+      response.append("{\"_source\":{\"id\":\"").append(i).append("\",\"value\":42.5}}");
+    }
+    response.append("]}}");
+    Context context = vertx.getOrCreateContext();
+    AtomicBoolean offContext = new AtomicBoolean();
+    doAnswer(
+            invocation -> {
+              offContext.compareAndSet(false, Vertx.currentContext() != context);
+              written.appendBuffer(invocation.getArgument(0));
+              return null;
+            })
+        .when(writeStream)
+        .write(any());
+
+    vertx
+        .executeBlocking(
+            () ->
+                new EsSearchResponseStreamer(writeStream, 0, context)
+                    .stream(esResponse(response.toString()), new JsonObject()),
+            false)
+        .onComplete(
+            vertxTestContext.succeeding(
+                count ->
+                    vertxTestContext.verify(
+                        () -> {
+                          assertEquals(5000, count);
+                          assertFalse(offContext.get());
+                          verify(writeStream, atLeast(2)).write(any());
+                          assertEquals(
+                              5000, written.toJsonObject().getJsonArray("results").size());
+                          vertxTestContext.completeNow();
+                        })));
+  }
+}
@@ -0,0 +1,118 @@
+package iudx.resource.server.database.elastic;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import co.elastic.clients.elasticsearch._types.GeoShapeRelation;
+import co.elastic.clients.elasticsearch._types.query_dsl.GeoShapeQuery;
+import co.elastic.clients.elasticsearch._types.query_dsl.Query;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import iudx.resource.server.database.elastic.exception.EsQueryException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class TestGeoQueryFiltersDecorator {
+
+  private GeoShapeQuery decode(JsonObject request) {
+    Map<FilterType, List<Query>> queryFilters = new HashMap<>();
+    queryFilters.put(FilterType.FILTER, new ArrayList<>());
+    Query query =
+        new GeoQueryFiltersDecorator(queryFilters, request).add().get(FilterType.FILTER).get(0);
+    assertTrue(query.isGeoShape());
+    return query.geoShape();
+  }
+
+  private JsonObject shape(GeoShapeQuery query) {
+    return new JsonObject(query.shape().shape().toJson().toString());
+  }
+
+  @Test
+  @DisplayName("Test circle query")
+  public void testCircle() {
+    GeoShapeQuery query =
+        decode(new JsonObject().put("lat", 18.52).put("lon", 73.85).put("radius", "100"));
+
+    assertEquals("location", query.field());
+    assertTrue(query._toQuery().toString().contains("\"radius\":\"100m\""));
+    assertEquals(GeoShapeRelation.Within, query.shape().relation());
+    assertEquals(
+        new JsonObject()
+            .put("type", "Circle")
+            .put("radius", "100m")
+            .put("coordinates", new JsonArray().add(73.85).add(18.52)),
+        shape(query));
+  }
+
+  @Test
+  @DisplayName("Test bbox and linestring queries")
+  public void testBboxAndLinestring() {
+    JsonObject request =
+        new JsonObject()
+            .put("geometry", "bbox")
+            .put("georel", "intersects")
+            .put("geoproperty", "location")
+            .put("coordinates", "[[73.8,18.6],[73.9,18.5]]");
+
+    GeoShapeQuery bbox = decode(request);
+    assertEquals(GeoShapeRelation.Intersects, bbox.shape().relation());
+    assertEquals(
+        new JsonObject()
+            .put("type", "envelope")
+            .put("coordinates", new JsonArray("[[73.8,18.6],[73.9,18.5]]")),
+        shape(bbox));
+
+    request.put("geometry", "linestring").put("coordinates", "[[73,18],[74,19]]");
+    assertEquals(
+        new JsonArray("[[73.0,18.0],[74.0,19.0]]"),
+        shape(decode(request)).getJsonArray("coordinates"));
+  }
+
+  @Test
+  @DisplayName("Test large polygon is simplified and small polygon is unchanged")
+  public void testPolygon() {
+    JsonObject request =
+        new JsonObject()
+            .put("geometry", "Polygon")
+            .put("georel", "within")
+            .put("geoproperty", "location")
+            .put("coordinates", "[[[73,18],[74,18],[74,19],[73,19],[73,18]]]");
+    assertEquals(
+        new JsonArray("[[[73.0,18.0],[74.0,18.0],[74.0,19.0],[73.0,19.0],[73.0,18.0]]]"),
+        shape(decode(request)).getJsonArray("coordinates"));
+
+    // square with 2000 points on its bottom edge
+    JsonArray ring = new JsonArray();
+    for (int i = 0; i < 2000; i++) {
+      ring.add(new JsonArray().add(73 + i / 2000.0).add(18.0));
+    }
+    ring.add(new JsonArray().add(74.0).add(18.0))
+        .add(new JsonArray().add(74.0).add(19.0))
+        .add(new JsonArray().add(73.0).add(19.0))
+        .add(new JsonArray().add(73.0).add(18.0));
+    request.put("coordinates", new JsonArray().add(ring).encode());
+
+    JsonArray simplified =
+        shape(decode(request)).getJsonArray("coordinates").getJsonArray(0);
+    assertEquals(
+        new JsonArray("[[73.0,18.0],[74.0,18.0],[74.0,19.0],[73.0,19.0],[73.0,18.0]]"), simplified);
+  }
+
+  @Test
+  @DisplayName("Test invalid geo relation")
+  public void testInvalidRelation() {
+    JsonObject request =
+        new JsonObject()
+            .put("geometry", "bbox")
+            .put("georel", "near")
+            .put("geoproperty", "location")
+            .put("coordinates", "[[73.8,18.6],[73.9,18.5]]");
+
+    assertThrows(EsQueryException.class, () -> decode(request));
+  }
+}
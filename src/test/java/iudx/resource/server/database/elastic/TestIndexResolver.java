@@ -0,0 +1,80 @@
+package iudx.resource.server.database.elastic;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import java.time.ZonedDateTime;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class TestIndexResolver {
+
+  private static final String INDEX = "iudx__rg";
+
+  private ZonedDateTime[] window(String start, String end) {
+    return new ZonedDateTime[] {ZonedDateTime.parse(start), ZonedDateTime.parse(end)};
+  }
+
+  @Test
+  @DisplayName("Test monthly partitions overlapping time window")
+  public void testMonthlyPartitions() {
+    IndexResolver resolver = new IndexResolver(IndexResolver.MONTHLY, 24);
+
+    assertEquals(
+        "iudx__rg-2020.01*,iudx__rg-2020.02*,iudx__rg-2020.03*",
+        resolver.resolve(INDEX, window("2020-01-15T10:00:00Z", "2020-03-01T00:00:00Z")));
+    assertEquals(
+        "iudx__rg-2020.12*",
+        resolver.resolve(INDEX, window("2021-01-01T02:00:00+05:30", "2020-12-31T23:00:00Z")));
+  }
+
+  @Test
+  @DisplayName("Test daily partitions overlapping time window")
+  public void testDailyPartitions() {
+    IndexResolver resolver = new IndexResolver(IndexResolver.DAILY, 24);
+
+    assertEquals(
+        "iudx__rg-2020.02.28*,iudx__rg-2020.02.29*,iudx__rg-2020.03.01*",
+        resolver.resolve(INDEX, window("2020-02-28T23:00:00Z", "2020-03-01T01:00:00Z")));
+  }
+
+  @Test
+  @DisplayName("Test alias is searched without partitioning, time window or beyond max partitions")
+  public void testAliasFallback() {
+    ZonedDateTime[] window = window("2020-01-01T00:00:00Z", "2020-12-31T00:00:00Z");
+
+    assertEquals(INDEX, new IndexResolver(IndexResolver.NONE, 24).resolve(INDEX, window));
+    assertEquals(INDEX, new IndexResolver(IndexResolver.MONTHLY, 24).resolve(INDEX, null));
+    assertEquals(INDEX, new IndexResolver(IndexResolver.MONTHLY, 6).resolve(INDEX, window));
+    assertEquals(INDEX, new IndexResolver(IndexResolver.DAILY, 24).resolve(INDEX, window));
+    assertThrows(IllegalArgumentException.class, () -> new IndexResolver("weekly", 24));
+  }
+
+  @Test
+  @DisplayName("Test time window of temporal and non temporal queries")
+  public void testQueryTimeWindow() {
+    QueryDecoder queryDecoder = new QueryDecoder();
+    JsonObject request =
+        new JsonObject()
+            .put("searchType", "temporalSearch_")
+            .put("timerel", "during")
+            .put("time", "2020-01-15T10:00:00Z")
+            .put("endtime", "2020-03-01T00:00:00Z")
+            .put("timeLimit", "test,2020-10-22T00:00:00Z,10")
+            .put("applicableFilters", new JsonArray().add("TEMPORAL"));
+
+    assertEquals(
+        "iudx__rg-2020.01*,iudx__rg-2020.02*,iudx__rg-2020.03*",
+        new IndexResolver(IndexResolver.MONTHLY, 24)
+            .resolve(INDEX, queryDecoder.getTimeWindow(request, false)));
+
+    request.put("searchType", "latestSearch").remove("timerel");
+    ZonedDateTime[] defaultWindow = queryDecoder.getTimeWindow(request, false);
+    assertEquals(ZonedDateTime.parse("2020-10-12T00:00:00Z"), defaultWindow[0]);
+    assertEquals(ZonedDateTime.parse("2020-10-22T00:00:00Z"), defaultWindow[1]);
+    assertNull(queryDecoder.getTimeWindow(request, true));
+  }
+}
@@ -0,0 +1,80 @@
+package iudx.resource.server.database.elastic;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.json.JsonObject;
+import iudx.resource.server.common.MutableClock;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class TestQueryResultCache {
+
+  private MutableClock clock;
+  private QueryResultCache resultCache;
+  private AtomicInteger loads;
+
+  @BeforeEach
+  public void setUp() {
+    clock = new MutableClock(Instant.ofEpochMilli(1700000000000L));
+    resultCache = new QueryResultCache(1024 * 1024, 100, 5, 300, clock);
+    loads = new AtomicInteger();
+  }
+
+  private Future<JsonObject> load(JsonObject result) {
+    loads.incrementAndGet();
+    return Future.succeededFuture(result);
+  }
+
+  @Test
+  @DisplayName("Test repeated request answered from cache with a copy")
+  public void testHit() {
+    String key = QueryResultCache.key("search", "index", "query", 10, 0);
+    JsonObject first =
+        resultCache.get(key, false, () -> load(new JsonObject().put("a", 1))).result();
+    first.put("b", 2);
+    JsonObject second = resultCache.get(key, false, () -> load(new JsonObject())).result();
+
+    assertEquals(1, loads.get());
+    assertEquals(new JsonObject().put("a", 1), second);
+    assertEquals(1, resultCache.getHits());
+    assertEquals(1, resultCache.getMisses());
+    assertNotEquals(key, QueryResultCache.key("search", "index", "query", 10, 10));
+  }
+
+  @Test
+  @DisplayName("Test closed windows cached longer than open windows")
+  public void testTtl() {
+    resultCache.get("open", false, () -> load(new JsonObject()));
+    resultCache.get("closed", true, () -> load(new JsonObject()));
+    clock.advance(6000);
+    resultCache.get("open", false, () -> load(new JsonObject()));
+    resultCache.get("closed", true, () -> load(new JsonObject()));
+
+    assertEquals(3, loads.get());
+  }
+
+  @Test
+  @DisplayName("Test large and failed results not cached, concurrent misses share a request")
+  public void testNotCached() {
+    JsonObject large = new JsonObject().put("results", "x".repeat(200));
+    resultCache.get("large", false, () -> load(large));
+    resultCache.get("large", false, () -> load(large));
+    assertEquals(2, loads.get());
+
+    resultCache.get("failed", false, () -> Future.failedFuture("db error"));
+    Promise<JsonObject> pending = Promise.promise();
+    Future<JsonObject> first = resultCache.get("failed", false, pending::future);
+    Future<JsonObject> second = resultCache.get("failed", false, () -> load(new JsonObject()));
+    assertFalse(second.isComplete());
+    pending.complete(new JsonObject().put("a", 1));
+    assertEquals(first.result(), second.result());
+    assertEquals(2, loads.get());
+  }
+}
@@ -0,0 +1,44 @@
+package iudx.resource.server.database.elastic;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import co.elastic.clients.elasticsearch._types.FieldValue;
+import io.vertx.core.json.JsonArray;
+import iudx.resource.server.database.elastic.exception.EsQueryException;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class TestSearchCursor {
+
+  @Test
+  @DisplayName("Test encode and decode of cursor")
+  public void testEncodeDecode() {
+    List<FieldValue> sort = List.of(FieldValue.of(1700000000000L), FieldValue.of("abc"));
+    String token = new SearchCursor("pit-id==", SearchCursor.toJsonArray(sort)).encode();
+
+    assertTrue(token.matches("[A-Za-z0-9_-]+"));
+    SearchCursor cursor = SearchCursor.decode(token);
+    assertEquals("pit-id==", cursor.getPitId());
+    assertEquals(1700000000000L, cursor.getSearchAfter().get(0).longValue());
+    assertEquals("abc", cursor.getSearchAfter().get(1).stringValue());
+  }
+
+  @Test
+  @DisplayName("Test start token")
+  public void testStart() {
+    assertTrue(SearchCursor.isStart("*"));
+    assertFalse(SearchCursor.isStart("abc"));
+  }
+
+  @Test
+  @DisplayName("Test decode of invalid cursor")
+  public void testDecodeInvalid() {
+    assertThrows(EsQueryException.class, () -> SearchCursor.decode("not-a-cursor"));
+    String noSortValues = new SearchCursor("pit", new JsonArray()).encode();
+    assertThrows(EsQueryException.class, () -> SearchCursor.decode(noSortValues));
+  }
+}
@@ -0,0 +1,43 @@
+package iudx.resource.server.database.elastic;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class TestShapeSimplifier {
+
+  private static List<Double> point(double lon, double lat) {
+    return List.of(lon, lat);
+  }
+
+  @Test
+  @DisplayName("Test points within tolerance dropped")
+  public void testSimplify() {
+    List<List<Double>> line =
+        List.of(point(73.0, 18.0), point(73.5, 18.000001), point(74.0, 18.0), point(74.0, 19.0));
+
+    assertEquals(
+        List.of(point(73.0, 18.0), point(74.0, 18.0), point(74.0, 19.0)),
+        ShapeSimplifier.simplify(line, 1e-5));
+  }
+
+  @Test
+  @DisplayName("Test very large zig-zag line simplified without overflowing the stack")
+  public void testSimplifyLargeZigZag() {
+    // every split leaves all but one point on the same side, as deep as the line is long
+    int size = 20_000;
+    List<List<Double>> line = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      line.add(point(73.0 + i * 1e-6, 18.0 + (i % 2 == 0 ? 1e-6 : -1e-6) * i));
+    }
+
+    List<List<Double>> simplified = ShapeSimplifier.simplify(line, 1e-9);
+
+    assertEquals(size, simplified.size());
+    assertEquals(line.get(0), simplified.get(0));
+    assertEquals(line.get(size - 1), simplified.get(size - 1));
+  }
+}
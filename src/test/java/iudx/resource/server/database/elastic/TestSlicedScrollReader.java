@@ -0,0 +1,205 @@
+package iudx.resource.server.database.elastic;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import co.elastic.clients.elasticsearch.ElasticsearchAsyncClient;
+import co.elastic.clients.elasticsearch._types.query_dsl.Query;
+import co.elastic.clients.elasticsearch.core.ClearScrollRequest;
+import co.elastic.clients.elasticsearch.core.ScrollRequest;
+import co.elastic.clients.elasticsearch.core.ScrollResponse;
+import co.elastic.clients.elasticsearch.core.SearchRequest;
+import co.elastic.clients.elasticsearch.core.SearchResponse;
+import co.elastic.clients.elasticsearch.core.search.Hit;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith({MockitoExtension.class, VertxExtension.class})
+public class TestSlicedScrollReader {
+  @Mock ElasticsearchAsyncClient asyncClient;
+  private final Query query = Query.of(q -> q.matchAll(m -> m));
+
+  private static List<Hit<ObjectNode>> hits(String prefix, int count) {
+    List<Hit<ObjectNode>> hits = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      ObjectNode source = JsonNodeFactory.instance.objectNode().put("id", prefix + i);
+      hits.add(Hit.of(h -> h.index("index").id(source.get("id").asText()).source(source)));
+    }
+    return hits;
+  }
+
+  private static SearchResponse<ObjectNode> searchResponse(
+      String scrollId, List<Hit<ObjectNode>> hits) {
+    return SearchResponse.of(
+        r ->
+            r.took(1)
+                .timedOut(false)
+                .shards(s -> s.total(1).successful(1).failed(0))
+                .scrollId(scrollId)
+                .hits(h -> h.hits(hits)));
+  }
+
+  private static ScrollResponse<ObjectNode> scrollResponse(
+      String scrollId, List<Hit<ObjectNode>> hits) {
+    return ScrollResponse.of(
+        r ->
+            r.took(1)
+                .timedOut(false)
+                .shards(s -> s.total(1).successful(1).failed(0))
+                .scrollId(scrollId)
+                .hits(h -> h.hits(hits)));
+  }
+
+  private static class RecordingFormatter implements EsResponseFormatter {
+    final List<String> ids = Collections.synchronizedList(new ArrayList<>());
+    int writeCalls;
+    boolean finished;
+
+    @Override
+    public void write(List<Hit<ObjectNode>> searchHits) {
+      writeCalls++;
+    }
+
+    @Override
+    public void finish() {
+      finished = true;
+    }
+
+    @Override
+    public void append(List<Hit<ObjectNode>> searchHits) {
+      searchHits.forEach(hit -> ids.add(hit.id()));
+    }
+  }
+
+  @Test
+  @DisplayName("Test sliceCount : scales with shards and is capped")
+  public void testSliceCount(VertxTestContext vertxTestContext) {
+    assertEquals(1, SlicedScrollReader.sliceCount(5, 100));
+    assertEquals(1, SlicedScrollReader.sliceCount(5, SlicedScrollReader.BATCH_SIZE));
+    assertEquals(3, SlicedScrollReader.sliceCount(5, 3L * SlicedScrollReader.BATCH_SIZE));
+    assertEquals(5, SlicedScrollReader.sliceCount(5, 1_000_000));
+    assertEquals(
+        SlicedScrollReader.MAX_SLICES, SlicedScrollReader.sliceCount(100, 100_000_000));
+    assertEquals(1, SlicedScrollReader.sliceCount(0, 100_000_000));
+    vertxTestContext.completeNow();
+  }
+
+  @Test
+  @DisplayName("Test read : all slices merged into formatter")
+  public void testReadSlices(VertxTestContext vertxTestContext) throws Exception {
+    when(asyncClient.search(any(SearchRequest.class), eq(ObjectNode.class)))
+        .thenAnswer(
+            invocation -> {
+              SearchRequest request = invocation.getArgument(0);
+              String slice = request.slice().id();
+              assertEquals(3, request.slice().max());
+              return CompletableFuture.completedFuture(
+                  searchResponse("scroll-" + slice, hits("s" + slice + "-", 2)));
+            });
+    when(asyncClient.scroll(any(ScrollRequest.class), eq(ObjectNode.class)))
+        .thenAnswer(
+            invocation -> {
+              ScrollRequest request = invocation.getArgument(0);
+              return CompletableFuture.completedFuture(
+                  scrollResponse(request.scrollId(), Collections.emptyList()));
+            });
+
+    RecordingFormatter formatter = new RecordingFormatter();
+    List<Long> progress = Collections.synchronizedList(new ArrayList<>());
+    long written =
+        new SlicedScrollReader(asyncClient, "index", query, 3).read(formatter, progress::add);
+
+    assertEquals(6, written);
+    assertEquals(6, formatter.ids.size());
+    assertTrue(formatter.ids.containsAll(List.of("s0-0", "s1-1", "s2-0")));
+    assertEquals(1, formatter.writeCalls);
+    assertEquals(List.of(2L, 4L, 6L), progress);
+    verify(asyncClient, times(3)).clearScroll(any(ClearScrollRequest.class));
+    vertxTestContext.completeNow();
+  }
+
+  @Test
+  @DisplayName("Test read : next batch is fetched while current batch is written")
+  public void testReadPipelined(VertxTestContext vertxTestContext) throws Exception {
+    when(asyncClient.search(any(SearchRequest.class), eq(ObjectNode.class)))
+        .thenReturn(CompletableFuture.completedFuture(searchResponse("scroll", hits("p0-", 1))));
+    AtomicInteger scrolls = new AtomicInteger();
+    when(asyncClient.scroll(any(ScrollRequest.class), eq(ObjectNode.class)))
+        .thenAnswer(
+            invocation -> {
+              int page = scrolls.incrementAndGet();
+              return CompletableFuture.completedFuture(
+                  page < 4 ? scrollResponse("scroll", hits("p" + page + "-", 1))
+                      : scrollResponse("scroll", Collections.emptyList()));
+            });
+
+    RecordingFormatter formatter =
+        new RecordingFormatter() {
+          @Override
+          public void append(List<Hit<ObjectNode>> searchHits) {
+            if (ids.isEmpty()) {
+              // while the first batch is written, reader fills the queue of depth 1 and still
+              // has the next fetch in flight
+              verify(asyncClient, timeout(5000).times(3))
+                  .scroll(any(ScrollRequest.class), eq(ObjectNode.class));
+            }
+            super.append(searchHits);
+          }
+        };
+    long written =
+        new SlicedScrollReader(asyncClient, "index", query, 1, 1).read(formatter, n -> {});
+
+    assertEquals(4, written);
+    assertEquals(List.of("p0-0", "p1-0", "p2-0", "p3-0"), formatter.ids);
+    vertxTestContext.completeNow();
+  }
+
+  @Test
+  @DisplayName("Test read : single slice is not sliced")
+  public void testReadSingleSlice(VertxTestContext vertxTestContext) throws Exception {
+    when(asyncClient.search(any(SearchRequest.class), eq(ObjectNode.class)))
+        .thenAnswer(
+            invocation -> {
+              SearchRequest request = invocation.getArgument(0);
+              assertEquals(null, request.slice());
+              return CompletableFuture.completedFuture(
+                  searchResponse("scroll", Collections.emptyList()));
+            });
+
+    RecordingFormatter formatter = new RecordingFormatter();
+    long written = new SlicedScrollReader(asyncClient, "index", query, 1).read(formatter, n -> {});
+
+    assertEquals(0, written);
+    assertEquals(1, formatter.writeCalls);
+    vertxTestContext.completeNow();
+  }
+
+  @Test
+  @DisplayName("Test read : failure of a slice fails the read")
+  public void testReadSliceFailure(VertxTestContext vertxTestContext) {
+    when(asyncClient.search(any(SearchRequest.class), eq(ObjectNode.class)))
+        .thenReturn(CompletableFuture.failedFuture(new RuntimeException("es down")));
+
+    RecordingFormatter formatter = new RecordingFormatter();
+    assertThrows(
+        Exception.class,
+        () -> new SlicedScrollReader(asyncClient, "index", query, 2).read(formatter, n -> {}));
+    vertxTestContext.completeNow();
+  }
+}
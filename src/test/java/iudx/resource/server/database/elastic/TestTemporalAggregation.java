@@ -0,0 +1,84 @@
+package iudx.resource.server.database.elastic;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import co.elastic.clients.elasticsearch._types.aggregations.Aggregation;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import iudx.resource.server.database.elastic.exception.EsQueryException;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class TestTemporalAggregation {
+
+  private JsonObject request(String methods, String period) {
+    return new JsonObject()
+        .put("attrs", new JsonArray().add("pm2p5"))
+        .put("aggrMethods", new JsonArray(List.of(methods.split(","))))
+        .put("aggrPeriodDuration", period)
+        .put("timerel", "during")
+        .put("time", "2020-01-01T00:00:00Z")
+        .put("endtime", "2020-01-31T00:00:00Z");
+  }
+
+  @Test
+  @DisplayName("Test date histogram with a metric per attribute and method")
+  public void testToAggregations() {
+    Map<String, Aggregation> aggregations =
+        TemporalAggregation.fromRequest(request("avg,max", "PT1H")).toAggregations();
+
+    Aggregation histogram = aggregations.get(TemporalAggregation.HISTOGRAM);
+    assertTrue(histogram.isDateHistogram());
+    assertEquals("3600s", histogram.dateHistogram().fixedInterval().time());
+    assertEquals("pm2p5", histogram.aggregations().get("pm2p5:avg").avg().field());
+    assertEquals("pm2p5", histogram.aggregations().get("pm2p5:max").max().field());
+  }
+
+  @Test
+  @DisplayName("Test series from aggregations of ES response")
+  public void testToSeries() {
+    JsonObject aggregations =
+        new JsonObject(
+            "{\"series\":{\"buckets\":[{\"key_as_string\":\"2020-01-01T00:00:00.000Z\","
+                + "\"key\":1577836800000,\"doc_count\":60,\"pm2p5:avg\":{\"value\":12.5},"
+                + "\"pm2p5:percentiles\":{\"values\":{\"50.0\":11.0}}},"
+                + "{\"key_as_string\":\"2020-01-01T01:00:00.000Z\",\"key\":1577840400000,"
+                + "\"doc_count\":1,\"pm2p5:avg\":{\"value\":null},"
+                + "\"pm2p5:percentiles\":{\"values\":{\"50.0\":null}}}]}}");
+    JsonArray series =
+        TemporalAggregation.fromRequest(request("avg,percentiles", "PT1H"))
+            .toSeries(aggregations);
+
+    assertEquals(2, series.size());
+    JsonObject first = series.getJsonObject(0);
+    assertEquals("2020-01-01T00:00:00.000Z", first.getString("observationDateTime"));
+    assertEquals(60, first.getLong("count"));
+    assertEquals(12.5, first.getJsonObject("pm2p5").getDouble("avg"));
+    assertEquals(11.0, first.getJsonObject("pm2p5").getJsonObject("percentiles").getDouble("50.0"));
+    assertNull(series.getJsonObject(1).getJsonObject("pm2p5").getValue("avg"));
+    assertTrue(
+        TemporalAggregation.fromRequest(request("avg", "PT1H")).toSeries(null).isEmpty());
+  }
+
+  @Test
+  @DisplayName("Test invalid aggregation params")
+  public void testInvalidParams() {
+    assertThrows(
+        EsQueryException.class, () -> TemporalAggregation.fromRequest(request("median", "PT1H")));
+    assertThrows(
+        EsQueryException.class, () -> TemporalAggregation.fromRequest(request("avg", "1h")));
+    assertThrows(
+        EsQueryException.class, () -> TemporalAggregation.fromRequest(request("avg", "PT10S")));
+    // 30 days of 1 minute buckets
+    assertThrows(
+        EsQueryException.class, () -> TemporalAggregation.fromRequest(request("avg", "PT1M")));
+    JsonObject noAttrs = request("avg", "PT1H");
+    noAttrs.remove("attrs");
+    assertThrows(EsQueryException.class, () -> TemporalAggregation.fromRequest(noAttrs));
+  }
+}
@@ -0,0 +1,102 @@
+package iudx.resource.server.database.latest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.json.JsonObject;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+@ExtendWith(VertxExtension.class)
+public class LatestDataCacheTest {
+
+  private static final String KEY = "iudx:id";
+  private static final String PATH = ".";
+  private LatestDataCache latestCache;
+  private AtomicInteger loads;
+
+  @BeforeEach
+  public void setUp() {
+    latestCache = new LatestDataCache(100, 60000);
+    loads = new AtomicInteger();
+  }
+
+  private Future<JsonObject> load() {
+    loads.incrementAndGet();
+    return Future.succeededFuture(new JsonObject().put("value", loads.get()));
+  }
+
+  @Test
+  @DisplayName("cached value returned as copy without loading again")
+  public void testGetCached(VertxTestContext testContext) {
+    JsonObject first = latestCache.get(KEY, PATH, this::load).result();
+    first.put("value", 10);
+    JsonObject second = latestCache.get(KEY, PATH, this::load).result();
+
+    assertEquals(1, loads.get());
+    assertEquals(1, second.getInteger("value"));
+    assertNotSame(first, second);
+    testContext.completeNow();
+  }
+
+  @Test
+  @DisplayName("concurrent misses share a single load")
+  public void testGetSingleFlight(VertxTestContext testContext) {
+    Promise<JsonObject> promise = Promise.promise();
+    Future<JsonObject> first =
+        latestCache.get(
+            KEY,
+            PATH,
+            () -> {
+              loads.incrementAndGet();
+              return promise.future();
+            });
+    Future<JsonObject> second = latestCache.get(KEY, PATH, this::load);
+    promise.complete(new JsonObject().put("value", 1));
+
+    assertEquals(1, loads.get());
+    assertEquals(1, first.result().getInteger("value"));
+    assertEquals(1, second.result().getInteger("value"));
+    testContext.completeNow();
+  }
+
+  @Test
+  @DisplayName("failed loads are not cached")
+  public void testGetFailed(VertxTestContext testContext) {
+    Future<JsonObject> failed =
+        latestCache.get(KEY, PATH, () -> Future.failedFuture("redis down"));
+    Future<JsonObject> loaded = latestCache.get(KEY, PATH, this::load);
+
+    assertTrue(failed.failed());
+    assertEquals(1, loaded.result().getInteger("value"));
+    testContext.completeNow();
+  }
+
+  @Test
+  @DisplayName("invalidate drops all paths of the key")
+  public void testInvalidate(VertxTestContext testContext) {
+    latestCache.get(KEY, PATH, this::load);
+    latestCache.get(KEY, "._sha", this::load);
+    latestCache.get("iudx:other", PATH, this::load);
+    latestCache.hasUniqueAttribute("id", () -> Future.succeededFuture(true));
+
+    latestCache.invalidate("id", KEY);
+    latestCache.get(KEY, PATH, this::load);
+    latestCache.get(KEY, "._sha", this::load);
+    latestCache.get("iudx:other", PATH, this::load);
+    Future<Boolean> uniqueAttribute =
+        latestCache.hasUniqueAttribute("id", () -> Future.succeededFuture(false));
+
+    assertEquals(5, loads.get());
+    assertEquals(false, uniqueAttribute.result());
+    testContext.completeNow();
+  }
+}
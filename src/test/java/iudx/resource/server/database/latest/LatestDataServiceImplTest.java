@@ -0,0 +1,98 @@
+package iudx.resource.server.database.latest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.vertx.core.Future;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import iudx.resource.server.cache.CacheService;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith({VertxExtension.class, MockitoExtension.class})
+public class LatestDataServiceImplTest {
+
+  private static final String FIRST_ID = "b58da193-23d9-43eb-b98a-a103d4b6103c";
+  private static final String SECOND_ID = "83c2e5c2-3574-4e11-9530-2b1fbdfce832";
+  @Mock RedisClient redisClient;
+  @Mock CacheService cacheService;
+  private LatestDataServiceImpl latestDataService;
+
+  @BeforeEach
+  public void setUp() {
+    LatestDataCache latestCache = new LatestDataCache(10, 60000);
+    latestDataService = new LatestDataServiceImpl(redisClient, cacheService, "iudx", latestCache);
+    when(cacheService.get(any())).thenReturn(Future.failedFuture("not found"));
+  }
+
+  @Test
+  @DisplayName("batch latest fetches all ids with one mget and caches the values")
+  @SuppressWarnings("unchecked")
+  public void testGetBatchLatestData(VertxTestContext testContext) {
+    RedisCommandArgsBuilder argsBuilder = new RedisCommandArgsBuilder();
+    String firstKey = argsBuilder.getRedisCommandArgs(FIRST_ID, false, "iudx").getKey();
+    String firstPath = argsBuilder.getRedisCommandArgs(FIRST_ID, false, "iudx").getPath();
+    JsonObject value = new JsonObject().put("id", FIRST_ID).put("level", 1);
+    when(redisClient.mget(anyList()))
+        .thenReturn(
+            Future.succeededFuture(Arrays.asList(value, null)),
+            Future.succeededFuture(Arrays.asList((JsonObject) null)));
+    JsonObject request =
+        new JsonObject().put("id", new JsonArray().add(FIRST_ID).add(SECOND_ID).add(FIRST_ID));
+
+    latestDataService.getBatchLatestData(
+        request,
+        handler -> {
+          assertTrue(handler.succeeded());
+          assertEquals(new JsonArray().add(value), handler.result().getJsonArray("results"));
+
+          ArgumentCaptor<List<RedisArgs>> argsCaptor = ArgumentCaptor.forClass(List.class);
+          verify(redisClient).mget(argsCaptor.capture());
+          assertEquals(2, argsCaptor.getValue().size());
+          assertEquals(firstKey, argsCaptor.getValue().get(0).getKey());
+          assertEquals(firstPath, argsCaptor.getValue().get(0).getPath());
+
+          // cached value of first id is not fetched again
+          latestDataService.getBatchLatestData(
+              request,
+              cachedHandler -> {
+                assertEquals(
+                    new JsonArray().add(value), cachedHandler.result().getJsonArray("results"));
+                verify(redisClient, times(2)).mget(argsCaptor.capture());
+                assertEquals(1, argsCaptor.getValue().size());
+                assertEquals(SECOND_ID, argsCaptor.getValue().get(0).getKey().split(":")[1]);
+                testContext.completeNow();
+              });
+        });
+  }
+
+  @Test
+  @DisplayName("batch latest fails when redis fails")
+  public void testGetBatchLatestDataFailed(VertxTestContext testContext) {
+    when(redisClient.mget(anyList())).thenReturn(Future.failedFuture("JSONMGET did not work"));
+    JsonObject request = new JsonObject().put("id", new JsonArray().add(FIRST_ID));
+
+    latestDataService.getBatchLatestData(
+        request,
+        handler -> {
+          assertTrue(handler.failed());
+          assertEquals(204, new JsonObject(handler.cause().getMessage()).getInteger("type"));
+          testContext.completeNow();
+        });
+  }
+}
@@ -0,0 +1,20 @@
+package iudx.resource.server.database.latest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class RedisClientTest {
+
+  @Test
+  @DisplayName("cluster hash slot of keys, with and without hash tags")
+  public void testSlot() {
+    assertEquals(12182, RedisClient.slot("foo"));
+    assertEquals(11058, RedisClient.slot("somekey"));
+    assertEquals(2515, RedisClient.slot("foo{hash_tag}"));
+    assertEquals(2515, RedisClient.slot("bar{hash_tag}"));
+    assertEquals(RedisClient.slot("{}foo"), RedisClient.slot("{}foo"));
+    assertEquals(RedisClient.slot("foo"), RedisClient.slot("{foo}:bar"));
+  }
+}
@@ -858,4 +858,81 @@ public class DBServiceImplTest {
             }
         });
     }
+
+    @Test
+    @Order(32)
+    @DisplayName("Test publishFromAdaptorBulk method : status of each record")
+    public void test_publishFromAdaptorBulk(VertxTestContext vertxTestContext) {
+        JsonArray records = new JsonArray()
+                .add(new JsonObject().put(ID, "Dummy/ID/abcd/abcd"))
+                .add(new JsonObject().put(ID, "Dummy ID"))
+                .add("Dummy record");
+        when(webClient.getRabbitmqClient()).thenReturn(rabbitMQClient);
+
+        doAnswer(new Answer<AsyncResult<Void>>() {
+            @Override
+            public AsyncResult<Void> answer(InvocationOnMock arg0) throws Throwable {
+                ((Handler<AsyncResult<Void>>) arg0.getArgument(3)).handle(Future.succeededFuture());
+                return null;
+            }
+        }).when(rabbitMQClient).basicPublish(anyString(), anyString(), any(Buffer.class), any(Handler.class));
+        databroker.publishFromAdaptorBulk(records, vHost, handler -> {
+            if (handler.succeeded()) {
+                JsonArray results = handler.result().getJsonArray("results");
+                assertEquals(3, results.size());
+                assertEquals(200, results.getJsonObject(0).getInteger("status"));
+                assertEquals(400, results.getJsonObject(1).getInteger("status"));
+                assertEquals(400, results.getJsonObject(2).getInteger("status"));
+                verify(rabbitMQClient, times(1)).basicPublish(eq("Dummy/ID/abcd"), eq("Dummy/ID/abcd/abcd"), any(Buffer.class), any(Handler.class));
+                vertxTestContext.completeNow();
+            } else {
+                vertxTestContext.failNow(handler.cause());
+            }
+        });
+    }
+
+    @Test
+    @Order(33)
+    @DisplayName("Test publishHeartbeat method : bindings of the exchange cached")
+    public void test_publishHeartbeat_with_cached_bindings(VertxTestContext vertxTestContext) {
+        JsonObject queue = new JsonObject();
+        JsonArray jsonArray = new JsonArray();
+        jsonArray.add("Dummy status");
+        queue.put("efgh", jsonArray);
+
+        when(webClient.getBindingCache()).thenReturn(new BindingCache(300));
+        when(webClient.getExchange(any(), anyString())).thenReturn(jsonObjectFuture);
+        when(asyncResult.result()).thenReturn(request, queue);
+        when(webClient.listExchangeSubscribers(any(), anyString())).thenReturn(jsonObjectFuture);
+        when(webClient.getRabbitmqClient()).thenReturn(rabbitMQClient);
+        when(asyncResult1.succeeded()).thenReturn(true);
+
+        doAnswer(new Answer<AsyncResult<Void>>() {
+            @Override
+            public AsyncResult<Void> answer(InvocationOnMock arg0) throws Throwable {
+                ((Handler<AsyncResult<Void>>) arg0.getArgument(3)).handle(asyncResult1);
+                return null;
+            }
+        }).when(rabbitMQClient).basicPublish(anyString(), anyString(), any(Buffer.class), any(Handler.class));
+        doAnswer(new Answer<AsyncResult<JsonObject>>() {
+            @Override
+            public AsyncResult<JsonObject> answer(InvocationOnMock arg0) throws Throwable {
+                ((Handler<AsyncResult<JsonObject>>) arg0.getArgument(0)).handle(asyncResult);
+                return null;
+            }
+        }).when(jsonObjectFuture).onComplete(any());
+        databroker.publishHeartbeat(request, vHost, first -> {
+            databroker.publishHeartbeat(request, vHost, handler -> {
+                if (handler.succeeded()) {
+                    assertEquals("efgh", handler.result().getString("queueName"));
+                    verify(webClient, times(1)).getExchange(any(), anyString());
+                    verify(webClient, times(1)).listExchangeSubscribers(any(), anyString());
+                    verify(rabbitMQClient, times(2)).basicPublish(anyString(), anyString(), any(Buffer.class), any(Handler.class));
+                    vertxTestContext.completeNow();
+                } else {
+                    vertxTestContext.failNow(handler.cause());
+                }
+            });
+        });
+    }
 }
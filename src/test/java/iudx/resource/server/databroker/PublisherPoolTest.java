@@ -0,0 +1,137 @@
+package iudx.resource.server.databroker;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import io.vertx.rabbitmq.RabbitMQClient;
+import io.vertx.rabbitmq.RabbitMQPublisher;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+@ExtendWith(VertxExtension.class)
+public class PublisherPoolTest {
+
+  private RabbitMQPublisher first;
+  private RabbitMQPublisher second;
+  private Promise<Long> firstConfirm;
+  private Promise<Long> secondConfirm;
+  private PublisherPool publisherPool;
+
+  @BeforeEach
+  public void setUp() {
+    first = mock(RabbitMQPublisher.class);
+    second = mock(RabbitMQPublisher.class);
+    firstConfirm = Promise.promise();
+    secondConfirm = Promise.promise();
+    when(first.publishConfirm(anyString(), anyString(), any(), any()))
+        .thenReturn(firstConfirm.future());
+    when(second.publishConfirm(anyString(), anyString(), any(), any()))
+        .thenReturn(secondConfirm.future());
+    publisherPool =
+        new PublisherPool(
+            null,
+            List.of(
+                new PublisherPool.Connection(null, first),
+                new PublisherPool.Connection(null, second)),
+            1);
+  }
+
+  private Future<Void> publish() {
+    return publisherPool.publish("exchange", "exchange/key", Buffer.buffer("{}"));
+  }
+
+  @Test
+  @DisplayName("publishes spread over the publishers")
+  public void testRoundRobin(VertxTestContext testContext) {
+    publish();
+    publish();
+
+    verify(first, times(1)).publishConfirm(anyString(), anyString(), any(), any());
+    verify(second, times(1)).publishConfirm(anyString(), anyString(), any(), any());
+    assertEquals(2, publisherPool.getInFlight());
+    testContext.completeNow();
+  }
+
+  @Test
+  @DisplayName("publish rejected while all publishers are full")
+  public void testBackpressure(VertxTestContext testContext) {
+    Future<Void> published = publish();
+    publish();
+    Future<Void> rejected = publish();
+
+    assertTrue(rejected.failed());
+    assertEquals(PublisherPool.PUBLISHER_BUSY, rejected.cause().getMessage());
+    assertEquals(1, publisherPool.getRejected());
+
+    firstConfirm.complete(1L);
+    assertTrue(published.succeeded());
+    assertEquals(1, publisherPool.getInFlight());
+    publish();
+    verify(first, times(2)).publishConfirm(anyString(), anyString(), any(), any());
+    testContext.completeNow();
+  }
+
+  private PublisherPool.Connection connection(List<Context> contexts) {
+    RabbitMQClient client = mock(RabbitMQClient.class);
+    RabbitMQPublisher publisher = mock(RabbitMQPublisher.class);
+    when(client.start()).thenReturn(Future.succeededFuture());
+    when(client.stop()).thenReturn(Future.succeededFuture());
+    when(publisher.start()).thenReturn(Future.succeededFuture());
+    when(publisher.stop()).thenReturn(Future.succeededFuture());
+    when(publisher.publishConfirm(anyString(), anyString(), any(), any()))
+        .then(
+            invocation -> {
+              contexts.add(Vertx.currentContext());
+              return Future.succeededFuture(1L);
+            });
+    return new PublisherPool.Connection(client, publisher);
+  }
+
+  @Test
+  @DisplayName("connections publish on their own contexts")
+  public void testConnectionContexts(Vertx vertx, VertxTestContext testContext) {
+    List<Context> contexts = new ArrayList<>();
+    PublisherPool pool =
+        new PublisherPool(vertx, List.of(connection(contexts), connection(contexts)), 10);
+    Context caller = vertx.getOrCreateContext();
+    caller.runOnContext(
+        v ->
+            pool.start()
+                .compose(started -> Future.all(publish(pool), publish(pool)))
+                .onComplete(
+                    testContext.succeeding(
+                        published ->
+                            testContext.verify(
+                                () -> {
+                                  assertEquals(caller, Vertx.currentContext());
+                                  assertEquals(2, contexts.size());
+                                  assertNotSame(contexts.get(0), contexts.get(1));
+                                  assertNotSame(caller, contexts.get(0));
+                                  assertNotSame(caller, contexts.get(1));
+                                  assertEquals(0, pool.getInFlight());
+                                  pool.stop().onComplete(testContext.succeedingThenComplete());
+                                }))));
+  }
+
+  private static Future<Void> publish(PublisherPool pool) {
+    return pool.publish("exchange", "exchange/key", Buffer.buffer("{}"));
+  }
+}
@@ -1,12 +1,15 @@
 package iudx.resource.server.databroker.listeners;
 
 import static iudx.resource.server.common.BroadcastEventType.CREATE;
+import static iudx.resource.server.common.Constants.LATEST_CACHE_INVALIDATE_ADDRESS;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -23,6 +26,7 @@ import io.vertx.core.Future;
 import io.vertx.core.Handler;
 import io.vertx.core.Vertx;
 import io.vertx.core.buffer.Buffer;
+import io.vertx.core.eventbus.EventBus;
 import io.vertx.core.json.JsonObject;
 import io.vertx.junit5.VertxExtension;
 import io.vertx.junit5.VertxTestContext;
@@ -59,6 +63,8 @@ public class TestUniqueAttribQlistener {
   Throwable throwable;
   @Mock
   Void event;
+  @Mock
+  EventBus eventBus;
 
   @BeforeEach
   public void setUp(VertxTestContext vertxTestContext) {
@@ -102,6 +108,7 @@ public class TestUniqueAttribQlistener {
       }
     }).when(rabbitMQConsumer).handler(any());
     when(cache.refresh(any())).thenReturn(Future.succeededFuture(new JsonObject()));
+    when(vertx.eventBus()).thenReturn(eventBus);
     doAnswer(new Answer<AsyncResult<RabbitMQConsumer>>() {
       @Override
       public AsyncResult<RabbitMQConsumer> answer(InvocationOnMock arg0) throws Throwable {
@@ -114,6 +121,8 @@ public class TestUniqueAttribQlistener {
     verify(voidFuture, times(1)).onComplete(any());
     verify(message).body();
     verify(cache,times(1)).refresh(any());
+    verify(eventBus)
+        .publish(eq(LATEST_CACHE_INVALIDATE_ADDRESS), eq(new JsonObject().put("id", "dummy_key")));
     assertEquals(buffer, message.body());
     vertxTestContext.completeNow();
   }
@@ -163,6 +172,7 @@ public class TestUniqueAttribQlistener {
     verify(voidFuture, times(1)).onComplete(any());
     verify(message).body();
     verify(cache,times(1)).refresh(any());
+    verify(vertx, never()).eventBus();
     assertEquals(buffer, message.body());
     vertxTestContext.completeNow();
   }
@@ -0,0 +1,110 @@
+package iudx.resource.server.metering.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import iudx.resource.server.databroker.DataBrokerService;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+@ExtendWith(VertxExtension.class)
+public class AuditBufferTest {
+
+  private DataBrokerService dataBrokerService;
+  private List<JsonArray> batches;
+  private boolean failPublish;
+
+  private static JsonObject message(int i) {
+    return new JsonObject().put("id", i);
+  }
+
+  @BeforeEach
+  public void setUp() {
+    dataBrokerService = mock(DataBrokerService.class);
+    batches = new ArrayList<>();
+    failPublish = false;
+    doAnswer(
+            invocation -> {
+              Handler<AsyncResult<JsonObject>> handler = invocation.getArgument(3);
+              if (failPublish) {
+                handler.handle(Future.failedFuture("queue error"));
+              } else {
+                batches.add(invocation.getArgument(0));
+                handler.handle(Future.succeededFuture(new JsonObject()));
+              }
+              return null;
+            })
+        .when(dataBrokerService)
+        .publishMessages(any(), anyString(), anyString(), any());
+  }
+
+  @Test
+  @DisplayName("messages published once a batch is full")
+  public void testBatch(Vertx vertx, VertxTestContext testContext) {
+    AuditBuffer auditBuffer = new AuditBuffer(vertx, dataBrokerService, 10, 3, 60000);
+    for (int i = 0; i < 4; i++) {
+      auditBuffer.add(message(i));
+    }
+
+    assertEquals(1, batches.size());
+    assertEquals(3, batches.get(0).size());
+    assertEquals(1, auditBuffer.size());
+    testContext.completeNow();
+  }
+
+  @Test
+  @DisplayName("oldest messages dropped when the buffer is full")
+  public void testOverflow(Vertx vertx, VertxTestContext testContext) {
+    failPublish = true;
+    AuditBuffer auditBuffer = new AuditBuffer(vertx, dataBrokerService, 3, 10, 60000);
+    for (int i = 0; i < 5; i++) {
+      auditBuffer.add(message(i));
+    }
+    failPublish = false;
+    auditBuffer.flush();
+
+    assertEquals(2, auditBuffer.getDropped());
+    assertEquals(new JsonArray().add(message(2)).add(message(3)).add(message(4)), batches.get(0));
+    testContext.completeNow();
+  }
+
+  @Test
+  @DisplayName("failed batch put back and published on drain")
+  public void testDrain(Vertx vertx, VertxTestContext testContext) {
+    AuditBuffer auditBuffer = new AuditBuffer(vertx, dataBrokerService, 10, 2, 60000);
+    failPublish = true;
+    auditBuffer.add(message(0));
+    auditBuffer.add(message(1));
+    auditBuffer.add(message(2));
+    assertEquals(3, auditBuffer.size());
+    failPublish = false;
+
+    auditBuffer
+        .drain()
+        .onComplete(
+            testContext.succeeding(
+                drained ->
+                    testContext.verify(
+                        () -> {
+                          assertEquals(2, batches.size());
+                          assertEquals(message(0), batches.get(0).getJsonObject(0));
+                          assertEquals(0, auditBuffer.size());
+                          testContext.completeNow();
+                        })));
+  }
+}
@@ -0,0 +1,100 @@
+package iudx.resource.server.metering.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import iudx.resource.server.common.MutableClock;
+import iudx.resource.server.database.postgres.PostgresService;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+@ExtendWith(VertxExtension.class)
+public class UsageCountersTest {
+
+  private static final String USER = "15c7506f-c800-48d6-adeb-0542b03947c6";
+  private PostgresService postgresService;
+  private List<String> queries;
+
+  @BeforeEach
+  public void setUp() {
+    postgresService = mock(PostgresService.class);
+    queries = new ArrayList<>();
+    JsonObject seed =
+        new JsonObject()
+            .put(
+                "result",
+                new JsonArray().add(new JsonObject().put("userid", USER).put("count", 5)));
+    doAnswer(
+            invocation -> {
+              queries.add(invocation.getArgument(0));
+              Handler<AsyncResult<JsonObject>> handler = invocation.getArgument(1);
+              handler.handle(Future.succeededFuture(seed));
+              return null;
+            })
+        .when(postgresService)
+        .executeQuery(anyString(), any());
+  }
+
+  @Test
+  @DisplayName("counts seeded from auditing table and incremented")
+  public void testIncrement(Vertx vertx, VertxTestContext testContext) {
+    UsageCounters usageCounters = new UsageCounters(vertx, postgresService, false);
+    usageCounters.start();
+    usageCounters.increment(USER);
+    usageCounters.increment("other");
+
+    assertEquals(6L, usageCounters.get(USER).result());
+    assertEquals(1L, usageCounters.get("other").result());
+    assertTrue(queries.get(0).contains("GROUP BY userid"));
+    testContext.completeNow();
+  }
+
+  @Test
+  @DisplayName("counts seeded again on a new day")
+  public void testRollOver(Vertx vertx, VertxTestContext testContext) {
+    MutableClock clock = new MutableClock(Instant.parse("2024-03-01T23:59:00Z"));
+    UsageCounters usageCounters = new UsageCounters(vertx, postgresService, false, clock);
+    usageCounters.start();
+    usageCounters.increment(USER);
+    clock.set(Instant.parse("2024-03-02T00:01:00Z"));
+
+    assertEquals(5L, usageCounters.get(USER).result());
+    verify(postgresService, times(2)).executeQuery(anyString(), any());
+    assertTrue(queries.get(1).contains("'2024-03-02T00:00Z' and '2024-03-03T00:00Z'"));
+    testContext.completeNow();
+  }
+
+  @Test
+  @DisplayName("shared counters apply increments published by any node")
+  public void testShared(Vertx vertx, VertxTestContext testContext) {
+    UsageCounters usageCounters = new UsageCounters(vertx, postgresService, true);
+    usageCounters.start();
+    usageCounters.increment(USER);
+
+    vertx.setTimer(
+        100,
+        handler -> {
+          assertEquals(6L, usageCounters.get(USER).result());
+          testContext.completeNow();
+        });
+  }
+}